@@ -0,0 +1,40 @@
+package pe.com.security.scholarship.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+  public static final String CATALOGO_CURSOS = "catalogo_cursos";
+  public static final String HORARIOS_CURSOS = "horarios_cursos";
+  public static final String CONTEO_POSTULANTES = "conteo_postulantes";
+
+  @Bean
+  public CacheManager cacheManager() {
+    CaffeineCacheManager cacheManager = new CaffeineCacheManager(CATALOGO_CURSOS, HORARIOS_CURSOS, CONTEO_POSTULANTES);
+    cacheManager.setCaffeine(Caffeine.newBuilder()
+            .expireAfter(hastaMedianoche()) // Los horarios filtran por fecha de inicio > hoy
+            .maximumSize(500)); // Páginas distintas (número, tamaño y orden) por caché
+    // Las invalidaciones se aplican tras el commit, para no recargar datos aún sin confirmar
+    return new TransactionAwareCacheManagerProxy(cacheManager);
+  }
+
+  private static Expiry<Object, Object> hastaMedianoche() {
+    return Expiry.creating((key, value) -> tiempoHastaMedianoche(LocalDateTime.now()));
+  }
+
+  static Duration tiempoHastaMedianoche(LocalDateTime ahora) {
+    return Duration.between(ahora, ahora.toLocalDate().plusDays(1).atStartOfDay());
+  }
+}
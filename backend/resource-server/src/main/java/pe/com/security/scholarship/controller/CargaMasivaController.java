@@ -0,0 +1,42 @@
+package pe.com.security.scholarship.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import pe.com.security.scholarship.dto.ProcesamientoResult;
+import pe.com.security.scholarship.dto.response.EstadoCargaResponse;
+import pe.com.security.scholarship.service.TrabajoCargaService;
+import pe.com.security.scholarship.util.ApiResponse;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/cargas")
+@RequiredArgsConstructor
+@Tag(name = "Cargas Masivas", description = "Endpoints para consultar el avance y resultado de las cargas masivas en segundo plano")
+public class CargaMasivaController {
+
+  private final TrabajoCargaService trabajoCargaService;
+
+  @GetMapping("/{idTrabajo}")
+  @PreAuthorize("hasRole('SOCIAL_OUTREACH_SECRETARY') or hasRole('TRAINING_CENTER_SECRETARY')")
+  @Operation(summary = "Estado de una carga masiva", description = "Filas procesadas, fallidas y tiempo restante estimado")
+  public ResponseEntity<ApiResponse<EstadoCargaResponse>> consultarEstado(@PathVariable UUID idTrabajo) {
+    EstadoCargaResponse response = trabajoCargaService.consultar(idTrabajo);
+    return ResponseEntity.ok(new ApiResponse<>("Consulta exitosa", "200", response));
+  }
+
+  @GetMapping("/{idTrabajo}/resultado")
+  @PreAuthorize("hasRole('SOCIAL_OUTREACH_SECRETARY') or hasRole('TRAINING_CENTER_SECRETARY')")
+  @Operation(summary = "Resultado de una carga masiva", description = "Disponible una vez que la carga ha finalizado")
+  public ResponseEntity<ApiResponse<ProcesamientoResult>> obtenerResultado(@PathVariable UUID idTrabajo) {
+    ProcesamientoResult response = trabajoCargaService.obtenerResultado(idTrabajo);
+    return ResponseEntity.ok(new ApiResponse<>("Procesamiento finalizado", "200", response));
+  }
+}
@@ -9,6 +9,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.SortDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,15 +22,20 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import pe.com.security.scholarship.domain.enums.FormatoExportacion;
 import pe.com.security.scholarship.dto.request.RegisterConvocatoriaRequest;
 import pe.com.security.scholarship.dto.request.UpdateEstadoConvocatoriaRequest;
 import pe.com.security.scholarship.dto.response.ConvocatoriaAbiertaResponse;
 import pe.com.security.scholarship.dto.response.DetalleConvocatoriaResponse;
 import pe.com.security.scholarship.dto.response.HistorialConvocatoriaResponse;
+import pe.com.security.scholarship.dto.response.PaginaCursorResponse;
 import pe.com.security.scholarship.dto.response.PostulanteConvocatoriaResponse;
 import pe.com.security.scholarship.dto.response.RegisteredConvocatoriaResponse;
 import pe.com.security.scholarship.service.ConvocatoriaService;
 import pe.com.security.scholarship.service.PostulacionService;
+import pe.com.security.scholarship.util.RespuestaCondicional;
 import pe.com.security.scholarship.util.ApiResponse;
 
 import java.util.List;
@@ -53,9 +61,9 @@ public class ConvocatoriaController {
 
   @GetMapping("/activa")
   @Operation(summary = "Consultar convocatoria activa", description = "Consultar la convocatoria aperturada")
-  public ResponseEntity<ApiResponse<ConvocatoriaAbiertaResponse>> getConvocatoriaAbierta() {
-    ConvocatoriaAbiertaResponse response = convocatoriaService.getConvocatoriaAbierta();
-    return ResponseEntity.ok(new ApiResponse<>("Consulta exitosa", "200", response));
+  public ResponseEntity<ApiResponse<ConvocatoriaAbiertaResponse>> getConvocatoriaAbierta(WebRequest webRequest) {
+    return RespuestaCondicional.responder(webRequest, convocatoriaService.getVersionConvocatoriaAbierta(),
+            () -> new ApiResponse<>("Consulta exitosa", "200", convocatoriaService.getConvocatoriaAbierta()));
   }
 
   @GetMapping("/historial")
@@ -98,4 +106,34 @@ public class ConvocatoriaController {
     Page<PostulanteConvocatoriaResponse> response = postulacionService.obtenerPostulantesConvocatoria(id, pageable);
     return ResponseEntity.ok(new ApiResponse<>("Consulta exitosa", "200", response));
   }
+
+  @GetMapping(value = "/{id}/postulantes", params = "cursor")
+  @PreAuthorize("hasRole('SOCIAL_OUTREACH_SECRETARY') or hasRole('SOCIAL_OUTREACH_MANAGER')")
+  @Operation(summary = "Consultar lista de postulantes por cursor", description = "Recorrer los postulantes de una convocatoria con cursor: enviar cursor vacío en la primera página y luego el siguienteCursor recibido")
+  public ResponseEntity<ApiResponse<PaginaCursorResponse<PostulanteConvocatoriaResponse>>> listarPostulantesPorCursor(
+          @PathVariable Integer id,
+          @RequestParam String cursor,
+          @RequestParam(defaultValue = "false") boolean incluirTotal,
+          @ParameterObject @PageableDefault(size = 20, sort = "fechaPostulacion", direction = Sort.Direction.DESC) Pageable pageable
+  ) {
+    PaginaCursorResponse<PostulanteConvocatoriaResponse> response =
+            postulacionService.obtenerPostulantesConvocatoriaPorCursor(id, pageable, cursor, incluirTotal);
+    return ResponseEntity.ok(new ApiResponse<>("Consulta exitosa", "200", response));
+  }
+
+  @GetMapping("/{id}/postulantes/exportar")
+  @PreAuthorize("hasRole('SOCIAL_OUTREACH_SECRETARY') or hasRole('SOCIAL_OUTREACH_MANAGER')")
+  @Operation(summary = "Exportar postulantes", description = "Descargar todos los postulantes de una convocatoria en CSV o NDJSON, enviados a medida que se leen")
+  public ResponseEntity<StreamingResponseBody> exportarPostulantes(
+          @PathVariable Integer id,
+          @RequestParam(defaultValue = "CSV") FormatoExportacion formato,
+          @ParameterObject @SortDefault(sort = "fechaPostulacion", direction = Sort.Direction.DESC) Sort sort
+  ) {
+    StreamingResponseBody cuerpo = postulacionService.exportarPostulantesConvocatoria(id, sort, formato);
+    return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(formato.getContentType() + ";charset=UTF-8"))
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"postulantes-convocatoria-" + id + "." + formato.getExtension() + "\"")
+            .body(cuerpo);
+  }
 }
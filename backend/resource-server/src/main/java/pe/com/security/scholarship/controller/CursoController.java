@@ -16,11 +16,13 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import pe.com.security.scholarship.dto.request.RegisterCursoRequest;
 import pe.com.security.scholarship.dto.response.OverviewCursoResponse;
 import pe.com.security.scholarship.dto.response.RegisteredCursoResponse;
 import pe.com.security.scholarship.service.CursoService;
 import pe.com.security.scholarship.util.ApiResponse;
+import pe.com.security.scholarship.util.RespuestaCondicional;
 
 import java.util.List;
 
@@ -48,20 +50,22 @@ public class CursoController {
   @Operation(summary = "Consulta del catálogo completo de cursos",
           description = "Obtener la lista completa de cursos de especialización")
   public ResponseEntity<ApiResponse<Page<OverviewCursoResponse>>> getCatalogo(
-          @ParameterObject @PageableDefault(size = 10, sort = "nombre", direction = Sort.Direction.ASC) Pageable pageable
+          @ParameterObject @PageableDefault(size = 10, sort = "nombre", direction = Sort.Direction.ASC) Pageable pageable,
+          WebRequest webRequest
   ) {
-    Page<OverviewCursoResponse> response = cursoService.getCatalogo(pageable);
-    return ResponseEntity.ok(new ApiResponse<>("Consulta exitosa", "200", response));
+    return RespuestaCondicional.responder(webRequest, cursoService.getVersionCatalogo(),
+            () -> new ApiResponse<>("Consulta exitosa", "200", cursoService.getCatalogo(pageable)));
   }
 
   @GetMapping("/horarios")
   @Operation(summary = "Catálogo público de horarios y secciones vigentes",
           description = "Consultar la oferta académica activa, incluyendo detalles de secciones, fechas de inicio y horarios programados")
   public ResponseEntity<ApiResponse<Page<OverviewCursoResponse>>> getHorarios(
-          @ParameterObject @PageableDefault(size = 10, sort = "nombre", direction = Sort.Direction.ASC) Pageable pageable
+          @ParameterObject @PageableDefault(size = 10, sort = "nombre", direction = Sort.Direction.ASC) Pageable pageable,
+          WebRequest webRequest
   ) {
-    Page<OverviewCursoResponse> response = cursoService.getHorarios(pageable);
-    return ResponseEntity.ok(new ApiResponse<>("Consulta exitosa", "200", response));
+    return RespuestaCondicional.responder(webRequest, cursoService.getVersionHorarios(),
+            () -> new ApiResponse<>("Consulta exitosa", "200", cursoService.getHorarios(pageable)));
   }
 
   @GetMapping("/beca")
@@ -12,7 +12,9 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 import pe.com.security.scholarship.dto.ProcesamientoResult;
+import pe.com.security.scholarship.dto.response.EstadoCargaResponse;
 import pe.com.security.scholarship.service.EvaluacionSocioeconomicaService;
+import pe.com.security.scholarship.service.TrabajoCargaService;
 import pe.com.security.scholarship.util.ApiResponse;
 import pe.com.security.scholarship.util.FileUtils;
 
@@ -23,16 +25,33 @@ import pe.com.security.scholarship.util.FileUtils;
 public class EvaluacionSocioeconomicaController {
 
   private final EvaluacionSocioeconomicaService evaluacionService;
+  private final TrabajoCargaService trabajoCargaService;
 
   @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
   @PreAuthorize("hasRole('SOCIAL_OUTREACH_SECRETARY')")
-  @Operation(summary = "Carga masiva de evaluaciones", description = "Cargar un archivo CSV con columnas: codigo, nivel, fecha_evaluacion")
+  @Operation(summary = "Carga masiva de evaluaciones", description = "Cargar un archivo CSV con columnas: codigo, nivel, fecha_evaluacion. Un archivo ya procesado devuelve el resultado anterior, salvo que se envíe forzar=true")
   public ResponseEntity<ApiResponse<ProcesamientoResult>> uploadEvaluaciones(
-          @RequestParam("file") MultipartFile file
+          @RequestParam("file") MultipartFile file,
+          @RequestParam(value = "forzar", defaultValue = "false") boolean forzar
   ) {
     FileUtils.validarCsv(file);
 
-    ProcesamientoResult response = evaluacionService.procesarCargaMasiva(file);
+    ProcesamientoResult response = evaluacionService.procesarCargaMasiva(file, forzar);
     return ResponseEntity.ok(new ApiResponse<>("Procesamiento finalizado", "200", response));
   }
+
+  @PostMapping(value = "/upload/trabajos", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+  @PreAuthorize("hasRole('SOCIAL_OUTREACH_SECRETARY')")
+  @Operation(summary = "Carga masiva de evaluaciones en segundo plano",
+          description = "Encola el archivo CSV y devuelve el id del trabajo para consultar su avance en /api/v1/cargas/{idTrabajo}")
+  public ResponseEntity<ApiResponse<EstadoCargaResponse>> enviarEvaluaciones(
+          @RequestParam("file") MultipartFile file,
+          @RequestParam(value = "forzar", defaultValue = "false") boolean forzar
+  ) {
+    FileUtils.validarCsv(file);
+
+    EstadoCargaResponse response = trabajoCargaService.enviar(file,
+            archivo -> evaluacionService.procesarCargaMasiva(archivo, forzar));
+    return ResponseEntity.accepted().body(new ApiResponse<>("Carga en cola", "202", response));
+  }
 }
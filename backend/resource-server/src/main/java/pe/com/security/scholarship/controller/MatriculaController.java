@@ -20,10 +20,12 @@ import pe.com.security.scholarship.dto.ProcesamientoResult;
 import pe.com.security.scholarship.dto.request.AprobarMatriculaRequest;
 import pe.com.security.scholarship.dto.request.SubmitMatriculaRequest;
 import pe.com.security.scholarship.dto.response.CursoIntencionMatriculaResponse;
+import pe.com.security.scholarship.dto.response.EstadoCargaResponse;
 import pe.com.security.scholarship.dto.response.IntencionMatriculaResponse;
 import pe.com.security.scholarship.dto.response.RegisteredMatriculaResponse;
 import pe.com.security.scholarship.dto.response.SeccionBecadosResponse;
 import pe.com.security.scholarship.service.MatriculaService;
+import pe.com.security.scholarship.service.TrabajoCargaService;
 import pe.com.security.scholarship.util.ApiResponse;
 import pe.com.security.scholarship.util.FileUtils;
 
@@ -36,6 +38,7 @@ import java.util.List;
 public class MatriculaController {
 
   private final MatriculaService matriculaService;
+  private final TrabajoCargaService trabajoCargaService;
 
   @PostMapping
   @PreAuthorize("hasRole('STUDENT')")
@@ -90,14 +93,31 @@ public class MatriculaController {
   @PatchMapping(value = "/notas/{idSeccion}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
   @PreAuthorize("hasRole('TRAINING_CENTER_SECRETARY')")
   @Operation(summary = "Carga masiva de notas en una sección",
-          description = "Permite actualizar las notas de los estudiantes mediante un archivo CSV")
+          description = "Permite actualizar las notas de los estudiantes mediante un archivo CSV. Un archivo ya procesado devuelve el resultado anterior, salvo que se envíe forzar=true")
   public ResponseEntity<ApiResponse<ProcesamientoResult>> cargarNotas(
           @RequestParam("file") MultipartFile file,
-          @PathVariable Integer idSeccion
+          @PathVariable Integer idSeccion,
+          @RequestParam(value = "forzar", defaultValue = "false") boolean forzar
   ) {
     FileUtils.validarCsv(file);
 
-    ProcesamientoResult response = matriculaService.procesarCargaNotas(file, idSeccion);
+    ProcesamientoResult response = matriculaService.procesarCargaNotas(file, idSeccion, forzar);
     return ResponseEntity.ok(new ApiResponse<>("Procesamiento finalizado", "200", response));
   }
+
+  @PatchMapping(value = "/notas/{idSeccion}/trabajos", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+  @PreAuthorize("hasRole('TRAINING_CENTER_SECRETARY')")
+  @Operation(summary = "Carga masiva de notas en segundo plano",
+          description = "Encola el archivo CSV y devuelve el id del trabajo para consultar su avance en /api/v1/cargas/{idTrabajo}")
+  public ResponseEntity<ApiResponse<EstadoCargaResponse>> enviarNotas(
+          @RequestParam("file") MultipartFile file,
+          @PathVariable Integer idSeccion,
+          @RequestParam(value = "forzar", defaultValue = "false") boolean forzar
+  ) {
+    FileUtils.validarCsv(file);
+
+    EstadoCargaResponse response = trabajoCargaService.enviar(file,
+            archivo -> matriculaService.procesarCargaNotas(archivo, idSeccion, forzar));
+    return ResponseEntity.accepted().body(new ApiResponse<>("Carga en cola", "202", response));
+  }
 }
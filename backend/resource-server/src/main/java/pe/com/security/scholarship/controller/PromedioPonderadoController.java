@@ -13,7 +13,9 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 import pe.com.security.scholarship.dto.ProcesamientoResult;
+import pe.com.security.scholarship.dto.response.EstadoCargaResponse;
 import pe.com.security.scholarship.service.PromedioPonderadoService;
+import pe.com.security.scholarship.service.TrabajoCargaService;
 import pe.com.security.scholarship.util.ApiResponse;
 import pe.com.security.scholarship.util.FileUtils;
 
@@ -24,17 +26,35 @@ import pe.com.security.scholarship.util.FileUtils;
 public class PromedioPonderadoController {
 
   private final PromedioPonderadoService promedioService;
+  private final TrabajoCargaService trabajoCargaService;
 
   @PostMapping(value = "/upload/{periodo}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
   @PreAuthorize("hasRole('TRAINING_CENTER_SECRETARY')")
-  @Operation(summary = "Carga masiva de promedios ponderados", description = "Cargar un archivo CSV con las columnas: codigo, ciclo, promedio")
+  @Operation(summary = "Carga masiva de promedios ponderados", description = "Cargar un archivo CSV con las columnas: codigo, ciclo, promedio. Un archivo ya procesado devuelve el resultado anterior, salvo que se envíe forzar=true")
   public ResponseEntity<ApiResponse<ProcesamientoResult>> uploadPromedios(
           @RequestParam("file") MultipartFile file,
-          @PathVariable String periodo
+          @PathVariable String periodo,
+          @RequestParam(value = "forzar", defaultValue = "false") boolean forzar
   ) {
     FileUtils.validarCsv(file);
 
-    ProcesamientoResult response = promedioService.procesarCargaPromedios(file, periodo);
+    ProcesamientoResult response = promedioService.procesarCargaPromedios(file, periodo, forzar);
     return ResponseEntity.ok(new ApiResponse<>("Procesamiento finalizado", "200", response));
   }
+
+  @PostMapping(value = "/upload/{periodo}/trabajos", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+  @PreAuthorize("hasRole('TRAINING_CENTER_SECRETARY')")
+  @Operation(summary = "Carga masiva de promedios ponderados en segundo plano",
+          description = "Encola el archivo CSV y devuelve el id del trabajo para consultar su avance en /api/v1/cargas/{idTrabajo}")
+  public ResponseEntity<ApiResponse<EstadoCargaResponse>> enviarPromedios(
+          @RequestParam("file") MultipartFile file,
+          @PathVariable String periodo,
+          @RequestParam(value = "forzar", defaultValue = "false") boolean forzar
+  ) {
+    FileUtils.validarCsv(file);
+
+    EstadoCargaResponse response = trabajoCargaService.enviar(file,
+            archivo -> promedioService.procesarCargaPromedios(archivo, periodo, forzar));
+    return ResponseEntity.accepted().body(new ApiResponse<>("Carga en cola", "202", response));
+  }
 }
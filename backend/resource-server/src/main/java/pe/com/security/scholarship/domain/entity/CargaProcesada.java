@@ -0,0 +1,71 @@
+package pe.com.security.scholarship.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import pe.com.security.scholarship.domain.enums.EstadoCargaProcesada;
+import pe.com.security.scholarship.domain.enums.TipoCarga;
+import pe.com.security.scholarship.dto.ProcesamientoResult;
+
+import java.time.Instant;
+
+// Archivo ya procesado en una carga masiva, identificado por su huella SHA-256 y su destino.
+// Guarda el resultado para responder de inmediato si se vuelve a subir el mismo archivo
+@Entity
+@EntityListeners(AuditingEntityListener.class)
+@Table(name = "cargas_procesadas",
+        uniqueConstraints = @UniqueConstraint(name = "uq_carga_procesada", columnNames = {"tipo", "objetivo", "hash_archivo"}))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CargaProcesada {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Integer id;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 15)
+  private TipoCarga tipo;
+
+  @Column(nullable = false, length = 30)
+  private String objetivo;
+
+  @Column(nullable = false, length = 64)
+  private String hashArchivo;
+
+  @JdbcTypeCode(SqlTypes.JSON)
+  @Column(nullable = false)
+  private ProcesamientoResult resultado;
+
+  // EN_PROCESO mientras la carga reservó el archivo; el resultado solo es válido si está COMPLETADO
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 15)
+  private EstadoCargaProcesada estado;
+
+  @CreatedDate
+  @Column(nullable = false, updatable = false)
+  private Instant createdAt;
+
+  @UpdateTimestamp
+  private Instant updatedAt;
+}
@@ -0,0 +1,66 @@
+package pe.com.security.scholarship.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.MapsId;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.util.Map;
+
+// Snapshot de conteos y rankings del detalle de convocatoria (una fila por convocatoria)
+@Entity
+@Table(name = "estadisticas_convocatoria")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class EstadisticaConvocatoria {
+
+  @Id
+  @Column(name = "id_convocatoria")
+  private Integer idConvocatoria;
+
+  @MapsId
+  @OneToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "id_convocatoria")
+  private Convocatoria convocatoria;
+
+  @Column(nullable = false)
+  private Integer cantidadPostulantes;
+
+  @Column(nullable = false)
+  private Integer cantidadAceptados;
+
+  @Column(nullable = false)
+  private Integer cantidadMatriculados;
+
+  // Rankings como {etiqueta: cantidad}
+  @JdbcTypeCode(SqlTypes.JSON)
+  @Column(nullable = false)
+  private Map<String, Long> rankingSocioeconomico;
+
+  @JdbcTypeCode(SqlTypes.JSON)
+  @Column(nullable = false)
+  private Map<String, Long> rankingCiclo;
+
+  @JdbcTypeCode(SqlTypes.JSON)
+  @Column(nullable = false)
+  private Map<String, Long> rankingCarrera;
+
+  @UpdateTimestamp
+  private Instant updatedAt;
+}
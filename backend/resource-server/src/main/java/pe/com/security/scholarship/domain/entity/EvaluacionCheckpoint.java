@@ -0,0 +1,45 @@
+package pe.com.security.scholarship.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
+
+// Avance de la evaluación por lotes de una convocatoria. Permite que un reintento del cron
+// continúe desde el último lote confirmado en lugar de recalcular toda la convocatoria.
+@Entity
+@Table(name = "evaluaciones_checkpoint")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class EvaluacionCheckpoint {
+
+  @Id
+  @Column(name = "id_convocatoria")
+  private Integer idConvocatoria;
+
+  @Column(nullable = false)
+  private Integer ultimoIdPostulacion;
+
+  @Column(nullable = false)
+  private Integer filasProcesadas;
+
+  @Column(nullable = false)
+  private Integer calificados;
+
+  @Column(nullable = false)
+  private Boolean completado;
+
+  @UpdateTimestamp
+  private Instant updatedAt;
+}
@@ -11,6 +11,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -23,7 +24,8 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.Instant;
 
 @Entity
-@Table(name = "promedios_ponderados")
+@Table(name = "promedios_ponderados",
+        uniqueConstraints = @UniqueConstraint(name = "uq_promedio_estudiante_periodo", columnNames = {"id_estudiante", "id_periodo"}))
 @Getter
 @Setter
 @AllArgsConstructor
@@ -37,7 +39,7 @@ public class PromedioPonderado {
   @SequenceGenerator(
           name = "prom_pond_seq",
           sequenceName = "promedios_ponderados_id_seq",
-          allocationSize = 50
+          allocationSize = 1 // Las cargas insertan por upsert nativo (v003), no en batch de Hibernate
   )
   private Integer id;
 
@@ -48,6 +48,10 @@ public class Seccion {
 
   private Integer vacantesDisponibles;
 
+  // Matrículas aceptadas; solo lo modifican los UPDATE atómicos de SeccionRepository.ocuparCupos
+  @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "INT DEFAULT 0")
+  private Integer cuposOcupados;
+
   @CreatedDate
   @Column(nullable = false, updatable = false)
   private Instant createdAt;
@@ -0,0 +1,5 @@
+package pe.com.security.scholarship.domain.enums;
+
+public enum EstadoCarga {
+  EN_COLA, PROCESANDO, COMPLETADO, FALLIDO;
+}
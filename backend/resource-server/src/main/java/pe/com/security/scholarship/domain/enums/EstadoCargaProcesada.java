@@ -0,0 +1,5 @@
+package pe.com.security.scholarship.domain.enums;
+
+public enum EstadoCargaProcesada {
+  EN_PROCESO, COMPLETADO;
+}
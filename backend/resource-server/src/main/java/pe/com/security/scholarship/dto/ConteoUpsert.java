@@ -0,0 +1,13 @@
+package pe.com.security.scholarship.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ConteoUpsert {
+  private int insertados;
+  private int actualizados;
+  // Filas enviadas que el upsert no devolvió: idénticas a las guardadas
+  private int sinCambios;
+}
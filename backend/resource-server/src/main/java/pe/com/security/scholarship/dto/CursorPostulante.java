@@ -0,0 +1,16 @@
+package pe.com.security.scholarship.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+// Posición de la última fila entregada: valores de las claves de ordenamiento y el id de desempate
+@Data
+@Builder
+public class CursorPostulante {
+  private LocalDate fechaPostulacion;
+  private Double promedioGeneral;
+  private Boolean becado;
+  private Integer idPostulacion;
+}
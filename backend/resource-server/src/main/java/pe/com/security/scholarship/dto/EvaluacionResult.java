@@ -0,0 +1,26 @@
+package pe.com.security.scholarship.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import pe.com.security.scholarship.domain.enums.ModoEvaluacion;
+
+@Data
+@Builder
+public class EvaluacionResult {
+  private Integer idConvocatoria;
+  private ModoEvaluacion modoEvaluacion;
+  private int totalPostulantes;
+  private int calificados; // Postulaciones con promedio general calculado
+  private int omitidos; // Postulaciones sin datos suficientes para el modo de evaluación
+  private int rankeados;
+
+  // Procesamiento por lotes
+  private int tamanioLote;
+  private int lotes; // Lotes confirmados en esta ejecución
+  private int reanudadoDesde; // Último id de postulación del checkpoint previo (0 si inicia de cero)
+  private double filasPorSegundo;
+
+  // Tiempos por fase (ms)
+  private long tiempoCalculoMs;
+  private long tiempoRankingMs;
+}
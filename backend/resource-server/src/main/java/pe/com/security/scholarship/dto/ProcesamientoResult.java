@@ -1,20 +1,37 @@
 package pe.com.security.scholarship.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
 public class ProcesamientoResult {
   private int total;
   private int exitos;
   private int fallidos;
   private List<ErrorDetalle> errores;
 
+  // Solo en cargas con upsert (promedios): desglose de las filas exitosas
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private Integer insertados;
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private Integer actualizados;
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private Integer sinCambios;
+
+  // true cuando el archivo ya se había procesado y se devuelve el resultado de esa carga
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private Boolean duplicado;
+
   @Data
+  @NoArgsConstructor
   @AllArgsConstructor
   public static class ErrorDetalle {
     private String identifier;
@@ -0,0 +1,14 @@
+package pe.com.security.scholarship.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+// Datos del estudiante o empleado autenticado que se guardan en caché: leerlos no consulta la base
+@Data
+@AllArgsConstructor
+public class UsuarioActual {
+  private UUID id;
+  private String codigo;
+}
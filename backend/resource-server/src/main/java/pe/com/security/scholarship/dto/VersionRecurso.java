@@ -0,0 +1,11 @@
+package pe.com.security.scholarship.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class VersionRecurso {
+  private String etag;
+  private long ultimaModificacion; // Epoch en ms para Last-Modified
+}
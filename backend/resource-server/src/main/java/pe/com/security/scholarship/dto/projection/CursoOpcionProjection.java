@@ -0,0 +1,6 @@
+package pe.com.security.scholarship.dto.projection;
+
+public interface CursoOpcionProjection {
+  Integer getIdPostulacion();
+  String getNombre();
+}
@@ -0,0 +1,9 @@
+package pe.com.security.scholarship.dto.projection;
+
+public interface EstadoBecaProjection {
+  Integer getCantidadBecas();
+  Integer getIdUltimaPostulacion();
+  Boolean getMatriculado();
+  Integer getMesesTranscurridos();
+  Double getNotaUltimaMatricula();
+}
@@ -0,0 +1,12 @@
+package pe.com.security.scholarship.dto.projection;
+
+import pe.com.security.scholarship.domain.enums.Mes;
+
+import java.time.LocalDate;
+
+public interface HistorialPostulacionProjection {
+  Integer getId();
+  Boolean getAceptado();
+  LocalDate getFechaPostulacion();
+  Mes getMesConvocatoria();
+}
@@ -0,0 +1,6 @@
+package pe.com.security.scholarship.dto.projection;
+
+public interface LoteEvaluacionProjection {
+  Integer getHastaId();
+  Long getCantidad();
+}
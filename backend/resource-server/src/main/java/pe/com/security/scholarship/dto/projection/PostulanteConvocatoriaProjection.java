@@ -4,6 +4,7 @@ import java.time.LocalDate;
 import java.util.UUID;
 
 public interface PostulanteConvocatoriaProjection {
+  Integer getIdPostulacion();
   UUID getIdEstudiante();
   String getCodigo();
   String getNombreCompleto();
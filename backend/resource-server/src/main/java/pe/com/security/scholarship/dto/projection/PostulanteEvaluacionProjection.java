@@ -1,7 +0,0 @@
-package pe.com.security.scholarship.dto.projection;
-
-public interface PostulanteEvaluacionProjection {
-  Integer getIdPostulacion();
-  Integer getValorEvalSocio();
-  Double getPromedioPonderado();
-}
@@ -0,0 +1,18 @@
+package pe.com.security.scholarship.dto.projection;
+
+import pe.com.security.scholarship.domain.enums.Mes;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+public interface ResultadoPostulacionProjection {
+  Integer getIdPostulacion();
+  Mes getMesConvocatoria();
+  Boolean getAceptado();
+  LocalDate getFechaPostulacion();
+  Double getPromedioGeneral();
+  Integer getIdMatricula();
+  Instant getFechaMatricula();
+  String getCursoMatriculado();
+  Double getNotaMatricula();
+}
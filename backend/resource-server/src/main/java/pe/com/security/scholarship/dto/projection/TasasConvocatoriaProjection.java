@@ -4,4 +4,6 @@ public interface TasasConvocatoriaProjection {
   Double getTasaAceptacion();
   Double getTasaVacantesCubiertas();
   Double getTasaMatriculados();
+  Long getCantidadAceptados();
+  Long getCantidadMatriculados();
 }
@@ -0,0 +1,8 @@
+package pe.com.security.scholarship.dto.projection;
+
+import java.util.UUID;
+
+public interface UsuarioActualProjection {
+  UUID getId();
+  String getCodigo();
+}
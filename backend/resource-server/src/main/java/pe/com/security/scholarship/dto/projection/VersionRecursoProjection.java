@@ -0,0 +1,6 @@
+package pe.com.security.scholarship.dto.projection;
+
+public interface VersionRecursoProjection {
+  Long getCantidad(); // Filas del recurso: detecta altas y bajas
+  Long getUltimaModificacion(); // Epoch en ms del último created_at/updated_at
+}
@@ -0,0 +1,22 @@
+package pe.com.security.scholarship.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+import pe.com.security.scholarship.domain.enums.EstadoCarga;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Builder
+public class EstadoCargaResponse {
+  private UUID idTrabajo;
+  private EstadoCarga estado;
+  private int filasEstimadas; // Líneas del archivo sin cabecera
+  private int filasProcesadas;
+  private int fallidos;
+  private Long segundosRestantes; // null mientras no haya avance para estimar
+  private Instant fechaEnvio;
+  private Instant fechaFin;
+  private String mensaje;
+}
@@ -11,4 +11,5 @@ public class OverviewSeccionResponse {
   private Integer id;
   private String horario;
   private LocalDate fechaInicio;
+  private Integer vacantesRestantes;
 }
@@ -0,0 +1,20 @@
+package pe.com.security.scholarship.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+// Mismos nombres que Page (content, size, totalElements) para que el cliente lea ambos modos igual
+@Data
+@Builder
+public class PaginaCursorResponse<T> {
+  private List<T> content;
+  private int size;
+  // Se envía como parámetro cursor para pedir la página siguiente; null en la última página
+  private String siguienteCursor;
+  // Solo cuando se solicita el total (incluirTotal=true)
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private Long totalElements;
+}
@@ -0,0 +1,12 @@
+package pe.com.security.scholarship.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+import pe.com.security.scholarship.dto.projection.RankingProjection;
+
+@Data
+@Builder
+public class RankingResponse implements RankingProjection {
+  private String etiqueta;
+  private Long cantidad;
+}
@@ -0,0 +1,13 @@
+package pe.com.security.scholarship.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ServiceUnavailableException extends BusinessException {
+  public ServiceUnavailableException(String message) {
+    super(message);
+  }
+
+  public HttpStatus getHttpStatus() {
+    return HttpStatus.SERVICE_UNAVAILABLE;
+  }
+}
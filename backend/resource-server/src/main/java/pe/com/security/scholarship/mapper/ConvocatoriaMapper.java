@@ -7,15 +7,22 @@ import pe.com.security.scholarship.dto.response.AuditEmpleadoResponse;
 import pe.com.security.scholarship.dto.response.ConvocatoriaAbiertaResponse;
 import pe.com.security.scholarship.dto.response.DetalleConvocatoriaResponse;
 import pe.com.security.scholarship.dto.response.HistorialConvocatoriaResponse;
+import pe.com.security.scholarship.dto.response.RankingResponse;
 import pe.com.security.scholarship.dto.response.RegisteredConvocatoriaResponse;
 import pe.com.security.scholarship.domain.entity.Convocatoria;
 import pe.com.security.scholarship.domain.entity.Empleado;
+import pe.com.security.scholarship.domain.entity.EstadisticaConvocatoria;
 import pe.com.security.scholarship.domain.enums.EstadoConvocatoria;
 
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class ConvocatoriaMapper {
 
+  private static final int TOP_RANKING = 3;
+
   public static Convocatoria buildConvocatoria(RegisterConvocatoriaRequest request, Empleado empleado) {
     return Convocatoria.builder()
             .mes(request.getMes())
@@ -65,21 +72,68 @@ public class ConvocatoriaMapper {
             .build();
   }
 
-  public static DetalleConvocatoriaResponse mapDetalleConvocatoria(Convocatoria convocatoria, AuditEmpleadoResponse auditEmpleado, int cantPostulantes,
-                                                                   TasasConvocatoriaProjection tasas, List<RankingProjection> rankingSocioeconomico,
-                                                                   List<RankingProjection> rankingCiclo, List<RankingProjection> rankingCarrera) {
+  public static DetalleConvocatoriaResponse mapDetalleConvocatoria(EstadisticaConvocatoria estadistica,
+                                                                   AuditEmpleadoResponse auditEmpleado) {
+    Convocatoria convocatoria = estadistica.getConvocatoria();
+    int aceptados = estadistica.getCantidadAceptados();
+
     return DetalleConvocatoriaResponse.builder()
             .datosGeneralesConvocatoria(mapHistorialConvocatoria(convocatoria))
             .modoEvaluacion(convocatoria.getModoEvaluacion())
             .createdBy(auditEmpleado)
             .cantidadVacantes(convocatoria.getCantidadVacantes())
+            .cantidadPostulantes(estadistica.getCantidadPostulantes())
+            .tasaAceptacion(formatearTasa(aceptados, estadistica.getCantidadPostulantes()))
+            .tasaMatriculados(formatearTasa(estadistica.getCantidadMatriculados(), aceptados))
+            .tasaVacantesCubiertas(formatearTasa(aceptados, convocatoria.getCantidadVacantes()))
+            .rankingSocioeconomico(mapRanking(estadistica.getRankingSocioeconomico(), Integer.MAX_VALUE))
+            .rankingCiclos(mapRanking(estadistica.getRankingCiclo(), TOP_RANKING))
+            .rankingCarreras(mapRanking(estadistica.getRankingCarrera(), TOP_RANKING))
+            .build();
+  }
+
+  public static EstadisticaConvocatoria buildEstadisticaConvocatoria(Convocatoria convocatoria, int cantPostulantes,
+                                                                     TasasConvocatoriaProjection tasas,
+                                                                     List<RankingProjection> rankingSocioeconomico,
+                                                                     List<RankingProjection> rankingCiclo,
+                                                                     List<RankingProjection> rankingCarrera) {
+    return EstadisticaConvocatoria.builder()
+            .idConvocatoria(convocatoria.getId())
+            .convocatoria(convocatoria)
             .cantidadPostulantes(cantPostulantes)
-            .tasaAceptacion(String.format("%.0f%%", tasas.getTasaAceptacion() * 100))
-            .tasaMatriculados(String.format("%.0f%%", tasas.getTasaMatriculados() * 100))
-            .tasaVacantesCubiertas(String.format("%.0f%%", tasas.getTasaVacantesCubiertas() * 100))
-            .rankingSocioeconomico(rankingSocioeconomico)
-            .rankingCiclos(rankingCiclo)
-            .rankingCarreras(rankingCarrera)
+            .cantidadAceptados(tasas.getCantidadAceptados() != null ? tasas.getCantidadAceptados().intValue() : 0)
+            .cantidadMatriculados(tasas.getCantidadMatriculados() != null ? tasas.getCantidadMatriculados().intValue() : 0)
+            .rankingSocioeconomico(buildRanking(rankingSocioeconomico))
+            .rankingCiclo(buildRanking(rankingCiclo))
+            .rankingCarrera(buildRanking(rankingCarrera))
             .build();
   }
+
+  // Ranking completo como {etiqueta: cantidad}; se omiten las etiquetas sin postulantes
+  private static Map<String, Long> buildRanking(List<RankingProjection> ranking) {
+    Map<String, Long> mapa = new HashMap<>();
+    for (RankingProjection item : ranking) {
+      if (item.getCantidad() != null && item.getCantidad() > 0) mapa.put(item.getEtiqueta(), item.getCantidad());
+    }
+    return mapa;
+  }
+
+  // Ordena por cantidad descendente (etiqueta ante empates) y conserva solo los primeros
+  private static List<RankingProjection> mapRanking(Map<String, Long> ranking, int limite) {
+    if (ranking == null) return List.of();
+    return ranking.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey()))
+            .limit(limite)
+            .<RankingProjection>map(entry -> RankingResponse.builder()
+                    .etiqueta(entry.getKey())
+                    .cantidad(entry.getValue())
+                    .build())
+            .toList();
+  }
+
+  private static String formatearTasa(long numerador, Integer denominador) {
+    double tasa = (denominador == null || denominador == 0) ? 0 : (double) numerador / denominador;
+    return String.format("%.0f%%", tasa * 100);
+  }
 }
@@ -3,10 +3,11 @@ package pe.com.security.scholarship.mapper;
 import pe.com.security.scholarship.domain.entity.Convocatoria;
 import pe.com.security.scholarship.domain.entity.Curso;
 import pe.com.security.scholarship.domain.entity.Estudiante;
-import pe.com.security.scholarship.domain.entity.Matricula;
 import pe.com.security.scholarship.domain.entity.Postulacion;
+import pe.com.security.scholarship.dto.projection.HistorialPostulacionProjection;
 import pe.com.security.scholarship.dto.projection.IdentificacionEstudianteProjection;
 import pe.com.security.scholarship.dto.projection.PostulanteConvocatoriaProjection;
+import pe.com.security.scholarship.dto.projection.ResultadoPostulacionProjection;
 import pe.com.security.scholarship.dto.response.ConsultaPostulacionResponse;
 import pe.com.security.scholarship.dto.response.CursoPostulacionResponse;
 import pe.com.security.scholarship.dto.response.DetallePostulanteResponse;
@@ -55,12 +56,12 @@ public class PostulacionMapper {
             .build();
   }
 
-  public static HistorialPostulacionResponse mapHistorialPostulacion(Postulacion postulacion) {
+  public static HistorialPostulacionResponse mapHistorialPostulacion(HistorialPostulacionProjection projection) {
     return HistorialPostulacionResponse.builder()
-            .id(postulacion.getId())
-            .estado(getEstadoPostulacion(postulacion))
-            .fechaPostulacion(postulacion.getFechaPostulacion())
-            .mesConvocatoria(postulacion.getConvocatoria().getMes().name())
+            .id(projection.getId())
+            .estado(getEstadoPostulacion(projection.getAceptado()))
+            .fechaPostulacion(projection.getFechaPostulacion())
+            .mesConvocatoria(projection.getMesConvocatoria().name())
             .build();
   }
 
@@ -75,21 +76,22 @@ public class PostulacionMapper {
             .build();
   }
 
-  public static InformacionPostulacionResponse mapInfoPostulacion(Postulacion postulacion) {
+  public static InformacionPostulacionResponse mapInfoPostulacion(ResultadoPostulacionProjection projection,
+                                                                  List<String> cursosOpciones) {
     return InformacionPostulacionResponse.builder()
-            .mesConvocatoria(postulacion.getConvocatoria().getMes().name())
-            .estadoPostulacion(getEstadoPostulacion(postulacion))
-            .fechaPostulacion(postulacion.getFechaPostulacion())
-            .promedioGeneral(postulacion.getPromedioGeneral())
-            .cursosOpciones(postulacion.getCursos().stream().map(Curso::getNombre).toList())
+            .mesConvocatoria(projection.getMesConvocatoria().name())
+            .estadoPostulacion(getEstadoPostulacion(projection.getAceptado()))
+            .fechaPostulacion(projection.getFechaPostulacion())
+            .promedioGeneral(projection.getPromedioGeneral())
+            .cursosOpciones(cursosOpciones)
             .build();
   }
 
-  public static InformacionMatriculaResponse mapInfoMatricula(Matricula matricula) {
+  public static InformacionMatriculaResponse mapInfoMatricula(ResultadoPostulacionProjection projection) {
     return InformacionMatriculaResponse.builder()
-            .fechaMatricula(LocalDate.ofInstant(matricula.getFechaMatricula(), ZoneId.systemDefault()))
-            .cursoMatriculado(matricula.getSeccion().getCurso().getNombre())
-            .notaMatricula(matricula.getNota())
+            .fechaMatricula(LocalDate.ofInstant(projection.getFechaMatricula(), ZoneId.systemDefault()))
+            .cursoMatriculado(projection.getCursoMatriculado())
+            .notaMatricula(projection.getNotaMatricula())
             .build();
   }
 
@@ -105,9 +107,13 @@ public class PostulacionMapper {
   }
 
   public static String getEstadoPostulacion(Postulacion postulacion) {
-    if (postulacion.getAceptado() == null) {
+    return getEstadoPostulacion(postulacion.getAceptado());
+  }
+
+  public static String getEstadoPostulacion(Boolean aceptado) {
+    if (aceptado == null) {
       return "Pendiente";
-    } else if (postulacion.getAceptado()) {
+    } else if (aceptado) {
       return "Aceptado";
     } else {
       return "Rechazado";
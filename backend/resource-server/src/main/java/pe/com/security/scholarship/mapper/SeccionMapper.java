@@ -53,6 +53,13 @@ public class SeccionMapper {
             .id(seccion.getId())
             .horario(horarios)
             .fechaInicio(seccion.getFechaInicio())
+            .vacantesRestantes(vacantesRestantes(seccion))
             .build();
   }
+
+  // Sin vacantes definidas no hay tope que mostrar
+  public static Integer vacantesRestantes(Seccion seccion) {
+    if (seccion.getVacantesDisponibles() == null) return null;
+    return seccion.getVacantesDisponibles() - seccion.getCuposOcupados();
+  }
 }
@@ -0,0 +1,33 @@
+package pe.com.security.scholarship.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import pe.com.security.scholarship.domain.entity.CargaProcesada;
+import pe.com.security.scholarship.domain.enums.TipoCarga;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface CargaProcesadaRepository extends JpaRepository<CargaProcesada, Integer> {
+
+  Optional<CargaProcesada> findByTipoAndObjetivoAndHashArchivo(TipoCarga tipo, String objetivo, String hashArchivo);
+
+  // Reserva el archivo EN_PROCESO (resultado vacío hasta terminar). Sobre un registro existente solo reserva
+  // si se fuerza el reproceso de una carga completada o si la reserva previa venció (proceso caído sin
+  // liberarla). Devuelve 0 si no se reservó; con dos subidas simultáneas la segunda espera el commit de la primera
+  @Modifying
+  @Query(value = """
+          INSERT INTO cargas_procesadas AS cp (tipo, objetivo, hash_archivo, resultado, estado)
+          VALUES (:tipo, :objetivo, :hashArchivo, CAST('{}' AS jsonb), 'EN_PROCESO')
+          ON CONFLICT (tipo, objetivo, hash_archivo) DO UPDATE
+          SET estado = 'EN_PROCESO'
+          WHERE (cp.estado = 'COMPLETADO' AND :forzar)
+             OR (cp.estado = 'EN_PROCESO' AND COALESCE(cp.updated_at, cp.created_at) < :vencimiento)
+    """, nativeQuery = true)
+  int reservar(@Param("tipo") String tipo, @Param("objetivo") String objetivo, @Param("hashArchivo") String hashArchivo,
+               @Param("forzar") boolean forzar, @Param("vencimiento") Instant vencimiento);
+}
@@ -9,6 +9,7 @@ import org.springframework.transaction.annotation.Transactional;
 import pe.com.security.scholarship.domain.enums.EstadoConvocatoria;
 import pe.com.security.scholarship.dto.projection.RankingProjection;
 import pe.com.security.scholarship.dto.projection.TasasConvocatoriaProjection;
+import pe.com.security.scholarship.dto.projection.VersionRecursoProjection;
 import pe.com.security.scholarship.domain.entity.Convocatoria;
 
 import java.time.LocalDate;
@@ -40,7 +41,9 @@ public interface ConvocatoriaRepository extends JpaRepository<Convocatoria, Inte
               CASE
                   WHEN COUNT(CASE WHEN p.aceptado = true THEN 1 END) = 0 THEN 0
                   ELSE COUNT(m.id) / CAST(COUNT(CASE WHEN p.aceptado = true THEN 1 END) AS NUMERIC)
-              END as tasaMatriculados
+              END as tasaMatriculados,
+              COUNT(CASE WHEN p.aceptado = true THEN 1 END) as cantidadAceptados,
+              COUNT(m.id) as cantidadMatriculados
           FROM convocatorias c
           LEFT JOIN postulaciones p ON c.id = p.id_convocatoria
           LEFT JOIN matriculas m ON m.id_postulacion = p.id AND m.estado = 'ACEPTADO'
@@ -51,20 +54,14 @@ public interface ConvocatoriaRepository extends JpaRepository<Convocatoria, Inte
 
   @Query(value = """
           SELECT
-              COALESCE(evsoc_unica.nivel_socioeconomico, 'NINGUNO') AS etiqueta,
+              COALESCE(ev.nivel_socioeconomico, 'NINGUNO') AS etiqueta,
               COUNT(p.id) AS cantidad
           FROM convocatorias c
           LEFT JOIN postulaciones p
               ON c.id = p.id_convocatoria
-          LEFT JOIN (
-              SELECT DISTINCT ON (id_estudiante)
-                  id_estudiante,
-                  nivel_socioeconomico,
-                  fecha_expiracion
-              FROM evaluaciones_socioeconomicas
-              WHERE fecha_expiracion > CURRENT_DATE
-              ORDER BY id_estudiante, fecha_expiracion DESC
-          ) evsoc_unica ON evsoc_unica.id_estudiante = p.id_estudiante
+          LEFT JOIN evaluaciones_socioeconomicas_vigentes ev
+              ON ev.id_estudiante = p.id_estudiante
+             AND ev.fecha_expiracion > CURRENT_DATE
           WHERE c.id = :id
           GROUP BY etiqueta
           ORDER BY cantidad DESC
@@ -85,19 +82,12 @@ public interface ConvocatoriaRepository extends JpaRepository<Convocatoria, Inte
               COUNT(p.id) AS cantidad
           FROM convocatorias c
           LEFT JOIN postulaciones p ON c.id = p.id_convocatoria
-          LEFT JOIN (
-              SELECT DISTINCT ON (id_estudiante)
-                  id_estudiante,
-                  id_periodo,
-                  ciclo_relativo
-              FROM promedios_ponderados
-              WHERE id_periodo = (SELECT id FROM periodo_objetivo)
-              ORDER BY id_estudiante, created_at DESC
-          ) pp_unico ON pp_unico.id_estudiante = p.id_estudiante
+          LEFT JOIN promedios_ponderados_vigentes pp_unico
+              ON pp_unico.id_estudiante = p.id_estudiante
+             AND pp_unico.id_periodo = (SELECT id FROM periodo_objetivo)
           WHERE c.id = :id
           GROUP BY etiqueta
           ORDER BY cantidad DESC
-          LIMIT 3
     """, nativeQuery = true)
   List<RankingProjection> getRankingCiclo(@Param("id") Integer id);
 
@@ -107,7 +97,7 @@ public interface ConvocatoriaRepository extends JpaRepository<Convocatoria, Inte
           "LEFT JOIN estudiantes e ON e.id = p.id_estudiante " +
           "LEFT JOIN carreras cr ON cr.id = e.id_carrera " +
           "WHERE c.id = :id " +
-          "GROUP BY etiqueta ORDER BY cantidad DESC LIMIT 3", nativeQuery = true)
+          "GROUP BY etiqueta ORDER BY cantidad DESC", nativeQuery = true)
   List<RankingProjection> getRankingCarrera(@Param("id") Integer id);
 
   @Modifying
@@ -133,4 +123,12 @@ public interface ConvocatoriaRepository extends JpaRepository<Convocatoria, Inte
   @Modifying
   @Query("UPDATE Convocatoria c SET c.estado = :estado WHERE c.id = :idConvocatoria")
   int updateEstadoConvocatoria(@Param("idConvocatoria") Integer idConvocatoria, @Param("estado") EstadoConvocatoria estado);
+
+  // Versión de las convocatorias para GET condicional: cambia con cada alta o cambio de estado
+  @Query(value = """
+          SELECT COUNT(*) AS cantidad,
+                 CAST(EXTRACT(EPOCH FROM MAX(COALESCE(c.updated_at, c.created_at))) * 1000 AS BIGINT) AS ultimaModificacion
+          FROM convocatorias c
+    """, nativeQuery = true)
+  VersionRecursoProjection getVersionConvocatorias();
 }
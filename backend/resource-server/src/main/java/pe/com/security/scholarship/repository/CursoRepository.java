@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import pe.com.security.scholarship.domain.entity.Curso;
+import pe.com.security.scholarship.dto.projection.VersionRecursoProjection;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -44,4 +45,22 @@ public interface CursoRepository extends JpaRepository<Curso, Integer> {
            AND s.fechaInicio > :fechaReferencia
   """)
   List<Curso> findCursosSecciones(@Param("ids") List<Integer> ids, @Param("fechaReferencia") LocalDate fecha, Sort sort);
+
+  // Versión del catálogo para GET condicional (los triggers mantienen updated_at)
+  @Query(value = """
+          SELECT COUNT(*) AS cantidad,
+                 CAST(EXTRACT(EPOCH FROM MAX(COALESCE(c.updated_at, c.created_at))) * 1000 AS BIGINT) AS ultimaModificacion
+          FROM cursos c
+    """, nativeQuery = true)
+  VersionRecursoProjection getVersionCatalogo();
+
+  // Los horarios dependen de cursos y secciones; los horarios_seccion solo se crean junto con su sección
+  @Query(value = """
+          SELECT (SELECT COUNT(*) FROM cursos) + (SELECT COUNT(*) FROM secciones) AS cantidad,
+                 CAST(EXTRACT(EPOCH FROM GREATEST(
+                     (SELECT MAX(COALESCE(c.updated_at, c.created_at)) FROM cursos c),
+                     (SELECT MAX(COALESCE(s.updated_at, s.created_at)) FROM secciones s)
+                 )) * 1000 AS BIGINT) AS ultimaModificacion
+    """, nativeQuery = true)
+  VersionRecursoProjection getVersionHorarios();
 }
@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import pe.com.security.scholarship.domain.entity.Empleado;
+import pe.com.security.scholarship.dto.projection.UsuarioActualProjection;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -12,6 +13,6 @@ import java.util.UUID;
 @Repository
 public interface EmpleadoRepository extends JpaRepository<Empleado, UUID> {
 
-  @Query("SELECT e FROM Empleado e WHERE e.idUsuario = :idUsuario")
-  Optional<Empleado> findByIdUsuario(@Param("idUsuario") UUID idUsuario);
+  @Query("SELECT e.id AS id, e.codigoEmpleado AS codigo FROM Empleado e WHERE e.idUsuario = :idUsuario")
+  Optional<UsuarioActualProjection> findUsuarioActualByIdUsuario(@Param("idUsuario") UUID idUsuario);
 }
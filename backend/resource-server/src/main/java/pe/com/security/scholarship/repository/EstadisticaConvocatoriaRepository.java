@@ -0,0 +1,92 @@
+package pe.com.security.scholarship.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import pe.com.security.scholarship.domain.entity.EstadisticaConvocatoria;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface EstadisticaConvocatoriaRepository extends JpaRepository<EstadisticaConvocatoria, Integer> {
+
+  @Query("SELECT ec FROM EstadisticaConvocatoria ec JOIN FETCH ec.convocatoria WHERE ec.idConvocatoria = :idConvocatoria")
+  Optional<EstadisticaConvocatoria> findByIdWithConvocatoria(@Param("idConvocatoria") Integer idConvocatoria);
+
+  // Reserva la fila del snapshot (conteos y rankings vacíos por defecto). Devuelve 0 si ya existía:
+  // con dos primeras consultas simultáneas, la segunda espera a que la primera confirme y no inserta
+  @Modifying
+  @Query(value = """
+          INSERT INTO estadisticas_convocatoria (id_convocatoria)
+          VALUES (:idConvocatoria)
+          ON CONFLICT (id_convocatoria) DO NOTHING
+    """, nativeQuery = true)
+  int reservar(@Param("idConvocatoria") Integer idConvocatoria);
+
+  // Suma la nueva postulación al snapshot: el conteo y una unidad en cada ranking según
+  // la evaluación vigente, el ciclo del periodo previo a la convocatoria y la carrera del estudiante
+  @Modifying
+  @Query(value = """
+          WITH datos AS (
+              SELECT
+                  COALESCE((
+                      SELECT ev.nivel_socioeconomico
+                      FROM evaluaciones_socioeconomicas_vigentes ev
+                      WHERE ev.id_estudiante = :idEstudiante
+                        AND ev.fecha_expiracion > CURRENT_DATE
+                  ), 'NINGUNO') AS nivel,
+                  COALESCE((
+                      SELECT CAST(pp.ciclo_relativo AS varchar)
+                      FROM promedios_ponderados_vigentes pp
+                      WHERE pp.id_estudiante = :idEstudiante
+                        AND pp.id_periodo = (
+                            SELECT per.id
+                            FROM periodos_academicos per
+                            JOIN convocatorias c ON per.fecha_fin < c.fecha_inicio
+                            WHERE c.id = :idConvocatoria
+                            ORDER BY per.fecha_fin DESC
+                            LIMIT 1
+                        )
+                  ), 'NINGUNO') AS ciclo,
+                  COALESCE((
+                      SELECT cr.nombre
+                      FROM estudiantes e
+                      JOIN carreras cr ON cr.id = e.id_carrera
+                      WHERE e.id = :idEstudiante
+                  ), 'NINGUNO') AS carrera
+          )
+          UPDATE estadisticas_convocatoria ec
+          SET cantidad_postulantes = ec.cantidad_postulantes + 1,
+              ranking_socioeconomico = jsonb_set(ec.ranking_socioeconomico, ARRAY[d.nivel],
+                  to_jsonb(COALESCE(CAST(ec.ranking_socioeconomico ->> d.nivel AS bigint), 0) + 1)),
+              ranking_ciclo = jsonb_set(ec.ranking_ciclo, ARRAY[d.ciclo],
+                  to_jsonb(COALESCE(CAST(ec.ranking_ciclo ->> d.ciclo AS bigint), 0) + 1)),
+              ranking_carrera = jsonb_set(ec.ranking_carrera, ARRAY[d.carrera],
+                  to_jsonb(COALESCE(CAST(ec.ranking_carrera ->> d.carrera AS bigint), 0) + 1))
+          FROM datos d
+          WHERE ec.id_convocatoria = :idConvocatoria
+    """, nativeQuery = true)
+  int registrarPostulacion(@Param("idConvocatoria") Integer idConvocatoria, @Param("idEstudiante") UUID idEstudiante);
+
+  // Recalcula los matriculados de las convocatorias con postulantes en la sección
+  @Modifying
+  @Query(value = """
+          UPDATE estadisticas_convocatoria ec
+          SET cantidad_matriculados = (
+              SELECT COUNT(m.id)
+              FROM postulaciones p
+              JOIN matriculas m ON m.id_postulacion = p.id AND m.estado = 'ACEPTADO'
+              WHERE p.id_convocatoria = ec.id_convocatoria
+          )
+          WHERE ec.id_convocatoria IN (
+              SELECT p.id_convocatoria
+              FROM matriculas m
+              JOIN postulaciones p ON p.id = m.id_postulacion
+              WHERE m.id_seccion = :idSeccion
+          )
+    """, nativeQuery = true)
+  int actualizarMatriculados(@Param("idSeccion") Integer idSeccion);
+}
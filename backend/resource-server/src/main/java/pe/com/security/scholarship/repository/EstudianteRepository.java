@@ -5,18 +5,24 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import pe.com.security.scholarship.domain.entity.Estudiante;
 import pe.com.security.scholarship.dto.projection.IdentificacionEstudianteProjection;
+import pe.com.security.scholarship.dto.projection.UsuarioActualProjection;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface EstudianteRepository extends JpaRepository<Estudiante, UUID> {
 
-  @Query("SELECT e FROM Estudiante e WHERE e.idUsuario = :idUsuario")
-  Optional<Estudiante> findByIdUsuario(@Param("idUsuario") UUID idUsuario);
+  @Query("SELECT e.id AS id, e.codigoEstudiante AS codigo FROM Estudiante e WHERE e.idUsuario = :idUsuario")
+  Optional<UsuarioActualProjection> findUsuarioActualByIdUsuario(@Param("idUsuario") UUID idUsuario);
 
   @Query("SELECT e FROM Estudiante e WHERE e.codigoEstudiante = :codigo")
   Optional<Estudiante> findByCodigo(@Param("codigo") String codigo);
 
+  @Query("SELECT e FROM Estudiante e WHERE e.codigoEstudiante IN :codigos")
+  List<Estudiante> findByCodigoIn(@Param("codigos") Collection<String> codigos);
+
   @Query(value = """
         SELECT
             e.codigo_estudiante as codigoEstudiante,
@@ -0,0 +1,16 @@
+package pe.com.security.scholarship.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import pe.com.security.scholarship.domain.entity.EvaluacionCheckpoint;
+
+@Repository
+public interface EvaluacionCheckpointRepository extends JpaRepository<EvaluacionCheckpoint, Integer> {
+
+  @Modifying
+  @Query("UPDATE EvaluacionCheckpoint ec SET ec.completado = true WHERE ec.idConvocatoria = :idConvocatoria")
+  int marcarCompletado(@Param("idConvocatoria") Integer idConvocatoria);
+}
@@ -6,7 +6,10 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import pe.com.security.scholarship.domain.entity.EvaluacionSocioeconomica;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public interface EvaluacionSocioeconomicaRepository extends JpaRepository<EvaluacionSocioeconomica, Integer> {
@@ -19,4 +22,6 @@ public interface EvaluacionSocioeconomicaRepository extends JpaRepository<Evalua
           "ORDER BY es.fecha_evaluacion DESC LIMIT 1",
           nativeQuery = true)
   Optional<EvaluacionSocioeconomica> findEvaluacionActiva(@Param("codigoEstudiante") String codigoEstudiante);
+
+  List<EvaluacionSocioeconomica> findByEstudianteIdIn(Collection<UUID> idsEstudiantes);
 }
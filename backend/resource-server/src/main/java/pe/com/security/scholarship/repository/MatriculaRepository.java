@@ -11,32 +11,10 @@ import pe.com.security.scholarship.dto.projection.SeccionIntencionProjection;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
-public interface MatriculaRepository extends JpaRepository<Matricula, Integer> {
-
-  @Query(value = """
-          select COALESCE(m.nota, 0.0)
-          from postulaciones p
-          left join matriculas m
-          	on p.id = m.id_postulacion
-          where p.id_estudiante = :idEstudiante
-          and p.aceptado is true
-          and EXTRACT(year from p.fecha_postulacion) = EXTRACT(year from CURRENT_DATE)
-          order by p.fecha_postulacion desc
-          limit 1
-    """, nativeQuery = true)
-  Double notaUltimaMatricula(@Param("idEstudiante") UUID idEstudiante);
-
-  @Query(value = """
-          SELECT EXISTS (
-              SELECT 1
-              FROM matriculas
-              WHERE id_postulacion = :idPostulacion
-              AND estado = 'ACEPTADO'
-          )
-  """, nativeQuery = true)
-  boolean seMatriculo(@Param("idPostulacion") Integer idPostulacion);
+public interface MatriculaRepository extends JpaRepository<Matricula, Integer>, MatriculaRepositoryCustom {
 
   @Query(value = """
           SELECT EXISTS (
@@ -50,6 +28,9 @@ public interface MatriculaRepository extends JpaRepository<Matricula, Integer> {
   """, nativeQuery = true)
   boolean existsIntencionMatricula(@Param("idEstudiante") UUID idEstudiante);
 
+  @Query("SELECT m.seccion.id FROM Matricula m WHERE m.id = :idMatricula")
+  Optional<Integer> findIdSeccion(@Param("idMatricula") Integer idMatricula);
+
   @Query("SELECT m FROM Matricula m " +
           "JOIN FETCH m.seccion s " +
           "JOIN FETCH s.curso c " +
@@ -66,7 +47,7 @@ public interface MatriculaRepository extends JpaRepository<Matricula, Integer> {
           "INNER JOIN matriculas m ON m.id_seccion = s.id and m.estado = 'PENDIENTE' " +
           "WHERE s.fecha_inicio > CURRENT_DATE " +
           "GROUP BY s.id, c.id " +
-          "ORDER BY s.fecha_inicio ASC", nativeQuery = true)
+          "ORDER BY s.fecha_inicio ASC, s.id ASC", nativeQuery = true)
   List<SeccionIntencionProjection> findIntencionesMatriculaSeccion();
 
   @Query(value = """
@@ -114,18 +95,4 @@ public interface MatriculaRepository extends JpaRepository<Matricula, Integer> {
             AND s.fecha_inicio = :currentDate
   """, nativeQuery = true)
   int rechazarPostulantes(@Param("currentDate") LocalDate hoy);
-
-  @Modifying
-  @Query(value = """
-          UPDATE matriculas m
-          SET nota = :nota
-          FROM postulaciones p
-          INNER JOIN estudiantes e ON e.id = p.id_estudiante
-          WHERE m.id_postulacion = p.id
-            AND m.id_seccion = :idSeccion
-            AND e.codigo_estudiante = :codigo
-            AND m.estado = 'ACEPTADO'
-  """, nativeQuery = true)
-  int actualizarNota(@Param("codigo") String codigoEstudiante, @Param("idSeccion") Integer idSeccion,
-                      @Param("nota") Double nota);
 }
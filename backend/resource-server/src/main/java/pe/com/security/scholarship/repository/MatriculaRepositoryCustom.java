@@ -0,0 +1,10 @@
+package pe.com.security.scholarship.repository;
+
+import java.util.Map;
+import java.util.Set;
+
+public interface MatriculaRepositoryCustom {
+
+  // Carga las notas (código de estudiante -> nota) en bloque y devuelve los códigos sin matrícula aceptada en la sección
+  Set<String> actualizarNotas(Integer idSeccion, Map<String, Double> notas);
+}
@@ -0,0 +1,83 @@
+package pe.com.security.scholarship.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.postgresql.PGConnection;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+// Carga de notas por COPY a una tabla temporal de la sesión: un UPDATE con join para todo el lote
+// en lugar de uno por fila. La tabla se elimina al terminar la transacción (ON COMMIT DROP)
+public class MatriculaRepositoryCustomImpl implements MatriculaRepositoryCustom {
+
+  private static final String PREPARAR_TABLA = """
+          CREATE TEMP TABLE IF NOT EXISTS carga_notas (codigo text NOT NULL, nota numeric(4,2) NOT NULL) ON COMMIT DROP;
+          TRUNCATE carga_notas
+  """;
+
+  private static final String COPIAR_NOTAS = "COPY carga_notas (codigo, nota) FROM STDIN WITH (FORMAT csv)";
+
+  // Actualiza y, en la misma sentencia, devuelve por anti-join los códigos que no encontraron matrícula
+  private static final String ACTUALIZAR_NOTAS = """
+          WITH actualizadas AS (
+            UPDATE matriculas m
+            SET nota = c.nota
+            FROM carga_notas c
+            INNER JOIN estudiantes e ON e.codigo_estudiante = c.codigo
+            INNER JOIN postulaciones p ON p.id_estudiante = e.id
+            WHERE m.id_postulacion = p.id
+              AND m.id_seccion = ?
+              AND m.estado = 'ACEPTADO'
+            RETURNING e.codigo_estudiante
+          )
+          SELECT c.codigo
+          FROM carga_notas c
+          WHERE NOT EXISTS (SELECT 1 FROM actualizadas a WHERE a.codigo_estudiante = c.codigo)
+  """;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public Set<String> actualizarNotas(Integer idSeccion, Map<String, Double> notas) {
+    return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+      try (Statement statement = connection.createStatement()) {
+        statement.execute(PREPARAR_TABLA);
+      }
+
+      try {
+        connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPIAR_NOTAS, new StringReader(aCsv(notas)));
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+
+      Set<String> sinMatricula = new HashSet<>();
+      try (PreparedStatement statement = connection.prepareStatement(ACTUALIZAR_NOTAS)) {
+        statement.setInt(1, idSeccion);
+        try (ResultSet rs = statement.executeQuery()) {
+          while (rs.next()) {
+            sinMatricula.add(rs.getString(1));
+          }
+        }
+      }
+      return sinMatricula;
+    });
+  }
+
+  // Los códigos van entre comillas para que separadores o comillas dentro del valor no rompan el COPY
+  static String aCsv(Map<String, Double> notas) {
+    StringBuilder csv = new StringBuilder();
+    notas.forEach((codigo, nota) -> csv.append('"').append(codigo.replace("\"", "\"\"")).append('"')
+            .append(',').append(nota).append('\n'));
+    return csv.toString();
+  }
+}
@@ -1,5 +1,6 @@
 package pe.com.security.scholarship.repository;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,54 +9,99 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import pe.com.security.scholarship.config.CacheConfig;
 import pe.com.security.scholarship.domain.entity.Postulacion;
 import pe.com.security.scholarship.domain.enums.EstadoMatricula;
+import pe.com.security.scholarship.dto.projection.CursoOpcionProjection;
+import pe.com.security.scholarship.dto.projection.EstadoBecaProjection;
+import pe.com.security.scholarship.dto.projection.HistorialPostulacionProjection;
+import pe.com.security.scholarship.dto.projection.LoteEvaluacionProjection;
 import pe.com.security.scholarship.dto.projection.PostulanteConvocatoriaProjection;
-import pe.com.security.scholarship.dto.projection.PostulanteEvaluacionProjection;
+import pe.com.security.scholarship.dto.projection.ResultadoPostulacionProjection;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface PostulacionRepository extends JpaRepository<Postulacion, Integer> {
+public interface PostulacionRepository extends JpaRepository<Postulacion, Integer>, PostulacionRepositoryCustom {
 
   boolean existsByEstudianteIdAndConvocatoriaId(UUID estudianteId, Integer convocatoriaId);
 
-  @Query(value = """
-          select count(p.id)
-          from postulaciones p
-          where p.id_estudiante = :idEstudiante
-          and p.aceptado is true
-          and extract(year from p.fecha_postulacion) = extract(year from CURRENT_DATE)
-    """, nativeQuery = true)
-  int cantidadBecasByYear(@Param("idEstudiante") UUID idEstudiante);
+  // Total de postulantes para la paginación por cursor; se invalida al registrar una postulación en la convocatoria
+  @Cacheable(CacheConfig.CONTEO_POSTULANTES)
+  long countByConvocatoriaId(Integer idConvocatoria);
 
+  // Estado de becas del presente año en una sola consulta: cantidad de becas, última postulación aceptada,
+  // si se matriculó en ella, meses transcurridos desde que la obtuvo y nota de su matrícula (0 si no tiene).
+  // Siempre devuelve una fila; sin becas en el año, cantidadBecas es 0 y el resto de columnas es nulo
   @Query(value = """
-          select date_part('month', CURRENT_DATE) - date_part('month', p.fecha_postulacion)
-          from postulaciones p
-          where p.id_estudiante = :idEstudiante
-          and p.aceptado is true
-          and EXTRACT(year from p.fecha_postulacion) = EXTRACT(year from CURRENT_DATE)
-          order by p.fecha_postulacion desc
-          limit 1
+          WITH Becas AS (
+              SELECT p.id, p.fecha_postulacion
+              FROM postulaciones p
+              WHERE p.id_estudiante = :idEstudiante
+              AND p.aceptado is true
+              AND EXTRACT(year from p.fecha_postulacion) = EXTRACT(year from CURRENT_DATE)
+          ),
+          UltimaBeca AS (
+              SELECT b.id, b.fecha_postulacion
+              FROM Becas b
+              ORDER BY b.fecha_postulacion DESC
+              LIMIT 1
+          )
+          SELECT
+              CAST((SELECT count(*) FROM Becas) AS integer) AS cantidadBecas,
+              u.id AS idUltimaPostulacion,
+              EXISTS (
+                  SELECT 1
+                  FROM matriculas m
+                  WHERE m.id_postulacion = u.id
+                  AND m.estado = 'ACEPTADO'
+              ) AS matriculado,
+              CAST(date_part('month', CURRENT_DATE) - date_part('month', u.fecha_postulacion) AS integer) AS mesesTranscurridos,
+              (
+                  SELECT COALESCE(max(m.nota), 0.0)
+                  FROM matriculas m
+                  WHERE m.id_postulacion = u.id
+              ) AS notaUltimaMatricula
+          FROM (SELECT 1) AS fila
+          LEFT JOIN UltimaBeca u ON true
     """, nativeQuery = true)
-  int cantidadMesesBeca(@Param("idEstudiante") UUID idEstudiante);
+  EstadoBecaProjection getEstadoBeca(@Param("idEstudiante") UUID idEstudiante);
+
+  // Historial: solo las columnas que se muestran, con el mes de la convocatoria en la misma consulta
+  @Query("SELECT p.id AS id, p.aceptado AS aceptado, p.fechaPostulacion AS fechaPostulacion, c.mes AS mesConvocatoria " +
+          "FROM Postulacion p " +
+          "JOIN p.convocatoria c " +
+          "WHERE p.estudiante.id = :idEstudiante AND YEAR(p.fechaPostulacion) = :year")
+  List<HistorialPostulacionProjection> findHistorialByYear(@Param("idEstudiante") UUID idEstudiante, @Param("year") Integer year);
+
+  // Detalle: convocatoria y cursos elegidos en la misma consulta (evita dos cargas perezosas)
+  @Query("SELECT p FROM Postulacion p " +
+          "JOIN FETCH p.convocatoria " +
+          "LEFT JOIN FETCH p.cursos " +
+          "WHERE p.id = :idPostulacion")
+  Optional<Postulacion> findDetalleById(@Param("idPostulacion") Integer idPostulacion);
 
+  // Delimita el siguiente lote de postulaciones (keyset por id) a partir del último id procesado
   @Query(value = """
-          select p.*
-          from postulaciones p
-          where p.id_estudiante = :idEstudiante
-          and p.aceptado is true
-          and EXTRACT(year from p.fecha_postulacion) = EXTRACT(year from CURRENT_DATE)
-          order by p.fecha_postulacion desc
-          limit 1
+          SELECT max(l.id) AS hastaId, count(*) AS cantidad
+          FROM (
+              SELECT p.id
+              FROM postulaciones p
+              WHERE p.id_convocatoria = :idConvocatoria
+                AND p.id > :desdeId
+              ORDER BY p.id
+              LIMIT :tamanioLote
+          ) l
     """, nativeQuery = true)
-  Optional<Postulacion> findLastPostulacion(@Param("idEstudiante") UUID idEstudiante);
-
-  @Query("SELECT p FROM Postulacion p WHERE p.estudiante.id = :idEstudiante AND YEAR(p.fechaPostulacion) = :year")
-  List<Postulacion> findByYear(@Param("idEstudiante") UUID idEstudiante, @Param("year") Integer year);
+  LoteEvaluacionProjection getSiguienteLote(@Param("idConvocatoria") Integer idConvocatoria,
+                                            @Param("desdeId") Integer desdeId,
+                                            @Param("tamanioLote") Integer tamanioLote);
 
+  // Calcula el promedio general de los postulantes del lote (desdeId, hastaId] en una sola sentencia.
+  // Las postulaciones sin datos suficientes para el modo de evaluación se dejan intactas.
+  @Modifying
   @Query(value = """
           WITH PeriodoReferencia AS (
               -- Identificar el periodo académico correspondiente
@@ -65,41 +111,46 @@ public interface PostulacionRepository extends JpaRepository<Postulacion, Intege
               ORDER BY fecha_fin DESC
               LIMIT 1
           ),
-          UltimaEval AS (
-              -- Obtener solo la evaluación vigente más reciente por estudiante
-              SELECT DISTINCT ON (id_estudiante)
-                  id_estudiante,
-                  CASE nivel_socioeconomico
+          DatosPostulante AS (
+              SELECT
+                  p.id,
+                  up.promedio_ponderado,
+                  CASE ev.nivel_socioeconomico
                       WHEN 'DEFICIENTE' THEN 20
                       WHEN 'REGULAR' THEN 15
                       WHEN 'BUENO' THEN 10
                   END AS valor
-              FROM evaluaciones_socioeconomicas
-              WHERE fecha_expiracion > CURRENT_DATE
-              ORDER BY id_estudiante, created_at DESC
+              FROM postulaciones p
+              -- Modelos de lectura mantenidos por trigger: una búsqueda por PK por estudiante
+              LEFT JOIN evaluaciones_socioeconomicas_vigentes ev
+                  ON ev.id_estudiante = p.id_estudiante
+                 AND ev.fecha_expiracion > CURRENT_DATE
+              LEFT JOIN promedios_ponderados_vigentes up
+                  ON up.id_estudiante = p.id_estudiante
+                 AND up.id_periodo = (SELECT id FROM PeriodoReferencia)
+              WHERE p.id_convocatoria = :idConvocatoria
+                AND p.id > :desdeId AND p.id <= :hastaId
           ),
-          UltimoPromedio AS (
-              -- Obtener el promedio solo si existe en el periodo de referencia
-              SELECT DISTINCT ON (pp.id_estudiante)
-                  pp.id_estudiante,
-                  pp.promedio_ponderado
-              FROM promedios_ponderados pp
-              JOIN PeriodoReferencia pr ON pp.id_periodo = pr.id
-              ORDER BY pp.id_estudiante, pp.created_at DESC
+          Calculo AS (
+              SELECT
+                  d.id,
+                  CASE :modoEvaluacion
+                      WHEN 'PROMEDIO_PONDERADO' THEN d.promedio_ponderado
+                      WHEN 'SOCIOECONOMICO' THEN d.valor
+                      WHEN 'MIXTO' THEN (d.promedio_ponderado + d.valor) / 2.0
+                  END AS promedio
+              FROM DatosPostulante d
           )
-          SELECT
-              p.id AS idPostulacion,
-              ev.valor AS valorEvalSocio,
-              up.promedio_ponderado AS promedioPonderado
-          FROM postulaciones p
-          LEFT JOIN UltimaEval ev ON p.id_estudiante = ev.id_estudiante
-          LEFT JOIN UltimoPromedio up ON p.id_estudiante = up.id_estudiante
-          WHERE p.id IN :listPostulaciones
+          UPDATE postulaciones p
+          SET promedio_general = c.promedio
+          FROM Calculo c
+          WHERE p.id = c.id
+            AND c.promedio IS NOT NULL
     """, nativeQuery = true)
-  List<PostulanteEvaluacionProjection> getDatosEvaluacion(@Param("listPostulaciones") List<Integer> listPostulaciones);
-
-  @Query("SELECT p.id FROM Postulacion p WHERE p.convocatoria.id = :idConvocatoria")
-  List<Integer> findIdsByConvocatoria(@Param("idConvocatoria") Integer idConvocatoria);
+  int calcularPromedioGeneral(@Param("idConvocatoria") Integer idConvocatoria,
+                              @Param("modoEvaluacion") String modoEvaluacion,
+                              @Param("desdeId") Integer desdeId,
+                              @Param("hastaId") Integer hastaId);
 
   @Modifying
   @Transactional
@@ -122,12 +173,9 @@ public interface PostulacionRepository extends JpaRepository<Postulacion, Intege
     """, nativeQuery = true)
   int actualizarPromedioGeneralPostulaciones(@Param("idConvocatoria") Integer idConvocatoria);
 
-  @Modifying
-  @Query("UPDATE Postulacion p SET p.promedioGeneral = :promedio WHERE p.id = :id")
-  void actualizarPromedioGeneral(@Param("id") Integer id, @Param("promedio") Double promedio);
-
   @Query(value = """
         SELECT
+            p.id as idPostulacion,
             p.id_estudiante as idEstudiante,
             e.codigo_estudiante as codigo,
             CONCAT(u.nombres, ' ', u.apellidos) as nombreCompleto,
@@ -144,18 +192,32 @@ public interface PostulacionRepository extends JpaRepository<Postulacion, Intege
   Page<PostulanteConvocatoriaProjection> buscarPostulantesConvocatoria(@Param("idConvocatoria") Integer idConvocatoria,
           Pageable pageable);
 
-  @Query("SELECT p FROM Postulacion p " +
-          "LEFT JOIN FETCH p.matriculas m " +
-          "LEFT JOIN FETCH p.convocatoria c " +
-          "LEFT JOIN FETCH p.cursos cp " +
-          "LEFT JOIN FETCH m.seccion s " +
+  // Postulaciones del año con su primera matrícula aceptada, una fila por postulación. Como la consulta anterior
+  // (JOIN FETCH de matrículas), se omiten las postulaciones que solo tienen matrículas en otro estado
+  @Query("SELECT p.id AS idPostulacion, c.mes AS mesConvocatoria, p.aceptado AS aceptado, " +
+          "p.fechaPostulacion AS fechaPostulacion, p.promedioGeneral AS promedioGeneral, " +
+          "m.id AS idMatricula, m.fechaMatricula AS fechaMatricula, cu.nombre AS cursoMatriculado, m.nota AS notaMatricula " +
+          "FROM Postulacion p " +
+          "JOIN p.convocatoria c " +
+          "LEFT JOIN p.matriculas m ON m.id = (" +
+          "    SELECT min(m2.id) FROM Matricula m2 WHERE m2.postulacion = p AND m2.estado = :estado) " +
+          "LEFT JOIN m.seccion s " +
+          "LEFT JOIN s.curso cu " +
           "WHERE p.estudiante.id = :idEstudiante " +
           "AND YEAR(p.fechaPostulacion) = :year " +
-          "AND (m.estado = :estado OR m IS NULL)" +
+          "AND (m.id IS NOT NULL OR NOT EXISTS (SELECT 1 FROM Matricula m3 WHERE m3.postulacion = p)) " +
           "ORDER BY p.fechaPostulacion DESC")
-  List<Postulacion> findByYearWithMatricula(
+  List<ResultadoPostulacionProjection> findResultadosByYear(
           @Param("idEstudiante") UUID idEstudiante,
           @Param("year") Integer year,
           @Param("estado") EstadoMatricula estado
   );
+
+  // Cursos elegidos de varias postulaciones en una sola consulta
+  @Query("SELECT p.id AS idPostulacion, cu.nombre AS nombre " +
+          "FROM Postulacion p " +
+          "JOIN p.cursos cu " +
+          "WHERE p.id IN :idsPostulaciones " +
+          "ORDER BY cu.nombre")
+  List<CursoOpcionProjection> findCursosOpciones(@Param("idsPostulaciones") List<Integer> idsPostulaciones);
 }
@@ -0,0 +1,20 @@
+package pe.com.security.scholarship.repository;
+
+import org.springframework.data.domain.Sort;
+import pe.com.security.scholarship.dto.CursorPostulante;
+import pe.com.security.scholarship.dto.projection.PostulanteConvocatoriaProjection;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface PostulacionRepositoryCustom {
+
+  // Postulantes de la convocatoria a continuación del cursor (keyset, sin OFFSET ni conteo); sin cursor, la primera página
+  List<PostulanteConvocatoriaProjection> buscarPostulantesDesde(Integer idConvocatoria, Sort sort,
+                                                                CursorPostulante cursor, int limite);
+
+  // Todos los postulantes de la convocatoria en el orden dado, leídos con un cursor de solo avance: cada fila
+  // se entrega al consumidor y se descarta. Debe ejecutarse dentro de una transacción
+  void recorrerPostulantes(Integer idConvocatoria, Sort sort, int tamanioFetch,
+                           Consumer<PostulanteConvocatoriaProjection> consumidor);
+}
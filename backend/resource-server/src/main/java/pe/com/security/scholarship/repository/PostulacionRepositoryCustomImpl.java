@@ -0,0 +1,211 @@
+package pe.com.security.scholarship.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.hibernate.Session;
+import org.springframework.data.domain.Sort;
+import pe.com.security.scholarship.dto.CursorPostulante;
+import pe.com.security.scholarship.dto.projection.PostulanteConvocatoriaProjection;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+// Paginación por keyset de los postulantes: la condición del cursor reemplaza al OFFSET, así que cada página
+// cuesta lo mismo sin importar su profundidad. El orden siempre termina en p.id para que sea total y estable.
+// La exportación usa la misma consulta y el mismo orden, sin cursor ni límite
+public class PostulacionRepositoryCustomImpl implements PostulacionRepositoryCustom {
+
+  private static final String BUSCAR_POSTULANTES = """
+          SELECT
+              p.id as idPostulacion,
+              p.id_estudiante as idEstudiante,
+              e.codigo_estudiante as codigo,
+              CONCAT(u.nombres, ' ', u.apellidos) as nombreCompleto,
+              p.aceptado as becado,
+              p.promedio_general as promedioGeneral,
+              p.fecha_postulacion as fechaPostulacion
+          FROM postulaciones p
+          INNER JOIN estudiantes e ON p.id_estudiante = e.id
+          INNER JOIN usuarios u ON u.id = e.id_usuario
+          WHERE p.id_convocatoria = ?
+  """;
+
+  private static final Map<String, Columna> COLUMNAS = Map.of(
+          "fechaPostulacion", new Columna("p.fecha_postulacion", false),
+          "promedioGeneral", new Columna("p.promedio_general", true),
+          "becado", new Columna("p.aceptado", true));
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public List<PostulanteConvocatoriaProjection> buscarPostulantesDesde(Integer idConvocatoria, Sort sort,
+                                                                       CursorPostulante cursor, int limite) {
+    List<Object> parametros = new ArrayList<>();
+    parametros.add(idConvocatoria);
+
+    StringBuilder sql = new StringBuilder(BUSCAR_POSTULANTES);
+    if (cursor != null) sql.append("  AND ").append(condicionCursor(sort, cursor, parametros)).append('\n');
+    sql.append("ORDER BY ").append(ordenamiento(sort)).append("\nLIMIT ?");
+    parametros.add(limite);
+
+    return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+      try (PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+        for (int i = 0; i < parametros.size(); i++) {
+          statement.setObject(i + 1, parametros.get(i));
+        }
+        List<PostulanteConvocatoriaProjection> postulantes = new ArrayList<>();
+        try (ResultSet rs = statement.executeQuery()) {
+          while (rs.next()) {
+            postulantes.add(leerPostulante(rs));
+          }
+        }
+        return postulantes;
+      }
+    });
+  }
+
+  @Override
+  public void recorrerPostulantes(Integer idConvocatoria, Sort sort, int tamanioFetch,
+                                  Consumer<PostulanteConvocatoriaProjection> consumidor) {
+    String sql = BUSCAR_POSTULANTES + "ORDER BY " + ordenamiento(sort);
+
+    entityManager.unwrap(Session.class).doWork(connection -> {
+      try (PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+        // PostgreSQL solo trae las filas por tandas (cursor del servidor) con fetch size > 0 y autocommit
+        // desactivado; sin eso el driver carga el resultado completo en memoria
+        statement.setFetchSize(tamanioFetch);
+        statement.setObject(1, idConvocatoria);
+        try (ResultSet rs = statement.executeQuery()) {
+          while (rs.next()) {
+            consumidor.accept(leerPostulante(rs));
+          }
+        }
+      }
+    });
+  }
+
+  // Claves del cliente con NULLS LAST y el id como desempate, en la dirección de la última clave
+  static String ordenamiento(Sort sort) {
+    String claves = sort.stream()
+            .map(orden -> COLUMNAS.get(orden.getProperty()).expresion() + " " + orden.getDirection() + " NULLS LAST")
+            .collect(Collectors.joining(", "));
+    String desempate = "p.id " + direccionDesempate(sort);
+    return claves.isEmpty() ? desempate : claves + ", " + desempate;
+  }
+
+  // Filas estrictamente posteriores al cursor en el orden de ordenamiento(sort). Si todas las claves son
+  // no nulas y van en la misma dirección basta una comparación de filas, que el índice resuelve como rango;
+  // si no, se expande: (k1 después) OR (k1 igual AND k2 después) OR ... OR (todas iguales AND id después)
+  static String condicionCursor(Sort sort, CursorPostulante cursor, List<Object> parametros) {
+    List<Sort.Order> ordenes = sort.toList();
+    Sort.Direction direccion = direccionDesempate(sort);
+
+    boolean comparacionDeFilas = ordenes.stream()
+            .allMatch(orden -> !COLUMNAS.get(orden.getProperty()).nullable() && orden.getDirection() == direccion);
+    if (comparacionDeFilas) {
+      List<String> columnas = new ArrayList<>();
+      for (Sort.Order orden : ordenes) {
+        columnas.add(COLUMNAS.get(orden.getProperty()).expresion());
+        parametros.add(valor(cursor, orden.getProperty()));
+      }
+      columnas.add("p.id");
+      parametros.add(cursor.getIdPostulacion());
+      String marcadores = columnas.stream().map(c -> "?").collect(Collectors.joining(", "));
+      return "(" + String.join(", ", columnas) + ") " + operador(direccion) + " (" + marcadores + ")";
+    }
+
+    List<String> alternativas = new ArrayList<>();
+    for (int i = 0; i <= ordenes.size(); i++) {
+      List<String> condiciones = new ArrayList<>();
+      List<Object> valores = new ArrayList<>();
+
+      for (Sort.Order previa : ordenes.subList(0, i)) {
+        String columna = COLUMNAS.get(previa.getProperty()).expresion();
+        Object valor = valor(cursor, previa.getProperty());
+        if (valor == null) {
+          condiciones.add(columna + " IS NULL");
+        } else {
+          condiciones.add(columna + " = ?");
+          valores.add(valor);
+        }
+      }
+
+      if (i == ordenes.size()) {
+        condiciones.add("p.id " + operador(direccion) + " ?");
+        valores.add(cursor.getIdPostulacion());
+      } else {
+        Sort.Order orden = ordenes.get(i);
+        Columna columna = COLUMNAS.get(orden.getProperty());
+        Object valor = valor(cursor, orden.getProperty());
+        // Con NULLS LAST ningún valor va después de un nulo: la alternativa no aporta filas
+        if (valor == null) continue;
+        String despues = columna.expresion() + " " + operador(orden.getDirection()) + " ?";
+        condiciones.add(columna.nullable() ? "(" + despues + " OR " + columna.expresion() + " IS NULL)" : despues);
+        valores.add(valor);
+      }
+
+      alternativas.add("(" + String.join(" AND ", condiciones) + ")");
+      parametros.addAll(valores);
+    }
+    return "(" + String.join(" OR ", alternativas) + ")";
+  }
+
+  private static Sort.Direction direccionDesempate(Sort sort) {
+    List<Sort.Order> ordenes = sort.toList();
+    return ordenes.isEmpty() ? Sort.Direction.ASC : ordenes.getLast().getDirection();
+  }
+
+  private static String operador(Sort.Direction direccion) {
+    return direccion.isAscending() ? ">" : "<";
+  }
+
+  // promedio_general es NUMERIC: se compara como BigDecimal para no perder exactitud en la igualdad
+  private static Object valor(CursorPostulante cursor, String propiedad) {
+    return switch (propiedad) {
+      case "fechaPostulacion" -> cursor.getFechaPostulacion();
+      case "promedioGeneral" -> cursor.getPromedioGeneral() != null ? BigDecimal.valueOf(cursor.getPromedioGeneral()) : null;
+      case "becado" -> cursor.getBecado();
+      default -> throw new IllegalArgumentException("Campo de ordenamiento no soportado: " + propiedad);
+    };
+  }
+
+  private static PostulanteConvocatoriaProjection leerPostulante(ResultSet rs) throws SQLException {
+    BigDecimal promedio = rs.getBigDecimal("promedioGeneral");
+    return new FilaPostulante(
+            rs.getInt("idPostulacion"),
+            rs.getObject("idEstudiante", UUID.class),
+            rs.getString("codigo"),
+            rs.getString("nombreCompleto"),
+            rs.getObject("becado", Boolean.class),
+            promedio != null ? promedio.doubleValue() : null,
+            rs.getObject("fechaPostulacion", LocalDate.class));
+  }
+
+  // Implementación directa de la proyección: un proxy de Spring Data por fila pesa varios KB y en la
+  // exportación se crea uno por postulante
+  @Getter
+  @AllArgsConstructor
+  private static class FilaPostulante implements PostulanteConvocatoriaProjection {
+    private final Integer idPostulacion;
+    private final UUID idEstudiante;
+    private final String codigo;
+    private final String nombreCompleto;
+    private final Boolean becado;
+    private final Double promedioGeneral;
+    private final LocalDate fechaPostulacion;
+  }
+
+  private record Columna(String expresion, boolean nullable) {}
+}
@@ -5,6 +5,5 @@ import org.springframework.stereotype.Repository;
 import pe.com.security.scholarship.domain.entity.PromedioPonderado;
 
 @Repository
-public interface PromedioPonderadoRepository extends JpaRepository<PromedioPonderado, Integer> {
-
+public interface PromedioPonderadoRepository extends JpaRepository<PromedioPonderado, Integer>, PromedioPonderadoRepositoryCustom {
 }
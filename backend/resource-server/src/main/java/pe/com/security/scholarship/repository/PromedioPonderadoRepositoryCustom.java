@@ -0,0 +1,14 @@
+package pe.com.security.scholarship.repository;
+
+import pe.com.security.scholarship.dto.ConteoUpsert;
+import pe.com.security.scholarship.dto.request.PromedioCsvRequest;
+
+import java.util.Map;
+import java.util.UUID;
+
+public interface PromedioPonderadoRepositoryCustom {
+
+  // Inserta o actualiza el promedio de cada estudiante (id -> fila) en el periodo; las filas idénticas no se tocan.
+  // Los conteos salen del propio upsert, uno por estudiante enviado
+  ConteoUpsert upsertPromedios(Integer idPeriodo, UUID idEmpleado, Map<UUID, PromedioCsvRequest> promedios);
+}
@@ -0,0 +1,69 @@
+package pe.com.security.scholarship.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import pe.com.security.scholarship.dto.ConteoUpsert;
+import pe.com.security.scholarship.dto.request.PromedioCsvRequest;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Map;
+import java.util.UUID;
+
+// Upsert de promedios en una sola sentencia por lote: las filas viajan como arreglos y se expanden con unnest
+public class PromedioPonderadoRepositoryCustomImpl implements PromedioPonderadoRepositoryCustom {
+
+  // xmax = 0 solo en las filas recién insertadas; el WHERE del DO UPDATE omite las que no cambian
+  private static final String UPSERT_PROMEDIOS = """
+          WITH upsert AS (
+            INSERT INTO promedios_ponderados AS p
+              (id_estudiante, ciclo_relativo, promedio_ponderado, id_periodo, id_empleado)
+            SELECT e.id_estudiante, e.ciclo_relativo, e.promedio_ponderado, ?, ?
+            FROM unnest(?::uuid[], ?::int[], ?::numeric[]) AS e(id_estudiante, ciclo_relativo, promedio_ponderado)
+            ON CONFLICT (id_estudiante, id_periodo) DO UPDATE
+            SET ciclo_relativo = EXCLUDED.ciclo_relativo,
+                promedio_ponderado = EXCLUDED.promedio_ponderado,
+                id_empleado = EXCLUDED.id_empleado
+            WHERE (p.ciclo_relativo, p.promedio_ponderado)
+                IS DISTINCT FROM (EXCLUDED.ciclo_relativo, EXCLUDED.promedio_ponderado)
+            RETURNING (p.xmax = 0) AS insertado
+          )
+          SELECT COUNT(*) FILTER (WHERE insertado) AS insertados,
+                 COUNT(*) FILTER (WHERE NOT insertado) AS actualizados
+          FROM upsert
+  """;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public ConteoUpsert upsertPromedios(Integer idPeriodo, UUID idEmpleado, Map<UUID, PromedioCsvRequest> promedios) {
+    UUID[] estudiantes = new UUID[promedios.size()];
+    Integer[] ciclos = new Integer[promedios.size()];
+    Double[] valores = new Double[promedios.size()];
+    int i = 0;
+    for (Map.Entry<UUID, PromedioCsvRequest> promedio : promedios.entrySet()) {
+      estudiantes[i] = promedio.getKey();
+      ciclos[i] = promedio.getValue().getCiclo();
+      valores[i] = promedio.getValue().getPromedio();
+      i++;
+    }
+
+    return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+      try (PreparedStatement statement = connection.prepareStatement(UPSERT_PROMEDIOS)) {
+        statement.setInt(1, idPeriodo);
+        statement.setObject(2, idEmpleado);
+        statement.setArray(3, connection.createArrayOf("uuid", estudiantes));
+        statement.setArray(4, connection.createArrayOf("int4", ciclos));
+        statement.setArray(5, connection.createArrayOf("float8", valores));
+        try (ResultSet rs = statement.executeQuery()) {
+          rs.next();
+          int insertados = rs.getInt("insertados");
+          int actualizados = rs.getInt("actualizados");
+          return new ConteoUpsert(insertados, actualizados, promedios.size() - insertados - actualizados);
+        }
+      }
+    });
+  }
+}
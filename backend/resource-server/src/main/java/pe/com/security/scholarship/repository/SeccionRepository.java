@@ -1,6 +1,9 @@
 package pe.com.security.scholarship.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -14,7 +17,23 @@ public interface SeccionRepository extends JpaRepository<Seccion, Integer> {
   @Query("SELECT s FROM Seccion s JOIN FETCH s.horarios JOIN FETCH s.curso WHERE s.id = :idSeccion")
   Optional<Seccion> findById(@Param("idSeccion") Integer idSeccion);
 
-  @Query("SELECT s.vacantesDisponibles - (SELECT COUNT(m) FROM Matricula m WHERE m.seccion.id = :idSeccion AND m.estado = 'ACEPTADO') " +
-          "FROM Seccion s WHERE s.id = :idSeccion")
-  Integer getVacantesRestantes(@Param("idSeccion") Integer idSeccion);
+  // FOR SHARE: compatible entre intenciones de matrícula, excluyente con findByIdForUpdate
+  @Lock(LockModeType.PESSIMISTIC_READ)
+  @Query("SELECT s FROM Seccion s WHERE s.id = :idSeccion")
+  Optional<Seccion> findByIdForShare(@Param("idSeccion") Integer idSeccion);
+
+  // Bloqueo exclusivo de la fila: serializa los cambios que ocupan vacantes de la sección
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT s FROM Seccion s WHERE s.id = :idSeccion")
+  Optional<Seccion> findByIdForUpdate(@Param("idSeccion") Integer idSeccion);
+
+  // Suma cupos solo si caben en las vacantes (sin vacantes definidas no hay tope); 0 filas = sección llena
+  @Modifying
+  @Query(value = """
+          UPDATE secciones
+          SET cupos_ocupados = cupos_ocupados + :cantidad
+          WHERE id = :idSeccion
+            AND (vacantes_disponibles IS NULL OR cupos_ocupados + :cantidad <= vacantes_disponibles)
+  """, nativeQuery = true)
+  int ocuparCupos(@Param("idSeccion") Integer idSeccion, @Param("cantidad") int cantidad);
 }
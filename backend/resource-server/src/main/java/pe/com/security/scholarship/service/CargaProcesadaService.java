@@ -0,0 +1,87 @@
+package pe.com.security.scholarship.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import pe.com.security.scholarship.domain.entity.CargaProcesada;
+import pe.com.security.scholarship.domain.enums.EstadoCargaProcesada;
+import pe.com.security.scholarship.domain.enums.TipoCarga;
+import pe.com.security.scholarship.dto.ProcesamientoResult;
+import pe.com.security.scholarship.exception.ConflictException;
+import pe.com.security.scholarship.exception.InternalServerErrorException;
+import pe.com.security.scholarship.repository.CargaProcesadaRepository;
+import pe.com.security.scholarship.util.FileUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Supplier;
+
+@Service
+@RequiredArgsConstructor
+public class CargaProcesadaService {
+
+  private final CargaProcesadaRepository cargaProcesadaRepository;
+  private final PlatformTransactionManager transactionManager;
+
+  // Una reserva EN_PROCESO más antigua se considera de un proceso caído y otra subida la puede tomar
+  @Value("${carga-masiva.reserva-vencida-min:60}")
+  private long minutosReservaVencida;
+
+  // Ejecuta la carga solo si el archivo no se procesó antes para el mismo tipo y destino; con 'forzar'
+  // se procesa de nuevo y se reemplaza el resultado guardado. El archivo se reserva EN_PROCESO y se marca
+  // COMPLETADO en transacciones cortas propias, sin retener una conexión ni un bloqueo mientras corren los
+  // lotes (cada uno confirma en su propia transacción). Solo queda registro de las cargas que terminaron:
+  // si la carga lanza una excepción (p. ej. sin conexión a la BD) se elimina la reserva y el archivo se puede
+  // volver a subir; las filas de los lotes ya confirmados se mantienen. Un resultado con filas fallidas por
+  // sus datos sí queda registrado: volver a subir el mismo archivo daría los mismos errores
+  public ProcesamientoResult procesarUnaVez(TipoCarga tipo, String objetivo, MultipartFile file, boolean forzar,
+                                           Supplier<ProcesamientoResult> carga) {
+    String hashArchivo = FileUtils.calcularSha256(file);
+    Instant vencimiento = Instant.now().minus(Duration.ofMinutes(minutosReservaVencida));
+
+    CargaProcesada registro = nuevaTransaccion().execute(status -> {
+      if (cargaProcesadaRepository.reservar(tipo.name(), objetivo, hashArchivo, forzar, vencimiento) == 0) return null;
+      return cargaProcesadaRepository.findByTipoAndObjetivoAndHashArchivo(tipo, objetivo, hashArchivo)
+              .orElseThrow(() -> new InternalServerErrorException("No se encontró el registro de la carga"));
+    });
+
+    if (registro == null) {
+      return resultadoPrevio(tipo, objetivo, hashArchivo);
+    }
+
+    ProcesamientoResult resultado;
+    try {
+      resultado = carga.get();
+    } catch (RuntimeException e) {
+      nuevaTransaccion().executeWithoutResult(status -> cargaProcesadaRepository.deleteById(registro.getId()));
+      throw e;
+    }
+
+    nuevaTransaccion().executeWithoutResult(status -> {
+      CargaProcesada completado = cargaProcesadaRepository.findById(registro.getId())
+              .orElseThrow(() -> new InternalServerErrorException("No se encontró el registro de la carga"));
+      completado.setResultado(resultado);
+      completado.setEstado(EstadoCargaProcesada.COMPLETADO);
+      cargaProcesadaRepository.save(completado);
+    });
+    return resultado;
+  }
+
+  private ProcesamientoResult resultadoPrevio(TipoCarga tipo, String objetivo, String hashArchivo) {
+    CargaProcesada previa = cargaProcesadaRepository.findByTipoAndObjetivoAndHashArchivo(tipo, objetivo, hashArchivo)
+            .filter(registro -> registro.getEstado() == EstadoCargaProcesada.COMPLETADO)
+            .orElseThrow(() -> new ConflictException("El archivo se está procesando, intente nuevamente"));
+    return previa.getResultado().toBuilder().duplicado(true).build();
+  }
+
+  // Independiente de la transacción del llamador: la reserva y el resultado se confirman de inmediato
+  private TransactionTemplate nuevaTransaccion() {
+    TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+    transaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    return transaccion;
+  }
+}
@@ -0,0 +1,25 @@
+package pe.com.security.scholarship.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+// Tareas programadas de convocatorias. Está en un bean aparte para que la llamada pase por el proxy
+// de ConvocatoriaService: desde la misma clase se ignorarían @Transactional y @Retryable
+@Service
+@RequiredArgsConstructor
+public class ConvocatoriaCronService {
+
+  private final ConvocatoriaService convocatoriaService;
+
+  // Actualizar el estado de las convocatorias a media noche
+  @Scheduled(cron = "0 0 0 * * *")
+  public void ejecutarCron() {
+    System.out.println("Iniciando cron de actualización...");
+    try {
+      convocatoriaService.actualizarEstadosConvocatorias();
+    } catch (Exception e) {
+      System.out.println("El cron falló definitivamente tras los reintentos");
+    }
+  }
+}
@@ -6,12 +6,11 @@ import org.springframework.dao.IncorrectResultSizeDataAccessException;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Recover;
 import org.springframework.retry.annotation.Retryable;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.TransactionSystemException;
 import org.springframework.transaction.annotation.Transactional;
-import pe.com.security.scholarship.dto.projection.RankingProjection;
-import pe.com.security.scholarship.dto.projection.TasasConvocatoriaProjection;
+import pe.com.security.scholarship.dto.EvaluacionResult;
+import pe.com.security.scholarship.dto.VersionRecurso;
 import pe.com.security.scholarship.dto.request.RegisterConvocatoriaRequest;
 import pe.com.security.scholarship.dto.request.UpdateEstadoConvocatoriaRequest;
 import pe.com.security.scholarship.dto.response.AuditEmpleadoResponse;
@@ -21,29 +20,29 @@ import pe.com.security.scholarship.dto.response.HistorialConvocatoriaResponse;
 import pe.com.security.scholarship.dto.response.RegisteredConvocatoriaResponse;
 import pe.com.security.scholarship.domain.entity.Convocatoria;
 import pe.com.security.scholarship.domain.entity.Empleado;
+import pe.com.security.scholarship.domain.entity.EstadisticaConvocatoria;
 import pe.com.security.scholarship.domain.enums.EstadoConvocatoria;
 import pe.com.security.scholarship.exception.BadRequestException;
 import pe.com.security.scholarship.exception.ConflictException;
-import pe.com.security.scholarship.exception.InternalServerErrorException;
 import pe.com.security.scholarship.exception.NotFoundException;
 import pe.com.security.scholarship.mapper.ConvocatoriaMapper;
 import pe.com.security.scholarship.repository.ConvocatoriaRepository;
-import pe.com.security.scholarship.repository.EmpleadoRepository;
-import pe.com.security.scholarship.util.SecurityUtils;
+import pe.com.security.scholarship.util.RespuestaCondicional;
+import pe.com.security.scholarship.util.UsuarioActualHelper;
 
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
-import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class ConvocatoriaService {
 
   private final ConvocatoriaRepository convocatoriaRepository;
-  private final EmpleadoRepository empleadoRepository;
   private final EmpleadoService empleadoService;
   private final EvaluacionPostulanteService evaluacionPostulanteService;
+  private final EstadisticaConvocatoriaService estadisticaConvocatoriaService;
+  private final UsuarioActualHelper usuarioActualHelper;
 
   @Transactional
   public RegisteredConvocatoriaResponse registerConvocatoria(RegisterConvocatoriaRequest request) {
@@ -51,8 +50,7 @@ public class ConvocatoriaService {
       throw new BadRequestException("La fecha de finalización debe ser posterior a la fecha de inicio");
     }
 
-    UUID idUsuario = SecurityUtils.getCurrentUserId();
-    Empleado empleado = empleadoRepository.findByIdUsuario(idUsuario)
+    Empleado empleado = usuarioActualHelper.getEmpleado()
             .orElseThrow(() -> new NotFoundException("No se encontró empleado con el user id del payload"));
 
     List<HistorialConvocatoriaResponse> convocatorias = getHistorialConvocatorias(request.getFechaInicio().getYear());
@@ -79,6 +77,7 @@ public class ConvocatoriaService {
     }
 
     Convocatoria convocatoria = convocatoriaRepository.save(ConvocatoriaMapper.buildConvocatoria(request, empleado));
+    estadisticaConvocatoriaService.inicializar(convocatoria);
     AuditEmpleadoResponse auditEmpleadoResponse = empleadoService.obtenerAuditoriaActual();
     return ConvocatoriaMapper.mapRegisteredConvocatoria(convocatoria, auditEmpleadoResponse);
   }
@@ -94,6 +93,11 @@ public class ConvocatoriaService {
     }
   }
 
+  // Versión para GET condicional de la convocatoria activa
+  public VersionRecurso getVersionConvocatoriaAbierta() {
+    return RespuestaCondicional.buildVersion(convocatoriaRepository.getVersionConvocatorias());
+  }
+
   public List<HistorialConvocatoriaResponse> getHistorialConvocatorias(Integer year) {
     List<Convocatoria> convocatorias = convocatoriaRepository.findByYear(year);
     if (convocatorias == null || convocatorias.isEmpty()) {
@@ -106,19 +110,9 @@ public class ConvocatoriaService {
   }
 
   public DetalleConvocatoriaResponse getDetalleConvocatoria(Integer id) {
-    Convocatoria convocatoria = convocatoriaRepository.findById(id)
-            .orElseThrow(() -> new NotFoundException("No se encontró convocatoria con el id especificado"));
+    EstadisticaConvocatoria estadistica = estadisticaConvocatoriaService.obtenerEstadistica(id);
     AuditEmpleadoResponse auditEmpleadoResponse = empleadoService.obtenerAuditoriaActual();
-    int cantidadPostulantes = convocatoriaRepository.getCantidadPostulantes(id);
-    TasasConvocatoriaProjection tasas = convocatoriaRepository.getTasasGenerales(id);
-    if (tasas == null) throw new InternalServerErrorException("No se pudieron calcular las tasas de la convocatoria");
-
-    List<RankingProjection> rankingSocioeconomico = convocatoriaRepository.getRankingSocioeconomico(id);
-    List<RankingProjection> rankingCiclo = convocatoriaRepository.getRankingCiclo(id);
-    List<RankingProjection> rankingCarrera = convocatoriaRepository.getRankingCarrera(id);
-
-    return ConvocatoriaMapper.mapDetalleConvocatoria(convocatoria, auditEmpleadoResponse, cantidadPostulantes, tasas,
-            rankingSocioeconomico, rankingCiclo, rankingCarrera);
+    return ConvocatoriaMapper.mapDetalleConvocatoria(estadistica, auditEmpleadoResponse);
   }
 
   @Transactional
@@ -130,23 +124,13 @@ public class ConvocatoriaService {
     return getDetalleConvocatoria(request.getIdConvocatoria());
   }
 
-  // Tareas programadas: Actualizar el estado de las convocatorias a media noche
-
-  @Scheduled(cron = "0 0 0 * * *")
-  public void ejecutarCron() {
-    System.out.println("Iniciando cron de actualización...");
-    try {
-      actualizarEstadosConvocatorias();
-    } catch (Exception e) {
-      System.out.println("El cron falló definitivamente tras los reintentos");
-    }
-  }
+  // Tareas programadas: las ejecuta ConvocatoriaCronService a través del proxy de este servicio
 
   @Transactional
   @Retryable(
           retryFor = { TransactionSystemException.class, DataAccessException.class },
           maxAttempts = 5,
-          backoff = @Backoff(delay = 300000) // 5 minutos
+          backoff = @Backoff(delayExpression = "${convocatorias.cron.espera-reintento-ms:300000}") // 5 minutos
   )
   public void actualizarEstadosConvocatorias() {
     int aperturadas = convocatoriaRepository.aperturarConvocatoriasVigentes(LocalDate.now());
@@ -154,10 +138,13 @@ public class ConvocatoriaService {
 
     System.out.println("Cron exitoso: "+aperturadas+" abiertas, "+cerradas+" cerradas");
 
-    // insertar la funcion para el procesamiento en lote
-    if (cerradas>0) {
-      int postulacionesActualizadas = evaluacionPostulanteService.evaluarPostulantes();
-      System.out.println("Actualización exitosa de "+postulacionesActualizadas+" postulantes");
+    // La última convocatoria cerrada se evalúa mientras su checkpoint no esté completo, aunque hoy no se haya
+    // cerrado ninguna: así se retoma una evaluación que falló o una convocatoria cerrada manualmente
+    if (evaluacionPostulanteService.hayEvaluacionPendiente()) {
+      EvaluacionResult evaluacion = evaluacionPostulanteService.evaluarPostulantes();
+      System.out.println("Actualización exitosa de "+evaluacion.getRankeados()+" postulantes " +
+              "(cálculo: "+evaluacion.getTiempoCalculoMs()+" ms en "+evaluacion.getLotes()+" lotes, " +
+              String.format("%.1f", evaluacion.getFilasPorSegundo())+" filas/s, ranking: "+evaluacion.getTiempoRankingMs()+" ms)");
     }
   }
 
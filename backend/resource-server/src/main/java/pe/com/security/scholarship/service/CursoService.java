@@ -1,17 +1,21 @@
 package pe.com.security.scholarship.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import pe.com.security.scholarship.config.CacheConfig;
 import pe.com.security.scholarship.domain.entity.Curso;
 import pe.com.security.scholarship.domain.entity.Estudiante;
 import pe.com.security.scholarship.domain.entity.HorarioSeccion;
-import pe.com.security.scholarship.domain.entity.Postulacion;
 import pe.com.security.scholarship.domain.entity.Seccion;
+import pe.com.security.scholarship.dto.VersionRecurso;
+import pe.com.security.scholarship.dto.projection.EstadoBecaProjection;
 import pe.com.security.scholarship.dto.request.RegisterCursoRequest;
 import pe.com.security.scholarship.dto.response.OverviewCursoResponse;
 import pe.com.security.scholarship.dto.response.OverviewSeccionResponse;
@@ -22,9 +26,8 @@ import pe.com.security.scholarship.mapper.CursoMapper;
 import pe.com.security.scholarship.mapper.HorarioMapper;
 import pe.com.security.scholarship.mapper.SeccionMapper;
 import pe.com.security.scholarship.repository.CursoRepository;
-import pe.com.security.scholarship.repository.EstudianteRepository;
-import pe.com.security.scholarship.repository.PostulacionRepository;
-import pe.com.security.scholarship.util.SecurityUtils;
+import pe.com.security.scholarship.util.RespuestaCondicional;
+import pe.com.security.scholarship.util.UsuarioActualHelper;
 
 import java.time.LocalDate;
 import java.util.Collections;
@@ -32,18 +35,17 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class CursoService {
   private final CursoRepository cursoRepository;
-  private final EstudianteRepository estudianteRepository;
-  private final PostulacionRepository postulacionRepository;
   private final PostulacionService postulacionService;
   private final SeccionService seccionService;
+  private final UsuarioActualHelper usuarioActualHelper;
 
   @Transactional
+  @CacheEvict(value = {CacheConfig.CATALOGO_CURSOS, CacheConfig.HORARIOS_CURSOS}, allEntries = true)
   public RegisteredCursoResponse register(RegisterCursoRequest request) {
     if (cursoRepository.existsByCodigo(request.getCodigo())) {
       throw new BadRequestException("Ya existe un curso con el código ingresado");
@@ -81,6 +83,7 @@ public class CursoService {
   }
 
   @Transactional(readOnly = true)
+  @Cacheable(value = CacheConfig.CATALOGO_CURSOS, key = "#pageable")
   public Page<OverviewCursoResponse> getCatalogo(Pageable pageable) {
     validarSort(pageable.getSort());
 
@@ -88,6 +91,7 @@ public class CursoService {
   }
 
   @Transactional(readOnly = true)
+  @Cacheable(value = CacheConfig.HORARIOS_CURSOS, key = "#pageable")
   public Page<OverviewCursoResponse> getHorarios(Pageable pageable) {
     validarSort(pageable.getSort());
     LocalDate hoy = LocalDate.now();
@@ -104,18 +108,27 @@ public class CursoService {
     return new PageImpl<>(contenido, pageable, idsPage.getTotalElements());
   }
 
+  // Versiones para GET condicional: una consulta agregada, sin cargar entidades
+
+  @Transactional(readOnly = true)
+  public VersionRecurso getVersionCatalogo() {
+    return RespuestaCondicional.buildVersion(cursoRepository.getVersionCatalogo());
+  }
+
+  @Transactional(readOnly = true)
+  public VersionRecurso getVersionHorarios() {
+    return RespuestaCondicional.buildVersion(cursoRepository.getVersionHorarios(), LocalDate.now());
+  }
+
   @Transactional(readOnly = true)
   public List<OverviewCursoResponse> getOfertaDisponiblePorBeca() {
-    UUID idUsuario = SecurityUtils.getCurrentUserId();
-    Estudiante estudiante = estudianteRepository.findByIdUsuario(idUsuario)
+    Estudiante estudiante = usuarioActualHelper.getEstudiante()
             .orElseThrow(() -> new NotFoundException("No se encontró estudiante asociado al id del payload"));
 
-    if (!postulacionService.tieneBecaActiva(estudiante.getId())) throw new BadRequestException("No tienes una beca vigente");
-
-    Postulacion postulacion = postulacionRepository.findLastPostulacion(estudiante.getId())
-            .orElseThrow(() -> new NotFoundException("No se encontró postulación para el presente año"));
+    EstadoBecaProjection estadoBeca = postulacionService.getEstadoBeca(estudiante.getId());
+    if (!postulacionService.tieneBecaActiva(estadoBeca)) throw new BadRequestException("No tienes una beca vigente");
 
-    List<Curso> cursosPostulacion = cursoRepository.findByIdPostulacion(postulacion.getId(), LocalDate.now());
+    List<Curso> cursosPostulacion = cursoRepository.findByIdPostulacion(estadoBeca.getIdUltimaPostulacion(), LocalDate.now());
 
     return cursosPostulacion.stream()
             .map(this::mapOverviewConSeccionesOrdenadas)
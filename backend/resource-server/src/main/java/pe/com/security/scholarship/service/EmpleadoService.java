@@ -4,18 +4,16 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
+import pe.com.security.scholarship.dto.UsuarioActual;
 import pe.com.security.scholarship.dto.response.AuditEmpleadoResponse;
-import pe.com.security.scholarship.domain.entity.Empleado;
 import pe.com.security.scholarship.exception.NotFoundException;
-import pe.com.security.scholarship.repository.EmpleadoRepository;
-
-import java.util.UUID;
+import pe.com.security.scholarship.util.UsuarioActualHelper;
 
 @Service
 @RequiredArgsConstructor
 public class EmpleadoService {
 
-  private final EmpleadoRepository empleadoRepository;
+  private final UsuarioActualHelper usuarioActualHelper;
 
   public AuditEmpleadoResponse obtenerAuditoriaActual() {
     // 1. Obtener el JWT desde el contexto de seguridad
@@ -25,16 +23,13 @@ public class EmpleadoService {
       throw new RuntimeException("Usuario no autenticado con JWT");
     }
 
-    // 2. Extraer el UID para buscar al empleado en tu DB local
-    UUID idUsuario = UUID.fromString(jwt.getClaimAsString("uid"));
-
-    // 3. Buscar el código en tu tabla de empleados
-    Empleado empleado = empleadoRepository.findByIdUsuario(idUsuario)
+    // 2. Código del empleado: viene de la caché del usuario actual, sin cargar la entidad
+    UsuarioActual empleado = usuarioActualHelper.getEmpleadoActual()
             .orElseThrow(() -> new NotFoundException("Empleado no vinculado al usuario"));
 
-    // 4. Construir el DTO mezclando ambas fuentes
+    // 3. Construir el DTO mezclando ambas fuentes
     return AuditEmpleadoResponse.builder()
-            .codigo(empleado.getCodigoEmpleado())
+            .codigo(empleado.getCodigo())
             .nombreCompleto(jwt.getClaimAsString("name"))
             .rol(jwt.getClaimAsStringList("roles"))
             .build();
@@ -0,0 +1,160 @@
+package pe.com.security.scholarship.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.com.security.scholarship.domain.entity.Convocatoria;
+import pe.com.security.scholarship.domain.entity.EstadisticaConvocatoria;
+import pe.com.security.scholarship.dto.projection.RankingProjection;
+import pe.com.security.scholarship.dto.projection.TasasConvocatoriaProjection;
+import pe.com.security.scholarship.exception.InternalServerErrorException;
+import pe.com.security.scholarship.exception.NotFoundException;
+import pe.com.security.scholarship.mapper.ConvocatoriaMapper;
+import pe.com.security.scholarship.repository.ConvocatoriaRepository;
+import pe.com.security.scholarship.repository.EstadisticaConvocatoriaRepository;
+import pe.com.security.scholarship.util.ConsultasParalelasHelper;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+@RequiredArgsConstructor
+public class EstadisticaConvocatoriaService {
+
+  private final EstadisticaConvocatoriaRepository estadisticaRepository;
+  private final ConvocatoriaRepository convocatoriaRepository;
+  private final ConsultasParalelasHelper consultasParalelasHelper;
+  private final PlatformTransactionManager transactionManager;
+
+  @Value("${estadisticas.consultas-paralelas:true}")
+  private boolean consultasParalelas;
+
+  // Snapshot junto con su convocatoria en una sola lectura por PK.
+  // Las convocatorias sin snapshot (previas a su creación) se calculan en la primera consulta.
+  // No es transaccional: las consultas paralelas toman sus conexiones del mismo pool y el llamador no debe
+  // retener otra mientras las espera. Si ya hay una transacción abierta se recalcula en ella, en secuencia
+  public EstadisticaConvocatoria obtenerEstadistica(Integer idConvocatoria) {
+    if (!consultasParalelas || TransactionSynchronizationManager.isActualTransactionActive()) {
+      return nuevaTransaccion().execute(status -> estadisticaRepository.findByIdWithConvocatoria(idConvocatoria)
+              .orElseGet(() -> recalcular(buscarConvocatoria(idConvocatoria))));
+    }
+    return consultasParalelasHelper.ejecutarAparte(() -> calcularEnParalelo(idConvocatoria));
+  }
+
+  // Cada lectura y la escritura final usan su propia transacción corta; ninguna conexión queda tomada
+  // mientras se esperan las consultas paralelas
+  private EstadisticaConvocatoria calcularEnParalelo(Integer idConvocatoria) {
+    Optional<EstadisticaConvocatoria> estadistica = estadisticaRepository.findByIdWithConvocatoria(idConvocatoria);
+    if (estadistica.isPresent()) return estadistica.get();
+
+    if (!convocatoriaRepository.existsById(idConvocatoria)) {
+      throw new NotFoundException("No se encontró convocatoria con el id especificado");
+    }
+
+    // Las cinco consultas son independientes: se lanzan en paralelo y la latencia queda cerca de la más lenta
+    CompletableFuture<Integer> cantidadPostulantes =
+            consultasParalelasHelper.enviar(() -> convocatoriaRepository.getCantidadPostulantes(idConvocatoria));
+    CompletableFuture<TasasConvocatoriaProjection> tasas =
+            consultasParalelasHelper.enviar(() -> convocatoriaRepository.getTasasGenerales(idConvocatoria));
+    CompletableFuture<List<RankingProjection>> rankingSocioeconomico =
+            consultasParalelasHelper.enviar(() -> convocatoriaRepository.getRankingSocioeconomico(idConvocatoria));
+    CompletableFuture<List<RankingProjection>> rankingCiclo =
+            consultasParalelasHelper.enviar(() -> convocatoriaRepository.getRankingCiclo(idConvocatoria));
+    CompletableFuture<List<RankingProjection>> rankingCarrera =
+            consultasParalelasHelper.enviar(() -> convocatoriaRepository.getRankingCarrera(idConvocatoria));
+    // Se esperan fuera de la transacción; si alguna falló, obtener relanza su excepción original
+    CompletableFuture.allOf(cantidadPostulantes, tasas, rankingSocioeconomico, rankingCiclo, rankingCarrera)
+            .exceptionally(e -> null)
+            .join();
+
+    return nuevaTransaccion().execute(status -> {
+      EstadisticaConvocatoria calculada = construir(buscarConvocatoria(idConvocatoria),
+              ConsultasParalelasHelper.obtener(cantidadPostulantes),
+              ConsultasParalelasHelper.obtener(tasas),
+              ConsultasParalelasHelper.obtener(rankingSocioeconomico),
+              ConsultasParalelasHelper.obtener(rankingCiclo),
+              ConsultasParalelasHelper.obtener(rankingCarrera));
+
+      // Otra primera consulta simultánea ya guardó el snapshot: se devuelve el suyo
+      if (estadisticaRepository.reservar(idConvocatoria) == 0) return releer(idConvocatoria);
+      return estadisticaRepository.save(calculada);
+    });
+  }
+
+  // Recalcula el snapshot completo a partir de las postulaciones (tras la evaluación o si no existe).
+  // Es secuencial: tras la evaluación debe leer el ranking aún sin confirmar de la transacción actual
+  @Transactional
+  public EstadisticaConvocatoria recalcular(Convocatoria convocatoria) {
+    Integer id = convocatoria.getId();
+    EstadisticaConvocatoria calculada = construir(convocatoria,
+            convocatoriaRepository.getCantidadPostulantes(id),
+            convocatoriaRepository.getTasasGenerales(id),
+            convocatoriaRepository.getRankingSocioeconomico(id),
+            convocatoriaRepository.getRankingCiclo(id),
+            convocatoriaRepository.getRankingCarrera(id));
+
+    // Reservar antes de guardar: si el snapshot aún no existe, save lo actualiza en vez de insertarlo
+    // y una primera consulta simultánea no termina en una clave duplicada
+    estadisticaRepository.reservar(id);
+    return estadisticaRepository.save(calculada);
+  }
+
+  private EstadisticaConvocatoria construir(Convocatoria convocatoria, int cantidadPostulantes,
+                                            TasasConvocatoriaProjection tasas,
+                                            List<RankingProjection> rankingSocioeconomico,
+                                            List<RankingProjection> rankingCiclo,
+                                            List<RankingProjection> rankingCarrera) {
+    if (tasas == null) throw new InternalServerErrorException("No se pudieron calcular las tasas de la convocatoria");
+
+    return ConvocatoriaMapper.buildEstadisticaConvocatoria(convocatoria, cantidadPostulantes,
+            tasas, rankingSocioeconomico, rankingCiclo, rankingCarrera);
+  }
+
+  private Convocatoria buscarConvocatoria(Integer idConvocatoria) {
+    return convocatoriaRepository.findById(idConvocatoria)
+            .orElseThrow(() -> new NotFoundException("No se encontró convocatoria con el id especificado"));
+  }
+
+  private EstadisticaConvocatoria releer(Integer idConvocatoria) {
+    return estadisticaRepository.findByIdWithConvocatoria(idConvocatoria)
+            .orElseThrow(() -> new NotFoundException("No se encontró convocatoria con el id especificado"));
+  }
+
+  // Se une a la transacción del llamador si la hay
+  private TransactionTemplate nuevaTransaccion() {
+    return new TransactionTemplate(transactionManager);
+  }
+
+  // Snapshot vacío para una convocatoria recién registrada
+  @Transactional
+  public void inicializar(Convocatoria convocatoria) {
+    estadisticaRepository.save(EstadisticaConvocatoria.builder()
+            .idConvocatoria(convocatoria.getId())
+            .convocatoria(convocatoria)
+            .cantidadPostulantes(0)
+            .cantidadAceptados(0)
+            .cantidadMatriculados(0)
+            .rankingSocioeconomico(new HashMap<>())
+            .rankingCiclo(new HashMap<>())
+            .rankingCarrera(new HashMap<>())
+            .build());
+  }
+
+  @Transactional
+  public void registrarPostulacion(Integer idConvocatoria, UUID idEstudiante) {
+    // Sin snapshot no hay nada que actualizar: se calculará completo en la primera consulta
+    estadisticaRepository.registrarPostulacion(idConvocatoria, idEstudiante);
+  }
+
+  @Transactional
+  public void actualizarMatriculados(Integer idSeccion) {
+    estadisticaRepository.actualizarMatriculados(idSeccion);
+  }
+}
@@ -0,0 +1,56 @@
+package pe.com.security.scholarship.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import pe.com.security.scholarship.domain.entity.EvaluacionCheckpoint;
+import pe.com.security.scholarship.dto.projection.LoteEvaluacionProjection;
+import pe.com.security.scholarship.repository.EvaluacionCheckpointRepository;
+import pe.com.security.scholarship.repository.PostulacionRepository;
+
+// Cada método confirma su propia transacción para que el avance persista aunque el cron falle después
+@Service
+@RequiredArgsConstructor
+public class EvaluacionLoteService {
+
+  private final EvaluacionCheckpointRepository checkpointRepository;
+  private final PostulacionRepository postulacionRepository;
+
+  // Retoma el checkpoint pendiente de la convocatoria o crea uno nuevo si no existe o ya fue completado
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public EvaluacionCheckpoint iniciarCheckpoint(Integer idConvocatoria) {
+    EvaluacionCheckpoint checkpoint = checkpointRepository.findById(idConvocatoria)
+            .orElseGet(() -> EvaluacionCheckpoint.builder().idConvocatoria(idConvocatoria).build());
+
+    if (checkpoint.getCompletado() == null || checkpoint.getCompletado()) {
+      checkpoint.setUltimoIdPostulacion(0);
+      checkpoint.setFilasProcesadas(0);
+      checkpoint.setCalificados(0);
+      checkpoint.setCompletado(false);
+    }
+    return checkpointRepository.save(checkpoint);
+  }
+
+  // Procesa el siguiente lote y avanza el checkpoint en la misma transacción.
+  // Si no quedan postulaciones por procesar, devuelve el checkpoint sin cambios.
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public EvaluacionCheckpoint procesarLote(EvaluacionCheckpoint checkpoint, String modoEvaluacion, int tamanioLote) {
+    LoteEvaluacionProjection lote = postulacionRepository.getSiguienteLote(
+            checkpoint.getIdConvocatoria(), checkpoint.getUltimoIdPostulacion(), tamanioLote);
+
+    if (lote == null || lote.getHastaId() == null) return checkpoint;
+
+    int calificados = postulacionRepository.calcularPromedioGeneral(checkpoint.getIdConvocatoria(),
+            modoEvaluacion, checkpoint.getUltimoIdPostulacion(), lote.getHastaId());
+
+    EvaluacionCheckpoint siguiente = EvaluacionCheckpoint.builder()
+            .idConvocatoria(checkpoint.getIdConvocatoria())
+            .ultimoIdPostulacion(lote.getHastaId())
+            .filasProcesadas(checkpoint.getFilasProcesadas() + lote.getCantidad().intValue())
+            .calificados(checkpoint.getCalificados() + calificados)
+            .completado(false)
+            .build();
+    return checkpointRepository.save(siguiente);
+  }
+}
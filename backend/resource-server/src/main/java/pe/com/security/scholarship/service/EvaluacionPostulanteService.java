@@ -1,16 +1,17 @@
 package pe.com.security.scholarship.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import pe.com.security.scholarship.domain.entity.Convocatoria;
-import pe.com.security.scholarship.dto.projection.PostulanteEvaluacionProjection;
+import pe.com.security.scholarship.domain.entity.EvaluacionCheckpoint;
+import pe.com.security.scholarship.dto.EvaluacionResult;
 import pe.com.security.scholarship.repository.ConvocatoriaRepository;
+import pe.com.security.scholarship.repository.EvaluacionCheckpointRepository;
 import pe.com.security.scholarship.repository.PostulacionRepository;
 
-import java.util.List;
 import java.util.Optional;
-import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
@@ -18,69 +19,100 @@ public class EvaluacionPostulanteService {
 
   private final ConvocatoriaRepository convocatoriaRepository;
   private final PostulacionRepository postulacionRepository;
+  private final EvaluacionCheckpointRepository checkpointRepository;
+  private final EvaluacionLoteService evaluacionLoteService;
+  private final EstadisticaConvocatoriaService estadisticaConvocatoriaService;
+
+  @Value("${evaluacion.tamanio-lote:1000}")
+  private int tamanioLote;
+
+  // Pendiente mientras el checkpoint de la última convocatoria cerrada no se complete junto con su ranking
+  public boolean hayEvaluacionPendiente() {
+    return convocatoriaRepository.getUltimaConvocatoriaCerrada()
+            .map(convocatoria -> checkpointRepository.findById(convocatoria.getId())
+                    .map(checkpoint -> !checkpoint.getCompletado())
+                    .orElse(true))
+            .orElse(false);
+  }
 
   @Transactional
-  public int evaluarPostulantes() {
+  public EvaluacionResult evaluarPostulantes() {
     Optional<Convocatoria> convocatoriaOpt = convocatoriaRepository.getUltimaConvocatoriaCerrada();
 
     if (convocatoriaOpt.isEmpty()) {
       System.out.println("Aviso: No se encontró convocatoria cerrada para evaluar en este año");
-      return 0;
+      return EvaluacionResult.builder().build();
     }
 
     Convocatoria convocatoria = convocatoriaOpt.get();
-    List<Integer> idsPostulaciones = postulacionRepository.findIdsByConvocatoria(convocatoria.getId());
+    int totalPostulantes = convocatoriaRepository.getCantidadPostulantes(convocatoria.getId());
 
-    if (idsPostulaciones.isEmpty()) {
+    if (totalPostulantes == 0) {
       System.out.println("Aviso: La convocatoria " + convocatoria.getId() + " no tiene postulaciones.");
-      return 0;
+      // Nada que evaluar: se completa el checkpoint para que el cron no vuelva a considerarla pendiente
+      evaluacionLoteService.iniciarCheckpoint(convocatoria.getId());
+      checkpointRepository.marcarCompletado(convocatoria.getId());
+      return EvaluacionResult.builder()
+              .idConvocatoria(convocatoria.getId())
+              .modoEvaluacion(convocatoria.getModoEvaluacion())
+              .build();
     }
 
-    List<PostulanteEvaluacionProjection> evaluaciones = postulacionRepository.getDatosEvaluacion(idsPostulaciones);
-
-    // DRY: Un solo switch que define la lógica de cálculo (Lambda)
-    switch (convocatoria.getModoEvaluacion()) {
-      case PROMEDIO_PONDERADO ->
-              procesarEvaluacion(evaluaciones, PostulanteEvaluacionProjection::getPromedioPonderado, "Promedio Ponderado");
-      case SOCIOECONOMICO ->
-              procesarEvaluacion(evaluaciones, p -> p.getValorEvalSocio() != null ? p.getValorEvalSocio().doubleValue() : null, "Evaluación Socioeconómica");
-      case MIXTO ->
-              procesarEvaluacion(evaluaciones, p -> (p.getPromedioPonderado() != null && p.getValorEvalSocio() != null)
-                      ? (p.getPromedioPonderado() + p.getValorEvalSocio()) / 2.0 : null, "Mixto (Promedio/Socio)");
+    // Fase 1: Cálculo por lotes. Cada lote se confirma junto con el checkpoint, de modo que un
+    // reintento del cron continúa desde el último lote confirmado
+    EvaluacionCheckpoint checkpoint = evaluacionLoteService.iniciarCheckpoint(convocatoria.getId());
+    int reanudadoDesde = checkpoint.getUltimoIdPostulacion();
+    int filasPrevias = checkpoint.getFilasProcesadas();
+
+    if (reanudadoDesde > 0) {
+      System.out.println("Reanudando evaluación de la convocatoria " + convocatoria.getId() +
+              " desde la postulación " + reanudadoDesde + " (" + filasPrevias + " ya procesadas)");
     }
 
-    return postulacionRepository.actualizarPromedioGeneralPostulaciones(convocatoria.getId());
-  }
+    int lotes = 0;
+    long inicioCalculo = System.nanoTime();
+    while (true) {
+      EvaluacionCheckpoint siguiente = evaluacionLoteService.procesarLote(checkpoint,
+              convocatoria.getModoEvaluacion().name(), tamanioLote);
+      if (siguiente.getUltimoIdPostulacion().equals(checkpoint.getUltimoIdPostulacion())) break;
+      checkpoint = siguiente;
+      lotes++;
+    }
+    long tiempoCalculoNs = System.nanoTime() - inicioCalculo;
 
-  private void procesarEvaluacion(List<PostulanteEvaluacionProjection> lista,
-                                  Function<PostulanteEvaluacionProjection, Double> extractor, // Recibe un objeto (Projection) y devuelve un número (Double).
-                                  String nombreModo) {
-    for (PostulanteEvaluacionProjection pEval : lista) {
-      try {
-        /* 1. EJECUCIÓN DE LA FÓRMULA (Lambda):
-               Aquí no sabemos QUÉ estamos calculando (si es solo promedio, socio o mixto)
-               Simplemente le decimos al 'extractor': "Aplica tu lógica a este postulante"
-               La lógica real fue definida arriba en el 'switch' como una función flecha (->)
-        */
-        Double valorCalculado = extractor.apply(pEval);
-
-        /* 2. VALIDACIÓN DE NULOS (Tu regla de auditoría):
-               Si la fórmula devolvió null (porque faltaba un dato),
-               usamos 'continue' para saltar al siguiente postulante del bucle 'for'
-               sin llegar a la línea del 'update'
-        */
-        if (valorCalculado == null) {
-          System.out.println("Postulante ID: " + pEval.getIdPostulacion() + " - omitido: Datos nulos para modo " + nombreModo);
-          continue;
-        }
-
-        /* 3. PERSISTENCIA DIRIGIDA:
-               Llamamos al Query nativo @Modifying que creamos
-        */
-        postulacionRepository.actualizarPromedioGeneral(pEval.getIdPostulacion(), valorCalculado);
-      } catch (Exception e) {
-        System.out.println("Error crítico en postulante " + pEval.getIdPostulacion() + ": " + e.getMessage());
-      }
+    // Fase 2: Ranking de ganadores según las vacantes de la convocatoria
+    long inicioRanking = System.nanoTime();
+    int rankeados = postulacionRepository.actualizarPromedioGeneralPostulaciones(convocatoria.getId());
+    long tiempoRankingMs = (System.nanoTime() - inicioRanking) / 1_000_000;
+
+    // El checkpoint solo se completa si el ranking se confirma junto con esta transacción
+    checkpointRepository.marcarCompletado(convocatoria.getId());
+
+    // Los aceptados cambian con el ranking: se recalcula el snapshot del detalle de convocatoria
+    estadisticaConvocatoriaService.recalcular(convocatoria);
+
+    int calificados = checkpoint.getCalificados();
+    if (calificados < totalPostulantes) {
+      System.out.println("Aviso: " + (totalPostulantes - calificados) + " postulantes omitidos por datos nulos para el modo "
+              + convocatoria.getModoEvaluacion());
     }
+
+    int filasEjecucion = checkpoint.getFilasProcesadas() - filasPrevias;
+    double filasPorSegundo = tiempoCalculoNs > 0 ? filasEjecucion / (tiempoCalculoNs / 1_000_000_000.0) : 0;
+
+    return EvaluacionResult.builder()
+            .idConvocatoria(convocatoria.getId())
+            .modoEvaluacion(convocatoria.getModoEvaluacion())
+            .totalPostulantes(totalPostulantes)
+            .calificados(calificados)
+            .omitidos(totalPostulantes - calificados)
+            .rankeados(rankeados)
+            .tamanioLote(tamanioLote)
+            .lotes(lotes)
+            .reanudadoDesde(reanudadoDesde)
+            .filasPorSegundo(filasPorSegundo)
+            .tiempoCalculoMs(tiempoCalculoNs / 1_000_000)
+            .tiempoRankingMs(tiempoRankingMs)
+            .build();
   }
 }
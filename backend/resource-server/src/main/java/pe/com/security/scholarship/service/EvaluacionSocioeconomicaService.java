@@ -2,52 +2,88 @@ package pe.com.security.scholarship.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import pe.com.security.scholarship.domain.entity.Empleado;
 import pe.com.security.scholarship.domain.entity.Estudiante;
 import pe.com.security.scholarship.domain.enums.NivelSocioeconomico;
+import pe.com.security.scholarship.domain.enums.TipoCarga;
 import pe.com.security.scholarship.dto.ProcesamientoResult;
 import pe.com.security.scholarship.dto.request.EvaluacionCsvRequest;
 import pe.com.security.scholarship.exception.BadRequestException;
 import pe.com.security.scholarship.exception.NotFoundException;
 import pe.com.security.scholarship.mapper.EvaluacionSocioeconomicaMapper;
-import pe.com.security.scholarship.repository.EmpleadoRepository;
 import pe.com.security.scholarship.repository.EstudianteRepository;
 import pe.com.security.scholarship.repository.EvaluacionSocioeconomicaRepository;
 import pe.com.security.scholarship.util.CargaMasivaHelper;
-import pe.com.security.scholarship.util.SecurityUtils;
+import pe.com.security.scholarship.util.UsuarioActualHelper;
 
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class EvaluacionSocioeconomicaService {
 
   private final CargaMasivaHelper cargaMasivaHelper;
+  private final CargaProcesadaService cargaProcesadaService;
   private final EstudianteRepository estudianteRepository;
-  private final EmpleadoRepository empleadoRepository;
   private final EvaluacionSocioeconomicaRepository evaluacionRepository;
+  private final UsuarioActualHelper usuarioActualHelper;
 
-  @Transactional
-  public ProcesamientoResult procesarCargaMasiva(MultipartFile file) {
-    UUID idUsuario = SecurityUtils.getCurrentUserId();
-    Empleado empleado = empleadoRepository.findByIdUsuario(idUsuario)
+  public ProcesamientoResult procesarCargaMasiva(MultipartFile file, boolean forzar) {
+    Empleado empleado = usuarioActualHelper.getEmpleado()
             .orElseThrow(() -> new NotFoundException("Empleado no encontrado"));
 
-    return cargaMasivaHelper.procesar(file, EvaluacionCsvRequest.class, fila -> {
-      Estudiante estudiante = estudianteRepository.findByCodigo(fila.getCodigo())
-              .orElseThrow(() -> new NotFoundException("Estudiante no encontrado"));
+    // Las evaluaciones no dependen de un periodo: un mismo archivo se procesa una sola vez
+    return cargaProcesadaService.procesarUnaVez(TipoCarga.EVALUACIONES, "GENERAL", file, forzar,
+            () -> cargar(file, empleado));
+  }
+
+  private ProcesamientoResult cargar(MultipartFile file, Empleado empleado) {
+    return cargaMasivaHelper.procesarPorLotes(file, EvaluacionCsvRequest.class, lote -> {
+      // Estudiantes del lote en una sola consulta
+      Map<String, Estudiante> estudiantes = estudianteRepository.findByCodigoIn(lote.stream()
+                      .map(EvaluacionCsvRequest::getCodigo)
+                      .filter(Objects::nonNull)
+                      .collect(Collectors.toSet()))
+              .stream()
+              .collect(Collectors.toMap(Estudiante::getCodigoEstudiante, Function.identity()));
+
+      // Evaluaciones ya registradas de esos estudiantes: si una carga se interrumpió después de confirmar
+      // algunos lotes, al volver a subir el archivo sus filas no se insertan de nuevo
+      Set<EvaluacionRegistrada> registradas = estudiantes.isEmpty() ? new HashSet<>() : evaluacionRepository
+              .findByEstudianteIdIn(estudiantes.values().stream().map(Estudiante::getId).toList())
+              .stream()
+              .map(e -> new EvaluacionRegistrada(e.getEstudiante().getId(), e.getFechaEvaluacion(), e.getNivelSocioeconomico()))
+              .collect(Collectors.toCollection(HashSet::new));
 
-      NivelSocioeconomico nivel;
-      try {
-        nivel = NivelSocioeconomico.valueOf(fila.getNivel().toUpperCase());
-      } catch (IllegalArgumentException e) {
-        throw new BadRequestException("Nivel socioeconómico '" + fila.getNivel() + "' no es válido");
-      }
+      return fila -> {
+        Estudiante estudiante = Optional.ofNullable(estudiantes.get(fila.getCodigo()))
+                .orElseThrow(() -> new NotFoundException("Estudiante no encontrado"));
 
-      evaluacionRepository.save(EvaluacionSocioeconomicaMapper
-              .buildEvaluacionSocioeconomica(estudiante, fila.getFechaEvaluacion(), nivel, empleado));
+        NivelSocioeconomico nivel;
+        try {
+          nivel = NivelSocioeconomico.valueOf(fila.getNivel().toUpperCase());
+        } catch (IllegalArgumentException e) {
+          throw new BadRequestException("Nivel socioeconómico '" + fila.getNivel() + "' no es válido");
+        }
+
+        // Una evaluación idéntica (mismo estudiante, fecha y nivel) cuenta como procesada sin insertarse
+        if (!registradas.add(new EvaluacionRegistrada(estudiante.getId(), fila.getFechaEvaluacion(), nivel))) return;
+
+        // Los inserts se envían en batch al cerrar el lote
+        evaluacionRepository.save(EvaluacionSocioeconomicaMapper
+                .buildEvaluacionSocioeconomica(estudiante, fila.getFechaEvaluacion(), nivel, empleado));
+      };
     });
   }
+
+  private record EvaluacionRegistrada(UUID idEstudiante, LocalDate fechaEvaluacion, NivelSocioeconomico nivel) {}
 }
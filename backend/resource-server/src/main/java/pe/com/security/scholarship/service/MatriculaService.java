@@ -1,7 +1,9 @@
 package pe.com.security.scholarship.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Limit;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Recover;
@@ -11,6 +13,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.TransactionSystemException;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
+import pe.com.security.scholarship.config.CacheConfig;
 import pe.com.security.scholarship.domain.entity.Curso;
 import pe.com.security.scholarship.domain.entity.Empleado;
 import pe.com.security.scholarship.domain.entity.Estudiante;
@@ -18,7 +21,9 @@ import pe.com.security.scholarship.domain.entity.Matricula;
 import pe.com.security.scholarship.domain.entity.Postulacion;
 import pe.com.security.scholarship.domain.entity.Seccion;
 import pe.com.security.scholarship.domain.enums.EstadoMatricula;
+import pe.com.security.scholarship.domain.enums.TipoCarga;
 import pe.com.security.scholarship.dto.ProcesamientoResult;
+import pe.com.security.scholarship.dto.projection.EstadoBecaProjection;
 import pe.com.security.scholarship.dto.projection.SeccionIntencionProjection;
 import pe.com.security.scholarship.dto.request.AprobarMatriculaRequest;
 import pe.com.security.scholarship.dto.request.NotaCsvRequest;
@@ -32,50 +37,54 @@ import pe.com.security.scholarship.dto.response.SeccionIntencionMatriculaRespons
 import pe.com.security.scholarship.exception.BadRequestException;
 import pe.com.security.scholarship.exception.NotFoundException;
 import pe.com.security.scholarship.mapper.MatriculaMapper;
+import pe.com.security.scholarship.mapper.SeccionMapper;
 import pe.com.security.scholarship.repository.CursoRepository;
-import pe.com.security.scholarship.repository.EmpleadoRepository;
-import pe.com.security.scholarship.repository.EstudianteRepository;
 import pe.com.security.scholarship.repository.MatriculaRepository;
 import pe.com.security.scholarship.repository.PostulacionRepository;
 import pe.com.security.scholarship.repository.SeccionRepository;
 import pe.com.security.scholarship.util.CargaMasivaHelper;
-import pe.com.security.scholarship.util.SecurityUtils;
+import pe.com.security.scholarship.util.UsuarioActualHelper;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class MatriculaService {
 
-  private final EstudianteRepository estudianteRepository;
   private final PostulacionRepository postulacionRepository;
   private final CursoRepository cursoRepository;
   private final SeccionRepository seccionRepository;
   private final MatriculaRepository matriculaRepository;
-  private final EmpleadoRepository empleadoRepository;
   private final PostulacionService postulacionService;
   private final CargaMasivaHelper cargaMasivaHelper;
+  private final CargaProcesadaService cargaProcesadaService;
+  private final EstadisticaConvocatoriaService estadisticaConvocatoriaService;
+  private final UsuarioActualHelper usuarioActualHelper;
 
   @Transactional
   public RegisteredMatriculaResponse submitEnrollmentIntention(SubmitMatriculaRequest request) {
-    UUID idUsuario = SecurityUtils.getCurrentUserId();
-    Estudiante estudiante = estudianteRepository.findByIdUsuario(idUsuario)
+    Estudiante estudiante = usuarioActualHelper.getEstudiante()
             .orElseThrow(() -> new NotFoundException("No se encontró estudiante asociado al id del payload"));
 
-    if (!postulacionService.tieneBecaActiva(estudiante.getId())) throw new BadRequestException("No tienes una beca vigente");
+    // Bloqueo compartido de la sección antes de cualquier verificación: las intenciones no se esperan entre sí,
+    // pero la actualización de vacantes y las aprobaciones esperan a las que están en curso (y viceversa),
+    // así las verificaciones siguientes ven las matrículas ya aceptadas
+    seccionRepository.findByIdForShare(request.getIdSeccion());
+
+    EstadoBecaProjection estadoBeca = postulacionService.getEstadoBeca(estudiante.getId());
+    if (!postulacionService.tieneBecaActiva(estadoBeca)) throw new BadRequestException("No tienes una beca vigente");
 
     // Ya hay una intencion de matricula pendiente
     if(matriculaRepository.existsIntencionMatricula(estudiante.getId())) throw new BadRequestException("Ya tienes una intención de matrícula pendiente");
 
-    Postulacion postulacion = postulacionRepository.findLastPostulacion(estudiante.getId())
-            .orElseThrow(() -> new NotFoundException("No se encontró postulación para el presente año"));
+    Postulacion postulacion = postulacionRepository.getReferenceById(estadoBeca.getIdUltimaPostulacion());
 
     List<Curso> cursosPostulacion = cursoRepository.findByIdPostulacion(postulacion.getId(), LocalDate.now());
 
@@ -86,15 +95,20 @@ public class MatriculaService {
       throw new BadRequestException("Sección no válida para la intención de matrícula");
     }
 
-    Matricula matricula = matriculaRepository.save(MatriculaMapper.buildMatricula(seccionMatricula, postulacion));
+    Matricula matricula;
+    try {
+      matricula = matriculaRepository.save(MatriculaMapper.buildMatricula(seccionMatricula, postulacion));
+    } catch (DataIntegrityViolationException e) {
+      // Otra solicitud simultánea del mismo estudiante ganó el índice único de intenciones pendientes
+      throw new BadRequestException("Ya tienes una intención de matrícula pendiente");
+    }
 
     return MatriculaMapper.mapSubmitMatricula(matricula);
   }
 
   @Transactional(readOnly = true)
   public IntencionMatriculaResponse getIntencionMatricula() {
-    UUID idUsuario = SecurityUtils.getCurrentUserId();
-    Estudiante estudiante = estudianteRepository.findByIdUsuario(idUsuario)
+    Estudiante estudiante = usuarioActualHelper.getEstudiante()
             .orElseThrow(() -> new NotFoundException("No se encontró estudiante asociado al id del payload"));
 
     Matricula matricula = matriculaRepository.findLastMatriculaByIdEstudiante(estudiante.getId(), Limit.of(1))
@@ -106,49 +120,27 @@ public class MatriculaService {
 
   public List<CursoIntencionMatriculaResponse> getIntencionesMatriculaSeccion() {
 
-    // Se obtiene la lista de proyecciones con datos puntuales de la BD, esto ya viene "ordenado" de la BD
+    // Se obtiene la lista de proyecciones con datos puntuales de la BD, ordenada por fecha de inicio de la sección
     List<SeccionIntencionProjection> proyecciones = matriculaRepository.findIntencionesMatriculaSeccion();
 
     if (proyecciones == null || proyecciones.isEmpty()) {
       return Collections.emptyList();
     }
 
-    class TemporalAgrupador {
-      final Integer idCurso;
-      final CursoIntencionMatriculaResponse curso;
-      final SeccionIntencionMatriculaResponse seccion;
-
-      TemporalAgrupador(SeccionIntencionProjection p) {
-        this.idCurso = p.getIdCurso();
-        this.curso = MatriculaMapper.mapCursoIntencionMatricula(p);
-        this.seccion = MatriculaMapper.mapSeccionIntencionMatricula(p);
+    // Las filas llegan ordenadas por fecha de inicio: cada curso aparece primero con su sección más próxima,
+    // así que el orden de inserción ya es el orden final y se agrupa en una sola pasada sin reordenar
+    Map<Integer, CursoIntencionMatriculaResponse> cursos = new LinkedHashMap<>();
+    for (SeccionIntencionProjection p : proyecciones) {
+      CursoIntencionMatriculaResponse curso = cursos.get(p.getIdCurso());
+      if (curso == null) {
+        curso = MatriculaMapper.mapCursoIntencionMatricula(p);
+        curso.setSecciones(new ArrayList<>());
+        cursos.put(p.getIdCurso(), curso);
       }
+      curso.getSecciones().add(MatriculaMapper.mapSeccionIntencionMatricula(p));
     }
 
-    List<TemporalAgrupador> temporales = proyecciones.stream()
-            .map(TemporalAgrupador::new)
-            .toList();
-
-    // Se crea un map agrupando secciones por cursos
-    Map<Integer, List<TemporalAgrupador>> agrupado = temporales.stream()
-            .collect(Collectors.groupingBy(t -> t.idCurso));
-
-    return agrupado.values().stream()
-            .map(listaTemporal -> {
-              // Tomamos la primera proyección para datos generales del curso
-              TemporalAgrupador primero = listaTemporal.getFirst();
-              CursoIntencionMatriculaResponse cursoFinal = primero.curso;
-
-              // Seteamos las secciones mapeadas reales al objeto curso
-              cursoFinal.setSecciones(listaTemporal.stream()
-                      .map(t -> t.seccion)
-                      .toList());
-
-              return cursoFinal;
-            }).sorted(Comparator.comparing(
-                    // Ordenamos usando datos reales de los DTOs ya agrupados
-                    c -> c.getSecciones().getFirst().getFechaInicio()
-            )).toList();
+    return List.copyOf(cursos.values());
   }
 
   @Transactional(readOnly = true)
@@ -156,7 +148,7 @@ public class MatriculaService {
     Seccion seccion = seccionRepository.findById(idSeccion)
             .orElseThrow(() -> new NotFoundException("No se encontró la sección con el ID enviado"));
 
-    int vacantesDisponibles = seccionRepository.getVacantesRestantes(idSeccion);
+    Integer vacantesDisponibles = SeccionMapper.vacantesRestantes(seccion);
 
     List<BecadoIntencionMatriculaResponse> becados = matriculaRepository.findBecadosIntencionMatricula(idSeccion).stream()
             .map(MatriculaMapper::mapBecadoIntencionMatricula)
@@ -166,11 +158,18 @@ public class MatriculaService {
   }
 
   @Transactional
+  @CacheEvict(value = CacheConfig.HORARIOS_CURSOS, allEntries = true, condition = "#request.aprobado")
   public void actualizarEstadoMatricula(AprobarMatriculaRequest request) {
-    UUID idUsuario = SecurityUtils.getCurrentUserId();
-    Empleado empleado = empleadoRepository.findByIdUsuario(idUsuario)
+    Empleado empleado = usuarioActualHelper.getEmpleado()
             .orElseThrow(() -> new NotFoundException("No se encontró empleado con el ID del payload"));
 
+    Integer idSeccion = matriculaRepository.findIdSeccion(request.getIdMatricula())
+            .orElseThrow(() -> new NotFoundException("No se encontró la matrícula con el ID enviado"));
+
+    // Se bloquea la sección antes de leer la matrícula: las aprobaciones y la actualización de vacantes
+    // se ejecutan una tras otra y cada una ve el estado confirmado por la anterior
+    seccionRepository.findByIdForUpdate(idSeccion);
+
     Matricula matricula = matriculaRepository.findById(request.getIdMatricula())
             .orElseThrow(() -> new NotFoundException("No se encontró la matrícula con el ID enviado"));
 
@@ -184,15 +183,20 @@ public class MatriculaService {
       throw new BadRequestException("No se puede rechazar una matrícula ya aprobada");
     }
 
+    if (request.getAprobado() && seccionRepository.ocuparCupos(idSeccion, 1) == 0) {
+      throw new BadRequestException("No hay vacantes disponibles en la sección");
+    }
+
     matricula.setEmpleado(empleado);
 
     matricula.setFechaMatricula(request.getAprobado() ? Instant.now() : null);
 
     matricula.setEstado(request.getAprobado() ? EstadoMatricula.ACEPTADO : EstadoMatricula.RECHAZADO);
+
+    if (request.getAprobado()) estadisticaConvocatoriaService.actualizarMatriculados(idSeccion);
   }
 
-  @Transactional
-  public ProcesamientoResult procesarCargaNotas(MultipartFile file, Integer idSeccion) {
+  public ProcesamientoResult procesarCargaNotas(MultipartFile file, Integer idSeccion, boolean forzar) {
     Seccion seccion = seccionRepository.findById(idSeccion)
             .orElseThrow(() -> new NotFoundException("Sección no encontrada"));
 
@@ -200,19 +204,37 @@ public class MatriculaService {
       throw new BadRequestException("No se pueden subir notas antes del inicio de la sección");
     }
 
-    return cargaMasivaHelper.procesar(file, NotaCsvRequest.class, fila -> {
-      if (fila.getNota() < 0 || fila.getNota() > 20) {
-        throw new BadRequestException("La nota debe estar entre 0 y 20");
-      }
-
-      int filasAfectadas = matriculaRepository.actualizarNota(fila.getCodigo(), idSeccion, fila.getNota());
+    return cargaProcesadaService.procesarUnaVez(TipoCarga.NOTAS, idSeccion.toString(), file, forzar,
+            () -> cargarNotas(file, idSeccion));
+  }
 
-      if (filasAfectadas == 0) {
-        throw new BadRequestException("El estudiante " + fila.getCodigo() + " no pertenece a esta sección");
-      }
+  private ProcesamientoResult cargarNotas(MultipartFile file, Integer idSeccion) {
+    return cargaMasivaHelper.procesarPorLotes(file, NotaCsvRequest.class, lote -> {
+      // Si un código se repite prevalece su última nota, como al actualizar fila por fila
+      Map<String, Double> notas = new LinkedHashMap<>();
+      lote.stream()
+              .filter(fila -> esNotaValida(fila.getNota()))
+              .forEach(fila -> notas.put(fila.getCodigo(), fila.getNota()));
+
+      // Un solo UPDATE para todo el lote; devuelve los códigos sin matrícula aceptada en la sección
+      Set<String> sinMatricula = notas.isEmpty() ? Set.of() : matriculaRepository.actualizarNotas(idSeccion, notas);
+
+      return fila -> {
+        if (!esNotaValida(fila.getNota())) {
+          throw new BadRequestException("La nota debe estar entre 0 y 20");
+        }
+
+        if (sinMatricula.contains(fila.getCodigo())) {
+          throw new BadRequestException("El estudiante " + fila.getCodigo() + " no pertenece a esta sección");
+        }
+      };
     });
   }
 
+  private boolean esNotaValida(Double nota) {
+    return nota >= 0 && nota <= 20;
+  }
+
   @Scheduled(cron = "0 5 0 * * *")
   public void ejecutarCron() {
     System.out.println("Iniciando cron de actualización...");
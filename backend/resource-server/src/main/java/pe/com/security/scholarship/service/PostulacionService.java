@@ -1,23 +1,34 @@
 package pe.com.security.scholarship.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import pe.com.security.scholarship.config.CacheConfig;
 import pe.com.security.scholarship.domain.entity.Convocatoria;
 import pe.com.security.scholarship.domain.entity.Curso;
 import pe.com.security.scholarship.domain.entity.Estudiante;
 import pe.com.security.scholarship.domain.entity.Postulacion;
 import pe.com.security.scholarship.domain.enums.EstadoMatricula;
+import pe.com.security.scholarship.domain.enums.FormatoExportacion;
+import pe.com.security.scholarship.dto.CursorPostulante;
+import pe.com.security.scholarship.dto.projection.CursoOpcionProjection;
+import pe.com.security.scholarship.dto.projection.EstadoBecaProjection;
+import pe.com.security.scholarship.dto.projection.HistorialPostulacionProjection;
 import pe.com.security.scholarship.dto.projection.IdentificacionEstudianteProjection;
+import pe.com.security.scholarship.dto.projection.PostulanteConvocatoriaProjection;
+import pe.com.security.scholarship.dto.projection.ResultadoPostulacionProjection;
 import pe.com.security.scholarship.dto.request.RegisterPostulacionRequest;
 import pe.com.security.scholarship.dto.response.ConsultaPostulacionResponse;
 import pe.com.security.scholarship.dto.response.CursoPostulacionResponse;
 import pe.com.security.scholarship.dto.response.DetallePostulanteResponse;
 import pe.com.security.scholarship.dto.response.HistorialPostulacionResponse;
+import pe.com.security.scholarship.dto.response.PaginaCursorResponse;
 import pe.com.security.scholarship.dto.response.PostulanteConvocatoriaResponse;
 import pe.com.security.scholarship.dto.response.RegisteredPostulacionResponse;
 import pe.com.security.scholarship.dto.response.ResultadoPostulacionResponse;
@@ -28,13 +39,15 @@ import pe.com.security.scholarship.mapper.PostulacionMapper;
 import pe.com.security.scholarship.repository.ConvocatoriaRepository;
 import pe.com.security.scholarship.repository.CursoRepository;
 import pe.com.security.scholarship.repository.EstudianteRepository;
-import pe.com.security.scholarship.repository.MatriculaRepository;
 import pe.com.security.scholarship.repository.PostulacionRepository;
-import pe.com.security.scholarship.util.SecurityUtils;
+import pe.com.security.scholarship.util.CursorPaginacion;
+import pe.com.security.scholarship.util.ExportacionPostulantesHelper;
+import pe.com.security.scholarship.util.UsuarioActualHelper;
 
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -47,15 +60,17 @@ public class PostulacionService {
   private final ConvocatoriaRepository convocatoriaRepository;
   private final EstudianteRepository estudianteRepository;
   private final CursoRepository cursoRepository;
-  private final MatriculaRepository matriculaRepository;
+  private final EstadisticaConvocatoriaService estadisticaConvocatoriaService;
+  private final UsuarioActualHelper usuarioActualHelper;
+  private final ExportacionPostulantesHelper exportacionPostulantesHelper;
 
   @Transactional
+  @CacheEvict(value = CacheConfig.CONTEO_POSTULANTES, key = "#request.idConvocatoria")
   public RegisteredPostulacionResponse registerPostulacion(RegisterPostulacionRequest request) {
     Convocatoria convocatoria = convocatoriaRepository.findById(request.getIdConvocatoria())
             .orElseThrow(() -> new NotFoundException("No se encontró la convocatoria"));
 
-    UUID idUsuario = SecurityUtils.getCurrentUserId();
-    Estudiante estudiante = estudianteRepository.findByIdUsuario(idUsuario)
+    Estudiante estudiante = usuarioActualHelper.getEstudiante()
             .orElseThrow(() -> new NotFoundException("No se encontró estudiante con el user id del payload"));
 
     // No puede postular más de una vez a la misma convocatoria
@@ -63,15 +78,16 @@ public class PostulacionService {
       throw new BadRequestException("Solo puedes postular una vez a la convocatoria");
     }
 
-    int numeroBecas = postulacionRepository.cantidadBecasByYear(estudiante.getId());
+    EstadoBecaProjection estadoBeca = getEstadoBeca(estudiante.getId());
+    int numeroBecas = estadoBeca.getCantidadBecas();
 
     // Ha sido becado este año?
     if (numeroBecas>0) {
-      if (tieneBecaActiva(estudiante.getId())) throw new BadRequestException("Aún tienes una beca vigente");
+      if (tieneBecaActiva(estadoBeca)) throw new BadRequestException("Aún tienes una beca vigente");
       // Solo puede recibir 3 becas por año
       if (numeroBecas==3) throw new BadRequestException("Ya alcanzaste el límite de 3 becas por año");
       // Debe haber aprobado con 15 en su última matrícula (si aplica)
-      if (matriculaRepository.notaUltimaMatricula(estudiante.getId())<15) throw new BadRequestException("Tu última nota debe ser mínima 15");
+      if (estadoBeca.getNotaUltimaMatricula()<15) throw new BadRequestException("Tu última nota debe ser mínima 15");
     }
 
     List<Curso> cursoList = cursoRepository.findAllById(request.getIdsCursos());
@@ -80,6 +96,7 @@ public class PostulacionService {
 
     Postulacion postulacion = PostulacionMapper.buildPostulacion(convocatoria, estudiante, new HashSet<>(cursoList));
     postulacionRepository.save(postulacion);
+    estadisticaConvocatoriaService.registrarPostulacion(convocatoria.getId(), estudiante.getId());
 
     Set<CursoPostulacionResponse> cursoSet = cursoList.stream().map(CursoMapper::mapCursoPostulacion)
             .collect(Collectors.toSet());
@@ -87,19 +104,20 @@ public class PostulacionService {
     return PostulacionMapper.mapRegisteredPostulacion(postulacion, cursoSet);
   }
 
+  @Transactional(readOnly = true)
   public ConsultaPostulacionResponse getDetallePostulacion(Integer idPostulacion) {
-    Postulacion postulacion = postulacionRepository.findById(idPostulacion)
+    Postulacion postulacion = postulacionRepository.findDetalleById(idPostulacion)
             .orElseThrow(() -> new NotFoundException("No se encontró la postulación"));
 
     return PostulacionMapper.mapConsultaPostulacion(postulacion);
   }
 
+  @Transactional(readOnly = true)
   public List<HistorialPostulacionResponse> getHistorialPostulacion(Integer year) {
-    UUID idUsuario = SecurityUtils.getCurrentUserId();
-    Estudiante estudiante = estudianteRepository.findByIdUsuario(idUsuario)
+    Estudiante estudiante = usuarioActualHelper.getEstudiante()
             .orElseThrow(() -> new NotFoundException("No se encontró estudiante asociado al id del payload"));
 
-    List<Postulacion> postulaciones = postulacionRepository.findByYear(estudiante.getId(), year);
+    List<HistorialPostulacionProjection> postulaciones = postulacionRepository.findHistorialByYear(estudiante.getId(), year);
     if (postulaciones == null || postulaciones.isEmpty()) {
       return Collections.emptyList();
     }
@@ -109,26 +127,72 @@ public class PostulacionService {
             .toList();
   }
 
+  // ESTADO DE BECAS DEL PRESENTE AÑO (una sola consulta para postulación, matrícula y oferta de cursos)
+  public EstadoBecaProjection getEstadoBeca(UUID idEstudiante) {
+    return postulacionRepository.getEstadoBeca(idEstudiante);
+  }
+
   // VERIFICAR SI TIENE BECA ACTIVA
-  public boolean tieneBecaActiva(UUID idEstudiante) {
+  public boolean tieneBecaActiva(EstadoBecaProjection estadoBeca) {
 
-    // Obtener su ultima beca
-    Postulacion lastPostulacion = postulacionRepository.findLastPostulacion(idEstudiante)
-            .orElseThrow(() -> new NotFoundException("No se encontró beca para el presente año"));
+    // Tiene una beca este año?
+    if (estadoBeca.getIdUltimaPostulacion() == null) throw new NotFoundException("No se encontró beca para el presente año");
 
     // Se matriculó?
-    if (matriculaRepository.seMatriculo(lastPostulacion.getId())) return false;
+    if (estadoBeca.getMatriculado()) return false;
 
     // Menos de 3 meses?
-    return postulacionRepository.cantidadMesesBeca(idEstudiante)<=3;
+    return estadoBeca.getMesesTranscurridos()<=3;
   }
 
   // Obtener la lista de postulantes por convocatoria
   @Transactional(readOnly = true)
   public Page<PostulanteConvocatoriaResponse> obtenerPostulantesConvocatoria(Integer idConvocatoria, Pageable pageable) {
+    Pageable pageableAjustado = PageRequest.of(
+            pageable.getPageNumber(),
+            pageable.getPageSize(),
+            ordenarPostulantes(pageable.getSort())
+    );
+
+    return postulacionRepository.buscarPostulantesConvocatoria(idConvocatoria, pageableAjustado)
+            .map(PostulacionMapper::mapPostulanteConvocatoria);
+  }
+
+  // Obtener la lista de postulantes por cursor: sin OFFSET ni conteo por página, el total es opcional y se cachea
+  @Transactional(readOnly = true)
+  public PaginaCursorResponse<PostulanteConvocatoriaResponse> obtenerPostulantesConvocatoriaPorCursor(
+          Integer idConvocatoria, Pageable pageable, String cursor, boolean incluirTotal) {
+    Sort sort = ordenarPostulantes(pageable.getSort());
+    CursorPostulante desde = CursorPaginacion.decodificar(cursor, sort);
+    int tamanio = pageable.getPageSize();
+
+    // Una fila adicional indica si existe una página siguiente
+    List<PostulanteConvocatoriaProjection> filas = postulacionRepository.buscarPostulantesDesde(idConvocatoria, sort, desde, tamanio + 1);
+    boolean haySiguiente = filas.size() > tamanio;
+    List<PostulanteConvocatoriaProjection> pagina = haySiguiente ? filas.subList(0, tamanio) : filas;
+
+    return PaginaCursorResponse.<PostulanteConvocatoriaResponse>builder()
+            .content(pagina.stream().map(PostulacionMapper::mapPostulanteConvocatoria).toList())
+            .size(tamanio)
+            .siguienteCursor(haySiguiente ? CursorPaginacion.codificar(sort, pagina.getLast()) : null)
+            .totalElements(incluirTotal ? postulacionRepository.countByConvocatoriaId(idConvocatoria) : null)
+            .build();
+  }
+
+  // Exportación completa de los postulantes. El orden y la convocatoria se validan antes de responder:
+  // una vez iniciado el envío ya no se puede devolver otro código de estado
+  public StreamingResponseBody exportarPostulantesConvocatoria(Integer idConvocatoria, Sort sort, FormatoExportacion formato) {
+    Sort orden = ordenarPostulantes(sort);
+    if (!convocatoriaRepository.existsById(idConvocatoria)) {
+      throw new NotFoundException("No se encontró la convocatoria");
+    }
+    return salida -> exportacionPostulantesHelper.exportar(idConvocatoria, orden, formato, salida);
+  }
+
+  private Sort ordenarPostulantes(Sort sort) {
     List<String> camposPermitidos = List.of("fechaPostulacion", "promedioGeneral", "becado");
 
-    List<Sort.Order> ordenesConNulosAlFinal = pageable.getSort().stream()
+    List<Sort.Order> ordenesConNulosAlFinal = sort.stream()
             .map(order -> {
               if (!camposPermitidos.contains(order.getProperty())) {
                 throw new BadRequestException("No se puede ordenar por el campo: " + order.getProperty());
@@ -138,14 +202,7 @@ public class PostulacionService {
             })
             .toList();
 
-    Pageable pageableAjustado = PageRequest.of(
-            pageable.getPageNumber(),
-            pageable.getPageSize(),
-            Sort.by(ordenesConNulosAlFinal)
-    );
-
-    return postulacionRepository.buscarPostulantesConvocatoria(idConvocatoria, pageableAjustado)
-            .map(PostulacionMapper::mapPostulanteConvocatoria);
+    return Sort.by(ordenesConNulosAlFinal);
   }
 
   // Obtener el detalle de postulaciones del presente año para un estudiante específico
@@ -155,12 +212,21 @@ public class PostulacionService {
     IdentificacionEstudianteProjection estudiante = estudianteRepository.findDatosEstudiante(idEstudiante)
             .orElseThrow(() -> new NotFoundException("No existe estudiante con el ID ingresado"));
 
-    List<Postulacion> postulacionesList = postulacionRepository.findByYearWithMatricula(idEstudiante, year, EstadoMatricula.ACEPTADO);
+    List<ResultadoPostulacionProjection> postulaciones =
+            postulacionRepository.findResultadosByYear(idEstudiante, year, EstadoMatricula.ACEPTADO);
+
+    // Los cursos elegidos se leen aparte: en la misma consulta multiplicarían las filas por cada matrícula
+    Map<Integer, List<String>> cursosPorPostulacion = postulaciones.isEmpty()
+            ? Map.of()
+            : postulacionRepository.findCursosOpciones(postulaciones.stream().map(ResultadoPostulacionProjection::getIdPostulacion).toList())
+                    .stream()
+                    .collect(Collectors.groupingBy(CursoOpcionProjection::getIdPostulacion,
+                            Collectors.mapping(CursoOpcionProjection::getNombre, Collectors.toList())));
 
-    List<ResultadoPostulacionResponse> resultados = postulacionesList.stream()
+    List<ResultadoPostulacionResponse> resultados = postulaciones.stream()
             .map(p -> ResultadoPostulacionResponse.builder()
-                    .postulacion(PostulacionMapper.mapInfoPostulacion(p))
-                    .matricula(p.getMatriculas().isEmpty() ? null : PostulacionMapper.mapInfoMatricula(p.getMatriculas().getFirst()))
+                    .postulacion(PostulacionMapper.mapInfoPostulacion(p, cursosPorPostulacion.getOrDefault(p.getIdPostulacion(), List.of())))
+                    .matricula(p.getIdMatricula() == null ? null : PostulacionMapper.mapInfoMatricula(p))
                     .build())
             .toList();
 
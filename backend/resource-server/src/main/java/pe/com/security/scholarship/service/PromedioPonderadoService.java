@@ -2,60 +2,116 @@ package pe.com.security.scholarship.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 import pe.com.security.scholarship.domain.entity.Empleado;
 import pe.com.security.scholarship.domain.entity.Estudiante;
 import pe.com.security.scholarship.domain.entity.PeriodoAcademico;
+import pe.com.security.scholarship.domain.enums.TipoCarga;
+import pe.com.security.scholarship.dto.ConteoUpsert;
 import pe.com.security.scholarship.dto.ProcesamientoResult;
 import pe.com.security.scholarship.dto.request.PromedioCsvRequest;
 import pe.com.security.scholarship.exception.BadRequestException;
+import pe.com.security.scholarship.exception.BusinessException;
 import pe.com.security.scholarship.exception.NotFoundException;
-import pe.com.security.scholarship.mapper.PromedioPonderadoMapper;
-import pe.com.security.scholarship.repository.EmpleadoRepository;
 import pe.com.security.scholarship.repository.EstudianteRepository;
 import pe.com.security.scholarship.repository.PeriodoAcademicoRepository;
 import pe.com.security.scholarship.repository.PromedioPonderadoRepository;
 import pe.com.security.scholarship.util.CargaMasivaHelper;
-import pe.com.security.scholarship.util.SecurityUtils;
+import pe.com.security.scholarship.util.UsuarioActualHelper;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class PromedioPonderadoService {
   private final CargaMasivaHelper cargaMasivaHelper;
+  private final CargaProcesadaService cargaProcesadaService;
   private final EstudianteRepository estudianteRepository;
-  private final EmpleadoRepository empleadoRepository;
   private final PromedioPonderadoRepository promedioRepository;
   private final PeriodoAcademicoRepository periodoAcademicoRepository;
+  private final UsuarioActualHelper usuarioActualHelper;
 
-  @Transactional
-  public ProcesamientoResult procesarCargaPromedios(MultipartFile file, String periodo) {
-    UUID idUsuario = SecurityUtils.getCurrentUserId();
-    Empleado empleado = empleadoRepository.findByIdUsuario(idUsuario)
+  public ProcesamientoResult procesarCargaPromedios(MultipartFile file, String periodo, boolean forzar) {
+    Empleado empleado = usuarioActualHelper.getEmpleado()
             .orElseThrow(() -> new NotFoundException("Empleado no encontrado"));
 
     PeriodoAcademico periodoAcademico = periodoAcademicoRepository.findByPeriodo(periodo)
             .orElseThrow(() -> new NotFoundException("Periodo académico no registrado"));
 
-    return cargaMasivaHelper.procesar(file, PromedioCsvRequest.class, fila -> {
-      // 1. Validar existencia del estudiante
-      Estudiante estudiante = estudianteRepository.findByCodigo(fila.getCodigo())
-              .orElseThrow(() -> new NotFoundException("Estudiante no encontrado"));
+    return cargaProcesadaService.procesarUnaVez(TipoCarga.PROMEDIOS, periodo, file, forzar,
+            () -> cargar(file, periodoAcademico, empleado));
+  }
+
+  private ProcesamientoResult cargar(MultipartFile file, PeriodoAcademico periodoAcademico, Empleado empleado) {
+    AtomicInteger insertados = new AtomicInteger();
+    AtomicInteger actualizados = new AtomicInteger();
+    AtomicInteger sinCambios = new AtomicInteger();
 
-      // 2. Validaciones de negocio específicas
-      if (fila.getPromedio() < 0 || fila.getPromedio() > 20) {
-        throw new BadRequestException("El promedio debe estar entre 0 y 20");
+    ProcesamientoResult resultado = cargaMasivaHelper.procesarPorLotes(file, PromedioCsvRequest.class, lote -> {
+      // 1. Estudiantes del lote en una sola consulta
+      Map<String, Estudiante> estudiantes = estudianteRepository.findByCodigoIn(lote.stream()
+                      .map(PromedioCsvRequest::getCodigo)
+                      .filter(Objects::nonNull)
+                      .collect(Collectors.toSet()))
+              .stream()
+              .collect(Collectors.toMap(Estudiante::getCodigoEstudiante, Function.identity()));
+
+      // 2. Filas válidas del lote; si un estudiante se repite prevalece su última fila
+      Map<UUID, PromedioCsvRequest> promedios = new LinkedHashMap<>();
+      for (PromedioCsvRequest fila : lote) {
+        try {
+          promedios.put(validarFila(fila, estudiantes).getId(), fila);
+        } catch (BusinessException e) {
+          // El error se reporta al recorrer la fila
+        }
       }
 
-      if (fila.getCiclo() < 1 || fila.getCiclo() > 12) {
-        throw new BadRequestException("Ciclo académico inválido");
+      // 3. Upsert del lote en una sola sentencia
+      if (!promedios.isEmpty()) {
+        ConteoUpsert conteo = promedioRepository.upsertPromedios(periodoAcademico.getId(), empleado.getId(), promedios);
+        // Se suma solo si el lote se confirma: si se revierte y se reintenta por mitades, cada mitad
+        // cuenta sus propias filas y este intento no
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            insertados.addAndGet(conteo.getInsertados());
+            actualizados.addAndGet(conteo.getActualizados());
+            sinCambios.addAndGet(conteo.getSinCambios());
+          }
+        });
       }
 
-      // 3. Guardado o Actualización
-      promedioRepository.save(PromedioPonderadoMapper
-              .buildPromedioPonderado(estudiante, periodoAcademico, empleado, fila.getCiclo(), fila.getPromedio()));
+      return fila -> validarFila(fila, estudiantes);
     });
+
+    // Volver a subir el mismo archivo deja todos los promedios sin cambios. Los conteos son por estudiante:
+    // las filas repetidas de un mismo estudiante cuentan como éxitos pero no se escriben
+    resultado.setInsertados(insertados.get());
+    resultado.setActualizados(actualizados.get());
+    resultado.setSinCambios(sinCambios.get());
+    return resultado;
+  }
+
+  private Estudiante validarFila(PromedioCsvRequest fila, Map<String, Estudiante> estudiantes) {
+    Estudiante estudiante = Optional.ofNullable(estudiantes.get(fila.getCodigo()))
+            .orElseThrow(() -> new NotFoundException("Estudiante no encontrado"));
+
+    if (fila.getPromedio() < 0 || fila.getPromedio() > 20) {
+      throw new BadRequestException("El promedio debe estar entre 0 y 20");
+    }
+
+    if (fila.getCiclo() < 1 || fila.getCiclo() > 12) {
+      throw new BadRequestException("Ciclo académico inválido");
+    }
+    return estudiante;
   }
 }
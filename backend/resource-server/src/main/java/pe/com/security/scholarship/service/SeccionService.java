@@ -1,8 +1,10 @@
 package pe.com.security.scholarship.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import pe.com.security.scholarship.config.CacheConfig;
 import pe.com.security.scholarship.domain.entity.Curso;
 import pe.com.security.scholarship.domain.entity.Empleado;
 import pe.com.security.scholarship.domain.entity.HorarioSeccion;
@@ -14,20 +16,19 @@ import pe.com.security.scholarship.dto.request.UpdateVacantesSeccionRequest;
 import pe.com.security.scholarship.dto.response.RegisteredSeccionResponse;
 import pe.com.security.scholarship.dto.response.UpdatedVacantesSeccionResponse;
 import pe.com.security.scholarship.exception.BadRequestException;
+import pe.com.security.scholarship.exception.ConflictException;
 import pe.com.security.scholarship.exception.NotFoundException;
 import pe.com.security.scholarship.mapper.HorarioMapper;
 import pe.com.security.scholarship.mapper.SeccionMapper;
 import pe.com.security.scholarship.repository.CursoRepository;
-import pe.com.security.scholarship.repository.EmpleadoRepository;
 import pe.com.security.scholarship.repository.MatriculaRepository;
 import pe.com.security.scholarship.repository.SeccionRepository;
-import pe.com.security.scholarship.util.SecurityUtils;
+import pe.com.security.scholarship.util.UsuarioActualHelper;
 
 import java.time.LocalTime;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -37,9 +38,11 @@ public class SeccionService {
   private final SeccionRepository seccionRepository;
   private final CursoRepository cursoRepository;
   private final MatriculaRepository matriculaRepository;
-  private final EmpleadoRepository empleadoRepository;
+  private final EstadisticaConvocatoriaService estadisticaConvocatoriaService;
+  private final UsuarioActualHelper usuarioActualHelper;
 
   @Transactional
+  @CacheEvict(value = CacheConfig.HORARIOS_CURSOS, allEntries = true)
   public RegisteredSeccionResponse register(RegisterSeccionRequest request, Integer idCurso) {
     Curso curso = cursoRepository.findById(idCurso)
             .orElseThrow(() -> new NotFoundException("No se encontró curso con el ID ingresado"));
@@ -97,26 +100,41 @@ public class SeccionService {
   }
 
   @Transactional
+  @CacheEvict(value = CacheConfig.HORARIOS_CURSOS, allEntries = true)
   public UpdatedVacantesSeccionResponse updateVacantes(UpdateVacantesSeccionRequest request) {
-    UUID idUsuario = SecurityUtils.getCurrentUserId();
-    Empleado empleado = empleadoRepository.findByIdUsuario(idUsuario)
+    Empleado empleado = usuarioActualHelper.getEmpleado()
             .orElseThrow(() -> new NotFoundException("Empleado no encontrado"));
 
-    Seccion seccion = seccionRepository.findById(request.getIdSeccion())
+    // Dos actualizaciones simultáneas calcularían las nuevas vacantes sobre el mismo valor anterior
+    // y matricularían de más: la segunda espera al commit de la primera y lee las vacantes ya confirmadas
+    Seccion seccion = seccionRepository.findByIdForUpdate(request.getIdSeccion())
             .orElseThrow(() -> new NotFoundException("No se encontró la sección con el ID ingresado"));
 
     if (seccion.getVacantesDisponibles()!=null && seccion.getVacantesDisponibles() >= request.getCantidadVacantes()) {
       throw new BadRequestException("La nueva cantidad de vacantes debe superar a las disponibles actualmente");
     }
 
-    int nuevasVacantes = seccion.getVacantesDisponibles() == null ?
-            request.getCantidadVacantes() :
-            request.getCantidadVacantes() - seccion.getVacantesDisponibles();
+    // Sin vacantes definidas pudo aprobarse matrículas sin tope
+    if (request.getCantidadVacantes() < seccion.getCuposOcupados()) {
+      throw new BadRequestException("La cantidad de vacantes no puede ser menor a los " + seccion.getCuposOcupados() + " matriculados");
+    }
 
-    seccion.setVacantesDisponibles(request.getCantidadVacantes());
-    seccionRepository.save(seccion);
+    // Se promueven tantos pendientes como cupos libres queden, no solo la diferencia de vacantes
+    int cuposLibres = request.getCantidadVacantes() - seccion.getCuposOcupados();
 
-    int nuevosMatriculados = matriculaRepository.matricularPostulantes(request.getIdSeccion(), nuevasVacantes, empleado.getId());
+    seccion.setVacantesDisponibles(request.getCantidadVacantes());
+    // Las nuevas vacantes deben estar en la fila antes de ocupar cupos
+    seccionRepository.saveAndFlush(seccion);
+
+    int nuevosMatriculados = matriculaRepository.matricularPostulantes(request.getIdSeccion(), cuposLibres, empleado.getId());
+    if (nuevosMatriculados > 0) {
+      // El UPDATE condicionado no aplica si los cupos cambiaron o se superaría la capacidad: se revierte
+      // todo, incluidas las matrículas recién aprobadas, y no se invalida la caché
+      if (seccionRepository.ocuparCupos(request.getIdSeccion(), nuevosMatriculados) == 0) {
+        throw new ConflictException("Los cupos de la sección cambiaron durante la actualización, vuelva a intentarlo");
+      }
+      estadisticaConvocatoriaService.actualizarMatriculados(request.getIdSeccion());
+    }
 
     return SeccionMapper.mapUpdatedVacantes(nuevosMatriculados, seccion.getVacantesDisponibles());
   }
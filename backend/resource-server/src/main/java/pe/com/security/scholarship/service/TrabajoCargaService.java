@@ -0,0 +1,220 @@
+package pe.com.security.scholarship.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import pe.com.security.scholarship.domain.enums.EstadoCarga;
+import pe.com.security.scholarship.dto.ProcesamientoResult;
+import pe.com.security.scholarship.dto.response.EstadoCargaResponse;
+import pe.com.security.scholarship.exception.BusinessException;
+import pe.com.security.scholarship.exception.ConflictException;
+import pe.com.security.scholarship.exception.InternalServerErrorException;
+import pe.com.security.scholarship.exception.NotFoundException;
+import pe.com.security.scholarship.exception.ServiceUnavailableException;
+import pe.com.security.scholarship.exception.UnprocessableEntityException;
+import pe.com.security.scholarship.util.ArchivoCarga;
+import pe.com.security.scholarship.util.ProgresoCarga;
+import pe.com.security.scholarship.util.SecurityUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// Cargas masivas en segundo plano: el archivo se guarda en disco, se procesa en un pool acotado
+// de hilos y el usuario consulta el avance y el resultado con el id del trabajo
+@Service
+public class TrabajoCargaService {
+
+  private final Map<UUID, TrabajoCarga> trabajos = new ConcurrentHashMap<>();
+  private final ThreadPoolExecutor executor;
+  private final Path directorio;
+  private final Duration retencion;
+
+  public TrabajoCargaService(@Value("${carga-masiva.trabajos.hilos:2}") int hilos,
+                             @Value("${carga-masiva.trabajos.capacidad-cola:20}") int capacidadCola,
+                             @Value("${carga-masiva.trabajos.directorio:${java.io.tmpdir}/cargas-masivas}") String directorio,
+                             @Value("${carga-masiva.trabajos.retencion-horas:24}") long retencionHoras) {
+    // Cola acotada: si se llena se rechaza el envío en lugar de acumular archivos sin límite
+    this.executor = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(capacidadCola), Thread.ofPlatform().name("carga-masiva-", 1).factory());
+    this.directorio = Path.of(directorio);
+    this.retencion = Duration.ofHours(retencionHoras);
+  }
+
+  public EstadoCargaResponse enviar(MultipartFile file, Function<MultipartFile, ProcesamientoResult> carga) {
+    UUID idUsuario = SecurityUtils.getCurrentUserId();
+    // Los servicios de carga identifican al empleado desde el contexto de seguridad
+    SecurityContext contexto = SecurityContextHolder.createEmptyContext();
+    contexto.setAuthentication(SecurityContextHolder.getContext().getAuthentication());
+
+    TrabajoCarga trabajo = new TrabajoCarga(UUID.randomUUID(), idUsuario);
+    Path ruta = directorio.resolve(trabajo.id + ".csv");
+    trabajo.filasEstimadas = guardarEnDisco(file, ruta);
+    ArchivoCarga archivo = new ArchivoCarga(ruta, file.getOriginalFilename(), file.getContentType());
+
+    trabajos.put(trabajo.id, trabajo);
+    try {
+      executor.execute(() -> ejecutar(trabajo, archivo, ruta, contexto, carga));
+    } catch (RejectedExecutionException e) {
+      trabajos.remove(trabajo.id);
+      eliminar(ruta);
+      throw new ServiceUnavailableException("Hay demasiadas cargas en proceso, intente nuevamente en unos minutos");
+    }
+    return trabajo.toResponse();
+  }
+
+  public EstadoCargaResponse consultar(UUID idTrabajo) {
+    return buscar(idTrabajo).toResponse();
+  }
+
+  public ProcesamientoResult obtenerResultado(UUID idTrabajo) {
+    TrabajoCarga trabajo = buscar(idTrabajo);
+
+    if (trabajo.estado == EstadoCarga.FALLIDO) {
+      throw new UnprocessableEntityException("La carga no pudo procesarse: " + trabajo.mensaje);
+    }
+    if (trabajo.estado != EstadoCarga.COMPLETADO) {
+      throw new ConflictException("La carga aún no ha finalizado");
+    }
+    return trabajo.resultado;
+  }
+
+  // Los trabajos terminados solo se conservan en memoria durante el periodo de retención
+  @Scheduled(cron = "0 0 * * * *")
+  public void limpiarTrabajos() {
+    Instant limite = Instant.now().minus(retencion);
+    trabajos.values().removeIf(trabajo -> trabajo.fechaFin != null && trabajo.fechaFin.isBefore(limite));
+  }
+
+  @PreDestroy
+  public void cerrar() {
+    executor.shutdown();
+  }
+
+  private TrabajoCarga buscar(UUID idTrabajo) {
+    TrabajoCarga trabajo = trabajos.get(idTrabajo);
+    // Un usuario solo puede ver sus propias cargas
+    if (trabajo == null || !trabajo.idUsuario.equals(SecurityUtils.getCurrentUserId())) {
+      throw new NotFoundException("No se encontró la carga especificada");
+    }
+    return trabajo;
+  }
+
+  private void ejecutar(TrabajoCarga trabajo, ArchivoCarga archivo, Path ruta, SecurityContext contexto,
+                        Function<MultipartFile, ProcesamientoResult> carga) {
+    SecurityContextHolder.setContext(contexto);
+    ProgresoCarga.registrar(trabajo.progreso);
+    trabajo.fechaInicio = Instant.now();
+    trabajo.estado = EstadoCarga.PROCESANDO;
+    EstadoCarga estadoFinal = EstadoCarga.FALLIDO;
+    try {
+      trabajo.resultado = carga.apply(archivo);
+      estadoFinal = EstadoCarga.COMPLETADO;
+    } catch (BusinessException e) {
+      trabajo.mensaje = e.getMessage();
+    } catch (RuntimeException e) {
+      System.out.println("La carga masiva " + trabajo.id + " falló: " + e.getMessage());
+      trabajo.mensaje = "Error inesperado al procesar el archivo";
+    } finally {
+      ProgresoCarga.limpiar();
+      SecurityContextHolder.clearContext();
+      eliminar(ruta);
+      trabajo.fechaFin = Instant.now();
+      trabajo.estado = estadoFinal; // Al final, para que un trabajo terminado ya tenga fecha de fin
+    }
+  }
+
+  // Copia el archivo a disco contando sus líneas, para estimar el tiempo restante sin una segunda lectura
+  private int guardarEnDisco(MultipartFile file, Path ruta) {
+    try {
+      Files.createDirectories(directorio);
+      try (InputStream in = file.getInputStream(); OutputStream out = Files.newOutputStream(ruta)) {
+        byte[] buffer = new byte[8192];
+        int leidos;
+        int lineas = 0;
+        byte ultimo = '\n';
+        while ((leidos = in.read(buffer)) != -1) {
+          out.write(buffer, 0, leidos);
+          for (int i = 0; i < leidos; i++) {
+            if (buffer[i] == '\n') lineas++;
+          }
+          ultimo = buffer[leidos - 1];
+        }
+        if (ultimo != '\n') lineas++; // Última línea sin salto final
+        return Math.max(lineas - 1, 0); // Sin la cabecera
+      }
+    } catch (IOException e) {
+      eliminar(ruta);
+      throw new InternalServerErrorException("No se pudo guardar el archivo para su procesamiento");
+    }
+  }
+
+  private void eliminar(Path ruta) {
+    try {
+      Files.deleteIfExists(ruta);
+    } catch (IOException e) {
+      System.out.println("No se pudo eliminar el archivo temporal " + ruta + ": " + e.getMessage());
+    }
+  }
+
+  private static class TrabajoCarga {
+    private final UUID id;
+    private final UUID idUsuario;
+    private final Instant fechaEnvio = Instant.now();
+    private final ProgresoCarga progreso = new ProgresoCarga();
+    private int filasEstimadas;
+    private volatile EstadoCarga estado = EstadoCarga.EN_COLA;
+    private volatile Instant fechaInicio;
+    private volatile Instant fechaFin;
+    private volatile ProcesamientoResult resultado;
+    private volatile String mensaje;
+
+    private TrabajoCarga(UUID id, UUID idUsuario) {
+      this.id = id;
+      this.idUsuario = idUsuario;
+    }
+
+    private EstadoCargaResponse toResponse() {
+      ProcesamientoResult resultado = this.resultado;
+      int procesadas = resultado != null ? resultado.getTotal() : progreso.getFilasProcesadas();
+
+      return EstadoCargaResponse.builder()
+              .idTrabajo(id)
+              .estado(estado)
+              .filasEstimadas(filasEstimadas)
+              .filasProcesadas(procesadas)
+              .fallidos(resultado != null ? resultado.getFallidos() : progreso.getFallidos())
+              .segundosRestantes(estimarSegundosRestantes(procesadas))
+              .fechaEnvio(fechaEnvio)
+              .fechaFin(fechaFin)
+              .mensaje(mensaje)
+              .build();
+    }
+
+    // Proyecta el ritmo observado hasta ahora sobre las filas que faltan
+    private Long estimarSegundosRestantes(int procesadas) {
+      if (fechaFin != null) return 0L;
+      if (fechaInicio == null || procesadas == 0) return null;
+
+      long transcurridoMs = Duration.between(fechaInicio, Instant.now()).toMillis();
+      long restantes = Math.max(filasEstimadas - procesadas, 0);
+      return transcurridoMs * restantes / procesadas / 1000;
+    }
+  }
+}
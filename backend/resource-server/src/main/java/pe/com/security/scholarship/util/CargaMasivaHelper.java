@@ -3,7 +3,20 @@ package pe.com.security.scholarship.util;
 import com.opencsv.bean.CsvToBean;
 import com.opencsv.bean.CsvToBeanBuilder;
 import com.opencsv.bean.HeaderColumnNameMappingStrategy;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.PersistenceException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.dao.NonTransientDataAccessResourceException;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import pe.com.security.scholarship.dto.CsvImportRequest;
 import pe.com.security.scholarship.dto.ProcesamientoResult;
@@ -14,42 +27,266 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Component
 public class CargaMasivaHelper {
 
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Value("${carga-masiva.tamanio-lote:500}")
+  private int tamanioLote;
+
+  // 1 = modo secuencial (un lote tras otro)
+  @Value("${carga-masiva.particiones:1}")
+  private int particiones;
+
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
   public <T extends CsvImportRequest> ProcesamientoResult procesar(
           MultipartFile file,
           Class<T> clase,
           Consumer<T> logicaNegocio) { // Consumer es "qué hacer con cada fila"
+    return procesarPorLotes(file, clase, lote -> logicaNegocio);
+  }
+
+  public <T extends CsvImportRequest> ProcesamientoResult procesarPorLotes(
+          MultipartFile file,
+          Class<T> clase,
+          ProcesadorLote<T> procesador) {
+    validarFormato(file, clase);
+    return particiones > 1
+            ? procesarEnParalelo(file, clase, procesador)
+            : procesarSecuencial(file, clase, procesador);
+  }
+
+  // Primera lectura completa del archivo sin procesar filas: un error de formato se rechaza antes de
+  // confirmar el primer lote, así un archivo mal formado no deja la carga a medias. También en streaming
+  private <T> void validarFormato(MultipartFile file, Class<T> clase) {
+    try (Reader reader = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
+      Iterator<T> filas = abrirLector(reader, clase);
+      List<T> lote = new ArrayList<>(tamanioLote);
+      while (siguienteLote(filas, lote)) {
+        lote.clear();
+      }
+    } catch (IOException e) {
+      throw new BadRequestException("No se pudo leer el archivo: " + e.getMessage());
+    }
+  }
+
+  // Cada lote se confirma en su propia transacción: un error de BD en una fila solo revierte su lote,
+  // que se reintenta por mitades hasta aislar las filas que fallan. El formato ya se validó, así que
+  // ningún lote posterior puede rechazar el archivo después de confirmar los anteriores
+  private <T extends CsvImportRequest> ProcesamientoResult procesarSecuencial(
+          MultipartFile file,
+          Class<T> clase,
+          ProcesadorLote<T> procesador) {
+
+    TransactionTemplate transaccion = nuevaTransaccion();
+    List<ErrorFila> errores = new ArrayList<>();
+    int total = 0;
+
+    // Lectura en streaming: en memoria solo está el lote actual, no el archivo completo
+    try (Reader reader = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
+      Iterator<T> filas = abrirLector(reader, clase);
+      List<T> lote = new ArrayList<>(tamanioLote);
 
-    List<T> filas = leerCsv(file, clase);
-    int exitos = 0;
-    int fallidos = 0;
-    List<ProcesamientoResult.ErrorDetalle> errores = new ArrayList<>();
-
-    for (T fila : filas) {
-      try {
-        logicaNegocio.accept(fila); // Aquí se ejecuta la lógica del Service
-        exitos++;
-      } catch (Exception e) {
-        fallidos++;
-        errores.add(new ProcesamientoResult.ErrorDetalle(fila.getIdentifier(), e.getMessage()));
+      while (siguienteLote(filas, lote)) {
+        errores.addAll(procesarFragmento(numerar(lote, total), procesador, transaccion));
+        total += lote.size();
+        ProgresoCarga.reportar(total, errores.size());
       }
+    } catch (IOException e) {
+      // Error físico de lectura del archivo
+      throw new BadRequestException("No se pudo leer el archivo: " + e.getMessage());
+    }
+
+    return construirResultado(total, errores);
+  }
+
+  // Modo paralelo: cada lote se reparte por código de estudiante en 'particiones' fragmentos y cada fragmento
+  // se procesa en su propia transacción. Los fragmentos de una misma partición se encadenan, así las filas
+  // de un estudiante se aplican en el orden del archivo
+  private <T extends CsvImportRequest> ProcesamientoResult procesarEnParalelo(
+          MultipartFile file,
+          Class<T> clase,
+          ProcesadorLote<T> procesador) {
+
+    TransactionTemplate transaccion = nuevaTransaccion();
+    List<CompletableFuture<Void>> carriles =
+            new ArrayList<>(Collections.nCopies(particiones, CompletableFuture.completedFuture(null)));
+    Semaphore fragmentosPendientes = new Semaphore(particiones * 2); // Limita lo leído y aún no procesado
+    ConcurrentLinkedQueue<ErrorFila> errores = new ConcurrentLinkedQueue<>();
+    AtomicInteger procesadas = new AtomicInteger();
+    AtomicReference<RuntimeException> fallo = new AtomicReference<>(); // Primer error que aborta la carga
+    int total = 0;
+
+    try (Reader reader = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
+      Iterator<T> filas = abrirLector(reader, clase);
+      List<T> lote = new ArrayList<>(tamanioLote);
+
+      while (fallo.get() == null && siguienteLote(filas, lote)) {
+        List<List<FilaNumerada<T>>> fragmentos = particionar(lote, total);
+
+        for (int particion = 0; particion < particiones; particion++) {
+          List<FilaNumerada<T>> fragmento = fragmentos.get(particion);
+          if (fragmento.isEmpty()) continue;
+
+          fragmentosPendientes.acquireUninterruptibly();
+          carriles.set(particion, carriles.get(particion).thenRunAsync(() -> {
+            try {
+              // Tras un error que aborta la carga los fragmentos pendientes solo liberan su lugar
+              if (fallo.get() != null) return;
+              errores.addAll(procesarFragmento(fragmento, procesador, transaccion));
+              procesadas.addAndGet(fragmento.size());
+            } catch (RuntimeException e) {
+              fallo.compareAndSet(null, e);
+            } finally {
+              fragmentosPendientes.release();
+            }
+          }, executor));
+        }
+
+        total += lote.size();
+        lote.clear();
+        ProgresoCarga.reportar(procesadas.get(), errores.size());
+      }
+    } catch (IOException e) {
+      throw new BadRequestException("No se pudo leer el archivo: " + e.getMessage());
+    } finally {
+      // También ante un error de lectura: los fragmentos en curso terminan antes de responder
+      CompletableFuture.allOf(carriles.toArray(CompletableFuture[]::new)).join();
     }
 
+    if (fallo.get() != null) throw fallo.get();
+    ProgresoCarga.reportar(total, errores.size());
+    return construirResultado(total, errores);
+  }
+
+  private TransactionTemplate nuevaTransaccion() {
+    TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+    transaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    return transaccion;
+  }
+
+  // Errores en el orden del archivo, sin importar qué fragmento terminó primero
+  private ProcesamientoResult construirResultado(int total, Collection<ErrorFila> errores) {
+    List<ProcesamientoResult.ErrorDetalle> erroresOrdenados = errores.stream()
+            .sorted(Comparator.comparingInt(ErrorFila::numero))
+            .map(ErrorFila::detalle)
+            .collect(Collectors.toCollection(ArrayList::new));
+
     return ProcesamientoResult.builder()
-            .total(filas.size())
-            .exitos(exitos)
-            .fallidos(fallidos)
-            .errores(errores)
+            .total(total)
+            .exitos(total - erroresOrdenados.size())
+            .fallidos(erroresOrdenados.size())
+            .errores(erroresOrdenados)
             .build();
   }
 
-  private <T> List<T> leerCsv(MultipartFile file, Class<T> clase) {
-    try (Reader reader = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
+  // Copia el lote (que se reutiliza en la siguiente lectura) con el número de cada fila dentro del archivo
+  private <T> List<FilaNumerada<T>> numerar(List<T> lote, int filasPrevias) {
+    List<FilaNumerada<T>> filas = new ArrayList<>(lote.size());
+    for (int i = 0; i < lote.size(); i++) {
+      filas.add(new FilaNumerada<>(filasPrevias + i, lote.get(i)));
+    }
+    return filas;
+  }
+
+  // Reparte el lote por código de estudiante; cada fila conserva su número dentro del archivo
+  private <T extends CsvImportRequest> List<List<FilaNumerada<T>>> particionar(List<T> lote, int filasPrevias) {
+    List<List<FilaNumerada<T>>> fragmentos = new ArrayList<>(particiones);
+    for (int i = 0; i < particiones; i++) {
+      fragmentos.add(new ArrayList<>());
+    }
+    for (int i = 0; i < lote.size(); i++) {
+      T fila = lote.get(i);
+      int particion = Math.floorMod(Objects.hashCode(fila.getIdentifier()), particiones);
+      fragmentos.get(particion).add(new FilaNumerada<>(filasPrevias + i, fila));
+    }
+    return fragmentos;
+  }
+
+  // Si el fragmento no se puede guardar por los datos de alguna fila (error de BD al preparar, en una fila o
+  // al confirmar) se revierte y se reintenta por mitades, cada una en su propia transacción, hasta aislar
+  // las filas que fallan: las demás se confirman y solo esas se reportan. Cualquier otro error (sin
+  // conexión, base caída, timeout) se propaga y aborta la carga: ninguna mitad se podría guardar
+  private <T extends CsvImportRequest> List<ErrorFila> procesarFragmento(
+          List<FilaNumerada<T>> fragmento,
+          ProcesadorLote<T> procesador,
+          TransactionTemplate transaccion) {
+
+    try {
+      return transaccion.execute(status -> {
+        List<ErrorFila> errores = new ArrayList<>();
+        Consumer<T> logicaNegocio = procesador.preparar(fragmento.stream().map(FilaNumerada::fila).toList());
+        for (FilaNumerada<T> fila : fragmento) {
+          try {
+            logicaNegocio.accept(fila.fila()); // Aquí se ejecuta la lógica del Service
+          } catch (DataAccessException | PersistenceException e) {
+            throw e; // La transacción quedó inutilizable: se revierte el fragmento completo
+          } catch (Exception e) {
+            errores.add(new ErrorFila(fila.numero(),
+                    new ProcesamientoResult.ErrorDetalle(fila.fila().getIdentifier(), e.getMessage())));
+          }
+        }
+        return errores;
+      });
+    } catch (RuntimeException e) {
+      if (!esErrorDeFila(e)) throw e;
+
+      if (fragmento.size() == 1) {
+        FilaNumerada<T> fila = fragmento.getFirst();
+        return List.of(new ErrorFila(fila.numero(), new ProcesamientoResult.ErrorDetalle(fila.fila().getIdentifier(),
+                "No se pudo guardar la fila: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage())));
+      }
+
+      int mitad = fragmento.size() / 2;
+      List<ErrorFila> errores = new ArrayList<>(procesarFragmento(fragmento.subList(0, mitad), procesador, transaccion));
+      errores.addAll(procesarFragmento(fragmento.subList(mitad, fragmento.size()), procesador, transaccion));
+      return errores;
+    }
+  }
+
+  // Errores que una fila puede causar por sus datos (restricción violada, valor fuera de rango); no los de
+  // recursos (conexión, pool, timeout), que fallarían igual con cualquier subconjunto del fragmento
+  private static boolean esErrorDeFila(RuntimeException e) {
+    for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+      if (causa instanceof CannotCreateTransactionException
+              || causa instanceof NonTransientDataAccessResourceException
+              || causa instanceof TransientDataAccessException
+              || causa instanceof jakarta.persistence.QueryTimeoutException
+              || causa instanceof jakarta.persistence.LockTimeoutException) {
+        return false;
+      }
+    }
+    for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+      if (causa instanceof NonTransientDataAccessException
+              || causa instanceof org.hibernate.exception.ConstraintViolationException
+              || causa instanceof org.hibernate.exception.DataException) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private <T> Iterator<T> abrirLector(Reader reader, Class<T> clase) {
+    try {
       HeaderColumnNameMappingStrategy<T> strategy = new HeaderColumnNameMappingStrategy<>();
       strategy.setType(clase);
 
@@ -62,30 +299,52 @@ public class CargaMasivaHelper {
               .withThrowExceptions(true) // Forzar a que lance excepciones si algo falla
               .build();
 
-      return csvToBean.parse();
-    } catch (IOException e) {
-      // Error físico de lectura del archivo
-      throw new BadRequestException("No se pudo leer el archivo: " + e.getMessage());
-
+      return csvToBean.iterator(); // Lee el archivo fila por fila a medida que se consume
     } catch (RuntimeException e) {
-      Throwable cause = e.getCause();
+      throw traducirError(e);
+    }
+  }
 
-      if (cause instanceof com.opencsv.exceptions.CsvDataTypeMismatchException mismatchEx) {
-        throw new BadRequestException("Error de tipo de dato en la línea " + mismatchEx.getLineNumber() +
-                ": El valor '" + mismatchEx.getDestinationClass().getSimpleName() + "' no es válido.");
+  // Llena el lote con hasta 'tamanioLote' filas; los errores de formato se lanzan en la línea donde ocurren
+  private <T> boolean siguienteLote(Iterator<T> filas, List<T> lote) {
+    lote.clear();
+    try {
+      while (lote.size() < tamanioLote && filas.hasNext()) {
+        lote.add(filas.next());
       }
+    } catch (RuntimeException e) {
+      throw traducirError(e);
+    }
+    return !lote.isEmpty();
+  }
 
-      if (cause instanceof com.opencsv.exceptions.CsvRequiredFieldEmptyException requiredEx) {
-        throw new BadRequestException("Error en la línea " + requiredEx.getLineNumber() +
-                ": La columna '" + requiredEx.getDestinationField().getName() + "' es obligatoria.");
-      }
+  private BadRequestException traducirError(RuntimeException e) {
+    Throwable cause = e.getCause();
 
-      if (cause instanceof com.opencsv.exceptions.CsvException csvEx) {
-        throw new BadRequestException("Error de formato en la línea " + csvEx.getLineNumber() + ": " + csvEx.getMessage());
-      }
+    if (cause instanceof com.opencsv.exceptions.CsvDataTypeMismatchException mismatchEx) {
+      return new BadRequestException("Error de tipo de dato en la línea " + mismatchEx.getLineNumber() +
+              ": El valor '" + mismatchEx.getDestinationClass().getSimpleName() + "' no es válido.");
+    }
+
+    if (cause instanceof com.opencsv.exceptions.CsvRequiredFieldEmptyException requiredEx) {
+      return new BadRequestException("Error en la línea " + requiredEx.getLineNumber() +
+              ": La columna '" + requiredEx.getDestinationField().getName() + "' es obligatoria.");
+    }
 
-      // Si es otra RuntimeException que no conocemos
-      throw new BadRequestException("El archivo contiene errores estructurales: " + e.getMessage());
+    if (cause instanceof com.opencsv.exceptions.CsvException csvEx) {
+      return new BadRequestException("Error de formato en la línea " + csvEx.getLineNumber() + ": " + csvEx.getMessage());
     }
+
+    // Si es otra RuntimeException que no conocemos
+    return new BadRequestException("El archivo contiene errores estructurales: " + e.getMessage());
+  }
+
+  @PreDestroy
+  public void cerrar() {
+    executor.shutdown();
   }
-}
\ No newline at end of file
+
+  private record FilaNumerada<T>(int numero, T fila) {}
+
+  private record ErrorFila(int numero, ProcesamientoResult.ErrorDetalle detalle) {}
+}
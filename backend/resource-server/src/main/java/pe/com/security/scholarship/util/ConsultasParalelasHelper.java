@@ -0,0 +1,68 @@
+package pe.com.security.scholarship.util;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+// Ejecuta consultas de solo lectura en hilos virtuales, cada una en su propia transacción (y conexión).
+// El semáforo es compartido por todas las peticiones: limita las conexiones que toman las consultas
+// paralelas para no agotar el pool de Hikari (siempre deja al menos una libre)
+@Component
+public class ConsultasParalelasHelper {
+
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  private final Semaphore permisos;
+  private final TransactionTemplate transactionTemplate;
+
+  public ConsultasParalelasHelper(PlatformTransactionManager transactionManager,
+                                  @Value("${estadisticas.max-consultas-paralelas:3}") int maxConsultasParalelas,
+                                  @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maxConexiones) {
+    this.permisos = new Semaphore(Math.max(1, Math.min(maxConsultasParalelas, maxConexiones - 1)));
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+    this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  // Ejecuta el trabajo que envía las consultas en un hilo virtual aparte y espera su resultado.
+  // Ese hilo no tiene el EntityManager de la petición (open-in-view), que retendría la conexión de la
+  // primera lectura hasta el final de la petición: así el llamador no ocupa ninguna mientras espera
+  public <T> T ejecutarAparte(Supplier<T> trabajo) {
+    return obtener(CompletableFuture.supplyAsync(trabajo, executor));
+  }
+
+  public <T> CompletableFuture<T> enviar(Supplier<T> consulta) {
+    return CompletableFuture.supplyAsync(() -> {
+      permisos.acquireUninterruptibly();
+      try {
+        return transactionTemplate.execute(status -> consulta.get());
+      } finally {
+        permisos.release();
+      }
+    }, executor);
+  }
+
+  // Espera el resultado y relanza la excepción original de la consulta (p. ej. DataAccessException)
+  public static <T> T obtener(CompletableFuture<T> futuro) {
+    try {
+      return futuro.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException causa) throw causa;
+      throw e;
+    }
+  }
+
+  @PreDestroy
+  public void cerrar() {
+    executor.shutdown();
+  }
+}
@@ -0,0 +1,75 @@
+package pe.com.security.scholarship.util;
+
+import org.springframework.data.domain.Sort;
+import pe.com.security.scholarship.dto.CursorPostulante;
+import pe.com.security.scholarship.dto.projection.PostulanteConvocatoriaProjection;
+import pe.com.security.scholarship.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Cursor opaco de la lista de postulantes: la posición de la última fila en Base64 (URL), junto con el
+// ordenamiento con el que se generó para rechazarlo si el cliente cambia el orden entre páginas
+public class CursorPaginacion {
+
+  private static final String VERSION = "v1";
+  private static final String SEPARADOR = "|";
+
+  public static String codificar(Sort sort, PostulanteConvocatoriaProjection ultimo) {
+    String texto = String.join(SEPARADOR, VERSION, firmaOrden(sort),
+            texto(ultimo.getFechaPostulacion()), texto(ultimo.getPromedioGeneral()),
+            texto(ultimo.getBecado()), texto(ultimo.getIdPostulacion()));
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+  }
+
+  // Sin cursor (o vacío) se devuelve null: primera página
+  public static CursorPostulante decodificar(String cursor, Sort sort) {
+    if (cursor == null || cursor.isBlank()) return null;
+
+    String[] partes;
+    try {
+      partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", -1);
+    } catch (IllegalArgumentException e) {
+      throw new BadRequestException("Cursor de paginación inválido");
+    }
+    if (partes.length != 6 || !VERSION.equals(partes[0])) throw new BadRequestException("Cursor de paginación inválido");
+    if (!firmaOrden(sort).equals(partes[1])) throw new BadRequestException("El cursor no corresponde al ordenamiento solicitado");
+
+    try {
+      return CursorPostulante.builder()
+              .fechaPostulacion(valor(partes[2], LocalDate::parse))
+              .promedioGeneral(valor(partes[3], Double::valueOf))
+              .becado(valor(partes[4], CursorPaginacion::booleano))
+              .idPostulacion(Integer.valueOf(partes[5]))
+              .build();
+    } catch (RuntimeException e) {
+      throw new BadRequestException("Cursor de paginación inválido");
+    }
+  }
+
+  static String firmaOrden(Sort sort) {
+    return sort.stream()
+            .map(orden -> orden.getProperty() + ":" + orden.getDirection())
+            .collect(Collectors.joining(","));
+  }
+
+  // Ninguno de los valores puede ser texto vacío, así que se usa para representar null
+  private static String texto(Object valor) {
+    return valor != null ? valor.toString() : "";
+  }
+
+  private static Boolean booleano(String texto) {
+    return switch (texto) {
+      case "true" -> true;
+      case "false" -> false;
+      default -> throw new IllegalArgumentException(texto);
+    };
+  }
+
+  private static <T> T valor(String texto, Function<String, T> conversion) {
+    return texto.isEmpty() ? null : conversion.apply(texto);
+  }
+}
@@ -0,0 +1,99 @@
+package pe.com.security.scholarship.util;
+
+import com.opencsv.CSVWriterBuilder;
+import com.opencsv.ICSVWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.com.security.scholarship.domain.enums.FormatoExportacion;
+import pe.com.security.scholarship.dto.response.PostulanteConvocatoriaResponse;
+import pe.com.security.scholarship.mapper.PostulacionMapper;
+import pe.com.security.scholarship.repository.PostulacionRepository;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Escribe los postulantes de una convocatoria directo en la salida mientras se leen de la base: la memoria
+// usada no depende del número de postulantes. Corre fuera del hilo de la petición (StreamingResponseBody),
+// por eso abre su propia transacción de solo lectura
+@Component
+public class ExportacionPostulantesHelper {
+
+  private static final String[] CABECERA_CSV =
+          {"idEstudiante", "codigo", "nombreCompleto", "becado", "promedioGeneral", "fechaPostulacion"};
+
+  private final PostulacionRepository postulacionRepository;
+  private final ObjectMapper objectMapper;
+  private final TransactionTemplate transactionTemplate;
+  private final int tamanioFetch;
+
+  public ExportacionPostulantesHelper(PostulacionRepository postulacionRepository, ObjectMapper objectMapper,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${exportacion.tamanio-fetch:1000}") int tamanioFetch) {
+    this.postulacionRepository = postulacionRepository;
+    this.objectMapper = objectMapper;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+    this.tamanioFetch = tamanioFetch;
+  }
+
+  // Devuelve la cantidad de filas escritas
+  public long exportar(Integer idConvocatoria, Sort sort, FormatoExportacion formato, OutputStream salida) throws IOException {
+    long inicio = System.nanoTime();
+    AtomicLong filas = new AtomicLong();
+    Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+    ICSVWriter csv = formato == FormatoExportacion.CSV ? new CSVWriterBuilder(writer).withSeparator(';').build() : null;
+
+    try {
+      if (csv != null) csv.writeNext(CABECERA_CSV, false);
+      transactionTemplate.executeWithoutResult(status ->
+              postulacionRepository.recorrerPostulantes(idConvocatoria, sort, tamanioFetch, postulante -> {
+                PostulanteConvocatoriaResponse fila = PostulacionMapper.mapPostulanteConvocatoria(postulante);
+                try {
+                  if (csv != null) {
+                    csv.writeNext(columnas(fila), false);
+                  } else {
+                    writer.write(objectMapper.writeValueAsString(fila));
+                    writer.write('\n');
+                  }
+                  // El cliente recibe cada tanda apenas se lee, no al final
+                  if (filas.incrementAndGet() % tamanioFetch == 0) writer.flush();
+                } catch (IOException e) {
+                  throw new UncheckedIOException(e);
+                }
+              }));
+      writer.flush();
+    } catch (UncheckedIOException e) {
+      // Cliente desconectado: se corta la lectura y se reporta como error de escritura
+      throw e.getCause();
+    }
+
+    System.out.println("Exportación de postulantes de la convocatoria " + idConvocatoria + " (" + formato + "): "
+            + filas.get() + " filas en " + (System.nanoTime() - inicio) / 1_000_000 + " ms");
+    return filas.get();
+  }
+
+  private static String[] columnas(PostulanteConvocatoriaResponse fila) {
+    return new String[]{
+            String.valueOf(fila.getIdEstudiante()),
+            fila.getCodigo(),
+            fila.getNombreCompleto(),
+            texto(fila.getBecado()),
+            texto(fila.getPromedioGeneral()),
+            texto(fila.getFechaPostulacion())
+    };
+  }
+
+  private static String texto(Object valor) {
+    return valor != null ? valor.toString() : "";
+  }
+}
@@ -3,6 +3,14 @@ package pe.com.security.scholarship.util;
 import org.springframework.web.multipart.MultipartFile;
 import pe.com.security.scholarship.exception.BadRequestException;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
 public class FileUtils {
   public static void validarCsv(MultipartFile file) {
     if (file == null || file.isEmpty()) {
@@ -14,4 +22,22 @@ public class FileUtils {
       throw new BadRequestException("Solo se permiten archivos en formato CSV");
     }
   }
+
+  // Huella SHA-256 en hexadecimal; el archivo se lee por bloques sin cargarlo completo en memoria
+  public static String calcularSha256(MultipartFile file) {
+    try (ReadableByteChannel canal = Channels.newChannel(file.getInputStream())) {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+      while (canal.read(buffer) != -1) {
+        buffer.flip();
+        digest.update(buffer);
+        buffer.clear();
+      }
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (IOException e) {
+      throw new BadRequestException("No se pudo leer el archivo: " + e.getMessage());
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 no está disponible", e);
+    }
+  }
 }
@@ -0,0 +1,11 @@
+package pe.com.security.scholarship.util;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+// Lógica de carga masiva por lote: prepara los datos que comparten las filas del lote
+// (p. ej. una sola consulta para todos sus códigos) y devuelve la lógica a aplicar a cada fila
+@FunctionalInterface
+public interface ProcesadorLote<T> {
+  Consumer<T> preparar(List<T> lote);
+}
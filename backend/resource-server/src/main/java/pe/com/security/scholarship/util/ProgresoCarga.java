@@ -0,0 +1,38 @@
+package pe.com.security.scholarship.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Avance de una carga masiva en segundo plano. El hilo que procesa el archivo lo registra
+// (como el contexto de seguridad) y CargaMasivaHelper lo actualiza al cerrar cada lote
+public class ProgresoCarga {
+
+  private static final ThreadLocal<ProgresoCarga> ACTUAL = new ThreadLocal<>();
+
+  private final AtomicInteger filasProcesadas = new AtomicInteger();
+  private final AtomicInteger fallidos = new AtomicInteger();
+
+  public static void registrar(ProgresoCarga progreso) {
+    ACTUAL.set(progreso);
+  }
+
+  public static void limpiar() {
+    ACTUAL.remove();
+  }
+
+  // Sin progreso registrado (carga síncrona) no hay nada que reportar
+  public static void reportar(int filasProcesadas, int fallidos) {
+    ProgresoCarga progreso = ACTUAL.get();
+    if (progreso != null) {
+      progreso.filasProcesadas.set(filasProcesadas);
+      progreso.fallidos.set(fallidos);
+    }
+  }
+
+  public int getFilasProcesadas() {
+    return filasProcesadas.get();
+  }
+
+  public int getFallidos() {
+    return fallidos.get();
+  }
+}
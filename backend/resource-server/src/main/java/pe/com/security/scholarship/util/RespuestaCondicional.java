@@ -0,0 +1,45 @@
+package pe.com.security.scholarship.util;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import pe.com.security.scholarship.dto.VersionRecurso;
+import pe.com.security.scholarship.dto.projection.VersionRecursoProjection;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.function.Supplier;
+
+public class RespuestaCondicional {
+
+  // Clientes y CDN pueden guardar la respuesta, pero deben revalidarla con ETag / Last-Modified
+  private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePublic();
+
+  public static VersionRecurso buildVersion(VersionRecursoProjection version) {
+    long cantidad = version.getCantidad() != null ? version.getCantidad() : 0;
+    long ultimaModificacion = version.getUltimaModificacion() != null ? version.getUltimaModificacion() : 0;
+    return VersionRecurso.builder()
+            .etag(cantidad + "-" + ultimaModificacion)
+            .ultimaModificacion(ultimaModificacion)
+            .build();
+  }
+
+  // Para respuestas filtradas por fecha: la versión también cambia al iniciar cada día
+  public static VersionRecurso buildVersion(VersionRecursoProjection version, LocalDate fechaReferencia) {
+    VersionRecurso base = buildVersion(version);
+    long inicioDia = fechaReferencia.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    return VersionRecurso.builder()
+            .etag(base.getEtag() + "-" + fechaReferencia)
+            .ultimaModificacion(Math.max(base.getUltimaModificacion(), inicioDia))
+            .build();
+  }
+
+  // Responde 304 sin construir el cuerpo si el cliente ya tiene la versión vigente
+  public static <T> ResponseEntity<T> responder(WebRequest request, VersionRecurso version, Supplier<T> cuerpo) {
+    if (request.checkNotModified(version.getEtag(), version.getUltimaModificacion())) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CACHE_CONTROL).build();
+    }
+    return ResponseEntity.ok().cacheControl(CACHE_CONTROL).body(cuerpo.get());
+  }
+}
@@ -0,0 +1,142 @@
+package pe.com.security.scholarship.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+import pe.com.security.scholarship.domain.entity.Empleado;
+import pe.com.security.scholarship.domain.entity.Estudiante;
+import pe.com.security.scholarship.dto.UsuarioActual;
+import pe.com.security.scholarship.dto.projection.UsuarioActualProjection;
+import pe.com.security.scholarship.repository.EmpleadoRepository;
+import pe.com.security.scholarship.repository.EstudianteRepository;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// Resuelve el estudiante o empleado del JWT una sola vez por petición.
+// El id y el código resueltos se guardan como atributo de la petición y en una caché acotada compartida entre
+// peticiones (uid -> id del dominio no cambia). getEstudianteActual/getEmpleadoActual los devuelven sin consultar
+// la base. getEstudiante/getEmpleado devuelven una referencia (getReferenceById) solo para usar el id o asignarla
+// en una relación: leer cualquier otro campo la carga por clave primaria y anula el ahorro que reportan las métricas
+@Component
+public class UsuarioActualHelper {
+
+  private static final String ATRIBUTO_ESTUDIANTE = UsuarioActualHelper.class.getName() + ".idEstudiante";
+  private static final String ATRIBUTO_EMPLEADO = UsuarioActualHelper.class.getName() + ".idEmpleado";
+  private static final String SIN_PETICION = "(sin petición)";
+
+  private final EstudianteRepository estudianteRepository;
+  private final EmpleadoRepository empleadoRepository;
+  private final Cache<UUID, UsuarioActual> estudiantes;
+  private final Cache<UUID, UsuarioActual> empleados;
+  private final Map<String, ContadorResoluciones> metricas = new ConcurrentHashMap<>();
+
+  public UsuarioActualHelper(EstudianteRepository estudianteRepository, EmpleadoRepository empleadoRepository,
+                             @Value("${usuario-actual.cache.tamanio-maximo:10000}") long tamanioMaximo) {
+    this.estudianteRepository = estudianteRepository;
+    this.empleadoRepository = empleadoRepository;
+    this.estudiantes = crearCache(tamanioMaximo);
+    this.empleados = crearCache(tamanioMaximo);
+  }
+
+  private static Cache<UUID, UsuarioActual> crearCache(long tamanioMaximo) {
+    return Caffeine.newBuilder()
+            .maximumSize(tamanioMaximo)
+            .expireAfterWrite(Duration.ofHours(1)) // Por si se desvincula un usuario
+            .build();
+  }
+
+  public Optional<UsuarioActual> getEstudianteActual() {
+    return resolver(ATRIBUTO_ESTUDIANTE, estudiantes, estudianteRepository::findUsuarioActualByIdUsuario);
+  }
+
+  public Optional<UsuarioActual> getEmpleadoActual() {
+    return resolver(ATRIBUTO_EMPLEADO, empleados, empleadoRepository::findUsuarioActualByIdUsuario);
+  }
+
+  public Optional<Estudiante> getEstudiante() {
+    return getEstudianteActual().map(usuario -> estudianteRepository.getReferenceById(usuario.getId()));
+  }
+
+  public Optional<Empleado> getEmpleado() {
+    return getEmpleadoActual().map(usuario -> empleadoRepository.getReferenceById(usuario.getId()));
+  }
+
+  private Optional<UsuarioActual> resolver(String atributo, Cache<UUID, UsuarioActual> cache,
+                                           Function<UUID, Optional<UsuarioActualProjection>> consulta) {
+    RequestAttributes peticion = RequestContextHolder.getRequestAttributes();
+    ContadorResoluciones contador = metricas.computeIfAbsent(endpoint(peticion), e -> new ContadorResoluciones());
+
+    if (peticion != null && peticion.getAttribute(atributo, RequestAttributes.SCOPE_REQUEST) instanceof UsuarioActual usuario) {
+      contador.peticion.increment();
+      return Optional.of(usuario);
+    }
+
+    // Los trabajos en segundo plano no tienen petición: usan solo la caché compartida
+    UUID idUsuario = SecurityUtils.getCurrentUserId();
+    UsuarioActual usuario = cache.getIfPresent(idUsuario);
+    if (usuario != null) {
+      contador.cache.increment();
+    } else {
+      contador.consultas.increment();
+      // Los usuarios sin vínculo no se guardan: pueden vincularse después
+      usuario = consulta.apply(idUsuario).map(p -> new UsuarioActual(p.getId(), p.getCodigo())).orElse(null);
+      if (usuario == null) return Optional.empty();
+      cache.put(idUsuario, usuario);
+    }
+
+    if (peticion != null) peticion.setAttribute(atributo, usuario, RequestAttributes.SCOPE_REQUEST);
+    return Optional.of(usuario);
+  }
+
+  private static String endpoint(RequestAttributes peticion) {
+    if (peticion == null) return SIN_PETICION;
+    Object patron = peticion.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    return patron != null ? patron.toString() : SIN_PETICION;
+  }
+
+  // Resoluciones por endpoint; las atendidas por la petición o la caché son consultas ahorradas
+  public Map<String, ResumenResoluciones> getMetricas() {
+    Map<String, ResumenResoluciones> resumen = new TreeMap<>();
+    metricas.forEach((endpoint, contador) -> resumen.put(endpoint, contador.resumir()));
+    return resumen;
+  }
+
+  @Scheduled(cron = "0 0 * * * *")
+  public void reportarMetricas() {
+    getMetricas().forEach((endpoint, r) -> System.out.println("Resolución de usuario " + endpoint + ": "
+            + r.consultasAhorradas() + " consultas ahorradas de " + r.total() + " (petición: " + r.peticion()
+            + ", caché: " + r.cache() + ", base de datos: " + r.consultas() + ")"));
+  }
+
+  public record ResumenResoluciones(long peticion, long cache, long consultas) {
+    public long consultasAhorradas() {
+      return peticion + cache;
+    }
+
+    public long total() {
+      return peticion + cache + consultas;
+    }
+  }
+
+  private static class ContadorResoluciones {
+    final LongAdder peticion = new LongAdder();
+    final LongAdder cache = new LongAdder();
+    final LongAdder consultas = new LongAdder();
+
+    ResumenResoluciones resumir() {
+      return new ResumenResoluciones(peticion.sum(), cache.sum(), consultas.sum());
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package pe.com.security.scholarship.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import pe.com.security.scholarship.domain.entity.Curso;
+import pe.com.security.scholarship.domain.enums.ModalidadCurso;
+import pe.com.security.scholarship.dto.request.RegisterCursoRequest;
+import pe.com.security.scholarship.repository.CursoRepository;
+import pe.com.security.scholarship.service.CursoService;
+import pe.com.security.scholarship.service.PostulacionService;
+import pe.com.security.scholarship.service.SeccionService;
+import pe.com.security.scholarship.util.UsuarioActualHelper;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringJUnitConfig({CacheConfig.class, CursoService.class})
+class CacheConfigTest {
+
+    @Autowired
+    private CursoService cursoService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockitoBean
+    private CursoRepository cursoRepository;
+
+    @MockitoBean
+    private PostulacionService postulacionService;
+
+    @MockitoBean
+    private SeccionService seccionService;
+
+    @MockitoBean
+    private UsuarioActualHelper usuarioActualHelper;
+
+    private final Pageable pageable = PageRequest.of(0, 10, Sort.by("nombre"));
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(nombre -> cacheManager.getCache(nombre).clear());
+    }
+
+    private Curso crearCurso() {
+        return Curso.builder()
+                .id(1)
+                .nombre("Java")
+                .codigo("JAVA-01")
+                .modalidad(ModalidadCurso.ONLINE)
+                .secciones(List.of())
+                .build();
+    }
+
+    @Test
+    void getCatalogo_DeberiaConsultarUnaSolaVez_CuandoSeRepiteLaMismaPagina() {
+        // Arrange
+        when(cursoRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(crearCurso()), pageable, 1));
+
+        // Act
+        cursoService.getCatalogo(pageable);
+        cursoService.getCatalogo(pageable);
+        cursoService.getCatalogo(PageRequest.of(1, 10, Sort.by("nombre")));
+
+        // Assert
+        verify(cursoRepository, times(1)).findAll(pageable);
+        verify(cursoRepository, times(2)).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void getHorarios_DeberiaEjecutarConsultasUnaSolaVez_CuandoSeRepiteLaMismaPagina() {
+        // Arrange
+        when(cursoRepository.findIdsCursosHorarios(any(LocalDate.class), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(1), pageable, 1));
+        when(cursoRepository.findCursosSecciones(anyList(), any(LocalDate.class), any(Sort.class)))
+                .thenReturn(List.of(crearCurso()));
+
+        // Act
+        cursoService.getHorarios(pageable);
+        cursoService.getHorarios(pageable);
+
+        // Assert
+        verify(cursoRepository, times(1)).findIdsCursosHorarios(any(LocalDate.class), eq(pageable));
+        verify(cursoRepository, times(1)).findCursosSecciones(anyList(), any(LocalDate.class), any(Sort.class));
+    }
+
+    @Test
+    void register_DeberiaInvalidarCatalogoYHorarios() {
+        // Arrange
+        when(cursoRepository.findAll(pageable)).thenReturn(new PageImpl<>(List.of(crearCurso()), pageable, 1));
+        when(cursoRepository.existsByCodigo(anyString())).thenReturn(false);
+        when(cursoRepository.save(any(Curso.class))).thenAnswer(inv -> inv.getArgument(0));
+        cursoService.getCatalogo(pageable);
+
+        RegisterCursoRequest request = new RegisterCursoRequest();
+        request.setNombre("Python");
+        request.setCodigo("PY-01");
+        request.setModalidadCurso(ModalidadCurso.ONLINE);
+
+        // Act
+        cursoService.register(request);
+        cursoService.getCatalogo(pageable);
+
+        // Assert
+        verify(cursoRepository, times(2)).findAll(pageable);
+    }
+
+    @Test
+    void tiempoHastaMedianoche_DeberiaVencerAlIniciarElDiaSiguiente() {
+        LocalDate hoy = LocalDate.of(2026, 3, 15);
+
+        assertThat(CacheConfig.tiempoHastaMedianoche(hoy.atTime(LocalTime.of(23, 30))))
+                .isEqualTo(Duration.ofMinutes(30));
+        assertThat(CacheConfig.tiempoHastaMedianoche(hoy.atStartOfDay()))
+                .isEqualTo(Duration.ofDays(1));
+        assertThat(CacheConfig.tiempoHastaMedianoche(LocalDateTime.of(2026, 3, 15, 12, 0)))
+                .isEqualTo(Duration.ofHours(12));
+    }
+}
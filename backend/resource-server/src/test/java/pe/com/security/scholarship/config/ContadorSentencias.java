@@ -0,0 +1,39 @@
+package pe.com.security.scholarship.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Registra las sentencias SQL que Hibernate prepara mientras hay una captura activa, para fijar en los tests
+// cuántas consultas hace un endpoint y detectar N+1 (cargas perezosas en un bucle). Se activa en el perfil
+// test con hibernate.session_factory.statement_inspector. Las sentencias JDBC directas (doWork) no pasan por aquí
+public class ContadorSentencias implements StatementInspector {
+
+  private static final List<String> sentencias = Collections.synchronizedList(new ArrayList<>());
+  private static volatile boolean capturando = false;
+
+  @Override
+  public String inspect(String sql) {
+    if (capturando) sentencias.add(sql);
+    return sql;
+  }
+
+  // Ejecuta el bloque y devuelve las sentencias emitidas por cualquier hilo durante su ejecución
+  public static List<String> capturar(Bloque bloque) throws Exception {
+    sentencias.clear();
+    capturando = true;
+    try {
+      bloque.ejecutar();
+    } finally {
+      capturando = false;
+    }
+    return List.copyOf(sentencias);
+  }
+
+  @FunctionalInterface
+  public interface Bloque {
+    void ejecutar() throws Exception;
+  }
+}
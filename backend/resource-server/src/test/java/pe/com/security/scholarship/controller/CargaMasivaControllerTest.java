@@ -0,0 +1,113 @@
+package pe.com.security.scholarship.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import pe.com.security.scholarship.config.ResourceServerTest;
+import pe.com.security.scholarship.domain.enums.EstadoCarga;
+import pe.com.security.scholarship.dto.ProcesamientoResult;
+import pe.com.security.scholarship.dto.response.EstadoCargaResponse;
+import pe.com.security.scholarship.exception.ConflictException;
+import pe.com.security.scholarship.exception.NotFoundException;
+import pe.com.security.scholarship.service.TrabajoCargaService;
+
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(CargaMasivaController.class)
+@ResourceServerTest
+class CargaMasivaControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private TrabajoCargaService trabajoCargaService;
+
+    @Test
+    void consultarEstado_ShouldReturnProgress() throws Exception {
+        // Arrange
+        UUID idTrabajo = UUID.randomUUID();
+        EstadoCargaResponse estado = EstadoCargaResponse.builder()
+                .idTrabajo(idTrabajo)
+                .estado(EstadoCarga.PROCESANDO)
+                .filasEstimadas(1000)
+                .filasProcesadas(500)
+                .fallidos(3)
+                .segundosRestantes(12L)
+                .build();
+        when(trabajoCargaService.consultar(idTrabajo)).thenReturn(estado);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/cargas/{idTrabajo}", idTrabajo)
+                        .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_TRAINING_CENTER_SECRETARY"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.estado").value("PROCESANDO"))
+                .andExpect(jsonPath("$.data.filasProcesadas").value(500))
+                .andExpect(jsonPath("$.data.fallidos").value(3))
+                .andExpect(jsonPath("$.data.segundosRestantes").value(12));
+    }
+
+    @Test
+    void consultarEstado_ShouldReturnNotFound_WhenJobBelongsToAnotherUser() throws Exception {
+        // Arrange
+        UUID idTrabajo = UUID.randomUUID();
+        when(trabajoCargaService.consultar(idTrabajo)).thenThrow(new NotFoundException("No se encontró la carga especificada"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/cargas/{idTrabajo}", idTrabajo)
+                        .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_SOCIAL_OUTREACH_SECRETARY"))))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("No se encontró la carga especificada"));
+    }
+
+    @Test
+    void obtenerResultado_ShouldReturnResult_WhenJobCompleted() throws Exception {
+        // Arrange
+        UUID idTrabajo = UUID.randomUUID();
+        ProcesamientoResult resultado = ProcesamientoResult.builder()
+                .total(2).exitos(2).fallidos(0).errores(Collections.emptyList()).build();
+        when(trabajoCargaService.obtenerResultado(idTrabajo)).thenReturn(resultado);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/cargas/{idTrabajo}/resultado", idTrabajo)
+                        .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_TRAINING_CENTER_SECRETARY"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Procesamiento finalizado"))
+                .andExpect(jsonPath("$.data.exitos").value(2));
+    }
+
+    @Test
+    void obtenerResultado_ShouldReturnConflict_WhenJobStillRunning() throws Exception {
+        // Arrange
+        UUID idTrabajo = UUID.randomUUID();
+        when(trabajoCargaService.obtenerResultado(idTrabajo)).thenThrow(new ConflictException("La carga aún no ha finalizado"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/cargas/{idTrabajo}/resultado", idTrabajo)
+                        .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_TRAINING_CENTER_SECRETARY"))))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void consultarEstado_ShouldReturnForbidden_WhenUserIsStudent() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/cargas/{idTrabajo}", UUID.randomUUID())
+                        .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_STUDENT"))))
+                .andExpect(status().isForbidden());
+
+        verify(trabajoCargaService, times(0)).consultar(any());
+    }
+}
@@ -1,6 +1,7 @@
 package pe.com.security.scholarship.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.data.autoconfigure.web.DataWebAutoConfiguration;
@@ -9,19 +10,25 @@ import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import pe.com.security.scholarship.config.ResourceServerTest;
 import pe.com.security.scholarship.domain.enums.EstadoConvocatoria;
+import pe.com.security.scholarship.domain.enums.FormatoExportacion;
 import pe.com.security.scholarship.domain.enums.Mes;
 import pe.com.security.scholarship.domain.enums.ModoEvaluacion;
+import pe.com.security.scholarship.dto.VersionRecurso;
 import pe.com.security.scholarship.dto.request.RegisterConvocatoriaRequest;
 import pe.com.security.scholarship.dto.request.UpdateEstadoConvocatoriaRequest;
 import pe.com.security.scholarship.dto.response.ConvocatoriaAbiertaResponse;
 import pe.com.security.scholarship.dto.response.DetalleConvocatoriaResponse;
 import pe.com.security.scholarship.dto.response.HistorialConvocatoriaResponse;
+import pe.com.security.scholarship.dto.response.PaginaCursorResponse;
 import pe.com.security.scholarship.dto.response.PostulanteConvocatoriaResponse;
 import pe.com.security.scholarship.dto.response.RegisteredConvocatoriaResponse;
 import pe.com.security.scholarship.exception.BadRequestException;
@@ -29,21 +36,28 @@ import pe.com.security.scholarship.exception.NotFoundException;
 import pe.com.security.scholarship.service.ConvocatoriaService;
 import pe.com.security.scholarship.service.PostulacionService;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ConvocatoriaController.class)
@@ -63,6 +77,14 @@ class ConvocatoriaControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @BeforeEach
+    void setUp() {
+        when(convocatoriaService.getVersionConvocatoriaAbierta()).thenReturn(VersionRecurso.builder()
+                .etag("1-1767225600000")
+                .ultimaModificacion(1767225600000L)
+                .build());
+    }
+
     @Test
     void registerConvocatoria_ShouldReturnOk_WhenRequestIsValid() throws Exception {
         // Arrange
@@ -212,6 +234,26 @@ class ConvocatoriaControllerTest {
         verify(convocatoriaService, times(1)).getConvocatoriaAbierta();
     }
 
+    @Test
+    void getConvocatoriaAbierta_ShouldReturnNotModified_WhenEtagMatches() throws Exception {
+        // Arrange
+        when(convocatoriaService.getVersionConvocatoriaAbierta()).thenReturn(VersionRecurso.builder()
+                .etag("5-1767225600000")
+                .ultimaModificacion(1767225600000L)
+                .build());
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/v1/convocatorias/activa")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"5-1767225600000\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"5-1767225600000\""))
+                .andReturn();
+
+        // Assert
+        assertThat(result.getResponse().getContentAsByteArray()).isEmpty();
+        verify(convocatoriaService, never()).getConvocatoriaAbierta();
+    }
+
     @Test
     void getHistorialConvocatorias_ShouldReturnOk_WhenAuthorized() throws Exception {
         // Arrange
@@ -395,4 +437,61 @@ class ConvocatoriaControllerTest {
 
         verify(postulacionService, times(1)).obtenerPostulantesConvocatoria(eq(idConvocatoria), any(Pageable.class));
     }
+
+    @Test
+    void listarPostulantesPorCursor_Success() throws Exception {
+        // Arrange
+        Integer idConvocatoria = 1;
+        PaginaCursorResponse<PostulanteConvocatoriaResponse> pagina = PaginaCursorResponse.<PostulanteConvocatoriaResponse>builder()
+                .content(List.of(PostulanteConvocatoriaResponse.builder().nombreCompleto("Juan Perez").build()))
+                .size(20)
+                .siguienteCursor("abc")
+                .build();
+
+        when(postulacionService.obtenerPostulantesConvocatoriaPorCursor(eq(idConvocatoria), any(Pageable.class), eq(""), eq(false)))
+                .thenReturn(pagina);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/convocatorias/{id}/postulantes", idConvocatoria)
+                        .param("cursor", "")
+                        .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_SOCIAL_OUTREACH_MANAGER")))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content[0].nombreCompleto").value("Juan Perez"))
+                .andExpect(jsonPath("$.data.siguienteCursor").value("abc"))
+                .andExpect(jsonPath("$.data.totalElements").doesNotExist());
+
+        verify(postulacionService, never()).obtenerPostulantesConvocatoria(any(), any());
+    }
+
+    @Test
+    void exportarPostulantes_Success() throws Exception {
+        // Arrange
+        Integer idConvocatoria = 1;
+        when(postulacionService.exportarPostulantesConvocatoria(eq(idConvocatoria), any(Sort.class), eq(FormatoExportacion.CSV)))
+                .thenReturn(salida -> salida.write("codigo\nE001\n".getBytes(StandardCharsets.UTF_8)));
+
+        // Act & Assert
+        MvcResult resultado = mockMvc.perform(get("/api/v1/convocatorias/{id}/postulantes/exportar", idConvocatoria)
+                        .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_SOCIAL_OUTREACH_SECRETARY"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"postulantes-convocatoria-1.csv\""))
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(content().string("codigo\nE001\n"));
+    }
+
+    @Test
+    void exportarPostulantes_Forbidden() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/convocatorias/{id}/postulantes/exportar", 1)
+                        .param("formato", "NDJSON")
+                        .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_STUDENT"))))
+                .andExpect(status().isForbidden());
+
+        verify(postulacionService, never()).exportarPostulantesConvocatoria(any(), any(), any());
+    }
 }
@@ -1,6 +1,7 @@
 package pe.com.security.scholarship.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
@@ -8,13 +9,16 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import pe.com.security.scholarship.config.ResourceServerTest;
 import pe.com.security.scholarship.domain.enums.DiaSemana;
 import pe.com.security.scholarship.domain.enums.ModalidadCurso;
+import pe.com.security.scholarship.dto.VersionRecurso;
 import pe.com.security.scholarship.dto.request.RegisterCursoRequest;
 import pe.com.security.scholarship.dto.request.RegisterHorarioSeccionRequest;
 import pe.com.security.scholarship.dto.request.RegisterSeccionRequest;
@@ -31,6 +35,7 @@ import java.time.LocalTime;
 import java.util.Collections;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
@@ -42,6 +47,7 @@ import static org.springframework.security.test.web.servlet.request.SecurityMock
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -58,6 +64,17 @@ class CursoControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    private final VersionRecurso versionCatalogo = VersionRecurso.builder()
+            .etag("3-1767225600000")
+            .ultimaModificacion(1767225600000L)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        when(cursoService.getVersionCatalogo()).thenReturn(versionCatalogo);
+        when(cursoService.getVersionHorarios()).thenReturn(versionCatalogo);
+    }
+
     @Test
     void register_ShouldReturnOk_WhenRequestIsValid() throws Exception {
         // Arrange
@@ -276,6 +293,69 @@ class CursoControllerTest {
                 .andExpect(jsonPath("$.message").value("Campo de ordenamiento no permitido: fechaCreacion"));
     }
 
+    @Test
+    void getCatalogo_ShouldReturnNotModified_WhenEtagMatches() throws Exception {
+        // Arrange
+        OverviewCursoResponse curso = OverviewCursoResponse.builder()
+                .id(1)
+                .nombre("Curso Test")
+                .codigo("C001")
+                .modalidad(ModalidadCurso.ONLINE)
+                .build();
+        when(cursoService.getCatalogo(any(Pageable.class))).thenReturn(new PageImpl<>(Collections.singletonList(curso)));
+
+        // Act: la primera petición obtiene el cuerpo y su ETag
+        MvcResult primera = mockMvc.perform(get("/api/v1/cursos").with(anonymous()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-1767225600000\""))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, public"))
+                .andReturn();
+        int bytesPrimera = primera.getResponse().getContentAsByteArray().length;
+
+        // La revalidación con el mismo ETag responde 304 sin cuerpo ni consulta del catálogo
+        MvcResult segunda = mockMvc.perform(get("/api/v1/cursos")
+                        .header(HttpHeaders.IF_NONE_MATCH, primera.getResponse().getHeader(HttpHeaders.ETAG))
+                        .with(anonymous()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-1767225600000\""))
+                .andReturn();
+
+        // Assert
+        assertThat(bytesPrimera).isPositive();
+        assertThat(segunda.getResponse().getContentAsByteArray()).isEmpty();
+        verify(cursoService, times(2)).getVersionCatalogo();
+        verify(cursoService, times(1)).getCatalogo(any(Pageable.class));
+    }
+
+    @Test
+    void getCatalogo_ShouldReturnOk_WhenEtagChanged() throws Exception {
+        // Arrange
+        when(cursoService.getCatalogo(any(Pageable.class))).thenReturn(new PageImpl<>(Collections.emptyList()));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/cursos")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"2-1767225500000\"")
+                        .with(anonymous()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-1767225600000\""));
+
+        verify(cursoService).getCatalogo(any(Pageable.class));
+    }
+
+    @Test
+    void getHorarios_ShouldReturnNotModified_WhenNotModifiedSince() throws Exception {
+        // Act & Assert
+        MvcResult result = mockMvc.perform(get("/api/v1/cursos/horarios")
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, "Thu, 01 Jan 2026 00:00:00 GMT")
+                        .with(anonymous()))
+                .andExpect(status().isNotModified())
+                .andReturn();
+
+        assertThat(result.getResponse().getContentAsByteArray()).isEmpty();
+        verify(cursoService, never()).getHorarios(any(Pageable.class));
+    }
+
     @Test
     void getHorarios_ShouldReturnOk_WhenDefaultParameters() throws Exception {
         // Arrange
@@ -10,13 +10,20 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import pe.com.security.scholarship.config.ResourceServerTest;
+import pe.com.security.scholarship.domain.enums.EstadoCarga;
 import pe.com.security.scholarship.dto.ProcesamientoResult;
+import pe.com.security.scholarship.dto.response.EstadoCargaResponse;
 import pe.com.security.scholarship.exception.BadRequestException;
 import pe.com.security.scholarship.exception.NotFoundException;
 import pe.com.security.scholarship.service.EvaluacionSocioeconomicaService;
+import pe.com.security.scholarship.service.TrabajoCargaService;
 import pe.com.security.scholarship.util.FileUtils;
 
+import java.util.UUID;
+
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -37,6 +44,9 @@ class EvaluacionSocioeconomicaControllerTest {
     @MockitoBean
     private EvaluacionSocioeconomicaService evaluacionService;
 
+    @MockitoBean
+    private TrabajoCargaService trabajoCargaService;
+
     @AfterEach
     void tearDown() {
         // No static mocks to close here as we use try-with-resources in each test
@@ -52,7 +62,7 @@ class EvaluacionSocioeconomicaControllerTest {
             // Mockeamos que la validación pase sin errores
             fileUtilsMock.when(() -> FileUtils.validarCsv(any())).thenAnswer(invocation -> null);
             
-            when(evaluacionService.procesarCargaMasiva(any())).thenReturn(result);
+            when(evaluacionService.procesarCargaMasiva(any(), eq(false))).thenReturn(result);
 
             // Act & Assert
             mockMvc.perform(multipart("/api/v1/evaluaciones/upload")
@@ -64,7 +74,7 @@ class EvaluacionSocioeconomicaControllerTest {
                     .andExpect(jsonPath("$.message").value("Procesamiento finalizado"))
                     .andExpect(jsonPath("$.data.total").value(1));
 
-            verify(evaluacionService, times(1)).procesarCargaMasiva(any());
+            verify(evaluacionService, times(1)).procesarCargaMasiva(any(), eq(false));
         }
     }
 
@@ -87,7 +97,7 @@ class EvaluacionSocioeconomicaControllerTest {
                     .andExpect(status().isBadRequest());
                     //.andExpect(jsonPath("$.message").value("Solo se permiten archivos en formato CSV"));
 
-            verify(evaluacionService, times(0)).procesarCargaMasiva(any());
+            verify(evaluacionService, times(0)).procesarCargaMasiva(any(), anyBoolean());
         }
     }
 
@@ -104,7 +114,7 @@ class EvaluacionSocioeconomicaControllerTest {
                         .contentType(MediaType.MULTIPART_FORM_DATA))
                 .andExpect(status().isForbidden());
 
-        verify(evaluacionService, times(0)).procesarCargaMasiva(any());
+        verify(evaluacionService, times(0)).procesarCargaMasiva(any(), anyBoolean());
     }
 
     @Test
@@ -115,7 +125,7 @@ class EvaluacionSocioeconomicaControllerTest {
         try (MockedStatic<FileUtils> fileUtilsMock = mockStatic(FileUtils.class)) {
             fileUtilsMock.when(() -> FileUtils.validarCsv(any())).thenAnswer(invocation -> null);
             
-            when(evaluacionService.procesarCargaMasiva(any()))
+            when(evaluacionService.procesarCargaMasiva(any(), eq(false)))
                     .thenThrow(new NotFoundException("Empleado no encontrado"));
 
             // Act & Assert
@@ -127,7 +137,32 @@ class EvaluacionSocioeconomicaControllerTest {
                     .andExpect(status().isNotFound());
                     //.andExpect(jsonPath("$.message").value("Empleado no encontrado"));
 
-            verify(evaluacionService, times(1)).procesarCargaMasiva(any());
+            verify(evaluacionService, times(1)).procesarCargaMasiva(any(), eq(false));
+        }
+    }
+
+    @Test
+    void enviarEvaluaciones_Aceptado() throws Exception {
+        // Arrange
+        UUID idTrabajo = UUID.randomUUID();
+        MockMultipartFile file = new MockMultipartFile("file", "test.csv", "text/csv", "content".getBytes());
+        EstadoCargaResponse estado = EstadoCargaResponse.builder().idTrabajo(idTrabajo).estado(EstadoCarga.EN_COLA).build();
+
+        try (MockedStatic<FileUtils> fileUtilsMock = mockStatic(FileUtils.class)) {
+            fileUtilsMock.when(() -> FileUtils.validarCsv(any())).thenAnswer(invocation -> null);
+            when(trabajoCargaService.enviar(any(), any())).thenReturn(estado);
+
+            // Act & Assert
+            mockMvc.perform(multipart("/api/v1/evaluaciones/upload/trabajos")
+                            .file(file)
+                            .with(csrf())
+                            .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_SOCIAL_OUTREACH_SECRETARY")))
+                            .contentType(MediaType.MULTIPART_FORM_DATA))
+                    .andExpect(status().isAccepted())
+                    .andExpect(jsonPath("$.data.idTrabajo").value(idTrabajo.toString()));
+
+            // El procesamiento queda para el pool de cargas, no ocurre en la petición
+            verify(evaluacionService, times(0)).procesarCargaMasiva(any(), anyBoolean());
         }
     }
 }
@@ -3,6 +3,7 @@ package pe.com.security.scholarship.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.MockedStatic;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
@@ -11,13 +12,16 @@ import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.multipart.MultipartFile;
 import pe.com.security.scholarship.config.ResourceServerTest;
+import pe.com.security.scholarship.domain.enums.EstadoCarga;
 import pe.com.security.scholarship.domain.enums.EstadoMatricula;
 import pe.com.security.scholarship.dto.ProcesamientoResult;
 import pe.com.security.scholarship.dto.request.AprobarMatriculaRequest;
 import pe.com.security.scholarship.dto.request.SubmitMatriculaRequest;
 import pe.com.security.scholarship.dto.response.BecadoIntencionMatriculaResponse;
 import pe.com.security.scholarship.dto.response.CursoIntencionMatriculaResponse;
+import pe.com.security.scholarship.dto.response.EstadoCargaResponse;
 import pe.com.security.scholarship.dto.response.IntencionMatriculaResponse;
 import pe.com.security.scholarship.dto.response.RegisteredMatriculaResponse;
 import pe.com.security.scholarship.dto.response.SeccionBecadosResponse;
@@ -25,11 +29,14 @@ import pe.com.security.scholarship.dto.response.SeccionIntencionMatriculaRespons
 import pe.com.security.scholarship.exception.BadRequestException;
 import pe.com.security.scholarship.exception.NotFoundException;
 import pe.com.security.scholarship.service.MatriculaService;
+import pe.com.security.scholarship.service.TrabajoCargaService;
 import pe.com.security.scholarship.util.FileUtils;
 
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
@@ -58,6 +65,9 @@ class MatriculaControllerTest {
     @MockitoBean
     private MatriculaService matriculaService;
 
+    @MockitoBean
+    private TrabajoCargaService trabajoCargaService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -385,7 +395,7 @@ class MatriculaControllerTest {
             // Simulamos que la validación pasa (no hace nada)
             fileUtilsMock.when(() -> FileUtils.validarCsv(any())).thenAnswer(invocation -> null);
 
-            when(matriculaService.procesarCargaNotas(any(), eq(idSeccion))).thenReturn(result);
+            when(matriculaService.procesarCargaNotas(any(), eq(idSeccion), eq(false))).thenReturn(result);
 
             mockMvc.perform(multipart("/api/v1/matriculas/notas/{idSeccion}", idSeccion)
                             .file(file)
@@ -400,7 +410,7 @@ class MatriculaControllerTest {
                     .andExpect(jsonPath("$.message").value("Procesamiento finalizado"))
                     .andExpect(jsonPath("$.data.exitos").value(1));
 
-            verify(matriculaService).procesarCargaNotas(any(), eq(idSeccion));
+            verify(matriculaService).procesarCargaNotas(any(), eq(idSeccion), eq(false));
             fileUtilsMock.verify(() -> FileUtils.validarCsv(any()), times(1));
         }
     }
@@ -459,4 +469,39 @@ class MatriculaControllerTest {
                     .andExpect(jsonPath("$.message").value("El archivo no es un CSV válido"));
         }
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void enviarNotas_ShouldReturnAccepted_WhenRequestIsValid() throws Exception {
+        Integer idSeccion = 1;
+        UUID idTrabajo = UUID.randomUUID();
+        MockMultipartFile file = new MockMultipartFile("file", "notas.csv", "text/csv", "codigo,nota\nSTU001,15".getBytes());
+        EstadoCargaResponse estado = EstadoCargaResponse.builder().idTrabajo(idTrabajo).estado(EstadoCarga.EN_COLA).filasEstimadas(1).build();
+
+        try (MockedStatic<FileUtils> fileUtilsMock = mockStatic(FileUtils.class)) {
+            fileUtilsMock.when(() -> FileUtils.validarCsv(any())).thenAnswer(invocation -> null);
+            when(trabajoCargaService.enviar(any(), any())).thenReturn(estado);
+
+            mockMvc.perform(multipart("/api/v1/matriculas/notas/{idSeccion}/trabajos", idSeccion)
+                            .file(file)
+                            .param("forzar", "true")
+                            .with(request -> {
+                                request.setMethod("PATCH");
+                                return request;
+                            })
+                            .with(csrf())
+                            .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_TRAINING_CENTER_SECRETARY")))
+                            .contentType(MediaType.MULTIPART_FORM_DATA))
+                    .andExpect(status().isAccepted())
+                    .andExpect(jsonPath("$.message").value("Carga en cola"))
+                    .andExpect(jsonPath("$.data.idTrabajo").value(idTrabajo.toString()))
+                    .andExpect(jsonPath("$.data.estado").value("EN_COLA"));
+
+            // El trabajo encolado delega en la misma carga de notas de la sección, incluido el reproceso forzado
+            ArgumentCaptor<Function<MultipartFile, ProcesamientoResult>> captor = ArgumentCaptor.forClass(Function.class);
+            verify(trabajoCargaService).enviar(any(), captor.capture());
+            captor.getValue().apply(file);
+            verify(matriculaService).procesarCargaNotas(file, idSeccion, true);
+        }
+    }
 }
@@ -0,0 +1,131 @@
+package pe.com.security.scholarship.controller;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.com.security.scholarship.config.ContadorSentencias;
+import pe.com.security.scholarship.config.ResourceServerTest;
+import pe.com.security.scholarship.domain.entity.Carrera;
+import pe.com.security.scholarship.domain.entity.Convocatoria;
+import pe.com.security.scholarship.domain.entity.Curso;
+import pe.com.security.scholarship.domain.entity.Empleado;
+import pe.com.security.scholarship.domain.entity.Estudiante;
+import pe.com.security.scholarship.domain.entity.Postulacion;
+import pe.com.security.scholarship.domain.enums.EstadoConvocatoria;
+import pe.com.security.scholarship.domain.enums.Mes;
+import pe.com.security.scholarship.domain.enums.ModalidadCurso;
+import pe.com.security.scholarship.domain.enums.ModoEvaluacion;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Presupuesto de sentencias SQL por endpoint sobre H2: falla si vuelve a aparecer una carga perezosa por fila
+// (N+1). Cada postulación del estudiante pertenece a una convocatoria distinta y tiene varios cursos
+@SpringBootTest
+@ResourceServerTest
+class PostulacionSentenciasIntegrationTest {
+
+    private static final int POSTULACIONES = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Un usuario nuevo por test: el id del estudiante se guarda en caché por uid
+    private final UUID idUsuario = UUID.randomUUID();
+    private final List<Integer> idsPostulaciones = new ArrayList<>();
+
+    @BeforeEach
+    void registrarPostulaciones() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Instant ahora = Instant.now();
+            Carrera carrera = Carrera.builder().nombre("Derecho").codigoFacultad("FAC1").build();
+            Empleado empleado = Empleado.builder().idUsuario(UUID.randomUUID()).codigoEmpleado("EMP00001")
+                    .fechaIngreso(LocalDate.now()).createdAt(ahora).build();
+            Estudiante estudiante = Estudiante.builder().idUsuario(idUsuario).codigoEstudiante("E00000001")
+                    .carrera(carrera).createdAt(ahora).build();
+            Curso java = Curso.builder().nombre("Java").codigo("JAV01").modalidad(ModalidadCurso.ONLINE).createdAt(ahora).build();
+            Curso sql = Curso.builder().nombre("SQL").codigo("SQL01").modalidad(ModalidadCurso.PRESENCIAL).createdAt(ahora).build();
+            List.of(carrera, empleado, estudiante, java, sql).forEach(entityManager::persist);
+
+            for (int i = 0; i < POSTULACIONES; i++) {
+                Convocatoria convocatoria = Convocatoria.builder().mes(Mes.values()[i]).fechaInicio(LocalDate.now())
+                        .fechaFin(LocalDate.now()).estado(EstadoConvocatoria.CERRADO).cantidadVacantes(10)
+                        .modoEvaluacion(ModoEvaluacion.MIXTO).createdBy(empleado).createdAt(ahora).build();
+                Postulacion postulacion = Postulacion.builder().estudiante(estudiante).convocatoria(convocatoria)
+                        .fechaPostulacion(LocalDate.now()).aceptado(i == 0).cursos(Set.of(java, sql)).build();
+                entityManager.persist(convocatoria);
+                entityManager.persist(postulacion);
+                idsPostulaciones.add(postulacion.getId());
+            }
+        });
+    }
+
+    @AfterEach
+    void limpiar() {
+        List.of("cursos_postulacion", "postulaciones", "convocatorias", "cursos", "estudiantes", "empleados", "carreras")
+                .forEach(tabla -> jdbcTemplate.update("DELETE FROM " + tabla));
+    }
+
+    private RequestPostProcessor estudiante() {
+        return jwt().jwt(token -> token.claim("uid", idUsuario.toString()))
+                .authorities(new SimpleGrantedAuthority("ROLE_STUDENT"));
+    }
+
+    @Test
+    void getHistorialPostulacion_DeberiaConsultarUnaVez_SinImportarCuantasPostulacionesTenga() throws Exception {
+        // Act
+        List<String> sentencias = ContadorSentencias.capturar(() ->
+                mockMvc.perform(get("/api/v1/postulaciones/historial")
+                                .param("year", String.valueOf(LocalDate.now().getYear()))
+                                .with(estudiante()))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.data.length()").value(POSTULACIONES))
+                        .andExpect(jsonPath("$.data[*].mesConvocatoria").isNotEmpty()));
+
+        // Assert: resolución del estudiante + historial con el mes de la convocatoria
+        assertThat(sentencias).hasSizeLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void getDetallePostulacion_DeberiaTraerConvocatoriaYCursosEnUnaConsulta() throws Exception {
+        // Act
+        List<String> sentencias = ContadorSentencias.capturar(() ->
+                mockMvc.perform(get("/api/v1/postulaciones/{id}", idsPostulaciones.getFirst())
+                                .with(estudiante()))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.data.convocatoria.mes").value("ENERO"))
+                        .andExpect(jsonPath("$.data.cursos.length()").value(2)));
+
+        // Assert
+        assertThat(sentencias).hasSize(1);
+    }
+}
@@ -11,13 +11,19 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import pe.com.security.scholarship.config.ResourceServerTest;
+import pe.com.security.scholarship.domain.enums.EstadoCarga;
 import pe.com.security.scholarship.dto.ProcesamientoResult;
+import pe.com.security.scholarship.dto.response.EstadoCargaResponse;
 import pe.com.security.scholarship.exception.BadRequestException;
 import pe.com.security.scholarship.exception.NotFoundException;
 import pe.com.security.scholarship.service.PromedioPonderadoService;
+import pe.com.security.scholarship.service.TrabajoCargaService;
 import pe.com.security.scholarship.util.FileUtils;
 
+import java.util.UUID;
+
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.times;
@@ -39,6 +45,9 @@ class PromedioPonderadoControllerTest {
     @MockitoBean
     private PromedioPonderadoService promedioService;
 
+    @MockitoBean
+    private TrabajoCargaService trabajoCargaService;
+
     @AfterEach
     void tearDown() {
         // No static mocks to close here as we use try-with-resources in each test
@@ -54,7 +63,7 @@ class PromedioPonderadoControllerTest {
         try (MockedStatic<FileUtils> fileUtilsMock = mockStatic(FileUtils.class)) {
             fileUtilsMock.when(() -> FileUtils.validarCsv(any())).thenAnswer(invocation -> null);
             
-            when(promedioService.procesarCargaPromedios(any(), eq(periodo))).thenReturn(result);
+            when(promedioService.procesarCargaPromedios(any(), eq(periodo), eq(false))).thenReturn(result);
 
             // Act & Assert
             mockMvc.perform(multipart("/api/v1/promedios/upload/{periodo}", periodo)
@@ -67,7 +76,7 @@ class PromedioPonderadoControllerTest {
                     .andExpect(jsonPath("$.data.total").value(10))
                     .andExpect(jsonPath("$.data.exitos").value(10));
 
-            verify(promedioService, times(1)).procesarCargaPromedios(any(), eq(periodo));
+            verify(promedioService, times(1)).procesarCargaPromedios(any(), eq(periodo), eq(false));
         }
     }
 
@@ -89,7 +98,7 @@ class PromedioPonderadoControllerTest {
                             .contentType(MediaType.MULTIPART_FORM_DATA))
                     .andExpect(status().isBadRequest());
 
-            verify(promedioService, times(0)).procesarCargaPromedios(any(), any());
+            verify(promedioService, times(0)).procesarCargaPromedios(any(), any(), anyBoolean());
         }
     }
 
@@ -102,7 +111,7 @@ class PromedioPonderadoControllerTest {
         try (MockedStatic<FileUtils> fileUtilsMock = mockStatic(FileUtils.class)) {
             fileUtilsMock.when(() -> FileUtils.validarCsv(any())).thenAnswer(invocation -> null);
             
-            when(promedioService.procesarCargaPromedios(any(), eq(periodo)))
+            when(promedioService.procesarCargaPromedios(any(), eq(periodo), eq(false)))
                     .thenThrow(new NotFoundException("Periodo académico no registrado"));
 
             // Act & Assert
@@ -113,7 +122,7 @@ class PromedioPonderadoControllerTest {
                             .contentType(MediaType.MULTIPART_FORM_DATA))
                     .andExpect(status().isNotFound());
 
-            verify(promedioService, times(1)).procesarCargaPromedios(any(), eq(periodo));
+            verify(promedioService, times(1)).procesarCargaPromedios(any(), eq(periodo), eq(false));
         }
     }
 
@@ -131,6 +140,33 @@ class PromedioPonderadoControllerTest {
                         .contentType(MediaType.MULTIPART_FORM_DATA))
                 .andExpect(status().isForbidden());
 
-        verify(promedioService, times(0)).procesarCargaPromedios(any(), any());
+        verify(promedioService, times(0)).procesarCargaPromedios(any(), any(), anyBoolean());
+    }
+
+    @Test
+    void testEnviarPromedios_Aceptado() throws Exception {
+        // Arrange
+        String periodo = "2025-1";
+        UUID idTrabajo = UUID.randomUUID();
+        MockMultipartFile file = new MockMultipartFile("file", "promedios.csv", "text/csv", "content".getBytes());
+        EstadoCargaResponse estado = EstadoCargaResponse.builder().idTrabajo(idTrabajo).estado(EstadoCarga.EN_COLA).build();
+
+        try (MockedStatic<FileUtils> fileUtilsMock = mockStatic(FileUtils.class)) {
+            fileUtilsMock.when(() -> FileUtils.validarCsv(any())).thenAnswer(invocation -> null);
+            when(trabajoCargaService.enviar(any(), any())).thenReturn(estado);
+
+            // Act & Assert
+            mockMvc.perform(multipart("/api/v1/promedios/upload/{periodo}/trabajos", periodo)
+                            .file(file)
+                            .with(csrf())
+                            .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_TRAINING_CENTER_SECRETARY")))
+                            .contentType(MediaType.MULTIPART_FORM_DATA))
+                    .andExpect(status().isAccepted())
+                    .andExpect(jsonPath("$.message").value("Carga en cola"))
+                    .andExpect(jsonPath("$.data.estado").value("EN_COLA"));
+
+            verify(trabajoCargaService, times(1)).enviar(any(), any());
+            verify(promedioService, times(0)).procesarCargaPromedios(any(), any(), anyBoolean());
+        }
     }
 }
@@ -0,0 +1,211 @@
+package pe.com.security.scholarship.controller;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.com.security.scholarship.config.ContadorSentencias;
+import pe.com.security.scholarship.config.ResourceServerTest;
+import pe.com.security.scholarship.domain.entity.Carrera;
+import pe.com.security.scholarship.domain.entity.Convocatoria;
+import pe.com.security.scholarship.domain.entity.Curso;
+import pe.com.security.scholarship.domain.entity.Empleado;
+import pe.com.security.scholarship.domain.entity.Estudiante;
+import pe.com.security.scholarship.domain.entity.Matricula;
+import pe.com.security.scholarship.domain.entity.Postulacion;
+import pe.com.security.scholarship.domain.entity.Seccion;
+import pe.com.security.scholarship.domain.enums.EstadoConvocatoria;
+import pe.com.security.scholarship.domain.enums.EstadoMatricula;
+import pe.com.security.scholarship.domain.enums.Mes;
+import pe.com.security.scholarship.domain.enums.ModalidadCurso;
+import pe.com.security.scholarship.domain.enums.ModoEvaluacion;
+import pe.com.security.scholarship.repository.PostulacionRepository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Seguimiento de un postulante (GET /api/v1/postulaciones/{id}/{year}) con 3 postulaciones × 5 cursos elegidos
+// × 4 matrículas (3 aceptadas y 1 rechazada). Compara filas leídas y sentencias contra la consulta anterior,
+// que traía matrículas y cursos con JOIN FETCH en la misma sentencia (producto matrículas × cursos)
+@SpringBootTest
+@ResourceServerTest
+class SeguimientoPostulanteIntegrationTest {
+
+    private static final int POSTULACIONES = 3;
+    private static final int CURSOS = 5;
+    private static final int MATRICULAS_ACEPTADAS = 3;
+
+    // Consulta reemplazada en PostulacionRepository
+    private static final String CONSULTA_ANTERIOR = "SELECT p FROM Postulacion p " +
+            "LEFT JOIN FETCH p.matriculas m " +
+            "LEFT JOIN FETCH p.convocatoria c " +
+            "LEFT JOIN FETCH p.cursos cp " +
+            "LEFT JOIN FETCH m.seccion s " +
+            "WHERE p.estudiante.id = :idEstudiante " +
+            "AND YEAR(p.fechaPostulacion) = :year " +
+            "AND (m.estado = :estado OR m IS NULL)" +
+            "ORDER BY p.fechaPostulacion DESC";
+
+    // Las mismas uniones sin FETCH: cuenta las filas que recibe Hibernate antes de quitar duplicados
+    private static final String FILAS_CONSULTA_ANTERIOR = "SELECT count(*) FROM Postulacion p " +
+            "LEFT JOIN p.matriculas m " +
+            "LEFT JOIN p.convocatoria c " +
+            "LEFT JOIN p.cursos cp " +
+            "LEFT JOIN m.seccion s " +
+            "WHERE p.estudiante.id = :idEstudiante " +
+            "AND YEAR(p.fechaPostulacion) = :year " +
+            "AND (m.estado = :estado OR m IS NULL)";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PostulacionRepository postulacionRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final int year = 2025;
+    private UUID idEstudiante;
+
+    @BeforeEach
+    void registrarPostulaciones() {
+        // La tabla de usuarios la administra el servidor de autorización; aquí solo hace falta para el nombre
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS usuarios (id UUID PRIMARY KEY, nombres VARCHAR(100), apellidos VARCHAR(100))");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Instant ahora = Instant.now();
+            UUID idUsuario = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO usuarios (id, nombres, apellidos) VALUES (?, 'Ana', 'Díaz')", idUsuario);
+
+            Carrera carrera = Carrera.builder().nombre("Derecho").codigoFacultad("FAC1").build();
+            Empleado empleado = Empleado.builder().idUsuario(UUID.randomUUID()).codigoEmpleado("EMP00001")
+                    .fechaIngreso(LocalDate.now()).createdAt(ahora).build();
+            Estudiante estudiante = Estudiante.builder().idUsuario(idUsuario).codigoEstudiante("E00000001")
+                    .carrera(carrera).createdAt(ahora).build();
+            List.of(carrera, empleado, estudiante).forEach(entityManager::persist);
+            idEstudiante = estudiante.getId();
+
+            List<Seccion> secciones = new ArrayList<>();
+            for (int i = 0; i < CURSOS; i++) {
+                Curso curso = Curso.builder().nombre("Curso " + i).codigo("CUR0" + i).modalidad(ModalidadCurso.ONLINE)
+                        .createdAt(ahora).build();
+                Seccion seccion = Seccion.builder().fechaInicio(LocalDate.now()).curso(curso).vacantesDisponibles(30)
+                        .createdAt(ahora).build();
+                entityManager.persist(curso);
+                entityManager.persist(seccion);
+                secciones.add(seccion);
+            }
+
+            for (int i = 0; i < POSTULACIONES; i++) {
+                Convocatoria convocatoria = Convocatoria.builder().mes(Mes.values()[i]).fechaInicio(LocalDate.now())
+                        .fechaFin(LocalDate.now()).estado(EstadoConvocatoria.CERRADO).cantidadVacantes(10)
+                        .modoEvaluacion(ModoEvaluacion.MIXTO).createdBy(empleado).createdAt(ahora).build();
+                Postulacion postulacion = Postulacion.builder().estudiante(estudiante).convocatoria(convocatoria)
+                        .fechaPostulacion(LocalDate.of(year, 6, 10).minusDays(i)).aceptado(true)
+                        .cursos(new HashSet<>(secciones.stream().map(Seccion::getCurso).toList())).build();
+                entityManager.persist(convocatoria);
+                entityManager.persist(postulacion);
+
+                for (int j = 0; j <= MATRICULAS_ACEPTADAS; j++) {
+                    entityManager.persist(Matricula.builder().postulacion(postulacion).seccion(secciones.get(j))
+                            .estado(j < MATRICULAS_ACEPTADAS ? EstadoMatricula.ACEPTADO : EstadoMatricula.RECHAZADO)
+                            .fechaSolicitud(ahora).fechaMatricula(ahora).nota(15.0 + j).build());
+                }
+            }
+        });
+    }
+
+    @AfterEach
+    void limpiar() {
+        List.of("matriculas", "cursos_postulacion", "postulaciones", "convocatorias", "secciones", "cursos",
+                        "estudiantes", "empleados", "carreras", "usuarios")
+                .forEach(tabla -> jdbcTemplate.update("DELETE FROM " + tabla));
+    }
+
+    @Test
+    void getPostulacionesEstudiante_DeberiaLeerUnaFilaPorPostulacionYCurso() throws Exception {
+        // Act
+        List<String> sentencias = ContadorSentencias.capturar(() ->
+                mockMvc.perform(get("/api/v1/postulaciones/{id}/{year}", idEstudiante, year)
+                                .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_SOCIAL_OUTREACH_MANAGER"))))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.data.nombreCompleto").value("Ana Díaz"))
+                        .andExpect(jsonPath("$.data.postulaciones.length()").value(POSTULACIONES))
+                        .andExpect(jsonPath("$.data.postulaciones[0].postulacion.mesConvocatoria").value("ENERO"))
+                        .andExpect(jsonPath("$.data.postulaciones[0].postulacion.cursosOpciones.length()").value(CURSOS))
+                        .andExpect(jsonPath("$.data.postulaciones[0].matricula.cursoMatriculado").value("Curso 0")));
+
+        Medicion nueva = medirConsultaNueva();
+        Medicion anterior = medirConsultaAnterior();
+
+        // Assert: datos del estudiante + postulaciones con su matrícula + cursos elegidos
+        assertThat(sentencias).hasSize(3);
+        assertThat(nueva.sentencias()).isEqualTo(2);
+        assertThat(nueva.filas()).isEqualTo(POSTULACIONES + POSTULACIONES * CURSOS);
+        // La consulta anterior leía una fila por matrícula aceptada y curso elegido
+        assertThat(anterior.sentencias()).isGreaterThanOrEqualTo(1);
+        assertThat(anterior.filas()).isEqualTo(POSTULACIONES * MATRICULAS_ACEPTADAS * CURSOS);
+        assertThat(nueva.postulaciones()).isEqualTo(anterior.postulaciones());
+    }
+
+    private Medicion medirConsultaNueva() throws Exception {
+        List<Integer> postulaciones = new ArrayList<>();
+        int[] filas = new int[1];
+        List<String> sentencias = ContadorSentencias.capturar(() -> new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> {
+                    postulacionRepository.findResultadosByYear(idEstudiante, year, EstadoMatricula.ACEPTADO)
+                            .forEach(r -> postulaciones.add(r.getIdPostulacion()));
+                    filas[0] = postulaciones.size() + postulacionRepository.findCursosOpciones(postulaciones).size();
+                }));
+        return new Medicion(filas[0], sentencias.size(), postulaciones);
+    }
+
+    private Medicion medirConsultaAnterior() throws Exception {
+        List<Integer> postulaciones = new ArrayList<>();
+        List<String> sentencias = ContadorSentencias.capturar(() -> new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> entityManager.createQuery(CONSULTA_ANTERIOR, Postulacion.class)
+                        .setParameter("idEstudiante", idEstudiante)
+                        .setParameter("year", year)
+                        .setParameter("estado", EstadoMatricula.ACEPTADO)
+                        .getResultList()
+                        .forEach(p -> {
+                            // Lo que leía el mapper: el curso de la sección es perezoso si no llegó con p.cursos
+                            p.getMatriculas().getFirst().getSeccion().getCurso().getNombre();
+                            postulaciones.add(p.getId());
+                        })));
+        long filas = new TransactionTemplate(transactionManager).execute(status ->
+                entityManager.createQuery(FILAS_CONSULTA_ANTERIOR, Long.class)
+                        .setParameter("idEstudiante", idEstudiante)
+                        .setParameter("year", year)
+                        .setParameter("estado", EstadoMatricula.ACEPTADO)
+                        .getSingleResult());
+        return new Medicion(filas, sentencias.size(), postulaciones);
+    }
+
+    private record Medicion(long filas, int sentencias, List<Integer> postulaciones) {}
+}
@@ -0,0 +1,162 @@
+package pe.com.security.scholarship.repository;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Regresión de planes: ejecuta EXPLAIN sobre las consultas nativas de los repositorios contra un PostgreSQL
+// local y falla si alguna recorre secuencialmente una tabla grande.
+// Se habilita con PLAN_DB_URL (y PLAN_DB_USER / PLAN_DB_PASSWORD), por ejemplo:
+// PLAN_DB_URL=jdbc:postgresql://localhost:5432/becas mvn test -Dtest=PlanConsultasRepositoryTest
+@EnabledIfEnvironmentVariable(named = "PLAN_DB_URL", matches = ".+")
+class PlanConsultasRepositoryTest {
+
+    private static final String SCHEMA = "plan_regresion";
+    private static final Path INIT_DB = Path.of("..", "..", "database", "init-db");
+
+    private static final Set<String> TABLAS_GRANDES = Set.of(
+            "usuarios", "estudiantes", "postulaciones", "cursos_postulacion", "matriculas",
+            "evaluaciones_socioeconomicas", "evaluaciones_socioeconomicas_vigentes",
+            "promedios_ponderados", "promedios_ponderados_vigentes");
+
+    private static final List<Class<?>> REPOSITORIOS = List.of(
+            PostulacionRepository.class, MatriculaRepository.class, ConvocatoriaRepository.class);
+
+    private static final Pattern PARAMETRO = Pattern.compile("(?<!:):(\\w+)");
+    private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on (\\w+)");
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void crearEsquema() throws SQLException, IOException {
+        connection = DriverManager.getConnection(System.getenv("PLAN_DB_URL"),
+                System.getenv("PLAN_DB_USER"), System.getenv("PLAN_DB_PASSWORD"));
+
+        // Esquema aislado con el script base y las migraciones versionadas (v001_..., v002_...)
+        try (Statement st = connection.createStatement()) {
+            st.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            st.execute("CREATE SCHEMA " + SCHEMA);
+            st.execute("SET search_path TO " + SCHEMA + ", public");
+
+            st.execute(Files.readString(INIT_DB.resolve("script.sql")));
+            try (Stream<Path> migraciones = Files.list(INIT_DB)) {
+                for (Path migracion : migraciones.filter(p -> p.getFileName().toString().matches("v\\d+_.*\\.sql"))
+                        .sorted().toList()) {
+                    st.execute(Files.readString(migracion));
+                }
+            }
+
+            try (InputStream seed = PlanConsultasRepositoryTest.class.getResourceAsStream("/db/seed-plan-consultas.sql")) {
+                st.execute(new String(seed.readAllBytes(), StandardCharsets.UTF_8));
+            }
+
+            // Con seqscan deshabilitado el planificador solo recurre a un Seq Scan si no existe un índice utilizable
+            st.execute("SET enable_seqscan = off");
+        }
+    }
+
+    @AfterAll
+    static void eliminarEsquema() throws SQLException {
+        if (connection == null) return;
+        try (Statement st = connection.createStatement()) {
+            st.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Test
+    void consultasNativas_NoRecorrenTablasGrandesSecuencialmente() throws SQLException {
+        List<String> infractores = new ArrayList<>();
+        int analizadas = 0;
+
+        for (Class<?> repositorio : REPOSITORIOS) {
+            for (Method metodo : repositorio.getDeclaredMethods()) {
+                Query query = metodo.getAnnotation(Query.class);
+                if (query == null || !query.nativeQuery()) continue;
+
+                String plan = explain(sustituirParametros(query.value(), metodo));
+                analizadas++;
+
+                Matcher matcher = SEQ_SCAN.matcher(plan);
+                while (matcher.find()) {
+                    if (TABLAS_GRANDES.contains(matcher.group(1))) {
+                        infractores.add(repositorio.getSimpleName() + "." + metodo.getName()
+                                + " -> Seq Scan on " + matcher.group(1) + "\n" + plan);
+                    }
+                }
+            }
+        }
+
+        assertThat(analizadas).isPositive();
+        assertThat(infractores).as("Consultas con Seq Scan sobre tablas grandes").isEmpty();
+    }
+
+    private String explain(String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("EXPLAIN " + sql)) {
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    // Reemplaza cada :parametro por un literal representativo según el tipo declarado en el método
+    private String sustituirParametros(String sql, Method metodo) {
+        Map<String, String> literales = new HashMap<>();
+        for (Parameter parametro : metodo.getParameters()) {
+            if (Pageable.class.isAssignableFrom(parametro.getType())) continue;
+            Param param = parametro.getAnnotation(Param.class);
+            if (param == null) continue;
+            literales.put(param.value(), literal(param.value(), parametro.getType()));
+        }
+
+        Matcher matcher = PARAMETRO.matcher(sql);
+        StringBuilder resultado = new StringBuilder();
+        while (matcher.find()) {
+            String literal = literales.get(matcher.group(1));
+            matcher.appendReplacement(resultado, Matcher.quoteReplacement(literal != null ? literal : matcher.group()));
+        }
+        matcher.appendTail(resultado);
+        return resultado.toString();
+    }
+
+    private String literal(String nombre, Class<?> tipo) {
+        if (UUID.class.equals(tipo)) return "CAST(md5('e1') AS uuid)";
+        if (LocalDate.class.equals(tipo)) return "CURRENT_DATE";
+        if (Double.class.equals(tipo) || double.class.equals(tipo)) return "15.0";
+        if (String.class.equals(tipo)) return nombre.equals("modoEvaluacion") ? "'MIXTO'" : "'E00000001'";
+        return "1";
+    }
+}
@@ -0,0 +1,73 @@
+package pe.com.security.scholarship.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import pe.com.security.scholarship.dto.CursorPostulante;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostulacionRepositoryCustomImplTest {
+
+    private final LocalDate fecha = LocalDate.of(2026, 3, 15);
+
+    @Test
+    void ordenamiento_DeberiaTerminarEnElIdConLaDireccionDeLaUltimaClave() {
+        assertThat(PostulacionRepositoryCustomImpl.ordenamiento(
+                Sort.by(Sort.Order.asc("becado"), Sort.Order.desc("fechaPostulacion"))))
+                .isEqualTo("p.aceptado ASC NULLS LAST, p.fecha_postulacion DESC NULLS LAST, p.id DESC");
+        assertThat(PostulacionRepositoryCustomImpl.ordenamiento(Sort.unsorted())).isEqualTo("p.id ASC");
+    }
+
+    @Test
+    void condicionCursor_DeberiaUsarComparacionDeFilas_CuandoLasClavesNoSonNulas() {
+        // Arrange
+        CursorPostulante cursor = CursorPostulante.builder().fechaPostulacion(fecha).idPostulacion(7).build();
+        List<Object> parametros = new ArrayList<>();
+
+        // Act
+        String condicion = PostulacionRepositoryCustomImpl.condicionCursor(
+                Sort.by(Sort.Direction.DESC, "fechaPostulacion"), cursor, parametros);
+
+        // Assert
+        assertThat(condicion).isEqualTo("(p.fecha_postulacion, p.id) < (?, ?)");
+        assertThat(parametros).containsExactly(fecha, 7);
+    }
+
+    @Test
+    void condicionCursor_DeberiaIncluirNulosAlFinal_CuandoLaClaveAdmiteNulos() {
+        // Arrange
+        CursorPostulante cursor = CursorPostulante.builder().promedioGeneral(15.5).fechaPostulacion(fecha).idPostulacion(7).build();
+        List<Object> parametros = new ArrayList<>();
+
+        // Act
+        String condicion = PostulacionRepositoryCustomImpl.condicionCursor(
+                Sort.by(Sort.Order.desc("promedioGeneral"), Sort.Order.asc("fechaPostulacion")), cursor, parametros);
+
+        // Assert
+        assertThat(condicion).isEqualTo("(((p.promedio_general < ? OR p.promedio_general IS NULL))"
+                + " OR (p.promedio_general = ? AND p.fecha_postulacion > ?)"
+                + " OR (p.promedio_general = ? AND p.fecha_postulacion = ? AND p.id > ?))");
+        assertThat(parametros).containsExactly(new BigDecimal("15.5"), new BigDecimal("15.5"), fecha,
+                new BigDecimal("15.5"), fecha, 7);
+    }
+
+    @Test
+    void condicionCursor_DeberiaOmitirLaAlternativa_CuandoElCursorEstaEnLosNulos() {
+        // Arrange
+        CursorPostulante cursor = CursorPostulante.builder().becado(null).idPostulacion(7).build();
+        List<Object> parametros = new ArrayList<>();
+
+        // Act
+        String condicion = PostulacionRepositoryCustomImpl.condicionCursor(
+                Sort.by(Sort.Direction.ASC, "becado"), cursor, parametros);
+
+        // Assert
+        assertThat(condicion).isEqualTo("((p.aceptado IS NULL AND p.id > ?))");
+        assertThat(parametros).containsExactly(7);
+    }
+}
@@ -0,0 +1,207 @@
+package pe.com.security.scholarship.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import pe.com.security.scholarship.config.TestSecurityConfig;
+import pe.com.security.scholarship.domain.enums.TipoCarga;
+import pe.com.security.scholarship.dto.ProcesamientoResult;
+import pe.com.security.scholarship.exception.ConflictException;
+import pe.com.security.scholarship.util.FileUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Registro de cargas procesadas contra PostgreSQL: la reserva EN_PROCESO deja que solo una subida simultánea
+// procese el archivo, una carga fallida no deja registro y una reserva abandonada se puede retomar.
+// PLAN_DB_URL=jdbc:postgresql://localhost:5432/becas mvn test -Dtest=CargaProcesadaIntegrationTest
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestSecurityConfig.class)
+@EnabledIfEnvironmentVariable(named = "PLAN_DB_URL", matches = ".+")
+class CargaProcesadaIntegrationTest {
+
+    private static final String SCHEMA = "carga_procesada";
+    private static final Path INIT_DB = Path.of("..", "..", "database", "init-db");
+
+    private static final int SUBIDAS = 4;
+
+    @Autowired
+    private CargaProcesadaService cargaProcesadaService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void baseDeDatos(DynamicPropertyRegistry registry) throws SQLException, IOException {
+        crearEsquema();
+        String url = System.getenv("PLAN_DB_URL");
+        registry.add("spring.datasource.url", () -> url + (url.contains("?") ? "&" : "?") + "currentSchema=" + SCHEMA + ",public");
+        registry.add("spring.datasource.username", () -> System.getenv("PLAN_DB_USER"));
+        registry.add("spring.datasource.password", () -> System.getenv("PLAN_DB_PASSWORD"));
+        registry.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+
+    private static Connection conectar() throws SQLException {
+        return DriverManager.getConnection(System.getenv("PLAN_DB_URL"),
+                System.getenv("PLAN_DB_USER"), System.getenv("PLAN_DB_PASSWORD"));
+    }
+
+    private static void crearEsquema() throws SQLException, IOException {
+        try (Connection connection = conectar(); Statement st = connection.createStatement()) {
+            st.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            st.execute("CREATE SCHEMA " + SCHEMA);
+            st.execute("SET search_path TO " + SCHEMA + ", public");
+
+            st.execute(Files.readString(INIT_DB.resolve("script.sql")));
+            try (Stream<Path> migraciones = Files.list(INIT_DB)) {
+                for (Path migracion : migraciones.filter(p -> p.getFileName().toString().matches("v\\d+_.*\\.sql"))
+                        .sorted().toList()) {
+                    st.execute(Files.readString(migracion));
+                }
+            }
+        }
+    }
+
+    @AfterAll
+    static void eliminarEsquema() throws SQLException {
+        try (Connection connection = conectar(); Statement st = connection.createStatement()) {
+            st.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+    }
+
+    @Test
+    void subidasSimultaneas_DeberianProcesarElArchivoUnaSolaVez() throws Exception {
+        // Arrange
+        MockMultipartFile file = archivo("codigo;ciclo;promedio\n20201001;5;15.5");
+        AtomicInteger ejecuciones = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(SUBIDAS);
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<ProcesamientoResult>> futuros = new ArrayList<>();
+        for (int i = 0; i < SUBIDAS; i++) {
+            futuros.add(executor.submit(() -> {
+                salida.await();
+                return cargaProcesadaService.procesarUnaVez(TipoCarga.PROMEDIOS, "2023-1", file, false, () -> {
+                    ejecuciones.incrementAndGet();
+                    // Carga lenta: las demás subidas llegan mientras la primera sigue en proceso
+                    try {
+                        Thread.sleep(300);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return resultado(1);
+                });
+            }));
+        }
+
+        // Act
+        salida.countDown();
+        int rechazadas = 0;
+        for (Future<ProcesamientoResult> futuro : futuros) {
+            try {
+                assertThat(futuro.get(1, TimeUnit.MINUTES).getExitos()).isEqualTo(1);
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(ConflictException.class);
+                rechazadas++;
+            }
+        }
+        executor.shutdown();
+
+        // Assert: una sola carga; las subidas simultáneas se rechazan y la siguiente recibe el resultado guardado
+        assertThat(ejecuciones.get()).isEqualTo(1);
+        assertThat(rechazadas).isEqualTo(SUBIDAS - 1);
+        assertThat(estado(file)).isEqualTo("COMPLETADO");
+        ProcesamientoResult duplicado = cargaProcesadaService.procesarUnaVez(TipoCarga.PROMEDIOS, "2023-1", file, false,
+                () -> resultado(2));
+        assertThat(duplicado.getDuplicado()).isTrue();
+        assertThat(duplicado.getExitos()).isEqualTo(1);
+
+        // Con 'forzar' se vuelve a procesar y se reemplaza el resultado guardado
+        ProcesamientoResult forzado = cargaProcesadaService.procesarUnaVez(TipoCarga.PROMEDIOS, "2023-1", file, true,
+                () -> resultado(2));
+        assertThat(forzado.getDuplicado()).isNull();
+        assertThat(jdbcTemplate.queryForObject("SELECT resultado ->> 'exitos' FROM cargas_procesadas WHERE hash_archivo = ?",
+                String.class, FileUtils.calcularSha256(file))).isEqualTo("2");
+    }
+
+    @Test
+    void cargaFallida_NoDejaRegistroYElArchivoSeVuelveAProcesar() {
+        // Arrange
+        MockMultipartFile file = archivo("codigo;ciclo;promedio\n20201002;3;12.0");
+
+        // Act: la primera subida pierde la conexión a mitad de la carga
+        assertThatThrownBy(() -> cargaProcesadaService.procesarUnaVez(TipoCarga.PROMEDIOS, "2023-1", file, false, () -> {
+            throw new DataAccessResourceFailureException("conexión perdida");
+        })).isInstanceOf(DataAccessResourceFailureException.class);
+
+        // Assert: sin registro, la nueva subida procesa el archivo en vez de devolver un duplicado
+        assertThat(estado(file)).isNull();
+        ProcesamientoResult result = cargaProcesadaService.procesarUnaVez(TipoCarga.PROMEDIOS, "2023-1", file, false,
+                () -> resultado(1));
+        assertThat(result.getDuplicado()).isNull();
+        assertThat(estado(file)).isEqualTo("COMPLETADO");
+    }
+
+    @Test
+    void reservaVencida_DeberiaPoderRetomarse() {
+        // Arrange: reserva de un proceso caído hace dos horas
+        MockMultipartFile file = archivo("codigo;ciclo;promedio\n20201003;4;13.0");
+        jdbcTemplate.update("""
+                INSERT INTO cargas_procesadas (tipo, objetivo, hash_archivo, resultado, estado, created_at)
+                VALUES ('PROMEDIOS', '2023-1', ?, CAST('{}' AS jsonb), 'EN_PROCESO', now() - interval '2 hours')
+                """, FileUtils.calcularSha256(file));
+
+        // Act
+        ProcesamientoResult result = cargaProcesadaService.procesarUnaVez(TipoCarga.PROMEDIOS, "2023-1", file, false,
+                () -> resultado(1));
+
+        // Assert
+        assertThat(result.getExitos()).isEqualTo(1);
+        assertThat(estado(file)).isEqualTo("COMPLETADO");
+    }
+
+    private static MockMultipartFile archivo(String contenido) {
+        return new MockMultipartFile("file", "promedios.csv", "text/csv", contenido.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ProcesamientoResult resultado(int exitos) {
+        return ProcesamientoResult.builder().total(exitos).exitos(exitos).errores(List.of()).build();
+    }
+
+    private String estado(MockMultipartFile file) {
+        return jdbcTemplate.queryForList("SELECT estado FROM cargas_procesadas WHERE hash_archivo = ?", String.class,
+                FileUtils.calcularSha256(file)).stream().findFirst().orElse(null);
+    }
+}
@@ -0,0 +1,167 @@
+package pe.com.security.scholarship.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import pe.com.security.scholarship.domain.entity.CargaProcesada;
+import pe.com.security.scholarship.domain.enums.EstadoCargaProcesada;
+import pe.com.security.scholarship.domain.enums.TipoCarga;
+import pe.com.security.scholarship.dto.ProcesamientoResult;
+import pe.com.security.scholarship.exception.ConflictException;
+import pe.com.security.scholarship.repository.CargaProcesadaRepository;
+import pe.com.security.scholarship.util.FileUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CargaProcesadaServiceTest {
+
+    @Mock
+    private CargaProcesadaRepository cargaProcesadaRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private CargaProcesadaService cargaProcesadaService;
+
+    private final MockMultipartFile file = new MockMultipartFile("file", "promedios.csv", "text/csv",
+            "codigo;ciclo;promedio\n20201001;5;15.5".getBytes(StandardCharsets.UTF_8));
+
+    private final String hash = FileUtils.calcularSha256(file);
+
+    private ProcesamientoResult resultado(int exitos) {
+        return ProcesamientoResult.builder().total(exitos).exitos(exitos).errores(List.of()).build();
+    }
+
+    private CargaProcesada registro(EstadoCargaProcesada estado, ProcesamientoResult resultado) {
+        return CargaProcesada.builder().id(7).tipo(TipoCarga.PROMEDIOS).objetivo("2023-1").hashArchivo(hash)
+                .estado(estado).resultado(resultado).build();
+    }
+
+    @Test
+    void procesarUnaVez_DeberiaProcesarYCompletarRegistro_CuandoArchivoEsNuevo() {
+        // Arrange
+        CargaProcesada reservado = registro(EstadoCargaProcesada.EN_PROCESO, ProcesamientoResult.builder().build());
+        when(cargaProcesadaRepository.reservar(eq("PROMEDIOS"), eq("2023-1"), eq(hash), eq(false), any())).thenReturn(1);
+        when(cargaProcesadaRepository.findByTipoAndObjetivoAndHashArchivo(TipoCarga.PROMEDIOS, "2023-1", hash))
+                .thenReturn(Optional.of(reservado));
+        when(cargaProcesadaRepository.findById(7)).thenReturn(Optional.of(reservado));
+
+        // Act
+        ProcesamientoResult result = cargaProcesadaService.procesarUnaVez(TipoCarga.PROMEDIOS, "2023-1", file, false,
+                () -> resultado(1));
+
+        // Assert: la reserva y el resultado se confirman cada uno en su propia transacción
+        assertThat(result.getExitos()).isEqualTo(1);
+        assertThat(result.getDuplicado()).isNull();
+
+        ArgumentCaptor<CargaProcesada> captor = ArgumentCaptor.forClass(CargaProcesada.class);
+        verify(cargaProcesadaRepository).save(captor.capture());
+        assertThat(captor.getValue()).isSameAs(reservado);
+        assertThat(captor.getValue().getEstado()).isEqualTo(EstadoCargaProcesada.COMPLETADO);
+        assertThat(captor.getValue().getResultado()).isSameAs(result);
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void procesarUnaVez_DeberiaDevolverResultadoPrevio_CuandoArchivoYaSeProceso() {
+        // Arrange
+        ProcesamientoResult previo = resultado(1);
+        when(cargaProcesadaRepository.reservar(eq("PROMEDIOS"), eq("2023-1"), eq(hash), eq(false), any())).thenReturn(0);
+        when(cargaProcesadaRepository.findByTipoAndObjetivoAndHashArchivo(TipoCarga.PROMEDIOS, "2023-1", hash))
+                .thenReturn(Optional.of(registro(EstadoCargaProcesada.COMPLETADO, previo)));
+        AtomicInteger ejecuciones = new AtomicInteger();
+
+        // Act
+        ProcesamientoResult result = cargaProcesadaService.procesarUnaVez(TipoCarga.PROMEDIOS, "2023-1", file, false,
+                () -> {
+                    ejecuciones.incrementAndGet();
+                    return resultado(1);
+                });
+
+        // Assert
+        assertThat(ejecuciones.get()).isZero();
+        assertThat(result.getExitos()).isEqualTo(1);
+        assertThat(result.getDuplicado()).isTrue();
+        // El resultado guardado no se modifica
+        assertThat(previo.getDuplicado()).isNull();
+        verify(cargaProcesadaRepository, never()).save(any());
+    }
+
+    @Test
+    void procesarUnaVez_DeberiaRechazarSubida_CuandoElArchivoSigueEnProceso() {
+        // Arrange: otra subida reservó el archivo y no terminó
+        when(cargaProcesadaRepository.reservar(eq("PROMEDIOS"), eq("2023-1"), eq(hash), eq(false), any())).thenReturn(0);
+        when(cargaProcesadaRepository.findByTipoAndObjetivoAndHashArchivo(TipoCarga.PROMEDIOS, "2023-1", hash))
+                .thenReturn(Optional.of(registro(EstadoCargaProcesada.EN_PROCESO, ProcesamientoResult.builder().build())));
+        AtomicInteger ejecuciones = new AtomicInteger();
+
+        // Act & Assert
+        assertThatThrownBy(() -> cargaProcesadaService.procesarUnaVez(TipoCarga.PROMEDIOS, "2023-1", file, false,
+                () -> {
+                    ejecuciones.incrementAndGet();
+                    return resultado(1);
+                }))
+                .isInstanceOf(ConflictException.class)
+                .hasMessage("El archivo se está procesando, intente nuevamente");
+        assertThat(ejecuciones.get()).isZero();
+    }
+
+    @Test
+    void procesarUnaVez_DeberiaEliminarReserva_CuandoLaCargaFalla() {
+        // Arrange
+        when(cargaProcesadaRepository.reservar(eq("PROMEDIOS"), eq("2023-1"), eq(hash), eq(false), any())).thenReturn(1);
+        when(cargaProcesadaRepository.findByTipoAndObjetivoAndHashArchivo(TipoCarga.PROMEDIOS, "2023-1", hash))
+                .thenReturn(Optional.of(registro(EstadoCargaProcesada.EN_PROCESO, ProcesamientoResult.builder().build())));
+
+        // Act & Assert: sin registro, el mismo archivo se vuelve a procesar al subirlo de nuevo
+        assertThatThrownBy(() -> cargaProcesadaService.procesarUnaVez(TipoCarga.PROMEDIOS, "2023-1", file, false,
+                () -> {
+                    throw new DataAccessResourceFailureException("conexión perdida");
+                }))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+        verify(cargaProcesadaRepository).deleteById(7);
+        verify(cargaProcesadaRepository, never()).save(any());
+    }
+
+    @Test
+    void procesarUnaVez_DeberiaReprocesarYReemplazarResultado_CuandoSeFuerza() {
+        // Arrange
+        CargaProcesada registro = registro(EstadoCargaProcesada.EN_PROCESO, resultado(0));
+        when(cargaProcesadaRepository.reservar(eq("NOTAS"), eq("3"), eq(hash), eq(true), any())).thenReturn(1);
+        when(cargaProcesadaRepository.findByTipoAndObjetivoAndHashArchivo(TipoCarga.NOTAS, "3", hash))
+                .thenReturn(Optional.of(registro));
+        when(cargaProcesadaRepository.findById(7)).thenReturn(Optional.of(registro));
+
+        // Act
+        ProcesamientoResult result = cargaProcesadaService.procesarUnaVez(TipoCarga.NOTAS, "3", file, true,
+                () -> resultado(1));
+
+        // Assert
+        assertThat(result.getExitos()).isEqualTo(1);
+        assertThat(result.getDuplicado()).isNull();
+        verify(cargaProcesadaRepository).save(registro);
+        assertThat(registro.getResultado()).isSameAs(result);
+        assertThat(registro.getEstado()).isEqualTo(EstadoCargaProcesada.COMPLETADO);
+        verify(cargaProcesadaRepository, never()).reservar(any(), any(), any(), eq(false), any());
+    }
+}
@@ -0,0 +1,181 @@
+package pe.com.security.scholarship.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import pe.com.security.scholarship.config.TestSecurityConfig;
+import pe.com.security.scholarship.domain.entity.EvaluacionCheckpoint;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+// Cron de convocatorias de punta a punta (proxies de @Transactional y @Retryable incluidos): una convocatoria
+// cerrada manualmente cuya evaluación falla en el segundo lote en todos los reintentos, y la ejecución
+// de la noche siguiente que la retoma desde el último lote confirmado.
+// PLAN_DB_URL=jdbc:postgresql://localhost:5432/becas mvn test -Dtest=ConvocatoriaCronIntegrationTest
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestSecurityConfig.class)
+@EnabledIfEnvironmentVariable(named = "PLAN_DB_URL", matches = ".+")
+class ConvocatoriaCronIntegrationTest {
+
+    private static final String SCHEMA = "convocatoria_cron";
+    private static final Path INIT_DB = Path.of("..", "..", "database", "init-db");
+
+    private static final int POSTULANTES = 25;
+    private static final int TAMANIO_LOTE = 10;
+    private static final int VACANTES = 5;
+
+    @Autowired
+    private ConvocatoriaCronService convocatoriaCronService;
+
+    @MockitoSpyBean
+    private EvaluacionLoteService evaluacionLoteService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void baseDeDatos(DynamicPropertyRegistry registry) throws SQLException, IOException {
+        crearEsquema();
+        String url = System.getenv("PLAN_DB_URL");
+        registry.add("spring.datasource.url", () -> url + (url.contains("?") ? "&" : "?") + "currentSchema=" + SCHEMA + ",public");
+        registry.add("spring.datasource.username", () -> System.getenv("PLAN_DB_USER"));
+        registry.add("spring.datasource.password", () -> System.getenv("PLAN_DB_PASSWORD"));
+        registry.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("evaluacion.tamanio-lote", () -> String.valueOf(TAMANIO_LOTE));
+        registry.add("convocatorias.cron.espera-reintento-ms", () -> "10");
+    }
+
+    private static Connection conectar() throws SQLException {
+        return DriverManager.getConnection(System.getenv("PLAN_DB_URL"),
+                System.getenv("PLAN_DB_USER"), System.getenv("PLAN_DB_PASSWORD"));
+    }
+
+    private static void crearEsquema() throws SQLException, IOException {
+        try (Connection connection = conectar(); Statement st = connection.createStatement()) {
+            st.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            st.execute("CREATE SCHEMA " + SCHEMA);
+            st.execute("SET search_path TO " + SCHEMA + ", public");
+
+            st.execute(Files.readString(INIT_DB.resolve("script.sql")));
+            try (Stream<Path> migraciones = Files.list(INIT_DB)) {
+                for (Path migracion : migraciones.filter(p -> p.getFileName().toString().matches("v\\d+_.*\\.sql"))
+                        .sorted().toList()) {
+                    st.execute(Files.readString(migracion));
+                }
+            }
+
+            // Convocatoria cerrada a mano (el cron no la cierra hoy) con postulantes evaluados socioeconómicamente
+            st.execute("""
+                    INSERT INTO usuarios (id, nombres, apellidos, correo, provider)
+                    VALUES (CAST(md5('uemp') AS uuid), 'Empleado', 'Test', 'empleado@test.pe', 'LOCAL');
+                    INSERT INTO empleados (id, id_usuario, codigo_empleado)
+                    VALUES (CAST(md5('emp') AS uuid), CAST(md5('uemp') AS uuid), 'EMP00001');
+                    INSERT INTO carreras (nombre, codigo_facultad) VALUES ('Derecho', 'FAC1');
+                    INSERT INTO convocatorias (mes, fecha_inicio, fecha_fin, estado, cantidad_vacantes, modo_evaluacion, created_by)
+                    VALUES ('ENERO', CURRENT_DATE - 20, CURRENT_DATE, 'CERRADO', %d, 'SOCIOECONOMICO', CAST(md5('emp') AS uuid));
+
+                    INSERT INTO usuarios (id, nombres, apellidos, correo, provider)
+                    SELECT CAST(md5('u' || g) AS uuid), 'Nombre', 'Apellido', 'u' || g || '@test.pe', 'LOCAL'
+                    FROM generate_series(1, %d) g;
+                    INSERT INTO estudiantes (id, id_usuario, codigo_estudiante, id_carrera)
+                    SELECT CAST(md5('e' || g) AS uuid), CAST(md5('u' || g) AS uuid), 'E' || lpad(g::text, 8, '0'), 1
+                    FROM generate_series(1, %d) g;
+                    INSERT INTO evaluaciones_socioeconomicas (id_estudiante, fecha_evaluacion, nivel_socioeconomico, fecha_expiracion, created_by)
+                    SELECT CAST(md5('e' || g) AS uuid), CURRENT_DATE - 30,
+                           (ARRAY['DEFICIENTE','REGULAR','BUENO'])[g %% 3 + 1], CURRENT_DATE + 300, CAST(md5('emp') AS uuid)
+                    FROM generate_series(1, %d) g;
+                    INSERT INTO postulaciones (id, id_estudiante, id_convocatoria, fecha_postulacion)
+                    SELECT g, CAST(md5('e' || g) AS uuid), 1, CURRENT_DATE - 10
+                    FROM generate_series(1, %d) g;
+                    """.formatted(VACANTES, POSTULANTES, POSTULANTES, POSTULANTES, POSTULANTES));
+        }
+    }
+
+    @AfterAll
+    static void eliminarEsquema() throws SQLException {
+        try (Connection connection = conectar(); Statement st = connection.createStatement()) {
+            st.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+    }
+
+    @Test
+    void ejecutarCron_DeberiaRetomarLaEvaluacionPendienteEnLaSiguienteEjecucion() {
+        // Arrange: el segundo lote falla mientras dure la primera noche
+        AtomicBoolean fallar = new AtomicBoolean(true);
+        List<Integer> lotesIniciados = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(inv -> {
+            EvaluacionCheckpoint checkpoint = inv.getArgument(0);
+            lotesIniciados.add(checkpoint.getUltimoIdPostulacion());
+            if (fallar.get() && checkpoint.getUltimoIdPostulacion() == TAMANIO_LOTE) {
+                throw new QueryTimeoutException("timeout en el segundo lote");
+            }
+            return inv.callRealMethod();
+        }).when(evaluacionLoteService).procesarLote(any(), anyString(), anyInt());
+
+        // Act: primera noche, con todos sus reintentos
+        convocatoriaCronService.ejecutarCron();
+
+        // Assert: el primer lote quedó confirmado y cada reintento lo retomó en vez de repetirlo
+        Map<String, Object> pendiente = jdbcTemplate.queryForMap(
+                "SELECT ultimo_id_postulacion, filas_procesadas, completado FROM evaluaciones_checkpoint WHERE id_convocatoria = 1");
+        assertThat(pendiente.get("ultimo_id_postulacion")).isEqualTo(TAMANIO_LOTE);
+        assertThat(pendiente.get("filas_procesadas")).isEqualTo(TAMANIO_LOTE);
+        assertThat(pendiente.get("completado")).isEqualTo(false);
+        assertThat(lotesIniciados).containsExactly(0, 10, 10, 10, 10, 10);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM postulaciones WHERE aceptado IS NOT NULL", Integer.class)).isZero();
+
+        // Act: noche siguiente; no se cierra ninguna convocatoria, pero la evaluación sigue pendiente
+        fallar.set(false);
+        lotesIniciados.clear();
+        convocatoriaCronService.ejecutarCron();
+
+        // Assert
+        Map<String, Object> completado = jdbcTemplate.queryForMap(
+                "SELECT ultimo_id_postulacion, filas_procesadas, completado FROM evaluaciones_checkpoint WHERE id_convocatoria = 1");
+        assertThat(completado.get("ultimo_id_postulacion")).isEqualTo(POSTULANTES);
+        assertThat(completado.get("filas_procesadas")).isEqualTo(POSTULANTES);
+        assertThat(completado.get("completado")).isEqualTo(true);
+        assertThat(lotesIniciados).containsExactly(10, 20, 25);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM postulaciones WHERE promedio_general IS NOT NULL", Integer.class)).isEqualTo(POSTULANTES);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM postulaciones WHERE aceptado", Integer.class)).isEqualTo(VACANTES);
+
+        // Una tercera ejecución ya no encuentra nada pendiente
+        lotesIniciados.clear();
+        convocatoriaCronService.ejecutarCron();
+        assertThat(lotesIniciados).isEmpty();
+    }
+}
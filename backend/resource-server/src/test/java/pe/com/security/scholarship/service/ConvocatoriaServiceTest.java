@@ -11,11 +11,12 @@ import org.springframework.dao.IncorrectResultSizeDataAccessException;
 import org.springframework.transaction.TransactionSystemException;
 import pe.com.security.scholarship.domain.entity.Convocatoria;
 import pe.com.security.scholarship.domain.entity.Empleado;
+import pe.com.security.scholarship.domain.entity.EstadisticaConvocatoria;
 import pe.com.security.scholarship.domain.enums.EstadoConvocatoria;
 import pe.com.security.scholarship.domain.enums.Mes;
 import pe.com.security.scholarship.domain.enums.ModoEvaluacion;
+import pe.com.security.scholarship.dto.EvaluacionResult;
 import pe.com.security.scholarship.dto.projection.RankingProjection;
-import pe.com.security.scholarship.dto.projection.TasasConvocatoriaProjection;
 import pe.com.security.scholarship.dto.request.RegisterConvocatoriaRequest;
 import pe.com.security.scholarship.dto.request.UpdateEstadoConvocatoriaRequest;
 import pe.com.security.scholarship.dto.response.AuditEmpleadoResponse;
@@ -25,15 +26,17 @@ import pe.com.security.scholarship.dto.response.HistorialConvocatoriaResponse;
 import pe.com.security.scholarship.dto.response.RegisteredConvocatoriaResponse;
 import pe.com.security.scholarship.exception.BadRequestException;
 import pe.com.security.scholarship.exception.ConflictException;
-import pe.com.security.scholarship.exception.InternalServerErrorException;
 import pe.com.security.scholarship.exception.NotFoundException;
 import pe.com.security.scholarship.repository.ConvocatoriaRepository;
 import pe.com.security.scholarship.repository.EmpleadoRepository;
 import pe.com.security.scholarship.util.SecurityUtils;
+import pe.com.security.scholarship.util.UsuarioActualHelper;
 
 import java.time.LocalDate;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -42,11 +45,11 @@ import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
-import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -64,6 +67,12 @@ class ConvocatoriaServiceTest {
     @Mock
     private EvaluacionPostulanteService evaluacionPostulanteService;
 
+    @Mock
+    private EstadisticaConvocatoriaService estadisticaConvocatoriaService;
+
+    @Mock
+    private UsuarioActualHelper usuarioActualHelper;
+
     @InjectMocks
     private ConvocatoriaService convocatoriaService;
 
@@ -105,7 +114,7 @@ class ConvocatoriaServiceTest {
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
             
-            when(empleadoRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(empleado));
+            when(usuarioActualHelper.getEmpleado()).thenReturn(Optional.of(empleado));
             when(convocatoriaRepository.findByYear(anyInt())).thenReturn(Collections.emptyList());
             when(convocatoriaRepository.save(any(Convocatoria.class))).thenReturn(convocatoriaGuardada);
             when(empleadoService.obtenerAuditoriaActual()).thenReturn(auditResponse);
@@ -120,8 +129,9 @@ class ConvocatoriaServiceTest {
             assertThat(response.getModoEvaluacion()).isEqualTo(request.getModoEvaluacion());
             assertThat(response.getCreatedBy()).isEqualTo(auditResponse);
             
-            verify(empleadoRepository, times(1)).findByIdUsuario(idUsuario);
+            verify(usuarioActualHelper, times(1)).getEmpleado();
             verify(convocatoriaRepository, times(1)).save(any(Convocatoria.class));
+            verify(estadisticaConvocatoriaService, times(1)).inicializar(convocatoriaGuardada);
             verify(empleadoService, times(1)).obtenerAuditoriaActual();
         }
     }
@@ -152,7 +162,7 @@ class ConvocatoriaServiceTest {
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
             
-            when(empleadoRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.empty());
+            when(usuarioActualHelper.getEmpleado()).thenReturn(Optional.empty());
 
             // Act & Assert
             assertThatThrownBy(() -> convocatoriaService.registerConvocatoria(request))
@@ -182,7 +192,7 @@ class ConvocatoriaServiceTest {
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
             
-            when(empleadoRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(empleado));
+            when(usuarioActualHelper.getEmpleado()).thenReturn(Optional.of(empleado));
             when(convocatoriaRepository.findByYear(anyInt())).thenReturn(List.of(convocatoriaExistente));
 
             // Act & Assert
@@ -223,7 +233,7 @@ class ConvocatoriaServiceTest {
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
             
-            when(empleadoRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(empleado));
+            when(usuarioActualHelper.getEmpleado()).thenReturn(Optional.of(empleado));
             when(convocatoriaRepository.findByYear(anyInt())).thenReturn(List.of(convocatoriaRechazada));
             when(convocatoriaRepository.save(any(Convocatoria.class))).thenReturn(convocatoriaGuardada);
             when(empleadoService.obtenerAuditoriaActual()).thenReturn(auditResponse);
@@ -262,7 +272,7 @@ class ConvocatoriaServiceTest {
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
             
-            when(empleadoRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(empleado));
+            when(usuarioActualHelper.getEmpleado()).thenReturn(Optional.of(empleado));
             when(convocatoriaRepository.findByYear(anyInt())).thenReturn(List.of(convocatoriaExistente));
 
             // Act & Assert
@@ -273,12 +283,18 @@ class ConvocatoriaServiceTest {
     }
 
     @Test
-    void actualizarEstadosConvocatorias_DeberiaEvaluarPostulantes_CuandoHayConvocatoriasCerradas() {
-        // Arrange
+    void actualizarEstadosConvocatorias_DeberiaEvaluarPostulantes_CuandoHayEvaluacionPendiente() {
+        // Arrange: hoy no se cerró ninguna, pero la última cerrada quedó con la evaluación a medias
         when(convocatoriaRepository.aperturarConvocatoriasVigentes(any(LocalDate.class))).thenReturn(1);
-        when(convocatoriaRepository.cerrarConvocatoriasExpiradas(any(LocalDate.class))).thenReturn(1);
+        when(convocatoriaRepository.cerrarConvocatoriasExpiradas(any(LocalDate.class))).thenReturn(0);
+        when(evaluacionPostulanteService.hayEvaluacionPendiente()).thenReturn(true);
 
-        when(evaluacionPostulanteService.evaluarPostulantes()).thenReturn(5);
+        when(evaluacionPostulanteService.evaluarPostulantes()).thenReturn(EvaluacionResult.builder()
+                .idConvocatoria(1)
+                .totalPostulantes(5)
+                .calificados(5)
+                .rankeados(5)
+                .build());
 
         // Act
         convocatoriaService.actualizarEstadosConvocatorias();
@@ -290,10 +306,11 @@ class ConvocatoriaServiceTest {
     }
 
     @Test
-    void actualizarEstadosConvocatorias_NoDeberiaEvaluarPostulantes_CuandoNoHayConvocatoriasCerradas() {
+    void actualizarEstadosConvocatorias_NoDeberiaEvaluarPostulantes_CuandoNoHayEvaluacionPendiente() {
         // Arrange
         when(convocatoriaRepository.aperturarConvocatoriasVigentes(any(LocalDate.class))).thenReturn(1);
-        when(convocatoriaRepository.cerrarConvocatoriasExpiradas(any(LocalDate.class))).thenReturn(0);
+        when(convocatoriaRepository.cerrarConvocatoriasExpiradas(any(LocalDate.class))).thenReturn(1);
+        when(evaluacionPostulanteService.hayEvaluacionPendiente()).thenReturn(false);
 
         // Act
         convocatoriaService.actualizarEstadosConvocatorias();
@@ -413,6 +430,20 @@ class ConvocatoriaServiceTest {
         assertThat(response).isEmpty();
     }
 
+    private EstadisticaConvocatoria crearEstadistica(Convocatoria convocatoria, int postulantes, int aceptados,
+                                                     int matriculados) {
+        return EstadisticaConvocatoria.builder()
+                .idConvocatoria(convocatoria.getId())
+                .convocatoria(convocatoria)
+                .cantidadPostulantes(postulantes)
+                .cantidadAceptados(aceptados)
+                .cantidadMatriculados(matriculados)
+                .rankingSocioeconomico(new HashMap<>())
+                .rankingCiclo(new HashMap<>())
+                .rankingCarrera(new HashMap<>())
+                .build();
+    }
+
     @Test
     void getDetalleConvocatoria_DeberiaRetornarDetalleCompleto_CuandoTodoEsValido() {
         // Arrange
@@ -423,7 +454,7 @@ class ConvocatoriaServiceTest {
                 .fechaInicio(LocalDate.now())
                 .fechaFin(LocalDate.now().plusDays(30))
                 .estado(EstadoConvocatoria.APERTURADO)
-                .cantidadVacantes(100)
+                .cantidadVacantes(79)
                 .modoEvaluacion(ModoEvaluacion.MIXTO)
                 .build();
 
@@ -432,64 +463,52 @@ class ConvocatoriaServiceTest {
                 .nombreCompleto("Admin")
                 .build();
 
-        TasasConvocatoriaProjection tasas = mock(TasasConvocatoriaProjection.class);
-        when(tasas.getTasaAceptacion()).thenReturn(0.75);
-        when(tasas.getTasaMatriculados()).thenReturn(0.60);
-        when(tasas.getTasaVacantesCubiertas()).thenReturn(0.95); // Nuevo campo
+        EstadisticaConvocatoria estadistica = crearEstadistica(convocatoria, 100, 75, 45);
+        estadistica.setRankingSocioeconomico(Map.of("BUENO", 40L, "REGULAR", 35L, "DEFICIENTE", 20L, "NINGUNO", 5L));
+        estadistica.setRankingCiclo(Map.of("3", 30L, "5", 25L, "7", 25L, "9", 15L, "NINGUNO", 5L));
+        estadistica.setRankingCarrera(Map.of("Ingeniería de Sistemas", 60L, "Derecho", 40L));
 
-        RankingProjection ranking1 = mock(RankingProjection.class);
-
-        when(convocatoriaRepository.findById(id)).thenReturn(Optional.of(convocatoria));
+        when(estadisticaConvocatoriaService.obtenerEstadistica(id)).thenReturn(estadistica);
         when(empleadoService.obtenerAuditoriaActual()).thenReturn(auditResponse);
-        when(convocatoriaRepository.getCantidadPostulantes(id)).thenReturn(100);
-        when(convocatoriaRepository.getTasasGenerales(id)).thenReturn(tasas);
-        when(convocatoriaRepository.getRankingSocioeconomico(id)).thenReturn(List.of(ranking1));
-        when(convocatoriaRepository.getRankingCiclo(id)).thenReturn(List.of(ranking1));
-        when(convocatoriaRepository.getRankingCarrera(id)).thenReturn(List.of(ranking1));
 
         // Act
         DetalleConvocatoriaResponse response = convocatoriaService.getDetalleConvocatoria(id);
 
         // Assert
         assertThat(response).isNotNull();
-        assertThat(response.getDatosGeneralesConvocatoria().getMes().equals(Mes.ENERO));
+        assertThat(response.getDatosGeneralesConvocatoria().getMes()).isEqualTo(Mes.ENERO);
         assertThat(response.getCantidadPostulantes()).isEqualTo(100);
+        assertThat(response.getCantidadVacantes()).isEqualTo(79);
         assertThat(response.getTasaAceptacion()).isEqualTo("75%");
         assertThat(response.getTasaVacantesCubiertas()).isEqualTo("95%");
         assertThat(response.getTasaMatriculados()).isEqualTo("60%");
         assertThat(response.getModoEvaluacion()).isEqualTo(ModoEvaluacion.MIXTO);
-        assertThat(response.getRankingSocioeconomico()).hasSize(1);
+
+        // El ranking socioeconómico es completo; ciclos y carreras se limitan a los 3 primeros
+        assertThat(response.getRankingSocioeconomico()).extracting(RankingProjection::getEtiqueta)
+                .containsExactly("BUENO", "REGULAR", "DEFICIENTE", "NINGUNO");
+        assertThat(response.getRankingCiclos()).extracting(RankingProjection::getEtiqueta)
+                .containsExactly("3", "5", "7");
+        assertThat(response.getRankingCarreras()).extracting(RankingProjection::getCantidad)
+                .containsExactly(60L, 40L);
+
+        // El detalle se sirve del snapshot, sin recalcular agregados
+        verifyNoInteractions(convocatoriaRepository);
     }
 
     @Test
     void getDetalleConvocatoria_DeberiaLanzarNotFoundException_CuandoConvocatoriaNoExiste() {
         // Arrange
         Integer id = 1;
-        when(convocatoriaRepository.findById(id)).thenReturn(Optional.empty());
+        when(estadisticaConvocatoriaService.obtenerEstadistica(id))
+                .thenThrow(new NotFoundException("No se encontró convocatoria con el id especificado"));
 
         // Act & Assert
         assertThatThrownBy(() -> convocatoriaService.getDetalleConvocatoria(id))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessage("No se encontró convocatoria con el id especificado");
 
-        verify(convocatoriaRepository, times(0)).getTasasGenerales(anyInt());
-    }
-
-    @Test
-    void getDetalleConvocatoria_DeberiaLanzarInternalServerError_CuandoFallaCalculoTasas() {
-        // Arrange
-        Integer id = 1;
-        Convocatoria convocatoria = Convocatoria.builder().id(id).build();
-
-        when(convocatoriaRepository.findById(id)).thenReturn(Optional.of(convocatoria));
-        when(empleadoService.obtenerAuditoriaActual()).thenReturn(AuditEmpleadoResponse.builder().build());
-        when(convocatoriaRepository.getCantidadPostulantes(id)).thenReturn(100);
-        when(convocatoriaRepository.getTasasGenerales(id)).thenReturn(null);
-
-        // Act & Assert
-        assertThatThrownBy(() -> convocatoriaService.getDetalleConvocatoria(id))
-                .isInstanceOf(InternalServerErrorException.class)
-                .hasMessage("No se pudieron calcular las tasas de la convocatoria");
+        verify(empleadoService, never()).obtenerAuditoriaActual();
     }
 
     @Test
@@ -499,27 +518,21 @@ class ConvocatoriaServiceTest {
         Convocatoria convocatoria = Convocatoria.builder()
                 .id(id)
                 .mes(Mes.ENERO)
+                .cantidadVacantes(10)
                 .modoEvaluacion(ModoEvaluacion.MIXTO)
                 .build();
 
-        TasasConvocatoriaProjection tasas = mock(TasasConvocatoriaProjection.class);
-        when(tasas.getTasaAceptacion()).thenReturn(0.0);
-        when(tasas.getTasaMatriculados()).thenReturn(0.0);
-        when(tasas.getTasaVacantesCubiertas()).thenReturn(0.0); // Nuevo campo
-
-        when(convocatoriaRepository.findById(id)).thenReturn(Optional.of(convocatoria));
+        when(estadisticaConvocatoriaService.obtenerEstadistica(id)).thenReturn(crearEstadistica(convocatoria, 0, 0, 0));
         when(empleadoService.obtenerAuditoriaActual()).thenReturn(AuditEmpleadoResponse.builder().build());
-        when(convocatoriaRepository.getCantidadPostulantes(id)).thenReturn(0);
-        when(convocatoriaRepository.getTasasGenerales(id)).thenReturn(tasas);
-        when(convocatoriaRepository.getRankingSocioeconomico(id)).thenReturn(Collections.emptyList());
-        when(convocatoriaRepository.getRankingCiclo(id)).thenReturn(Collections.emptyList());
-        when(convocatoriaRepository.getRankingCarrera(id)).thenReturn(Collections.emptyList());
 
         // Act
         DetalleConvocatoriaResponse response = convocatoriaService.getDetalleConvocatoria(id);
 
         // Assert
         assertThat(response).isNotNull();
+        assertThat(response.getTasaAceptacion()).isEqualTo("0%");
+        assertThat(response.getTasaMatriculados()).isEqualTo("0%");
+        assertThat(response.getTasaVacantesCubiertas()).isEqualTo("0%");
         assertThat(response.getRankingSocioeconomico()).isEmpty();
         assertThat(response.getRankingCiclos()).isEmpty();
         assertThat(response.getRankingCarreras()).isEmpty();
@@ -541,16 +554,14 @@ class ConvocatoriaServiceTest {
                 .id(idConvocatoria)
                 .mes(Mes.ENERO)
                 .estado(nuevoEstado)
+                .cantidadVacantes(10)
                 .modoEvaluacion(ModoEvaluacion.MIXTO)
                 .build();
-        when(convocatoriaRepository.findById(idConvocatoria)).thenReturn(Optional.of(convocatoria));
-        
+        when(estadisticaConvocatoriaService.obtenerEstadistica(idConvocatoria))
+                .thenReturn(crearEstadistica(convocatoria, 0, 0, 0));
+
         AuditEmpleadoResponse auditResponse = AuditEmpleadoResponse.builder().build();
         when(empleadoService.obtenerAuditoriaActual()).thenReturn(auditResponse);
-        
-        TasasConvocatoriaProjection tasas = mock(TasasConvocatoriaProjection.class);
-        when(tasas.getTasaVacantesCubiertas()).thenReturn(0.0); // Mock para evitar NPE en mapper
-        when(convocatoriaRepository.getTasasGenerales(idConvocatoria)).thenReturn(tasas);
 
         // Act
         DetalleConvocatoriaResponse response = convocatoriaService.actualizarEstadoConvocatoria(request);
@@ -559,7 +570,7 @@ class ConvocatoriaServiceTest {
         assertThat(response).isNotNull();
         assertThat(response.getDatosGeneralesConvocatoria().getEstado()).isEqualTo(nuevoEstado);
         verify(convocatoriaRepository).updateEstadoConvocatoria(idConvocatoria, nuevoEstado);
-        verify(convocatoriaRepository).findById(idConvocatoria);
+        verify(estadisticaConvocatoriaService).obtenerEstadistica(idConvocatoria);
     }
 
     @Test
@@ -579,6 +590,6 @@ class ConvocatoriaServiceTest {
                 .hasMessage("No se encontró convocatoria con el id: " + idConvocatoria);
 
         verify(convocatoriaRepository).updateEstadoConvocatoria(idConvocatoria, nuevoEstado);
-        verify(convocatoriaRepository, never()).findById(anyInt());
+        verify(estadisticaConvocatoriaService, never()).obtenerEstadistica(anyInt());
     }
 }
@@ -21,6 +21,7 @@ import pe.com.security.scholarship.domain.entity.Postulacion;
 import pe.com.security.scholarship.domain.entity.Seccion;
 import pe.com.security.scholarship.domain.enums.DiaSemana;
 import pe.com.security.scholarship.domain.enums.ModalidadCurso;
+import pe.com.security.scholarship.dto.projection.EstadoBecaProjection;
 import pe.com.security.scholarship.dto.request.RegisterCursoRequest;
 import pe.com.security.scholarship.dto.request.RegisterHorarioSeccionRequest;
 import pe.com.security.scholarship.dto.request.RegisterSeccionRequest;
@@ -30,8 +31,8 @@ import pe.com.security.scholarship.exception.BadRequestException;
 import pe.com.security.scholarship.exception.NotFoundException;
 import pe.com.security.scholarship.repository.CursoRepository;
 import pe.com.security.scholarship.repository.EstudianteRepository;
-import pe.com.security.scholarship.repository.PostulacionRepository;
 import pe.com.security.scholarship.util.SecurityUtils;
+import pe.com.security.scholarship.util.UsuarioActualHelper;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -48,6 +49,7 @@ import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -66,10 +68,10 @@ class CursoServiceTest {
     private EstudianteRepository estudianteRepository;
 
     @Mock
-    private PostulacionRepository postulacionRepository;
+    private PostulacionService postulacionService;
 
     @Mock
-    private PostulacionService postulacionService;
+    private UsuarioActualHelper usuarioActualHelper;
 
     @InjectMocks
     private CursoService cursoService;
@@ -344,12 +346,14 @@ class CursoServiceTest {
         when(SecurityUtils.getCurrentUserId()).thenReturn(idUsuario);
 
         Estudiante estudiante = Estudiante.builder().id(UUID.randomUUID()).build();
-        when(estudianteRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(estudiante));
+        when(usuarioActualHelper.getEstudiante()).thenReturn(Optional.of(estudiante));
 
-        when(postulacionService.tieneBecaActiva(estudiante.getId())).thenReturn(true);
+        EstadoBecaProjection estadoBeca = mock(EstadoBecaProjection.class);
+        when(postulacionService.getEstadoBeca(estudiante.getId())).thenReturn(estadoBeca);
+        when(postulacionService.tieneBecaActiva(estadoBeca)).thenReturn(true);
 
         Postulacion postulacion = Postulacion.builder().id(50).build();
-        when(postulacionRepository.findLastPostulacion(estudiante.getId())).thenReturn(Optional.of(postulacion));
+        when(estadoBeca.getIdUltimaPostulacion()).thenReturn(postulacion.getId());
 
         Seccion seccion1 = Seccion.builder().id(100).fechaInicio(LocalDate.now().plusDays(5)).horarios(List.of()).build();
         Seccion seccion2 = Seccion.builder().id(101).fechaInicio(LocalDate.now().plusDays(2)).horarios(List.of()).build();
@@ -381,7 +385,7 @@ class CursoServiceTest {
         // Arrange
         UUID idUsuario = UUID.randomUUID();
         when(SecurityUtils.getCurrentUserId()).thenReturn(idUsuario);
-        when(estudianteRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.empty());
+        when(usuarioActualHelper.getEstudiante()).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThatThrownBy(() -> cursoService.getOfertaDisponiblePorBeca())
@@ -398,36 +402,17 @@ class CursoServiceTest {
         when(SecurityUtils.getCurrentUserId()).thenReturn(idUsuario);
 
         Estudiante estudiante = Estudiante.builder().id(UUID.randomUUID()).build();
-        when(estudianteRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(estudiante));
+        when(usuarioActualHelper.getEstudiante()).thenReturn(Optional.of(estudiante));
 
-        when(postulacionService.tieneBecaActiva(estudiante.getId())).thenReturn(false);
+        EstadoBecaProjection estadoBeca = mock(EstadoBecaProjection.class);
+        when(postulacionService.getEstadoBeca(estudiante.getId())).thenReturn(estadoBeca);
+        when(postulacionService.tieneBecaActiva(estadoBeca)).thenReturn(false);
 
         // Act & Assert
         assertThatThrownBy(() -> cursoService.getOfertaDisponiblePorBeca())
                 .isInstanceOf(BadRequestException.class)
                 .hasMessage("No tienes una beca vigente");
         
-        verify(postulacionRepository, never()).findLastPostulacion(any());
-    }
-
-    @Test
-    void getOfertaDisponiblePorBeca_DeberiaLanzarNotFound_CuandoNoExistePostulacion() {
-        // Arrange
-        UUID idUsuario = UUID.randomUUID();
-        when(SecurityUtils.getCurrentUserId()).thenReturn(idUsuario);
-
-        Estudiante estudiante = Estudiante.builder().id(UUID.randomUUID()).build();
-        when(estudianteRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(estudiante));
-
-        when(postulacionService.tieneBecaActiva(estudiante.getId())).thenReturn(true);
-
-        when(postulacionRepository.findLastPostulacion(estudiante.getId())).thenReturn(Optional.empty());
-
-        // Act & Assert
-        assertThatThrownBy(() -> cursoService.getOfertaDisponiblePorBeca())
-                .isInstanceOf(NotFoundException.class)
-                .hasMessage("No se encontró postulación para el presente año");
-
         verify(cursoRepository, never()).findByIdPostulacion(any(), any());
     }
 }
@@ -10,10 +10,10 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
+import pe.com.security.scholarship.dto.UsuarioActual;
 import pe.com.security.scholarship.dto.response.AuditEmpleadoResponse;
-import pe.com.security.scholarship.domain.entity.Empleado;
 import pe.com.security.scholarship.exception.NotFoundException;
-import pe.com.security.scholarship.repository.EmpleadoRepository;
+import pe.com.security.scholarship.util.UsuarioActualHelper;
 
 import java.util.List;
 import java.util.Optional;
@@ -28,7 +28,7 @@ import static org.mockito.Mockito.when;
 class EmpleadoServiceTest {
 
     @Mock
-    private EmpleadoRepository empleadoRepository;
+    private UsuarioActualHelper usuarioActualHelper;
 
     @InjectMocks
     private EmpleadoService empleadoService;
@@ -48,7 +48,6 @@ class EmpleadoServiceTest {
 
         // Mock JWT
         Jwt jwt = mock(Jwt.class);
-        when(jwt.getClaimAsString("uid")).thenReturn(idUsuario.toString());
         when(jwt.getClaimAsString("name")).thenReturn(nombreCompleto);
         when(jwt.getClaimAsStringList("roles")).thenReturn(roles);
 
@@ -60,13 +59,9 @@ class EmpleadoServiceTest {
         when(securityContext.getAuthentication()).thenReturn(authentication);
         SecurityContextHolder.setContext(securityContext);
 
-        // Mock Repository
-        Empleado empleado = Empleado.builder()
-                .idUsuario(idUsuario)
-                .codigoEmpleado(codigoEmpleado)
-                .build();
-
-        when(empleadoRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(empleado));
+        // Mock del usuario actual: id y código ya resueltos, sin cargar la entidad
+        when(usuarioActualHelper.getEmpleadoActual())
+                .thenReturn(Optional.of(new UsuarioActual(UUID.randomUUID(), codigoEmpleado)));
 
         // Act
         AuditEmpleadoResponse response = empleadoService.obtenerAuditoriaActual();
@@ -81,11 +76,8 @@ class EmpleadoServiceTest {
     @Test
     void shouldThrowNotFoundExceptionWhenEmpleadoDoesNotExist() {
         // Arrange
-        UUID idUsuario = UUID.randomUUID();
-
         // Mock JWT
         Jwt jwt = mock(Jwt.class);
-        when(jwt.getClaimAsString("uid")).thenReturn(idUsuario.toString());
 
         // Mock Security Context
         Authentication authentication = mock(Authentication.class);
@@ -96,7 +88,7 @@ class EmpleadoServiceTest {
         SecurityContextHolder.setContext(securityContext);
 
         // Mock Repository returning empty
-        when(empleadoRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.empty());
+        when(usuarioActualHelper.getEmpleadoActual()).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThatThrownBy(() -> empleadoService.obtenerAuditoriaActual())
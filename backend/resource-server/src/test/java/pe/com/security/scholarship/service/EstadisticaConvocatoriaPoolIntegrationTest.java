@@ -0,0 +1,179 @@
+package pe.com.security.scholarship.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pe.com.security.scholarship.config.TestSecurityConfig;
+import pe.com.security.scholarship.domain.entity.EstadisticaConvocatoria;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Primeras consultas simultáneas del detalle de convocatorias sin snapshot con un pool de 4 conexiones.
+// Cada petición abre su EntityManager como open-in-view (retiene la conexión de su primera lectura) y lanza
+// 5 consultas paralelas que compiten por el mismo pool; cada convocatoria se consulta dos veces a la vez.
+// PLAN_DB_URL=jdbc:postgresql://localhost:5432/becas mvn test -Dtest=EstadisticaConvocatoriaPoolIntegrationTest
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestSecurityConfig.class)
+@EnabledIfEnvironmentVariable(named = "PLAN_DB_URL", matches = ".+")
+class EstadisticaConvocatoriaPoolIntegrationTest {
+
+    private static final String SCHEMA = "estadistica_pool";
+    private static final Path INIT_DB = Path.of("..", "..", "database", "init-db");
+
+    private static final int CONVOCATORIAS = 6;
+    private static final int CONSULTAS_POR_CONVOCATORIA = 2;
+    private static final int POSTULANTES = 5;
+
+    @Autowired
+    private EstadisticaConvocatoriaService estadisticaConvocatoriaService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void baseDeDatos(DynamicPropertyRegistry registry) throws SQLException, IOException {
+        crearEsquema();
+        String url = System.getenv("PLAN_DB_URL");
+        registry.add("spring.datasource.url", () -> url + (url.contains("?") ? "&" : "?") + "currentSchema=" + SCHEMA + ",public");
+        registry.add("spring.datasource.username", () -> System.getenv("PLAN_DB_USER"));
+        registry.add("spring.datasource.password", () -> System.getenv("PLAN_DB_PASSWORD"));
+        registry.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> "4");
+        registry.add("spring.datasource.hikari.connection-timeout", () -> "2000");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("estadisticas.consultas-paralelas", () -> "true");
+        registry.add("estadisticas.max-consultas-paralelas", () -> "2");
+    }
+
+    private static Connection conectar() throws SQLException {
+        return DriverManager.getConnection(System.getenv("PLAN_DB_URL"),
+                System.getenv("PLAN_DB_USER"), System.getenv("PLAN_DB_PASSWORD"));
+    }
+
+    private static void crearEsquema() throws SQLException, IOException {
+        try (Connection connection = conectar(); Statement st = connection.createStatement()) {
+            st.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            st.execute("CREATE SCHEMA " + SCHEMA);
+            st.execute("SET search_path TO " + SCHEMA + ", public");
+
+            st.execute(Files.readString(INIT_DB.resolve("script.sql")));
+            try (Stream<Path> migraciones = Files.list(INIT_DB)) {
+                for (Path migracion : migraciones.filter(p -> p.getFileName().toString().matches("v\\d+_.*\\.sql"))
+                        .sorted().toList()) {
+                    st.execute(Files.readString(migracion));
+                }
+            }
+
+            // Convocatorias cerradas sin snapshot (previas a su creación), cada una con los mismos postulantes
+            st.execute("""
+                    INSERT INTO usuarios (id, nombres, apellidos, correo, provider)
+                    VALUES (CAST(md5('uemp') AS uuid), 'Empleado', 'Test', 'empleado@test.pe', 'LOCAL');
+                    INSERT INTO empleados (id, id_usuario, codigo_empleado)
+                    VALUES (CAST(md5('emp') AS uuid), CAST(md5('uemp') AS uuid), 'EMP00001');
+                    INSERT INTO carreras (nombre, codigo_facultad) VALUES ('Derecho', 'FAC1');
+                    INSERT INTO convocatorias (mes, fecha_inicio, fecha_fin, estado, cantidad_vacantes, modo_evaluacion, created_by)
+                    SELECT (ARRAY['ENERO','FEBRERO','MARZO','ABRIL','MAYO','JUNIO'])[g], CURRENT_DATE - 20, CURRENT_DATE - 5,
+                           'CERRADO', 10, 'MIXTO', CAST(md5('emp') AS uuid)
+                    FROM generate_series(1, %d) g;
+
+                    INSERT INTO usuarios (id, nombres, apellidos, correo, provider)
+                    SELECT CAST(md5('u' || g) AS uuid), 'Nombre', 'Apellido', 'u' || g || '@test.pe', 'LOCAL'
+                    FROM generate_series(1, %d) g;
+                    INSERT INTO estudiantes (id, id_usuario, codigo_estudiante, id_carrera)
+                    SELECT CAST(md5('e' || g) AS uuid), CAST(md5('u' || g) AS uuid), 'E' || lpad(g::text, 8, '0'), 1
+                    FROM generate_series(1, %d) g;
+                    INSERT INTO postulaciones (id_estudiante, id_convocatoria, fecha_postulacion, promedio_general, aceptado)
+                    SELECT CAST(md5('e' || g) AS uuid), c.id, CURRENT_DATE - 10, 16, true
+                    FROM generate_series(1, %d) g CROSS JOIN convocatorias c;
+                    """.formatted(CONVOCATORIAS, POSTULANTES, POSTULANTES, POSTULANTES));
+        }
+    }
+
+    @AfterAll
+    static void eliminarEsquema() throws SQLException {
+        try (Connection connection = conectar(); Statement st = connection.createStatement()) {
+            st.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+    }
+
+    @Test
+    void primerasConsultasSimultaneas_NoAgotanElPoolNiDuplicanElSnapshot() throws Exception {
+        // Arrange
+        List<Integer> convocatorias = jdbcTemplate.queryForList("SELECT id FROM convocatorias ORDER BY id", Integer.class);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM estadisticas_convocatoria", Integer.class)).isZero();
+
+        ExecutorService executor = Executors.newFixedThreadPool(CONVOCATORIAS * CONSULTAS_POR_CONVOCATORIA);
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<EstadisticaConvocatoria>> futuros = new ArrayList<>();
+        for (Integer idConvocatoria : convocatorias) {
+            for (int i = 0; i < CONSULTAS_POR_CONVOCATORIA; i++) {
+                futuros.add(executor.submit(() -> {
+                    salida.await();
+                    return comoPeticion(() -> estadisticaConvocatoriaService.obtenerEstadistica(idConvocatoria));
+                }));
+            }
+        }
+
+        // Act
+        salida.countDown();
+        List<EstadisticaConvocatoria> resultados = new ArrayList<>();
+        for (Future<EstadisticaConvocatoria> futuro : futuros) resultados.add(futuro.get(1, TimeUnit.MINUTES));
+        executor.shutdown();
+
+        // Assert: ninguna petición esperó una conexión más allá del connection-timeout ni chocó con la clave
+        assertThat(resultados).extracting(EstadisticaConvocatoria::getCantidadPostulantes).containsOnly(POSTULANTES);
+        assertThat(resultados).extracting(EstadisticaConvocatoria::getCantidadAceptados).containsOnly(POSTULANTES);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM estadisticas_convocatoria", Integer.class))
+                .isEqualTo(CONVOCATORIAS);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM estadisticas_convocatoria WHERE ranking_carrera ->> 'Derecho' = ?",
+                Integer.class, String.valueOf(POSTULANTES))).isEqualTo(CONVOCATORIAS);
+    }
+
+    // Lo que hace OpenEntityManagerInViewInterceptor en cada petición web
+    private <T> T comoPeticion(Supplier<T> accion) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        try {
+            return accion.get();
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            EntityManagerFactoryUtils.closeEntityManager(entityManager);
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package pe.com.security.scholarship.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pe.com.security.scholarship.domain.entity.Convocatoria;
+import pe.com.security.scholarship.domain.entity.EstadisticaConvocatoria;
+import pe.com.security.scholarship.dto.projection.RankingProjection;
+import pe.com.security.scholarship.dto.projection.TasasConvocatoriaProjection;
+import pe.com.security.scholarship.dto.response.RankingResponse;
+import pe.com.security.scholarship.exception.InternalServerErrorException;
+import pe.com.security.scholarship.exception.NotFoundException;
+import pe.com.security.scholarship.repository.ConvocatoriaRepository;
+import pe.com.security.scholarship.repository.EstadisticaConvocatoriaRepository;
+import pe.com.security.scholarship.util.ConsultasParalelasHelper;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EstadisticaConvocatoriaServiceTest {
+
+    @Mock
+    private EstadisticaConvocatoriaRepository estadisticaRepository;
+
+    @Mock
+    private ConvocatoriaRepository convocatoriaRepository;
+
+    @Mock
+    private ConsultasParalelasHelper consultasParalelasHelper;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private EstadisticaConvocatoriaService estadisticaConvocatoriaService;
+
+    private RankingProjection ranking(String etiqueta, long cantidad) {
+        return RankingResponse.builder().etiqueta(etiqueta).cantidad(cantidad).build();
+    }
+
+    private TasasConvocatoriaProjection tasas(long aceptados, long matriculados) {
+        TasasConvocatoriaProjection tasas = mock(TasasConvocatoriaProjection.class);
+        when(tasas.getCantidadAceptados()).thenReturn(aceptados);
+        when(tasas.getCantidadMatriculados()).thenReturn(matriculados);
+        return tasas;
+    }
+
+    @Test
+    void obtenerEstadistica_DeberiaRetornarSnapshot_CuandoExiste() {
+        // Arrange
+        EstadisticaConvocatoria estadistica = EstadisticaConvocatoria.builder()
+                .idConvocatoria(1)
+                .cantidadPostulantes(10)
+                .build();
+        when(estadisticaRepository.findByIdWithConvocatoria(1)).thenReturn(Optional.of(estadistica));
+
+        // Act
+        EstadisticaConvocatoria resultado = estadisticaConvocatoriaService.obtenerEstadistica(1);
+
+        // Assert
+        assertThat(resultado).isSameAs(estadistica);
+        verify(convocatoriaRepository, never()).findById(anyInt());
+        verify(convocatoriaRepository, never()).getTasasGenerales(anyInt());
+        verify(estadisticaRepository, never()).save(any());
+    }
+
+    @Test
+    void obtenerEstadistica_DeberiaRecalcular_CuandoNoExisteSnapshot() {
+        // Arrange
+        Convocatoria convocatoria = Convocatoria.builder().id(1).cantidadVacantes(5).build();
+        TasasConvocatoriaProjection tasas = tasas(4L, 2L);
+
+        when(estadisticaRepository.findByIdWithConvocatoria(1)).thenReturn(Optional.empty());
+        when(convocatoriaRepository.findById(1)).thenReturn(Optional.of(convocatoria));
+        when(convocatoriaRepository.getCantidadPostulantes(1)).thenReturn(8);
+        when(convocatoriaRepository.getTasasGenerales(1)).thenReturn(tasas);
+        when(convocatoriaRepository.getRankingSocioeconomico(1)).thenReturn(List.of(ranking("BUENO", 8L)));
+        when(convocatoriaRepository.getRankingCiclo(1)).thenReturn(List.of(ranking("5", 8L)));
+        when(convocatoriaRepository.getRankingCarrera(1)).thenReturn(List.of(ranking("Derecho", 8L)));
+        when(estadisticaRepository.save(any(EstadisticaConvocatoria.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        EstadisticaConvocatoria resultado = estadisticaConvocatoriaService.obtenerEstadistica(1);
+
+        // Assert
+        assertThat(resultado.getConvocatoria()).isSameAs(convocatoria);
+        assertThat(resultado.getCantidadPostulantes()).isEqualTo(8);
+        assertThat(resultado.getCantidadAceptados()).isEqualTo(4);
+        assertThat(resultado.getCantidadMatriculados()).isEqualTo(2);
+        verify(estadisticaRepository).save(resultado);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void obtenerEstadistica_DeberiaLanzarConsultasEnParalelo_CuandoModoParaleloActivo() {
+        // Arrange
+        ReflectionTestUtils.setField(estadisticaConvocatoriaService, "consultasParalelas", true);
+        Convocatoria convocatoria = Convocatoria.builder().id(1).build();
+        TasasConvocatoriaProjection tasas = tasas(4L, 2L);
+
+        when(estadisticaRepository.findByIdWithConvocatoria(1)).thenReturn(Optional.empty());
+        when(convocatoriaRepository.existsById(1)).thenReturn(true);
+        when(convocatoriaRepository.findById(1)).thenReturn(Optional.of(convocatoria));
+        when(convocatoriaRepository.getCantidadPostulantes(1)).thenReturn(8);
+        when(convocatoriaRepository.getTasasGenerales(1)).thenReturn(tasas);
+        when(convocatoriaRepository.getRankingSocioeconomico(1)).thenReturn(List.of(ranking("BUENO", 8L)));
+        when(convocatoriaRepository.getRankingCiclo(1)).thenReturn(List.of());
+        when(convocatoriaRepository.getRankingCarrera(1)).thenReturn(List.of());
+        // Ejecuta cada consulta de inmediato para verificar el envío y la unión de resultados
+        when(consultasParalelasHelper.ejecutarAparte(any(Supplier.class)))
+                .thenAnswer(inv -> ((Supplier<Object>) inv.getArgument(0)).get());
+        when(consultasParalelasHelper.enviar(any(Supplier.class)))
+                .thenAnswer(inv -> CompletableFuture.completedFuture(((Supplier<Object>) inv.getArgument(0)).get()));
+        when(estadisticaRepository.reservar(1)).thenReturn(1);
+        when(estadisticaRepository.save(any(EstadisticaConvocatoria.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        EstadisticaConvocatoria resultado = estadisticaConvocatoriaService.obtenerEstadistica(1);
+
+        // Assert
+        verify(consultasParalelasHelper, times(5)).enviar(any(Supplier.class));
+        assertThat(resultado.getCantidadPostulantes()).isEqualTo(8);
+        assertThat(resultado.getCantidadAceptados()).isEqualTo(4);
+        assertThat(resultado.getRankingSocioeconomico()).containsEntry("BUENO", 8L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void obtenerEstadistica_DeberiaReleerSnapshot_CuandoOtraConsultaLoGuardoPrimero() {
+        // Arrange
+        ReflectionTestUtils.setField(estadisticaConvocatoriaService, "consultasParalelas", true);
+        Convocatoria convocatoria = Convocatoria.builder().id(1).build();
+        EstadisticaConvocatoria guardadaPorOtra = EstadisticaConvocatoria.builder()
+                .idConvocatoria(1)
+                .cantidadPostulantes(8)
+                .build();
+        TasasConvocatoriaProjection tasas = tasas(4L, 2L);
+
+        when(estadisticaRepository.findByIdWithConvocatoria(1))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(guardadaPorOtra));
+        when(convocatoriaRepository.existsById(1)).thenReturn(true);
+        when(convocatoriaRepository.findById(1)).thenReturn(Optional.of(convocatoria));
+        when(convocatoriaRepository.getCantidadPostulantes(1)).thenReturn(8);
+        when(convocatoriaRepository.getTasasGenerales(1)).thenReturn(tasas);
+        when(convocatoriaRepository.getRankingSocioeconomico(1)).thenReturn(List.of());
+        when(convocatoriaRepository.getRankingCiclo(1)).thenReturn(List.of());
+        when(convocatoriaRepository.getRankingCarrera(1)).thenReturn(List.of());
+        when(consultasParalelasHelper.ejecutarAparte(any(Supplier.class)))
+                .thenAnswer(inv -> ((Supplier<Object>) inv.getArgument(0)).get());
+        when(consultasParalelasHelper.enviar(any(Supplier.class)))
+                .thenAnswer(inv -> CompletableFuture.completedFuture(((Supplier<Object>) inv.getArgument(0)).get()));
+        when(estadisticaRepository.reservar(1)).thenReturn(0);
+
+        // Act
+        EstadisticaConvocatoria resultado = estadisticaConvocatoriaService.obtenerEstadistica(1);
+
+        // Assert: sin clave duplicada; se devuelve el snapshot confirmado por la otra consulta
+        assertThat(resultado).isSameAs(guardadaPorOtra);
+        verify(estadisticaRepository, never()).save(any());
+    }
+
+    @Test
+    void obtenerEstadistica_DeberiaRecalcularEnSecuencia_CuandoHayTransaccionActiva() {
+        // Arrange: el llamador ya tiene una conexión; las consultas paralelas competirían con ella por el pool
+        ReflectionTestUtils.setField(estadisticaConvocatoriaService, "consultasParalelas", true);
+        Convocatoria convocatoria = Convocatoria.builder().id(1).build();
+        TasasConvocatoriaProjection tasas = tasas(4L, 2L);
+
+        when(estadisticaRepository.findByIdWithConvocatoria(1)).thenReturn(Optional.empty());
+        when(convocatoriaRepository.findById(1)).thenReturn(Optional.of(convocatoria));
+        when(convocatoriaRepository.getCantidadPostulantes(1)).thenReturn(8);
+        when(convocatoriaRepository.getTasasGenerales(1)).thenReturn(tasas);
+        when(convocatoriaRepository.getRankingSocioeconomico(1)).thenReturn(List.of());
+        when(convocatoriaRepository.getRankingCiclo(1)).thenReturn(List.of());
+        when(convocatoriaRepository.getRankingCarrera(1)).thenReturn(List.of());
+        when(estadisticaRepository.save(any(EstadisticaConvocatoria.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        EstadisticaConvocatoria resultado;
+        try {
+            resultado = estadisticaConvocatoriaService.obtenerEstadistica(1);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        // Assert
+        assertThat(resultado.getCantidadPostulantes()).isEqualTo(8);
+        verifyNoInteractions(consultasParalelasHelper);
+    }
+
+    @Test
+    void obtenerEstadistica_DeberiaLanzarNotFoundException_CuandoConvocatoriaNoExiste() {
+        // Arrange
+        when(estadisticaRepository.findByIdWithConvocatoria(1)).thenReturn(Optional.empty());
+        when(convocatoriaRepository.findById(1)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> estadisticaConvocatoriaService.obtenerEstadistica(1))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessage("No se encontró convocatoria con el id especificado");
+
+        verify(estadisticaRepository, never()).save(any());
+    }
+
+    @Test
+    void recalcular_DeberiaLanzarInternalServerError_CuandoTasasSonNulas() {
+        // Arrange
+        Convocatoria convocatoria = Convocatoria.builder().id(1).build();
+        when(convocatoriaRepository.getCantidadPostulantes(1)).thenReturn(0);
+        when(convocatoriaRepository.getTasasGenerales(1)).thenReturn(null);
+
+        // Act & Assert
+        assertThatThrownBy(() -> estadisticaConvocatoriaService.recalcular(convocatoria))
+                .isInstanceOf(InternalServerErrorException.class)
+                .hasMessage("No se pudieron calcular las tasas de la convocatoria");
+
+        verify(estadisticaRepository, never()).save(any());
+    }
+
+    @Test
+    void recalcular_DeberiaGuardarRankingsCompletosSinEtiquetasVacias() {
+        // Arrange
+        Convocatoria convocatoria = Convocatoria.builder().id(1).build();
+        TasasConvocatoriaProjection tasas = tasas(3L, 1L);
+
+        when(convocatoriaRepository.getCantidadPostulantes(1)).thenReturn(6);
+        when(convocatoriaRepository.getTasasGenerales(1)).thenReturn(tasas);
+        when(convocatoriaRepository.getRankingSocioeconomico(1))
+                .thenReturn(List.of(ranking("BUENO", 4L), ranking("REGULAR", 2L), ranking("DEFICIENTE", 0L)));
+        when(convocatoriaRepository.getRankingCiclo(1))
+                .thenReturn(List.of(ranking("1", 1L), ranking("3", 1L), ranking("5", 2L), ranking("7", 2L)));
+        when(convocatoriaRepository.getRankingCarrera(1)).thenReturn(List.of());
+        when(estadisticaRepository.save(any(EstadisticaConvocatoria.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        estadisticaConvocatoriaService.recalcular(convocatoria);
+
+        // Assert
+        ArgumentCaptor<EstadisticaConvocatoria> captor = ArgumentCaptor.forClass(EstadisticaConvocatoria.class);
+        verify(estadisticaRepository).save(captor.capture());
+        EstadisticaConvocatoria guardada = captor.getValue();
+
+        assertThat(guardada.getIdConvocatoria()).isEqualTo(1);
+        assertThat(guardada.getRankingSocioeconomico()).containsOnlyKeys("BUENO", "REGULAR");
+        // El snapshot guarda todos los ciclos; el límite de 3 se aplica al responder
+        assertThat(guardada.getRankingCiclo()).hasSize(4).containsEntry("5", 2L);
+        assertThat(guardada.getRankingCarrera()).isEmpty();
+        verify(estadisticaRepository).reservar(1);
+        // Tras la evaluación debe leer el ranking de la transacción actual
+        verifyNoInteractions(consultasParalelasHelper);
+    }
+
+    @Test
+    void inicializar_DeberiaGuardarSnapshotVacio() {
+        // Arrange
+        Convocatoria convocatoria = Convocatoria.builder().id(7).build();
+
+        // Act
+        estadisticaConvocatoriaService.inicializar(convocatoria);
+
+        // Assert
+        ArgumentCaptor<EstadisticaConvocatoria> captor = ArgumentCaptor.forClass(EstadisticaConvocatoria.class);
+        verify(estadisticaRepository).save(captor.capture());
+        assertThat(captor.getValue().getIdConvocatoria()).isEqualTo(7);
+        assertThat(captor.getValue().getCantidadPostulantes()).isZero();
+        assertThat(captor.getValue().getRankingSocioeconomico()).isEqualTo(new HashMap<>());
+    }
+
+    @Test
+    void registrarPostulacion_DeberiaActualizarSnapshotIncrementalmente() {
+        // Arrange
+        UUID idEstudiante = UUID.randomUUID();
+
+        // Act
+        estadisticaConvocatoriaService.registrarPostulacion(1, idEstudiante);
+
+        // Assert
+        verify(estadisticaRepository).registrarPostulacion(1, idEstudiante);
+        verify(convocatoriaRepository, never()).getTasasGenerales(anyInt());
+    }
+
+    @Test
+    void actualizarMatriculados_DeberiaDelegarEnRepositorio() {
+        // Act
+        estadisticaConvocatoriaService.actualizarMatriculados(10);
+
+        // Assert
+        verify(estadisticaRepository).actualizarMatriculados(10);
+    }
+}
@@ -0,0 +1,132 @@
+package pe.com.security.scholarship.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import pe.com.security.scholarship.domain.entity.EvaluacionCheckpoint;
+import pe.com.security.scholarship.dto.projection.LoteEvaluacionProjection;
+import pe.com.security.scholarship.repository.EvaluacionCheckpointRepository;
+import pe.com.security.scholarship.repository.PostulacionRepository;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EvaluacionLoteServiceTest {
+
+    @Mock
+    private EvaluacionCheckpointRepository checkpointRepository;
+
+    @Mock
+    private PostulacionRepository postulacionRepository;
+
+    @InjectMocks
+    private EvaluacionLoteService evaluacionLoteService;
+
+    private EvaluacionCheckpoint crearCheckpoint(int ultimoId, int filas, int calificados, boolean completado) {
+        return EvaluacionCheckpoint.builder()
+                .idConvocatoria(1)
+                .ultimoIdPostulacion(ultimoId)
+                .filasProcesadas(filas)
+                .calificados(calificados)
+                .completado(completado)
+                .build();
+    }
+
+    @Test
+    void iniciarCheckpoint_SinCheckpoint_CreaDesdeCero() {
+        // Arrange
+        when(checkpointRepository.findById(1)).thenReturn(Optional.empty());
+        when(checkpointRepository.save(any(EvaluacionCheckpoint.class))).thenAnswer(i -> i.getArgument(0));
+
+        // Act
+        EvaluacionCheckpoint result = evaluacionLoteService.iniciarCheckpoint(1);
+
+        // Assert
+        assertEquals(1, result.getIdConvocatoria());
+        assertEquals(0, result.getUltimoIdPostulacion());
+        assertEquals(0, result.getFilasProcesadas());
+        assertFalse(result.getCompletado());
+    }
+
+    @Test
+    void iniciarCheckpoint_Pendiente_ConservaAvance() {
+        // Arrange
+        when(checkpointRepository.findById(1)).thenReturn(Optional.of(crearCheckpoint(40, 20, 18, false)));
+        when(checkpointRepository.save(any(EvaluacionCheckpoint.class))).thenAnswer(i -> i.getArgument(0));
+
+        // Act
+        EvaluacionCheckpoint result = evaluacionLoteService.iniciarCheckpoint(1);
+
+        // Assert
+        assertEquals(40, result.getUltimoIdPostulacion());
+        assertEquals(20, result.getFilasProcesadas());
+        assertEquals(18, result.getCalificados());
+    }
+
+    @Test
+    void iniciarCheckpoint_Completado_ReiniciaAvance() {
+        // Arrange
+        when(checkpointRepository.findById(1)).thenReturn(Optional.of(crearCheckpoint(40, 20, 18, true)));
+        when(checkpointRepository.save(any(EvaluacionCheckpoint.class))).thenAnswer(i -> i.getArgument(0));
+
+        // Act
+        EvaluacionCheckpoint result = evaluacionLoteService.iniciarCheckpoint(1);
+
+        // Assert
+        assertEquals(0, result.getUltimoIdPostulacion());
+        assertEquals(0, result.getFilasProcesadas());
+        assertEquals(0, result.getCalificados());
+        assertFalse(result.getCompletado());
+    }
+
+    @Test
+    void procesarLote_CasoExitoso_AvanzaCheckpoint() {
+        // Arrange
+        EvaluacionCheckpoint checkpoint = crearCheckpoint(10, 5, 4, false);
+        LoteEvaluacionProjection lote = mock(LoteEvaluacionProjection.class);
+        when(lote.getHastaId()).thenReturn(25);
+        when(lote.getCantidad()).thenReturn(5L);
+        when(postulacionRepository.getSiguienteLote(1, 10, 5)).thenReturn(lote);
+        when(postulacionRepository.calcularPromedioGeneral(1, "MIXTO", 10, 25)).thenReturn(3);
+        when(checkpointRepository.save(any(EvaluacionCheckpoint.class))).thenAnswer(i -> i.getArgument(0));
+
+        // Act
+        EvaluacionCheckpoint result = evaluacionLoteService.procesarLote(checkpoint, "MIXTO", 5);
+
+        // Assert
+        assertEquals(25, result.getUltimoIdPostulacion());
+        assertEquals(10, result.getFilasProcesadas());
+        assertEquals(7, result.getCalificados());
+        assertFalse(result.getCompletado());
+    }
+
+    @Test
+    void procesarLote_SinPendientes_DevuelveMismoCheckpoint() {
+        // Arrange
+        EvaluacionCheckpoint checkpoint = crearCheckpoint(25, 10, 7, false);
+        LoteEvaluacionProjection lote = mock(LoteEvaluacionProjection.class);
+        when(lote.getHastaId()).thenReturn(null);
+        when(postulacionRepository.getSiguienteLote(1, 25, 5)).thenReturn(lote);
+
+        // Act
+        EvaluacionCheckpoint result = evaluacionLoteService.procesarLote(checkpoint, "MIXTO", 5);
+
+        // Assert
+        assertSame(checkpoint, result);
+        verify(postulacionRepository, never()).calcularPromedioGeneral(anyInt(), anyString(), anyInt(), anyInt());
+        verify(checkpointRepository, never()).save(any());
+    }
+}
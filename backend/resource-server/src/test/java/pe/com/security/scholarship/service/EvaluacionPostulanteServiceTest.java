@@ -1,28 +1,31 @@
 package pe.com.security.scholarship.service;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 import pe.com.security.scholarship.domain.entity.Convocatoria;
+import pe.com.security.scholarship.domain.entity.EvaluacionCheckpoint;
 import pe.com.security.scholarship.domain.enums.ModoEvaluacion;
-import pe.com.security.scholarship.dto.projection.PostulanteEvaluacionProjection;
+import pe.com.security.scholarship.dto.EvaluacionResult;
 import pe.com.security.scholarship.repository.ConvocatoriaRepository;
+import pe.com.security.scholarship.repository.EvaluacionCheckpointRepository;
 import pe.com.security.scholarship.repository.PostulacionRepository;
 
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doThrow;
-import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -37,92 +40,99 @@ class EvaluacionPostulanteServiceTest {
     @Mock
     private PostulacionRepository postulacionRepository;
 
-    @InjectMocks
-    private EvaluacionPostulanteService evaluacionPostulanteService;
+    @Mock
+    private EvaluacionCheckpointRepository checkpointRepository;
 
-    @Test
-    void evaluarPostulantes_CasoExitoso_ModoMixto() {
-        // Arrange
-        Convocatoria convocatoria = new Convocatoria();
-        convocatoria.setId(1);
-        convocatoria.setModoEvaluacion(ModoEvaluacion.MIXTO);
+    @Mock
+    private EvaluacionLoteService evaluacionLoteService;
+
+    @Mock
+    private EstadisticaConvocatoriaService estadisticaConvocatoriaService;
 
-        when(convocatoriaRepository.getUltimaConvocatoriaCerrada()).thenReturn(Optional.of(convocatoria));
+    @InjectMocks
+    private EvaluacionPostulanteService evaluacionPostulanteService;
 
-        List<Integer> idsPostulaciones = Arrays.asList(101, 102);
-        when(postulacionRepository.findIdsByConvocatoria(1)).thenReturn(idsPostulaciones);
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(evaluacionPostulanteService, "tamanioLote", 2);
+    }
 
-        PostulanteEvaluacionProjection p1 = mock(PostulanteEvaluacionProjection.class);
-        when(p1.getIdPostulacion()).thenReturn(101);
-        when(p1.getPromedioPonderado()).thenReturn(18.0);
-        when(p1.getValorEvalSocio()).thenReturn(20); // Integer
+    private Convocatoria crearConvocatoria(Integer id, ModoEvaluacion modo) {
+        Convocatoria convocatoria = new Convocatoria();
+        convocatoria.setId(id);
+        convocatoria.setModoEvaluacion(modo);
+        return convocatoria;
+    }
 
-        PostulanteEvaluacionProjection p2 = mock(PostulanteEvaluacionProjection.class);
-        when(p2.getIdPostulacion()).thenReturn(102);
-        when(p2.getPromedioPonderado()).thenReturn(14.0);
-        when(p2.getValorEvalSocio()).thenReturn(16); // Integer
+    private EvaluacionCheckpoint crearCheckpoint(Integer idConvocatoria, int ultimoId, int filas, int calificados) {
+        return EvaluacionCheckpoint.builder()
+                .idConvocatoria(idConvocatoria)
+                .ultimoIdPostulacion(ultimoId)
+                .filasProcesadas(filas)
+                .calificados(calificados)
+                .completado(false)
+                .build();
+    }
 
-        List<PostulanteEvaluacionProjection> evaluaciones = Arrays.asList(p1, p2);
-        when(postulacionRepository.getDatosEvaluacion(idsPostulaciones)).thenReturn(evaluaciones);
+    // Simula un único lote que procesa todas las postulaciones y luego el fin del recorrido
+    private void mockLoteUnico(Integer idConvocatoria, String modo, int filas, int calificados) {
+        EvaluacionCheckpoint inicial = crearCheckpoint(idConvocatoria, 0, 0, 0);
+        EvaluacionCheckpoint procesado = crearCheckpoint(idConvocatoria, 100, filas, calificados);
+        when(evaluacionLoteService.iniciarCheckpoint(idConvocatoria)).thenReturn(inicial);
+        when(evaluacionLoteService.procesarLote(inicial, modo, 2)).thenReturn(procesado);
+        when(evaluacionLoteService.procesarLote(procesado, modo, 2)).thenReturn(procesado);
+    }
 
+    @Test
+    void evaluarPostulantes_CasoExitoso_ModoMixto() {
+        // Arrange
+        when(convocatoriaRepository.getUltimaConvocatoriaCerrada())
+                .thenReturn(Optional.of(crearConvocatoria(1, ModoEvaluacion.MIXTO)));
+        when(convocatoriaRepository.getCantidadPostulantes(1)).thenReturn(2);
+        mockLoteUnico(1, "MIXTO", 2, 2);
         when(postulacionRepository.actualizarPromedioGeneralPostulaciones(1)).thenReturn(2);
 
         // Act
-        int result = evaluacionPostulanteService.evaluarPostulantes();
+        EvaluacionResult result = evaluacionPostulanteService.evaluarPostulantes();
 
         // Assert
-        assertEquals(2, result);
-
-        // Verificación de cálculos
-        // P1: (18.0 + 20) / 2.0 = 19.0
-        verify(postulacionRepository).actualizarPromedioGeneral(eq(101), eq(19.0));
-
-        // P2: (14.0 + 16) / 2.0 = 15.0
-        verify(postulacionRepository).actualizarPromedioGeneral(eq(102), eq(15.0));
-
-        verify(postulacionRepository).actualizarPromedioGeneralPostulaciones(1);
+        assertEquals(1, result.getIdConvocatoria());
+        assertEquals(ModoEvaluacion.MIXTO, result.getModoEvaluacion());
+        assertEquals(2, result.getTotalPostulantes());
+        assertEquals(2, result.getCalificados());
+        assertEquals(0, result.getOmitidos());
+        assertEquals(2, result.getRankeados());
+        assertTrue(result.getTiempoCalculoMs() >= 0);
+        assertTrue(result.getTiempoRankingMs() >= 0);
+
+        // El cálculo set-based debe ejecutarse antes del ranking
+        assertEquals(1, result.getLotes());
+        assertEquals(0, result.getReanudadoDesde());
+        assertTrue(result.getFilasPorSegundo() >= 0);
+
+        // El ranking y el cierre del checkpoint se ejecutan tras el último lote
+        InOrder orden = inOrder(evaluacionLoteService, postulacionRepository, checkpointRepository);
+        orden.verify(evaluacionLoteService, times(2)).procesarLote(any(), eq("MIXTO"), eq(2));
+        orden.verify(postulacionRepository).actualizarPromedioGeneralPostulaciones(1);
+        orden.verify(checkpointRepository).marcarCompletado(1);
     }
 
     @Test
-    void evaluarPostulantes_CasoDatosNulos_ModoMixto() {
-        // 1. ARRANGE
-        Convocatoria convocatoria = new Convocatoria();
-        convocatoria.setId(2);
-        convocatoria.setModoEvaluacion(ModoEvaluacion.MIXTO);
-
-        when(convocatoriaRepository.getUltimaConvocatoriaCerrada()).thenReturn(Optional.of(convocatoria));
-
-        List<Integer> ids = Arrays.asList(201, 202);
-        when(postulacionRepository.findIdsByConvocatoria(2)).thenReturn(ids);
-
-        // Postulante 201: Datos nulos (Provocará el 'continue')
-        PostulanteEvaluacionProjection p1 = mock(PostulanteEvaluacionProjection.class);
-        when(p1.getIdPostulacion()).thenReturn(201);
-        when(p1.getPromedioPonderado()).thenReturn(null);
-
-        // Postulante 202: Datos completos
-        PostulanteEvaluacionProjection p2 = mock(PostulanteEvaluacionProjection.class);
-        when(p2.getIdPostulacion()).thenReturn(202);
-        when(p2.getPromedioPonderado()).thenReturn(16.0);
-        when(p2.getValorEvalSocio()).thenReturn(14);
-
-        when(postulacionRepository.getDatosEvaluacion(ids)).thenReturn(Arrays.asList(p1, p2));
-
-        // IMPORTANTE: Solo mockeamos esto si el flujo realmente llega al final del método.
-        // Como el postulante 202 es válido, el bucle NO se rompe y el método SÍ llega al return final.
-        when(postulacionRepository.actualizarPromedioGeneralPostulaciones(2)).thenReturn(1);
+    void evaluarPostulantes_CasoDatosNulos_ReportaOmitidos() {
+        // Arrange: 2 postulantes, solo 1 tiene datos completos para el modo mixto
+        when(convocatoriaRepository.getUltimaConvocatoriaCerrada())
+                .thenReturn(Optional.of(crearConvocatoria(2, ModoEvaluacion.MIXTO)));
+        when(convocatoriaRepository.getCantidadPostulantes(2)).thenReturn(2);
+        mockLoteUnico(2, "MIXTO", 2, 1);
+        when(postulacionRepository.actualizarPromedioGeneralPostulaciones(2)).thenReturn(2);
 
-        // 2. ACT
-        int result = evaluacionPostulanteService.evaluarPostulantes();
-
-        // 3. ASSERT
-        assertEquals(1, result);
-
-        // Verificamos que para el 201 NUNCA se llamó al update (por ser nulo)
-        verify(postulacionRepository, never()).actualizarPromedioGeneral(eq(201), anyDouble());
+        // Act
+        EvaluacionResult result = evaluacionPostulanteService.evaluarPostulantes();
 
-        // Verificamos que para el 202 SÍ se llamó con el cálculo correcto
-        verify(postulacionRepository, times(1)).actualizarPromedioGeneral(eq(202), eq(15.0));
+        // Assert
+        assertEquals(1, result.getCalificados());
+        assertEquals(1, result.getOmitidos());
+        assertEquals(2, result.getRankeados());
     }
 
     @Test
@@ -131,154 +141,146 @@ class EvaluacionPostulanteServiceTest {
         when(convocatoriaRepository.getUltimaConvocatoriaCerrada()).thenReturn(Optional.empty());
 
         // Act
-        int result = evaluacionPostulanteService.evaluarPostulantes();
+        EvaluacionResult result = evaluacionPostulanteService.evaluarPostulantes();
 
         // Assert
-        assertEquals(0, result);
-        verify(postulacionRepository, never()).findIdsByConvocatoria(anyInt());
-        verify(postulacionRepository, never()).getDatosEvaluacion(any());
+        assertNull(result.getIdConvocatoria());
+        assertEquals(0, result.getRankeados());
+        verify(convocatoriaRepository, never()).getCantidadPostulantes(anyInt());
+        verify(evaluacionLoteService, never()).iniciarCheckpoint(anyInt());
         verify(postulacionRepository, never()).actualizarPromedioGeneralPostulaciones(anyInt());
     }
 
     @Test
-    void evaluarPostulantes_ModoPromedioPonderado() {
+    void evaluarPostulantes_CasoSinPostulaciones() {
         // Arrange
-        Convocatoria convocatoria = new Convocatoria();
-        convocatoria.setId(3);
-        convocatoria.setModoEvaluacion(ModoEvaluacion.PROMEDIO_PONDERADO);
-
-        when(convocatoriaRepository.getUltimaConvocatoriaCerrada()).thenReturn(Optional.of(convocatoria));
-
-        List<Integer> ids = Collections.singletonList(301);
-        when(postulacionRepository.findIdsByConvocatoria(3)).thenReturn(ids);
-
-        PostulanteEvaluacionProjection p1 = mock(PostulanteEvaluacionProjection.class);
-        when(p1.getIdPostulacion()).thenReturn(301);
-        when(p1.getPromedioPonderado()).thenReturn(17.5);
-
-        when(postulacionRepository.getDatosEvaluacion(ids)).thenReturn(Collections.singletonList(p1));
-        when(postulacionRepository.actualizarPromedioGeneralPostulaciones(3)).thenReturn(1);
+        when(convocatoriaRepository.getUltimaConvocatoriaCerrada())
+                .thenReturn(Optional.of(crearConvocatoria(7, ModoEvaluacion.PROMEDIO_PONDERADO)));
+        when(convocatoriaRepository.getCantidadPostulantes(7)).thenReturn(0);
 
         // Act
-        int result = evaluacionPostulanteService.evaluarPostulantes();
+        EvaluacionResult result = evaluacionPostulanteService.evaluarPostulantes();
 
         // Assert
-        assertEquals(1, result);
-        verify(postulacionRepository).actualizarPromedioGeneral(eq(301), eq(17.5));
+        assertEquals(7, result.getIdConvocatoria());
+        assertEquals(0, result.getTotalPostulantes());
+        verify(checkpointRepository).marcarCompletado(7);
+        verify(evaluacionLoteService, never()).procesarLote(any(), any(), anyInt());
+        verify(postulacionRepository, never()).actualizarPromedioGeneralPostulaciones(anyInt());
     }
 
     @Test
-    void evaluarPostulantes_ModoSocioeconomico() {
+    void hayEvaluacionPendiente_DeberiaSerVerdadero_CuandoLaUltimaCerradaNoTieneCheckpointCompleto() {
         // Arrange
-        Convocatoria convocatoria = new Convocatoria();
-        convocatoria.setId(4);
-        convocatoria.setModoEvaluacion(ModoEvaluacion.SOCIOECONOMICO);
-
-        when(convocatoriaRepository.getUltimaConvocatoriaCerrada()).thenReturn(Optional.of(convocatoria));
-
-        List<Integer> ids = Collections.singletonList(401);
-        when(postulacionRepository.findIdsByConvocatoria(4)).thenReturn(ids);
+        when(convocatoriaRepository.getUltimaConvocatoriaCerrada())
+                .thenReturn(Optional.of(crearConvocatoria(4, ModoEvaluacion.MIXTO)));
+        when(checkpointRepository.findById(4)).thenReturn(Optional.of(EvaluacionCheckpoint.builder()
+                .idConvocatoria(4).ultimoIdPostulacion(20).filasProcesadas(20).calificados(20).completado(false)
+                .build()));
+
+        // Act & Assert
+        assertTrue(evaluacionPostulanteService.hayEvaluacionPendiente());
+    }
 
-        PostulanteEvaluacionProjection p1 = mock(PostulanteEvaluacionProjection.class);
-        when(p1.getIdPostulacion()).thenReturn(401);
-        when(p1.getValorEvalSocio()).thenReturn(20); // Integer
+    @Test
+    void hayEvaluacionPendiente_DeberiaSerFalso_CuandoElCheckpointEstaCompleto() {
+        // Arrange
+        when(convocatoriaRepository.getUltimaConvocatoriaCerrada())
+                .thenReturn(Optional.of(crearConvocatoria(4, ModoEvaluacion.MIXTO)));
+        when(checkpointRepository.findById(4)).thenReturn(Optional.of(EvaluacionCheckpoint.builder()
+                .idConvocatoria(4).ultimoIdPostulacion(20).filasProcesadas(20).calificados(20).completado(true)
+                .build()));
+
+        // Act & Assert
+        assertFalse(evaluacionPostulanteService.hayEvaluacionPendiente());
+    }
 
-        when(postulacionRepository.getDatosEvaluacion(ids)).thenReturn(Collections.singletonList(p1));
-        when(postulacionRepository.actualizarPromedioGeneralPostulaciones(4)).thenReturn(1);
+    @Test
+    void evaluarPostulantes_ModoPromedioPonderado() {
+        // Arrange
+        when(convocatoriaRepository.getUltimaConvocatoriaCerrada())
+                .thenReturn(Optional.of(crearConvocatoria(3, ModoEvaluacion.PROMEDIO_PONDERADO)));
+        when(convocatoriaRepository.getCantidadPostulantes(3)).thenReturn(1);
+        mockLoteUnico(3, "PROMEDIO_PONDERADO", 1, 1);
+        when(postulacionRepository.actualizarPromedioGeneralPostulaciones(3)).thenReturn(1);
 
         // Act
-        int result = evaluacionPostulanteService.evaluarPostulantes();
+        EvaluacionResult result = evaluacionPostulanteService.evaluarPostulantes();
 
         // Assert
-        assertEquals(1, result);
-        verify(postulacionRepository).actualizarPromedioGeneral(eq(401), eq(20.0)); // Verifica conversión a Double
+        assertEquals(1, result.getRankeados());
+        verify(evaluacionLoteService, times(2)).procesarLote(any(), eq("PROMEDIO_PONDERADO"), eq(2));
     }
 
     @Test
-    void evaluarPostulantes_DeberiaContinuar_CuandoUnUpdateFalla() {
+    void evaluarPostulantes_ModoSocioeconomico() {
         // Arrange
-        Convocatoria convocatoria = new Convocatoria();
-        convocatoria.setId(5);
-        convocatoria.setModoEvaluacion(ModoEvaluacion.PROMEDIO_PONDERADO);
-
-        when(convocatoriaRepository.getUltimaConvocatoriaCerrada()).thenReturn(Optional.of(convocatoria));
-
-        List<Integer> ids = Arrays.asList(501, 502);
-        when(postulacionRepository.findIdsByConvocatoria(5)).thenReturn(ids);
-
-        PostulanteEvaluacionProjection p1 = mock(PostulanteEvaluacionProjection.class);
-        when(p1.getIdPostulacion()).thenReturn(501);
-        when(p1.getPromedioPonderado()).thenReturn(15.0);
-
-        PostulanteEvaluacionProjection p2 = mock(PostulanteEvaluacionProjection.class);
-        when(p2.getIdPostulacion()).thenReturn(502);
-        when(p2.getPromedioPonderado()).thenReturn(18.0);
-
-        when(postulacionRepository.getDatosEvaluacion(ids)).thenReturn(Arrays.asList(p1, p2));
-
-        // Simular excepción en el primer update
-        doThrow(new RuntimeException("Error de BD")).when(postulacionRepository).actualizarPromedioGeneral(eq(501), anyDouble());
-        
-        when(postulacionRepository.actualizarPromedioGeneralPostulaciones(5)).thenReturn(1);
+        when(convocatoriaRepository.getUltimaConvocatoriaCerrada())
+                .thenReturn(Optional.of(crearConvocatoria(4, ModoEvaluacion.SOCIOECONOMICO)));
+        when(convocatoriaRepository.getCantidadPostulantes(4)).thenReturn(1);
+        mockLoteUnico(4, "SOCIOECONOMICO", 1, 0);
+        when(postulacionRepository.actualizarPromedioGeneralPostulaciones(4)).thenReturn(1);
 
         // Act
-        int result = evaluacionPostulanteService.evaluarPostulantes();
+        EvaluacionResult result = evaluacionPostulanteService.evaluarPostulantes();
 
         // Assert
-        assertEquals(1, result);
-        verify(postulacionRepository).actualizarPromedioGeneral(eq(501), eq(15.0)); // Se intentó llamar
-        verify(postulacionRepository).actualizarPromedioGeneral(eq(502), eq(18.0)); // Se llamó exitosamente al segundo
+        assertEquals(0, result.getCalificados());
+        assertEquals(1, result.getOmitidos());
+        verify(evaluacionLoteService, times(2)).procesarLote(any(), eq("SOCIOECONOMICO"), eq(2));
     }
 
     @Test
-    void evaluarPostulantes_CasoSocioeconomicoNulo() {
-        // Arrange
-        Convocatoria convocatoria = new Convocatoria();
-        convocatoria.setId(6);
-        convocatoria.setModoEvaluacion(ModoEvaluacion.SOCIOECONOMICO);
-
-        when(convocatoriaRepository.getUltimaConvocatoriaCerrada()).thenReturn(Optional.of(convocatoria));
-
-        List<Integer> ids = Collections.singletonList(601);
-        when(postulacionRepository.findIdsByConvocatoria(6)).thenReturn(ids);
-
-        PostulanteEvaluacionProjection p1 = mock(PostulanteEvaluacionProjection.class);
-        when(p1.getIdPostulacion()).thenReturn(601);
-        when(p1.getValorEvalSocio()).thenReturn(null); // Nulo
-
-        when(postulacionRepository.getDatosEvaluacion(ids)).thenReturn(Collections.singletonList(p1));
-        when(postulacionRepository.actualizarPromedioGeneralPostulaciones(6)).thenReturn(0);
+    void evaluarPostulantes_VariosLotes_AvanzaCheckpoint() {
+        // Arrange: 5 postulantes con lotes de 2 -> 3 lotes
+        when(convocatoriaRepository.getUltimaConvocatoriaCerrada())
+                .thenReturn(Optional.of(crearConvocatoria(5, ModoEvaluacion.MIXTO)));
+        when(convocatoriaRepository.getCantidadPostulantes(5)).thenReturn(5);
+
+        EvaluacionCheckpoint inicial = crearCheckpoint(5, 0, 0, 0);
+        EvaluacionCheckpoint lote1 = crearCheckpoint(5, 2, 2, 2);
+        EvaluacionCheckpoint lote2 = crearCheckpoint(5, 4, 4, 3);
+        EvaluacionCheckpoint lote3 = crearCheckpoint(5, 5, 5, 4);
+        when(evaluacionLoteService.iniciarCheckpoint(5)).thenReturn(inicial);
+        when(evaluacionLoteService.procesarLote(inicial, "MIXTO", 2)).thenReturn(lote1);
+        when(evaluacionLoteService.procesarLote(lote1, "MIXTO", 2)).thenReturn(lote2);
+        when(evaluacionLoteService.procesarLote(lote2, "MIXTO", 2)).thenReturn(lote3);
+        when(evaluacionLoteService.procesarLote(lote3, "MIXTO", 2)).thenReturn(lote3);
+        when(postulacionRepository.actualizarPromedioGeneralPostulaciones(5)).thenReturn(5);
 
         // Act
-        int result = evaluacionPostulanteService.evaluarPostulantes();
+        EvaluacionResult result = evaluacionPostulanteService.evaluarPostulantes();
 
         // Assert
-        assertEquals(0, result);
-        verify(postulacionRepository, never()).actualizarPromedioGeneral(eq(601), anyDouble());
+        assertEquals(3, result.getLotes());
+        assertEquals(2, result.getTamanioLote());
+        assertEquals(4, result.getCalificados());
+        assertEquals(1, result.getOmitidos());
+        verify(evaluacionLoteService, times(4)).procesarLote(any(), eq("MIXTO"), eq(2));
     }
 
     @Test
-    void evaluarPostulantes_ListaProyeccionesVacia() {
-        // Arrange
-        Convocatoria convocatoria = new Convocatoria();
-        convocatoria.setId(7);
-        convocatoria.setModoEvaluacion(ModoEvaluacion.PROMEDIO_PONDERADO);
-
-        when(convocatoriaRepository.getUltimaConvocatoriaCerrada()).thenReturn(Optional.of(convocatoria));
-
-        List<Integer> ids = Collections.singletonList(701);
-        when(postulacionRepository.findIdsByConvocatoria(7)).thenReturn(ids);
-
-        // Caso borde: hay IDs pero getDatosEvaluacion retorna vacío (inconsistencia de datos o filtro)
-        when(postulacionRepository.getDatosEvaluacion(ids)).thenReturn(Collections.emptyList());
-        
-        when(postulacionRepository.actualizarPromedioGeneralPostulaciones(7)).thenReturn(0);
+    void evaluarPostulantes_CheckpointPendiente_ReanudaDesdeUltimoLote() {
+        // Arrange: un intento previo del cron confirmó las postulaciones hasta el id 40
+        when(convocatoriaRepository.getUltimaConvocatoriaCerrada())
+                .thenReturn(Optional.of(crearConvocatoria(6, ModoEvaluacion.PROMEDIO_PONDERADO)));
+        when(convocatoriaRepository.getCantidadPostulantes(6)).thenReturn(4);
+
+        EvaluacionCheckpoint previo = crearCheckpoint(6, 40, 2, 2);
+        EvaluacionCheckpoint finalizado = crearCheckpoint(6, 45, 4, 4);
+        when(evaluacionLoteService.iniciarCheckpoint(6)).thenReturn(previo);
+        when(evaluacionLoteService.procesarLote(previo, "PROMEDIO_PONDERADO", 2)).thenReturn(finalizado);
+        when(evaluacionLoteService.procesarLote(finalizado, "PROMEDIO_PONDERADO", 2)).thenReturn(finalizado);
+        when(postulacionRepository.actualizarPromedioGeneralPostulaciones(6)).thenReturn(4);
 
         // Act
-        int result = evaluacionPostulanteService.evaluarPostulantes();
-
-        // Assert
-        assertEquals(0, result);
-        verify(postulacionRepository, never()).actualizarPromedioGeneral(anyInt(), anyDouble());
+        EvaluacionResult result = evaluacionPostulanteService.evaluarPostulantes();
+
+        // Assert: solo se procesa el lote restante, pero el total de calificados incluye el avance previo
+        assertEquals(40, result.getReanudadoDesde());
+        assertEquals(1, result.getLotes());
+        assertEquals(4, result.getCalificados());
+        assertEquals(0, result.getOmitidos());
+        verify(checkpointRepository).marcarCompletado(6);
     }
 }
@@ -1,6 +1,7 @@
 package pe.com.security.scholarship.service;
 
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -13,25 +14,34 @@ import pe.com.security.scholarship.domain.entity.Empleado;
 import pe.com.security.scholarship.domain.entity.Estudiante;
 import pe.com.security.scholarship.domain.entity.EvaluacionSocioeconomica;
 import pe.com.security.scholarship.domain.enums.NivelSocioeconomico;
+import pe.com.security.scholarship.domain.enums.TipoCarga;
 import pe.com.security.scholarship.dto.ProcesamientoResult;
 import pe.com.security.scholarship.dto.request.EvaluacionCsvRequest;
 import pe.com.security.scholarship.exception.BadRequestException;
 import pe.com.security.scholarship.exception.NotFoundException;
+import pe.com.security.scholarship.mapper.EvaluacionSocioeconomicaMapper;
 import pe.com.security.scholarship.repository.EmpleadoRepository;
 import pe.com.security.scholarship.repository.EstudianteRepository;
 import pe.com.security.scholarship.repository.EvaluacionSocioeconomicaRepository;
 import pe.com.security.scholarship.util.CargaMasivaHelper;
+import pe.com.security.scholarship.util.ProcesadorLote;
 import pe.com.security.scholarship.util.SecurityUtils;
+import pe.com.security.scholarship.util.UsuarioActualHelper;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.times;
@@ -44,15 +54,27 @@ class EvaluacionSocioeconomicaServiceTest {
     @Mock
     private CargaMasivaHelper cargaMasivaHelper;
     @Mock
+    private CargaProcesadaService cargaProcesadaService;
+    @Mock
     private EstudianteRepository estudianteRepository;
     @Mock
     private EmpleadoRepository empleadoRepository;
     @Mock
     private EvaluacionSocioeconomicaRepository evaluacionRepository;
 
+    @Mock
+    private UsuarioActualHelper usuarioActualHelper;
+
     @InjectMocks
     private EvaluacionSocioeconomicaService evaluacionService;
 
+    @BeforeEach
+    void setUp() {
+        // Archivo nunca procesado: el registro de cargas ejecuta la carga
+        lenient().when(cargaProcesadaService.procesarUnaVez(any(), any(), any(), anyBoolean(), any()))
+                .thenAnswer(inv -> inv.<Supplier<ProcesamientoResult>>getArgument(4).get());
+    }
+
     @AfterEach
     void tearDown() {
         // No static mocks to close here as we use try-with-resources
@@ -79,23 +101,24 @@ class EvaluacionSocioeconomicaServiceTest {
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
             
-            when(empleadoRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(empleado));
+            when(usuarioActualHelper.getEmpleado()).thenReturn(Optional.of(empleado));
             
-            // Simulamos que el helper ejecuta el consumer
-            when(cargaMasivaHelper.procesar(eq(file), eq(EvaluacionCsvRequest.class), any()))
+            // Simulamos que el helper prepara el lote y ejecuta la lógica de la fila
+            when(cargaMasivaHelper.procesarPorLotes(eq(file), eq(EvaluacionCsvRequest.class), any()))
                     .thenAnswer(invocation -> {
-                        Consumer<EvaluacionCsvRequest> consumer = invocation.getArgument(2);
-                        // Configuramos el mock del estudiante para cuando se ejecute el consumer
-                        when(estudianteRepository.findByCodigo("20201001")).thenReturn(Optional.of(estudiante));
-                        consumer.accept(fila);
+                        ProcesadorLote<EvaluacionCsvRequest> procesador = invocation.getArgument(2);
+                        // Configuramos el mock de los estudiantes del lote
+                        when(estudianteRepository.findByCodigoIn(Set.of("20201001"))).thenReturn(List.of(estudiante));
+                        procesador.preparar(List.of(fila)).accept(fila);
                         return expectedResult;
                     });
 
             // Act
-            ProcesamientoResult result = evaluacionService.procesarCargaMasiva(file);
+            ProcesamientoResult result = evaluacionService.procesarCargaMasiva(file, false);
 
             // Assert
             assertThat(result).isEqualTo(expectedResult);
+            verify(cargaProcesadaService).procesarUnaVez(eq(TipoCarga.EVALUACIONES), eq("GENERAL"), eq(file), eq(false), any());
             
             ArgumentCaptor<EvaluacionSocioeconomica> captor = ArgumentCaptor.forClass(EvaluacionSocioeconomica.class);
             verify(evaluacionRepository).save(captor.capture());
@@ -107,6 +130,47 @@ class EvaluacionSocioeconomicaServiceTest {
         }
     }
 
+    @Test
+    void testProcesarCargaMasiva_NoInsertaEvaluacionesYaRegistradas() {
+        // Arrange: carga previa interrumpida que ya guardó la evaluación BUENO del estudiante
+        MultipartFile file = mock(MultipartFile.class);
+        Empleado empleado = new Empleado();
+        Estudiante estudiante = new Estudiante();
+        estudiante.setId(UUID.randomUUID());
+        estudiante.setCodigoEstudiante("20201001");
+        LocalDate fecha = LocalDate.of(2024, 3, 1);
+
+        EvaluacionCsvRequest repetida = new EvaluacionCsvRequest();
+        repetida.setCodigo("20201001");
+        repetida.setNivel("BUENO");
+        repetida.setFechaEvaluacion(fecha);
+        EvaluacionCsvRequest nueva = new EvaluacionCsvRequest();
+        nueva.setCodigo("20201001");
+        nueva.setNivel("REGULAR");
+        nueva.setFechaEvaluacion(fecha);
+
+        when(usuarioActualHelper.getEmpleado()).thenReturn(Optional.of(empleado));
+        when(estudianteRepository.findByCodigoIn(Set.of("20201001"))).thenReturn(List.of(estudiante));
+        when(evaluacionRepository.findByEstudianteIdIn(List.of(estudiante.getId()))).thenReturn(List.of(
+                EvaluacionSocioeconomicaMapper.buildEvaluacionSocioeconomica(estudiante, fecha, NivelSocioeconomico.BUENO, empleado)));
+        when(cargaMasivaHelper.procesarPorLotes(eq(file), eq(EvaluacionCsvRequest.class), any()))
+                .thenAnswer(invocation -> {
+                    ProcesadorLote<EvaluacionCsvRequest> procesador = invocation.getArgument(2);
+                    Consumer<EvaluacionCsvRequest> logicaFila = procesador.preparar(List.of(repetida, nueva));
+                    logicaFila.accept(repetida);
+                    logicaFila.accept(nueva);
+                    return ProcesamientoResult.builder().total(2).exitos(2).build();
+                });
+
+        // Act
+        evaluacionService.procesarCargaMasiva(file, false);
+
+        // Assert: solo se inserta la evaluación que no estaba registrada
+        ArgumentCaptor<EvaluacionSocioeconomica> captor = ArgumentCaptor.forClass(EvaluacionSocioeconomica.class);
+        verify(evaluacionRepository).save(captor.capture());
+        assertThat(captor.getValue().getNivelSocioeconomico()).isEqualTo(NivelSocioeconomico.REGULAR);
+    }
+
     @Test
     void testProcesarCargaMasiva_EmpleadoNoEncontrado() {
         // Arrange
@@ -116,14 +180,14 @@ class EvaluacionSocioeconomicaServiceTest {
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
             
-            when(empleadoRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.empty());
+            when(usuarioActualHelper.getEmpleado()).thenReturn(Optional.empty());
 
             // Act & Assert
-            assertThatThrownBy(() -> evaluacionService.procesarCargaMasiva(file))
+            assertThatThrownBy(() -> evaluacionService.procesarCargaMasiva(file, false))
                     .isInstanceOf(NotFoundException.class)
                     .hasMessage("Empleado no encontrado");
             
-            verify(cargaMasivaHelper, times(0)).procesar(any(), any(), any());
+            verify(cargaMasivaHelper, times(0)).procesarPorLotes(any(), any(), any());
         }
     }
 
@@ -139,18 +203,18 @@ class EvaluacionSocioeconomicaServiceTest {
 
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
-            when(empleadoRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(empleado));
+            when(usuarioActualHelper.getEmpleado()).thenReturn(Optional.of(empleado));
 
-            // Capturamos el consumer para ejecutarlo manualmente y probar la lógica interna
-            when(cargaMasivaHelper.procesar(eq(file), eq(EvaluacionCsvRequest.class), any()))
+            // Capturamos el procesador para ejecutarlo manualmente y probar la lógica interna
+            when(cargaMasivaHelper.procesarPorLotes(eq(file), eq(EvaluacionCsvRequest.class), any()))
                     .thenAnswer(invocation -> {
-                        Consumer<EvaluacionCsvRequest> consumer = invocation.getArgument(2);
+                        ProcesadorLote<EvaluacionCsvRequest> procesador = invocation.getArgument(2);
                         
                         // Configuramos el mock para que falle al buscar estudiante
-                        when(estudianteRepository.findByCodigo("NO_EXISTE")).thenReturn(Optional.empty());
+                        when(estudianteRepository.findByCodigoIn(Set.of("NO_EXISTE"))).thenReturn(List.of());
                         
                         // Ejecutamos y verificamos la excepción
-                        assertThatThrownBy(() -> consumer.accept(fila))
+                        assertThatThrownBy(() -> procesador.preparar(List.of(fila)).accept(fila))
                                 .isInstanceOf(NotFoundException.class)
                                 .hasMessage("Estudiante no encontrado");
                         
@@ -158,7 +222,7 @@ class EvaluacionSocioeconomicaServiceTest {
                     });
 
             // Act
-            evaluacionService.procesarCargaMasiva(file);
+            evaluacionService.procesarCargaMasiva(file, false);
         }
     }
 
@@ -169,6 +233,7 @@ class EvaluacionSocioeconomicaServiceTest {
         MultipartFile file = mock(MultipartFile.class);
         Empleado empleado = new Empleado();
         Estudiante estudiante = new Estudiante();
+        estudiante.setCodigoEstudiante("20201001");
 
         EvaluacionCsvRequest fila = new EvaluacionCsvRequest();
         fila.setCodigo("20201001");
@@ -176,16 +241,16 @@ class EvaluacionSocioeconomicaServiceTest {
 
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
-            when(empleadoRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(empleado));
+            when(usuarioActualHelper.getEmpleado()).thenReturn(Optional.of(empleado));
 
-            when(cargaMasivaHelper.procesar(eq(file), eq(EvaluacionCsvRequest.class), any()))
+            when(cargaMasivaHelper.procesarPorLotes(eq(file), eq(EvaluacionCsvRequest.class), any()))
                     .thenAnswer(invocation -> {
-                        Consumer<EvaluacionCsvRequest> consumer = invocation.getArgument(2);
+                        ProcesadorLote<EvaluacionCsvRequest> procesador = invocation.getArgument(2);
                         
-                        when(estudianteRepository.findByCodigo("20201001")).thenReturn(Optional.of(estudiante));
+                        when(estudianteRepository.findByCodigoIn(Set.of("20201001"))).thenReturn(List.of(estudiante));
                         
                         // Ejecutamos y verificamos la excepción
-                        assertThatThrownBy(() -> consumer.accept(fila))
+                        assertThatThrownBy(() -> procesador.preparar(List.of(fila)).accept(fila))
                                 .isInstanceOf(BadRequestException.class)
                                 .hasMessage("Nivel socioeconómico 'PLATINO' no es válido");
                         
@@ -193,7 +258,7 @@ class EvaluacionSocioeconomicaServiceTest {
                     });
 
             // Act
-            evaluacionService.procesarCargaMasiva(file);
+            evaluacionService.procesarCargaMasiva(file, false);
         }
     }
 }
@@ -0,0 +1,194 @@
+package pe.com.security.scholarship.service;
+
+import com.sun.management.ThreadMXBean;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import pe.com.security.scholarship.config.TestSecurityConfig;
+import pe.com.security.scholarship.domain.enums.FormatoExportacion;
+import pe.com.security.scholarship.dto.response.PostulanteConvocatoriaResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Benchmark de la exportación de postulantes contra la descarga por páginas que hacían los gestores
+// (OFFSET + conteo por página), con 100 000 postulantes en un esquema aislado del PostgreSQL local:
+// PLAN_DB_URL=jdbc:postgresql://localhost:5432/becas mvn test -Dtest=ExportacionPostulantesBenchmarkTest -Dbenchmark=true
+// Reporta tiempo y bytes asignados en el hilo que consume; la exportación no retiene filas, así que la
+// memoria viva es la de una tanda del cursor sin importar el total
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestSecurityConfig.class)
+@EnabledIfEnvironmentVariable(named = "PLAN_DB_URL", matches = ".+")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ExportacionPostulantesBenchmarkTest {
+
+    private static final String SCHEMA = "exportacion_postulantes";
+    private static final Path INIT_DB = Path.of("..", "..", "database", "init-db");
+
+    private static final int POSTULANTES = 100_000;
+    private static final int TAMANIO_PAGINA = 200;
+    private static final Sort ORDEN = Sort.by(Sort.Direction.DESC, "fechaPostulacion");
+
+    @Autowired
+    private PostulacionService postulacionService;
+
+    @DynamicPropertySource
+    static void baseDeDatos(DynamicPropertyRegistry registry) throws SQLException, IOException {
+        crearEsquema();
+        String url = System.getenv("PLAN_DB_URL");
+        registry.add("spring.datasource.url", () -> url + (url.contains("?") ? "&" : "?") + "currentSchema=" + SCHEMA + ",public");
+        registry.add("spring.datasource.username", () -> System.getenv("PLAN_DB_USER"));
+        registry.add("spring.datasource.password", () -> System.getenv("PLAN_DB_PASSWORD"));
+        registry.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+
+    private static Connection conectar() throws SQLException {
+        return DriverManager.getConnection(System.getenv("PLAN_DB_URL"),
+                System.getenv("PLAN_DB_USER"), System.getenv("PLAN_DB_PASSWORD"));
+    }
+
+    private static void crearEsquema() throws SQLException, IOException {
+        try (Connection connection = conectar(); Statement st = connection.createStatement()) {
+            st.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            st.execute("CREATE SCHEMA " + SCHEMA);
+            st.execute("SET search_path TO " + SCHEMA + ", public");
+
+            st.execute(Files.readString(INIT_DB.resolve("script.sql")));
+            try (Stream<Path> migraciones = Files.list(INIT_DB)) {
+                for (Path migracion : migraciones.filter(p -> p.getFileName().toString().matches("v\\d+_.*\\.sql"))
+                        .sorted().toList()) {
+                    st.execute(Files.readString(migracion));
+                }
+            }
+
+            // Una convocatoria con postulantes repartidos en 60 días y promedios con nulos
+            st.execute("""
+                    INSERT INTO usuarios (id, nombres, apellidos, correo, provider)
+                    VALUES (CAST(md5('emp') AS uuid), 'Empleado', 'Test', 'empleado@test.pe', 'LOCAL');
+                    INSERT INTO empleados (id, id_usuario, codigo_empleado)
+                    VALUES (CAST(md5('emp') AS uuid), CAST(md5('emp') AS uuid), 'EMP00001');
+                    INSERT INTO carreras (nombre, codigo_facultad) VALUES ('Derecho', 'FAC1');
+                    INSERT INTO convocatorias (mes, fecha_inicio, fecha_fin, estado, cantidad_vacantes, modo_evaluacion, created_by)
+                    VALUES ('ENERO', CURRENT_DATE - 60, CURRENT_DATE, 'CERRADO', 100, 'MIXTO', CAST(md5('emp') AS uuid));
+
+                    INSERT INTO usuarios (id, nombres, apellidos, correo, provider)
+                    SELECT CAST(md5('u' || g) AS uuid), 'Nombre ' || g, 'Apellido ' || g, 'u' || g || '@test.pe', 'LOCAL'
+                    FROM generate_series(1, %d) g;
+                    INSERT INTO estudiantes (id, id_usuario, codigo_estudiante, id_carrera)
+                    SELECT CAST(md5('e' || g) AS uuid), CAST(md5('u' || g) AS uuid), 'E' || lpad(g::text, 8, '0'), 1
+                    FROM generate_series(1, %d) g;
+                    INSERT INTO postulaciones (id, id_estudiante, id_convocatoria, fecha_postulacion, promedio_general, aceptado)
+                    SELECT g, CAST(md5('e' || g) AS uuid), 1, CURRENT_DATE - (g %% 60),
+                           CASE WHEN g %% 10 = 0 THEN NULL ELSE 10 + (g %% 100) / 10.0 END, g %% 3 = 0
+                    FROM generate_series(1, %d) g;
+                    ANALYZE;
+                    """.formatted(POSTULANTES, POSTULANTES, POSTULANTES));
+        }
+    }
+
+    @AfterAll
+    static void eliminarEsquema() throws SQLException {
+        try (Connection connection = conectar(); Statement st = connection.createStatement()) {
+            st.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+    }
+
+    @Test
+    void benchmarkExportacionContraPaginas() {
+        // Calentamiento: compila consultas y clases de ambos caminos
+        paginar(5);
+        exportar(FormatoExportacion.CSV, new SalidaContada());
+
+        Medicion paginas = medir("Páginas de " + TAMANIO_PAGINA + " (OFFSET + conteo)", () -> paginar(Integer.MAX_VALUE));
+        SalidaContada csv = new SalidaContada();
+        Medicion exportacionCsv = medir("Exportación CSV", () -> exportar(FormatoExportacion.CSV, csv));
+        SalidaContada ndjson = new SalidaContada();
+        Medicion exportacionNdjson = medir("Exportación NDJSON", () -> exportar(FormatoExportacion.NDJSON, ndjson));
+
+        System.out.println("Bytes enviados: CSV " + csv.bytes + ", NDJSON " + ndjson.bytes);
+        assertThat(paginas.filas()).isEqualTo(POSTULANTES);
+        assertThat(exportacionCsv.filas()).isEqualTo(POSTULANTES);
+        assertThat(exportacionNdjson.filas()).isEqualTo(POSTULANTES);
+    }
+
+    private long paginar(int maxPaginas) {
+        long filas = 0;
+        Page<PostulanteConvocatoriaResponse> pagina;
+        int numero = 0;
+        do {
+            pagina = postulacionService.obtenerPostulantesConvocatoria(1, PageRequest.of(numero++, TAMANIO_PAGINA, ORDEN));
+            filas += pagina.getNumberOfElements();
+        } while (pagina.hasNext() && numero < maxPaginas);
+        return filas;
+    }
+
+    private long exportar(FormatoExportacion formato, SalidaContada salida) {
+        try {
+            postulacionService.exportarPostulantesConvocatoria(1, ORDEN, formato).writeTo(salida);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return formato == FormatoExportacion.CSV ? salida.lineas - 1 : salida.lineas;
+    }
+
+    private static Medicion medir(String nombre, LongSupplier tarea) {
+        ThreadMXBean hilos = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long asignadosAntes = hilos.getCurrentThreadAllocatedBytes();
+        long inicio = System.nanoTime();
+        long filas = tarea.getAsLong();
+        long ms = (System.nanoTime() - inicio) / 1_000_000;
+        long asignados = hilos.getCurrentThreadAllocatedBytes() - asignadosAntes;
+
+        System.out.println(nombre + ": " + filas + " filas en " + ms + " ms (" + filas * 1000L / Math.max(ms, 1)
+                + " filas/s), " + asignados / (1024 * 1024) + " MB asignados");
+        return new Medicion(filas, ms, asignados);
+    }
+
+    private record Medicion(long filas, long ms, long bytesAsignados) {}
+
+    // Descarta lo escrito; solo cuenta bytes y líneas, como un cliente que consume al ritmo del servidor
+    private static class SalidaContada extends OutputStream {
+        private long bytes;
+        private long lineas;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') lineas++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') lineas++;
+            }
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package pe.com.security.scholarship.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import pe.com.security.scholarship.config.TestSecurityConfig;
+import pe.com.security.scholarship.dto.request.SubmitMatriculaRequest;
+import pe.com.security.scholarship.dto.request.UpdateVacantesSeccionRequest;
+import pe.com.security.scholarship.exception.BadRequestException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Prueba de carga de la apertura de secciones: 1 000 intenciones de matrícula simultáneas (cada estudiante
+// envía varias) mientras un empleado amplía las vacantes de la misma sección.
+// Usa el mismo PostgreSQL local que PlanConsultasRepositoryTest, en un esquema aislado:
+// PLAN_DB_URL=jdbc:postgresql://localhost:5432/becas mvn test -Dtest=MatriculaConcurrenciaIntegrationTest
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestSecurityConfig.class)
+@EnabledIfEnvironmentVariable(named = "PLAN_DB_URL", matches = ".+")
+class MatriculaConcurrenciaIntegrationTest {
+
+    private static final String SCHEMA = "matricula_concurrencia";
+    private static final Path INIT_DB = Path.of("..", "..", "database", "init-db");
+
+    private static final int ESTUDIANTES = 250;
+    private static final int ENVIOS_POR_ESTUDIANTE = 4;
+    private static final int ID_SECCION = 1;
+    private static final UUID ID_USUARIO_EMPLEADO = UUID.nameUUIDFromBytes("empleado".getBytes());
+
+    @Autowired
+    private MatriculaService matriculaService;
+
+    @Autowired
+    private SeccionService seccionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void baseDeDatos(DynamicPropertyRegistry registry) throws SQLException, IOException {
+        crearEsquema();
+        String url = System.getenv("PLAN_DB_URL");
+        registry.add("spring.datasource.url", () -> url + (url.contains("?") ? "&" : "?") + "currentSchema=" + SCHEMA + ",public");
+        registry.add("spring.datasource.username", () -> System.getenv("PLAN_DB_USER"));
+        registry.add("spring.datasource.password", () -> System.getenv("PLAN_DB_PASSWORD"));
+        registry.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> "20");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+
+    private static Connection conectar() throws SQLException {
+        return DriverManager.getConnection(System.getenv("PLAN_DB_URL"),
+                System.getenv("PLAN_DB_USER"), System.getenv("PLAN_DB_PASSWORD"));
+    }
+
+    private static void crearEsquema() throws SQLException, IOException {
+        try (Connection connection = conectar(); Statement st = connection.createStatement()) {
+            st.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            st.execute("CREATE SCHEMA " + SCHEMA);
+            st.execute("SET search_path TO " + SCHEMA + ", public");
+
+            st.execute(Files.readString(INIT_DB.resolve("script.sql")));
+            try (Stream<Path> migraciones = Files.list(INIT_DB)) {
+                for (Path migracion : migraciones.filter(p -> p.getFileName().toString().matches("v\\d+_.*\\.sql"))
+                        .sorted().toList()) {
+                    st.execute(Files.readString(migracion));
+                }
+            }
+
+            // Un empleado, una sección futura sin vacantes definidas y estudiantes con beca vigente para su curso
+            st.execute("""
+                    INSERT INTO usuarios (id, nombres, apellidos, correo, provider)
+                    VALUES ('%s', 'Empleado', 'Test', 'empleado@test.pe', 'LOCAL');
+                    INSERT INTO empleados (id, id_usuario, codigo_empleado)
+                    VALUES (CAST(md5('emp') AS uuid), '%s', 'EMP00001');
+                    INSERT INTO carreras (nombre, codigo_facultad) VALUES ('Derecho', 'FAC1');
+                    INSERT INTO convocatorias (mes, fecha_inicio, fecha_fin, estado, cantidad_vacantes, modo_evaluacion, created_by)
+                    VALUES ('ENERO', CURRENT_DATE - 20, CURRENT_DATE - 5, 'CERRADO', %d, 'MIXTO', CAST(md5('emp') AS uuid));
+                    INSERT INTO cursos (nombre, codigo, modalidad) VALUES ('Java', 'JAV01', 'ONLINE');
+                    INSERT INTO secciones (id, fecha_inicio, id_curso) VALUES (%d, CURRENT_DATE + 10, 1);
+                    INSERT INTO horarios_seccion (id_seccion, dia_semana, hora_inicio, hora_fin)
+                    VALUES (%d, 'LUNES', '08:00', '10:00');
+
+                    INSERT INTO usuarios (id, nombres, apellidos, correo, provider)
+                    SELECT CAST(md5('u' || g) AS uuid), 'Nombre', 'Apellido', 'u' || g || '@test.pe', 'LOCAL'
+                    FROM generate_series(1, %d) g;
+                    INSERT INTO estudiantes (id, id_usuario, codigo_estudiante, id_carrera)
+                    SELECT CAST(md5('e' || g) AS uuid), CAST(md5('u' || g) AS uuid), 'E' || lpad(g::text, 8, '0'), 1
+                    FROM generate_series(1, %d) g;
+                    INSERT INTO postulaciones (id, id_estudiante, id_convocatoria, fecha_postulacion, promedio_general, aceptado)
+                    SELECT g, CAST(md5('e' || g) AS uuid), 1, CURRENT_DATE, 16, true
+                    FROM generate_series(1, %d) g;
+                    INSERT INTO cursos_postulacion (id_curso, id_postulacion)
+                    SELECT 1, g FROM generate_series(1, %d) g;
+                    """.formatted(ID_USUARIO_EMPLEADO, ID_USUARIO_EMPLEADO, ESTUDIANTES, ID_SECCION, ID_SECCION,
+                    ESTUDIANTES, ESTUDIANTES, ESTUDIANTES, ESTUDIANTES));
+        }
+    }
+
+    @AfterAll
+    static void eliminarEsquema() throws SQLException {
+        try (Connection connection = conectar(); Statement st = connection.createStatement()) {
+            st.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+    }
+
+    @Test
+    void intencionesSimultaneas_NoDuplicanNiSobrepasanLasVacantes() throws Exception {
+        // Arrange: cada estudiante envía su intención varias veces; el empleado amplía las vacantes en desorden
+        List<Runnable> tareas = new ArrayList<>();
+        AtomicInteger registradas = new AtomicInteger();
+        AtomicInteger duplicadas = new AtomicInteger();
+        Map<String, Integer> rechazosVacantes = new ConcurrentHashMap<>();
+        List<Throwable> inesperados = Collections.synchronizedList(new ArrayList<>());
+
+        for (int e = 1; e <= ESTUDIANTES; e++) {
+            UUID idUsuario = UUID.fromString(jdbcTemplate.queryForObject(
+                    "SELECT CAST(md5(?) AS uuid)::text", String.class, "u" + e));
+            for (int i = 0; i < ENVIOS_POR_ESTUDIANTE; i++) {
+                tareas.add(() -> {
+                    SubmitMatriculaRequest request = new SubmitMatriculaRequest();
+                    request.setIdSeccion(ID_SECCION);
+                    try {
+                        comoUsuario(idUsuario, () -> matriculaService.submitEnrollmentIntention(request));
+                        registradas.incrementAndGet();
+                    } catch (BadRequestException ex) {
+                        if (ex.getMessage().equals("Ya tienes una intención de matrícula pendiente")) duplicadas.incrementAndGet();
+                        else inesperados.add(ex);
+                    } catch (Throwable ex) {
+                        inesperados.add(ex);
+                    }
+                });
+            }
+        }
+        List<Integer> vacantes = new ArrayList<>(IntStream.rangeClosed(1, 10).map(i -> i * 20).boxed().toList());
+        Collections.shuffle(vacantes);
+        for (int i = 0; i < vacantes.size(); i++) {
+            int cantidad = vacantes.get(i);
+            // Intercaladas entre los envíos para que coincidan con intenciones en curso
+            tareas.add((i + 1) * tareas.size() / (vacantes.size() + 1), () -> {
+                UpdateVacantesSeccionRequest request = new UpdateVacantesSeccionRequest();
+                request.setIdSeccion(ID_SECCION);
+                request.setCantidadVacantes(cantidad);
+                try {
+                    comoUsuario(ID_USUARIO_EMPLEADO, () -> seccionService.updateVacantes(request));
+                } catch (BadRequestException ex) {
+                    rechazosVacantes.merge(ex.getMessage(), 1, Integer::sum);
+                } catch (Throwable ex) {
+                    inesperados.add(ex);
+                }
+            });
+        }
+
+        // Act
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<Object>> futuros = tareas.stream()
+                .map(tarea -> executor.submit(() -> {
+                    salida.await();
+                    tarea.run();
+                    return null;
+                }))
+                .toList();
+        salida.countDown();
+        for (Future<Object> futuro : futuros) futuro.get(2, TimeUnit.MINUTES);
+        executor.shutdown();
+
+        // Assert
+        assertThat(inesperados).as("Errores distintos a los rechazos esperados").isEmpty();
+        assertThat(rechazosVacantes.keySet())
+                .allMatch(mensaje -> mensaje.equals("La nueva cantidad de vacantes debe superar a las disponibles actualmente"));
+        assertThat(registradas.get()).isEqualTo(ESTUDIANTES);
+        assertThat(duplicadas.get()).isEqualTo(ESTUDIANTES * (ENVIOS_POR_ESTUDIANTE - 1));
+
+        Integer maxPorPostulacion = jdbcTemplate.queryForObject("""
+                SELECT max(c) FROM (
+                    SELECT count(*) AS c FROM matriculas WHERE estado <> 'RECHAZADO' GROUP BY id_postulacion
+                ) t""", Integer.class);
+        assertThat(maxPorPostulacion).isEqualTo(1);
+
+        Map<String, Object> seccion = jdbcTemplate.queryForMap(
+                "SELECT vacantes_disponibles, cupos_ocupados FROM secciones WHERE id = ?", ID_SECCION);
+        Integer aceptados = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM matriculas WHERE id_seccion = ? AND estado = 'ACEPTADO'", Integer.class, ID_SECCION);
+        assertThat(seccion.get("vacantes_disponibles")).isEqualTo(200);
+        assertThat(aceptados).isLessThanOrEqualTo(200);
+        // El contador mantenido coincide con el conteo real de matrículas aceptadas
+        assertThat(seccion.get("cupos_ocupados")).isEqualTo(aceptados);
+    }
+
+    private void comoUsuario(UUID idUsuario, Runnable accion) {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "none")
+                .claim("uid", idUsuario.toString())
+                .build();
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+        try {
+            accion.run();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -1,14 +1,18 @@
 package pe.com.security.scholarship.service;
 
+import com.sun.management.ThreadMXBean;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Limit;
 import org.springframework.mock.web.MockMultipartFile;
 import pe.com.security.scholarship.domain.entity.Curso;
@@ -18,8 +22,10 @@ import pe.com.security.scholarship.domain.entity.Matricula;
 import pe.com.security.scholarship.domain.entity.Postulacion;
 import pe.com.security.scholarship.domain.entity.Seccion;
 import pe.com.security.scholarship.domain.enums.EstadoMatricula;
+import pe.com.security.scholarship.domain.enums.TipoCarga;
 import pe.com.security.scholarship.dto.ProcesamientoResult;
 import pe.com.security.scholarship.dto.projection.BecadoIntencionProjection;
+import pe.com.security.scholarship.dto.projection.EstadoBecaProjection;
 import pe.com.security.scholarship.dto.projection.SeccionIntencionProjection;
 import pe.com.security.scholarship.dto.request.AprobarMatriculaRequest;
 import pe.com.security.scholarship.dto.request.NotaCsvRequest;
@@ -37,23 +43,33 @@ import pe.com.security.scholarship.repository.MatriculaRepository;
 import pe.com.security.scholarship.repository.PostulacionRepository;
 import pe.com.security.scholarship.repository.SeccionRepository;
 import pe.com.security.scholarship.util.CargaMasivaHelper;
+import pe.com.security.scholarship.util.ProcesadorLote;
 import pe.com.security.scholarship.util.SecurityUtils;
+import pe.com.security.scholarship.util.UsuarioActualHelper;
 
+import java.lang.management.ManagementFactory;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -77,9 +93,17 @@ class MatriculaServiceTest {
     private EmpleadoRepository empleadoRepository;
     @Mock
     private CargaMasivaHelper cargaMasivaHelper;
+    @Mock
+    private CargaProcesadaService cargaProcesadaService;
 
     @Captor
-    private ArgumentCaptor<Consumer<NotaCsvRequest>> consumerCaptor;
+    private ArgumentCaptor<ProcesadorLote<NotaCsvRequest>> procesadorCaptor;
+
+    @Mock
+    private EstadisticaConvocatoriaService estadisticaConvocatoriaService;
+
+    @Mock
+    private UsuarioActualHelper usuarioActualHelper;
 
     @InjectMocks
     private MatriculaService matriculaService;
@@ -126,10 +150,13 @@ class MatriculaServiceTest {
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
 
-            when(estudianteRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(estudiante));
-            when(postulacionService.tieneBecaActiva(idEstudiante)).thenReturn(true);
+            when(usuarioActualHelper.getEstudiante()).thenReturn(Optional.of(estudiante));
+            EstadoBecaProjection estadoBeca = mock(EstadoBecaProjection.class);
+            when(postulacionService.getEstadoBeca(idEstudiante)).thenReturn(estadoBeca);
+            when(postulacionService.tieneBecaActiva(estadoBeca)).thenReturn(true);
             when(matriculaRepository.existsIntencionMatricula(idEstudiante)).thenReturn(false);
-            when(postulacionRepository.findLastPostulacion(idEstudiante)).thenReturn(Optional.of(postulacion));
+            when(estadoBeca.getIdUltimaPostulacion()).thenReturn(idPostulacion);
+            when(postulacionRepository.getReferenceById(idPostulacion)).thenReturn(postulacion);
             when(cursoRepository.findByIdPostulacion(idPostulacion, LocalDate.now())).thenReturn(List.of(curso));
             when(seccionRepository.findById(idSeccion)).thenReturn(Optional.of(seccion));
             when(matriculaRepository.save(any(Matricula.class))).thenReturn(matriculaSaved);
@@ -156,8 +183,10 @@ class MatriculaServiceTest {
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
 
-            when(estudianteRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(estudiante));
-            when(postulacionService.tieneBecaActiva(idEstudiante)).thenReturn(false);
+            when(usuarioActualHelper.getEstudiante()).thenReturn(Optional.of(estudiante));
+            EstadoBecaProjection estadoBeca = mock(EstadoBecaProjection.class);
+            when(postulacionService.getEstadoBeca(idEstudiante)).thenReturn(estadoBeca);
+            when(postulacionService.tieneBecaActiva(estadoBeca)).thenReturn(false);
 
             // Act & Assert
             assertThatThrownBy(() -> matriculaService.submitEnrollmentIntention(request))
@@ -179,8 +208,10 @@ class MatriculaServiceTest {
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
 
-            when(estudianteRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(estudiante));
-            when(postulacionService.tieneBecaActiva(idEstudiante)).thenReturn(true);
+            when(usuarioActualHelper.getEstudiante()).thenReturn(Optional.of(estudiante));
+            EstadoBecaProjection estadoBeca = mock(EstadoBecaProjection.class);
+            when(postulacionService.getEstadoBeca(idEstudiante)).thenReturn(estadoBeca);
+            when(postulacionService.tieneBecaActiva(estadoBeca)).thenReturn(true);
             when(matriculaRepository.existsIntencionMatricula(idEstudiante)).thenReturn(true);
 
             // Act & Assert
@@ -190,6 +221,54 @@ class MatriculaServiceTest {
         }
     }
 
+    @Test
+    void submitEnrollmentIntention_ShouldThrowBadRequest_WhenConcurrentDuplicateHitsUniqueIndex() {
+        // Arrange
+        UUID idUsuario = UUID.randomUUID();
+        UUID idEstudiante = UUID.randomUUID();
+        Integer idSeccion = 1;
+        Integer idPostulacion = 100;
+
+        SubmitMatriculaRequest request = new SubmitMatriculaRequest();
+        request.setIdSeccion(idSeccion);
+
+        Estudiante estudiante = new Estudiante();
+        estudiante.setId(idEstudiante);
+
+        Postulacion postulacion = new Postulacion();
+        postulacion.setId(idPostulacion);
+
+        Curso curso = new Curso();
+        curso.setId(10);
+
+        Seccion seccion = new Seccion();
+        seccion.setId(idSeccion);
+        seccion.setCurso(curso);
+        seccion.setFechaInicio(LocalDate.now().plusDays(5));
+
+        try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
+            securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
+
+            // La verificación previa no ve la intención que otra solicitud aún no confirma
+            when(usuarioActualHelper.getEstudiante()).thenReturn(Optional.of(estudiante));
+            EstadoBecaProjection estadoBeca = mock(EstadoBecaProjection.class);
+            when(postulacionService.getEstadoBeca(idEstudiante)).thenReturn(estadoBeca);
+            when(postulacionService.tieneBecaActiva(estadoBeca)).thenReturn(true);
+            when(matriculaRepository.existsIntencionMatricula(idEstudiante)).thenReturn(false);
+            when(estadoBeca.getIdUltimaPostulacion()).thenReturn(idPostulacion);
+            when(postulacionRepository.getReferenceById(idPostulacion)).thenReturn(postulacion);
+            when(cursoRepository.findByIdPostulacion(idPostulacion, LocalDate.now())).thenReturn(List.of(curso));
+            when(seccionRepository.findById(idSeccion)).thenReturn(Optional.of(seccion));
+            when(matriculaRepository.save(any(Matricula.class)))
+                    .thenThrow(new DataIntegrityViolationException("uq_matriculas_pendiente_postulacion"));
+
+            // Act & Assert
+            assertThatThrownBy(() -> matriculaService.submitEnrollmentIntention(request))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessage("Ya tienes una intención de matrícula pendiente");
+        }
+    }
+
     @Test
     void submitEnrollmentIntention_ShouldThrowBadRequest_WhenSectionInvalidForCourse() {
         // Arrange
@@ -221,10 +300,13 @@ class MatriculaServiceTest {
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
 
-            when(estudianteRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(estudiante));
-            when(postulacionService.tieneBecaActiva(idEstudiante)).thenReturn(true);
+            when(usuarioActualHelper.getEstudiante()).thenReturn(Optional.of(estudiante));
+            EstadoBecaProjection estadoBeca = mock(EstadoBecaProjection.class);
+            when(postulacionService.getEstadoBeca(idEstudiante)).thenReturn(estadoBeca);
+            when(postulacionService.tieneBecaActiva(estadoBeca)).thenReturn(true);
             when(matriculaRepository.existsIntencionMatricula(idEstudiante)).thenReturn(false);
-            when(postulacionRepository.findLastPostulacion(idEstudiante)).thenReturn(Optional.of(postulacion));
+            when(estadoBeca.getIdUltimaPostulacion()).thenReturn(idPostulacion);
+            when(postulacionRepository.getReferenceById(idPostulacion)).thenReturn(postulacion);
             when(cursoRepository.findByIdPostulacion(idPostulacion, LocalDate.now())).thenReturn(List.of(cursoPostulacion));
             when(seccionRepository.findById(idSeccion)).thenReturn(Optional.of(seccion));
 
@@ -263,10 +345,13 @@ class MatriculaServiceTest {
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
 
-            when(estudianteRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(estudiante));
-            when(postulacionService.tieneBecaActiva(idEstudiante)).thenReturn(true);
+            when(usuarioActualHelper.getEstudiante()).thenReturn(Optional.of(estudiante));
+            EstadoBecaProjection estadoBeca = mock(EstadoBecaProjection.class);
+            when(postulacionService.getEstadoBeca(idEstudiante)).thenReturn(estadoBeca);
+            when(postulacionService.tieneBecaActiva(estadoBeca)).thenReturn(true);
             when(matriculaRepository.existsIntencionMatricula(idEstudiante)).thenReturn(false);
-            when(postulacionRepository.findLastPostulacion(idEstudiante)).thenReturn(Optional.of(postulacion));
+            when(estadoBeca.getIdUltimaPostulacion()).thenReturn(idPostulacion);
+            when(postulacionRepository.getReferenceById(idPostulacion)).thenReturn(postulacion);
             when(cursoRepository.findByIdPostulacion(idPostulacion, LocalDate.now())).thenReturn(List.of(curso));
             when(seccionRepository.findById(idSeccion)).thenReturn(Optional.of(seccion));
 
@@ -303,7 +388,7 @@ class MatriculaServiceTest {
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
 
-            when(estudianteRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(estudiante));
+            when(usuarioActualHelper.getEstudiante()).thenReturn(Optional.of(estudiante));
             // Actualización: ahora devuelve una lista
             when(matriculaRepository.findLastMatriculaByIdEstudiante(eq(idEstudiante), any(Limit.class)))
                     .thenReturn(List.of(matricula));
@@ -329,7 +414,7 @@ class MatriculaServiceTest {
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
 
-            when(estudianteRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(estudiante));
+            when(usuarioActualHelper.getEstudiante()).thenReturn(Optional.of(estudiante));
             // Actualización: ahora devuelve una lista vacía
             when(matriculaRepository.findLastMatriculaByIdEstudiante(eq(idEstudiante), any(Limit.class)))
                     .thenReturn(Collections.emptyList());
@@ -369,8 +454,9 @@ class MatriculaServiceTest {
             public Integer getTotalIntencionesPendientes() { return 8; }
         };
 
+        // La consulta devuelve las secciones ordenadas por fecha de inicio
         when(matriculaRepository.findIntencionesMatriculaSeccion())
-                .thenReturn(List.of(proj1, proj2, proj3));
+                .thenReturn(List.of(proj3, proj1, proj2));
 
         // Act
         List<CursoIntencionMatriculaResponse> result = matriculaService.getIntencionesMatriculaSeccion();
@@ -388,6 +474,7 @@ class MatriculaServiceTest {
                 .findFirst()
                 .orElseThrow();
         assertThat(cursoA.getSecciones()).hasSize(2); // 2 secciones para Curso A
+        assertThat(cursoA.getSecciones()).extracting(s -> s.getIdSeccion()).containsExactly(101, 102);
     }
 
     @Test
@@ -402,6 +489,40 @@ class MatriculaServiceTest {
         assertThat(result).isNotNull().isEmpty();
     }
 
+    // Benchmark: mvn test -Dtest=MatriculaServiceTest#benchmarkIntencionesMatriculaSeccion -Dbenchmark=true
+    // 200 cursos × 10 secciones en el orden de la consulta (fecha de inicio); mide solo la agrupación en memoria:
+    // bytes asignados y tiempo por petición en el hilo actual
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkIntencionesMatriculaSeccion() {
+        int cursos = 200;
+        int seccionesPorCurso = 10;
+        int peticiones = 20_000;
+        LocalDate hoy = LocalDate.now();
+        List<SeccionIntencionProjection> filas = new ArrayList<>();
+        for (int i = 0; i < cursos * seccionesPorCurso; i++) {
+            int idCurso = i % cursos;
+            filas.add(new FilaIntencion(i, hoy.plusDays(i / 10 + 1), idCurso, "Curso " + idCurso, "C" + idCurso, i % 7));
+        }
+        when(matriculaRepository.findIntencionesMatriculaSeccion()).thenReturn(filas);
+
+        // Calentamiento
+        for (int i = 0; i < peticiones; i++) matriculaService.getIntencionesMatriculaSeccion();
+
+        ThreadMXBean hilos = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long asignadosAntes = hilos.getCurrentThreadAllocatedBytes();
+        long inicio = System.nanoTime();
+        List<CursoIntencionMatriculaResponse> result = null;
+        for (int i = 0; i < peticiones; i++) result = matriculaService.getIntencionesMatriculaSeccion();
+        long nanos = System.nanoTime() - inicio;
+        long asignados = hilos.getCurrentThreadAllocatedBytes() - asignadosAntes;
+
+        System.out.println("Intenciones por sección (" + filas.size() + " filas): " + asignados / peticiones
+                + " bytes y " + nanos / peticiones / 1000 + " µs por petición");
+        assertThat(result).hasSize(cursos);
+        assertThat(result.getFirst().getSecciones()).hasSize(seccionesPorCurso);
+    }
+
     @Test
     void getBecadosSeccion_ShouldReturnResponse_WhenSectionExistsAndDataAvailable() {
         // Arrange
@@ -410,12 +531,12 @@ class MatriculaServiceTest {
         seccion.setId(idSeccion);
         seccion.setFechaInicio(LocalDate.now().plusDays(5));
         seccion.setVacantesDisponibles(20);
+        seccion.setCuposOcupados(5);
 
         BecadoIntencionProjection proj1 = new RealBecadoProjection(100, "Juan Perez", "S001", 18.5, EstadoMatricula.PENDIENTE);
         BecadoIntencionProjection proj2 = new RealBecadoProjection(101, "Maria Lopez", "S002", 19.0, EstadoMatricula.ACEPTADO);
 
         when(seccionRepository.findById(idSeccion)).thenReturn(Optional.of(seccion));
-        when(seccionRepository.getVacantesRestantes(idSeccion)).thenReturn(15);
         when(matriculaRepository.findBecadosIntencionMatricula(idSeccion)).thenReturn(List.of(proj1, proj2));
 
         // Act
@@ -449,9 +570,9 @@ class MatriculaServiceTest {
         Seccion seccion = new Seccion();
         seccion.setId(idSeccion);
         seccion.setVacantesDisponibles(20);
+        seccion.setCuposOcupados(0);
 
         when(seccionRepository.findById(idSeccion)).thenReturn(Optional.of(seccion));
-        when(seccionRepository.getVacantesRestantes(idSeccion)).thenReturn(20);
         when(matriculaRepository.findBecadosIntencionMatricula(idSeccion)).thenReturn(Collections.emptyList());
 
         // Act
@@ -475,23 +596,65 @@ class MatriculaServiceTest {
         Empleado empleado = new Empleado();
         empleado.setId(UUID.randomUUID());
 
+        Seccion seccion = new Seccion();
+        seccion.setId(10);
+
         Matricula matricula = new Matricula();
         matricula.setId(idMatricula);
         matricula.setEstado(EstadoMatricula.PENDIENTE);
+        matricula.setSeccion(seccion);
 
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
 
-            when(empleadoRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(empleado));
+            when(usuarioActualHelper.getEmpleado()).thenReturn(Optional.of(empleado));
+            when(matriculaRepository.findIdSeccion(idMatricula)).thenReturn(Optional.of(10));
             when(matriculaRepository.findById(idMatricula)).thenReturn(Optional.of(matricula));
+            when(seccionRepository.ocuparCupos(10, 1)).thenReturn(1);
 
             // Act
             matriculaService.actualizarEstadoMatricula(request);
 
             // Assert
+            InOrder inOrder = inOrder(seccionRepository, matriculaRepository);
+            inOrder.verify(seccionRepository).findByIdForUpdate(10);
+            inOrder.verify(matriculaRepository).findById(idMatricula);
             assertThat(matricula.getEstado()).isEqualTo(EstadoMatricula.ACEPTADO);
             assertThat(matricula.getFechaMatricula()).isNotNull();
             assertThat(matricula.getEmpleado()).isEqualTo(empleado);
+            verify(estadisticaConvocatoriaService).actualizarMatriculados(10);
+        }
+    }
+
+    @Test
+    void actualizarEstadoMatricula_ShouldThrowBadRequest_WhenSectionIsFull() {
+        // Arrange
+        UUID idUsuario = UUID.randomUUID();
+        Integer idMatricula = 1;
+        AprobarMatriculaRequest request = new AprobarMatriculaRequest();
+        request.setIdMatricula(idMatricula);
+        request.setAprobado(true);
+
+        Empleado empleado = new Empleado();
+        Matricula matricula = new Matricula();
+        matricula.setId(idMatricula);
+        matricula.setEstado(EstadoMatricula.PENDIENTE);
+
+        try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
+            securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
+
+            when(usuarioActualHelper.getEmpleado()).thenReturn(Optional.of(empleado));
+            when(matriculaRepository.findIdSeccion(idMatricula)).thenReturn(Optional.of(10));
+            when(matriculaRepository.findById(idMatricula)).thenReturn(Optional.of(matricula));
+            when(seccionRepository.ocuparCupos(10, 1)).thenReturn(0);
+
+            // Act & Assert
+            assertThatThrownBy(() -> matriculaService.actualizarEstadoMatricula(request))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessage("No hay vacantes disponibles en la sección");
+
+            assertThat(matricula.getEstado()).isEqualTo(EstadoMatricula.PENDIENTE);
+            verify(estadisticaConvocatoriaService, never()).actualizarMatriculados(any());
         }
     }
 
@@ -514,7 +677,8 @@ class MatriculaServiceTest {
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
 
-            when(empleadoRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(empleado));
+            when(usuarioActualHelper.getEmpleado()).thenReturn(Optional.of(empleado));
+            when(matriculaRepository.findIdSeccion(idMatricula)).thenReturn(Optional.of(10));
             when(matriculaRepository.findById(idMatricula)).thenReturn(Optional.of(matricula));
 
             // Act
@@ -544,7 +708,8 @@ class MatriculaServiceTest {
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
 
-            when(empleadoRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(empleado));
+            when(usuarioActualHelper.getEmpleado()).thenReturn(Optional.of(empleado));
+            when(matriculaRepository.findIdSeccion(idMatricula)).thenReturn(Optional.of(10));
             when(matriculaRepository.findById(idMatricula)).thenReturn(Optional.of(matricula));
 
             // Act & Assert
@@ -571,7 +736,8 @@ class MatriculaServiceTest {
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
 
-            when(empleadoRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(empleado));
+            when(usuarioActualHelper.getEmpleado()).thenReturn(Optional.of(empleado));
+            when(matriculaRepository.findIdSeccion(idMatricula)).thenReturn(Optional.of(10));
             when(matriculaRepository.findById(idMatricula)).thenReturn(Optional.of(matricula));
 
             // Act & Assert
@@ -590,7 +756,7 @@ class MatriculaServiceTest {
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
 
-            when(empleadoRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.empty());
+            when(usuarioActualHelper.getEmpleado()).thenReturn(Optional.empty());
 
             // Act & Assert
             assertThatThrownBy(() -> matriculaService.actualizarEstadoMatricula(request))
@@ -612,8 +778,8 @@ class MatriculaServiceTest {
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
 
-            when(empleadoRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(empleado));
-            when(matriculaRepository.findById(idMatricula)).thenReturn(Optional.empty());
+            when(usuarioActualHelper.getEmpleado()).thenReturn(Optional.of(empleado));
+            when(matriculaRepository.findIdSeccion(idMatricula)).thenReturn(Optional.empty());
 
             // Act & Assert
             assertThatThrownBy(() -> matriculaService.actualizarEstadoMatricula(request))
@@ -629,7 +795,7 @@ class MatriculaServiceTest {
 
         when(seccionRepository.findById(idSeccion)).thenReturn(Optional.empty());
 
-        assertThatThrownBy(() -> matriculaService.procesarCargaNotas(file, idSeccion))
+        assertThatThrownBy(() -> matriculaService.procesarCargaNotas(file, idSeccion, false))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessage("Sección no encontrada");
     }
@@ -645,7 +811,7 @@ class MatriculaServiceTest {
 
         when(seccionRepository.findById(idSeccion)).thenReturn(Optional.of(seccion));
 
-        assertThatThrownBy(() -> matriculaService.procesarCargaNotas(file, idSeccion))
+        assertThatThrownBy(() -> matriculaService.procesarCargaNotas(file, idSeccion, false))
                 .isInstanceOf(BadRequestException.class)
                 .hasMessage("No se pueden subir notas antes del inicio de la sección");
     }
@@ -662,99 +828,119 @@ class MatriculaServiceTest {
         when(seccionRepository.findById(idSeccion)).thenReturn(Optional.of(seccion));
 
         ProcesamientoResult expectedResult = ProcesamientoResult.builder().total(1).exitos(1).fallidos(0).errores(Collections.emptyList()).build();
-        when(cargaMasivaHelper.procesar(eq(file), eq(NotaCsvRequest.class), any())).thenReturn(expectedResult);
+        when(cargaMasivaHelper.procesarPorLotes(eq(file), eq(NotaCsvRequest.class), any())).thenReturn(expectedResult);
+        ejecutarCargasNuevas();
 
         // Act
-        ProcesamientoResult result = matriculaService.procesarCargaNotas(file, idSeccion);
+        ProcesamientoResult result = matriculaService.procesarCargaNotas(file, idSeccion, false);
 
         // Assert
         assertThat(result).isEqualTo(expectedResult);
+        verify(cargaProcesadaService).procesarUnaVez(eq(TipoCarga.NOTAS), eq("1"), eq(file), eq(false), any());
 
-        // Now capture the consumer to test the logic inside
-        verify(cargaMasivaHelper).procesar(eq(file), eq(NotaCsvRequest.class), consumerCaptor.capture());
-        Consumer<NotaCsvRequest> consumer = consumerCaptor.getValue();
+        // Now capture the batch logic to test it
+        verify(cargaMasivaHelper).procesarPorLotes(eq(file), eq(NotaCsvRequest.class), procesadorCaptor.capture());
 
         // Simulate a valid row
-        NotaCsvRequest validRow = mock(NotaCsvRequest.class);
-        when(validRow.getNota()).thenReturn(15.0);
-        when(validRow.getCodigo()).thenReturn("STU001");
-
-        when(matriculaRepository.actualizarNota("STU001", idSeccion, 15.0)).thenReturn(1);
+        NotaCsvRequest validRow = nota("STU001", 15.0);
+        when(matriculaRepository.actualizarNotas(idSeccion, Map.of("STU001", 15.0))).thenReturn(Set.of());
 
         // Execute logic
-        consumer.accept(validRow);
+        procesadorCaptor.getValue().preparar(List.of(validRow)).accept(validRow);
 
         // Verify repository call
-        verify(matriculaRepository).actualizarNota("STU001", idSeccion, 15.0);
+        verify(matriculaRepository).actualizarNotas(idSeccion, Map.of("STU001", 15.0));
     }
 
     @Test
-    void procesarCargaNotas_ShouldThrowBadRequest_WhenGradeInvalidHigh() {
+    void procesarCargaNotas_ShouldUpdateBatchOnce_WithValidGradesOnly() {
         Integer idSeccion = 1;
-        MockMultipartFile file = new MockMultipartFile("file", "notas.csv", "text/csv", "content".getBytes());
-        Seccion seccion = new Seccion();
-        seccion.setId(idSeccion);
-        seccion.setFechaInicio(LocalDate.now().minusDays(1));
-        when(seccionRepository.findById(idSeccion)).thenReturn(Optional.of(seccion));
-
-        matriculaService.procesarCargaNotas(file, idSeccion);
+        NotaCsvRequest primera = nota("STU001", 12.0);
+        NotaCsvRequest invalida = nota("STU002", 21.0);
+        NotaCsvRequest repetida = nota("STU001", 14.0);
+        NotaCsvRequest otra = nota("STU003", 18.0);
+        List<NotaCsvRequest> lote = List.of(primera, invalida, repetida, otra);
+
+        Map<String, Double> esperadas = new LinkedHashMap<>();
+        esperadas.put("STU001", 14.0); // Prevalece la última nota del código
+        esperadas.put("STU003", 18.0);
+        when(matriculaRepository.actualizarNotas(idSeccion, esperadas)).thenReturn(Set.of("STU003"));
+
+        Consumer<NotaCsvRequest> logicaFila = capturarProcesador(idSeccion).preparar(lote);
+
+        logicaFila.accept(primera);
+        logicaFila.accept(repetida);
+        assertThatThrownBy(() -> logicaFila.accept(invalida))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("La nota debe estar entre 0 y 20");
+        assertThatThrownBy(() -> logicaFila.accept(otra))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("El estudiante STU003 no pertenece a esta sección");
+        verify(matriculaRepository, times(1)).actualizarNotas(any(), any());
+    }
 
-        verify(cargaMasivaHelper).procesar(eq(file), eq(NotaCsvRequest.class), consumerCaptor.capture());
-        Consumer<NotaCsvRequest> consumer = consumerCaptor.getValue();
+    @Test
+    void procesarCargaNotas_ShouldThrowBadRequest_WhenGradeInvalidHigh() {
+        NotaCsvRequest invalidRow = nota("STU001", 25.0);
 
-        NotaCsvRequest invalidRow = mock(NotaCsvRequest.class);
-        when(invalidRow.getNota()).thenReturn(25.0);
+        Consumer<NotaCsvRequest> logicaFila = capturarProcesador(1).preparar(List.of(invalidRow));
 
-        assertThatThrownBy(() -> consumer.accept(invalidRow))
+        assertThatThrownBy(() -> logicaFila.accept(invalidRow))
                 .isInstanceOf(BadRequestException.class)
                 .hasMessage("La nota debe estar entre 0 y 20");
+        verify(matriculaRepository, never()).actualizarNotas(any(), any());
     }
 
     @Test
     void procesarCargaNotas_ShouldThrowBadRequest_WhenGradeInvalidLow() {
-        Integer idSeccion = 1;
-        MockMultipartFile file = new MockMultipartFile("file", "notas.csv", "text/csv", "content".getBytes());
-        Seccion seccion = new Seccion();
-        seccion.setId(idSeccion);
-        seccion.setFechaInicio(LocalDate.now().minusDays(1));
-        when(seccionRepository.findById(idSeccion)).thenReturn(Optional.of(seccion));
-
-        matriculaService.procesarCargaNotas(file, idSeccion);
-
-        verify(cargaMasivaHelper).procesar(eq(file), eq(NotaCsvRequest.class), consumerCaptor.capture());
-        Consumer<NotaCsvRequest> consumer = consumerCaptor.getValue();
+        NotaCsvRequest invalidRow = nota("STU001", -5.0);
 
-        NotaCsvRequest invalidRow = mock(NotaCsvRequest.class);
-        when(invalidRow.getNota()).thenReturn(-5.0);
+        Consumer<NotaCsvRequest> logicaFila = capturarProcesador(1).preparar(List.of(invalidRow));
 
-        assertThatThrownBy(() -> consumer.accept(invalidRow))
+        assertThatThrownBy(() -> logicaFila.accept(invalidRow))
                 .isInstanceOf(BadRequestException.class)
                 .hasMessage("La nota debe estar entre 0 y 20");
+        verify(matriculaRepository, never()).actualizarNotas(any(), any());
     }
 
     @Test
     void procesarCargaNotas_ShouldThrowBadRequest_WhenStudentNotEnrolled() {
         Integer idSeccion = 1;
+        NotaCsvRequest row = nota("STU001", 15.0);
+        when(matriculaRepository.actualizarNotas(idSeccion, Map.of("STU001", 15.0))).thenReturn(Set.of("STU001"));
+
+        Consumer<NotaCsvRequest> logicaFila = capturarProcesador(idSeccion).preparar(List.of(row));
+
+        assertThatThrownBy(() -> logicaFila.accept(row))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("El estudiante STU001 no pertenece a esta sección");
+    }
+
+    private NotaCsvRequest nota(String codigo, Double valor) {
+        NotaCsvRequest fila = new NotaCsvRequest();
+        fila.setCodigo(codigo);
+        fila.setNota(valor);
+        return fila;
+    }
+
+    private ProcesadorLote<NotaCsvRequest> capturarProcesador(Integer idSeccion) {
         MockMultipartFile file = new MockMultipartFile("file", "notas.csv", "text/csv", "content".getBytes());
         Seccion seccion = new Seccion();
         seccion.setId(idSeccion);
         seccion.setFechaInicio(LocalDate.now().minusDays(1));
         when(seccionRepository.findById(idSeccion)).thenReturn(Optional.of(seccion));
+        ejecutarCargasNuevas();
 
-        matriculaService.procesarCargaNotas(file, idSeccion);
+        matriculaService.procesarCargaNotas(file, idSeccion, false);
 
-        verify(cargaMasivaHelper).procesar(eq(file), eq(NotaCsvRequest.class), consumerCaptor.capture());
-        Consumer<NotaCsvRequest> consumer = consumerCaptor.getValue();
-
-        NotaCsvRequest row = mock(NotaCsvRequest.class);
-        when(row.getNota()).thenReturn(15.0);
-        when(row.getCodigo()).thenReturn("STU001");
-
-        when(matriculaRepository.actualizarNota("STU001", idSeccion, 15.0)).thenReturn(0);
+        verify(cargaMasivaHelper).procesarPorLotes(eq(file), eq(NotaCsvRequest.class), procesadorCaptor.capture());
+        return procesadorCaptor.getValue();
+    }
 
-        assertThatThrownBy(() -> consumer.accept(row))
-                .isInstanceOf(BadRequestException.class)
-                .hasMessage("El estudiante STU001 no pertenece a esta sección");
+    // Archivo nunca procesado: el registro de cargas ejecuta la carga
+    private void ejecutarCargasNuevas() {
+        when(cargaProcesadaService.procesarUnaVez(any(), any(), any(), anyBoolean(), any()))
+                .thenAnswer(inv -> inv.<Supplier<ProcesamientoResult>>getArgument(4).get());
     }
 
     static class RealBecadoProjection implements BecadoIntencionProjection {
@@ -787,4 +973,25 @@ class MatriculaServiceTest {
         @Override
         public EstadoMatricula getEstadoMatricula() { return estadoMatricula; }
     }
+
+    record FilaIntencion(Integer idSeccion, LocalDate fechaInicio, Integer idCurso, String nombreCurso,
+                         String codigoCurso, Integer totalIntencionesPendientes) implements SeccionIntencionProjection {
+        @Override
+        public Integer getIdSeccion() { return idSeccion; }
+
+        @Override
+        public LocalDate getFechaInicio() { return fechaInicio; }
+
+        @Override
+        public Integer getIdCurso() { return idCurso; }
+
+        @Override
+        public String getNombreCurso() { return nombreCurso; }
+
+        @Override
+        public String getCodigoCurso() { return codigoCurso; }
+
+        @Override
+        public Integer getTotalIntencionesPendientes() { return totalIntencionesPendientes; }
+    }
 }
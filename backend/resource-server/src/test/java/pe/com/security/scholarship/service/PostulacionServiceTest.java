@@ -8,27 +8,34 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.quality.Strictness;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import pe.com.security.scholarship.domain.entity.Convocatoria;
 import pe.com.security.scholarship.domain.entity.Curso;
 import pe.com.security.scholarship.domain.entity.Estudiante;
-import pe.com.security.scholarship.domain.entity.Matricula;
 import pe.com.security.scholarship.domain.entity.Postulacion;
-import pe.com.security.scholarship.domain.entity.Seccion;
 import pe.com.security.scholarship.domain.enums.EstadoConvocatoria;
 import pe.com.security.scholarship.domain.enums.EstadoMatricula;
+import pe.com.security.scholarship.domain.enums.FormatoExportacion;
 import pe.com.security.scholarship.domain.enums.Mes;
 import pe.com.security.scholarship.domain.enums.ModalidadCurso;
+import pe.com.security.scholarship.dto.CursorPostulante;
+import pe.com.security.scholarship.dto.projection.CursoOpcionProjection;
+import pe.com.security.scholarship.dto.projection.EstadoBecaProjection;
+import pe.com.security.scholarship.dto.projection.HistorialPostulacionProjection;
 import pe.com.security.scholarship.dto.projection.IdentificacionEstudianteProjection;
 import pe.com.security.scholarship.dto.projection.PostulanteConvocatoriaProjection;
+import pe.com.security.scholarship.dto.projection.ResultadoPostulacionProjection;
 import pe.com.security.scholarship.dto.request.RegisterPostulacionRequest;
 import pe.com.security.scholarship.dto.response.ConsultaPostulacionResponse;
 import pe.com.security.scholarship.dto.response.DetallePostulanteResponse;
 import pe.com.security.scholarship.dto.response.HistorialPostulacionResponse;
+import pe.com.security.scholarship.dto.response.PaginaCursorResponse;
 import pe.com.security.scholarship.dto.response.PostulanteConvocatoriaResponse;
 import pe.com.security.scholarship.dto.response.RegisteredPostulacionResponse;
 import pe.com.security.scholarship.dto.response.ResultadoPostulacionResponse;
@@ -37,10 +44,14 @@ import pe.com.security.scholarship.exception.NotFoundException;
 import pe.com.security.scholarship.repository.ConvocatoriaRepository;
 import pe.com.security.scholarship.repository.CursoRepository;
 import pe.com.security.scholarship.repository.EstudianteRepository;
-import pe.com.security.scholarship.repository.MatriculaRepository;
 import pe.com.security.scholarship.repository.PostulacionRepository;
+import pe.com.security.scholarship.util.CursorPaginacion;
+import pe.com.security.scholarship.util.ExportacionPostulantesHelper;
 import pe.com.security.scholarship.util.SecurityUtils;
+import pe.com.security.scholarship.util.UsuarioActualHelper;
 
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
@@ -54,10 +65,12 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
 @ExtendWith(MockitoExtension.class)
 class PostulacionServiceTest {
@@ -70,8 +83,15 @@ class PostulacionServiceTest {
     private EstudianteRepository estudianteRepository;
     @Mock
     private CursoRepository cursoRepository;
+
+    @Mock
+    private EstadisticaConvocatoriaService estadisticaConvocatoriaService;
+
     @Mock
-    private MatriculaRepository matriculaRepository;
+    private UsuarioActualHelper usuarioActualHelper;
+
+    @Mock
+    private ExportacionPostulantesHelper exportacionPostulantesHelper;
 
     @InjectMocks
     private PostulacionService postulacionService;
@@ -81,6 +101,21 @@ class PostulacionServiceTest {
         // No static mocks to close here as we use try-with-resources
     }
 
+    private EstadoBecaProjection estadoBeca(int cantidadBecas, Integer idUltimaPostulacion, boolean matriculado,
+                                            int mesesTranscurridos, double notaUltimaMatricula) {
+        return new EstadoBecaProjection() {
+            @Override public Integer getCantidadBecas() { return cantidadBecas; }
+            @Override public Integer getIdUltimaPostulacion() { return idUltimaPostulacion; }
+            @Override public Boolean getMatriculado() { return matriculado; }
+            @Override public Integer getMesesTranscurridos() { return mesesTranscurridos; }
+            @Override public Double getNotaUltimaMatricula() { return notaUltimaMatricula; }
+        };
+    }
+
+    private EstadoBecaProjection sinBecas() {
+        return estadoBeca(0, null, false, 0, 0.0);
+    }
+
     @Test
     void registerPostulacion_ShouldSucceed_WhenFirstScholarshipOfYear() {
         // Arrange
@@ -107,11 +142,11 @@ class PostulacionServiceTest {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
 
             when(convocatoriaRepository.findById(idConvocatoria)).thenReturn(Optional.of(convocatoria));
-            when(estudianteRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(estudiante));
+            when(usuarioActualHelper.getEstudiante()).thenReturn(Optional.of(estudiante));
             when(postulacionRepository.existsByEstudianteIdAndConvocatoriaId(idEstudiante, idConvocatoria)).thenReturn(false);
             
             // Primera beca del año
-            when(postulacionRepository.cantidadBecasByYear(idEstudiante)).thenReturn(0);
+            when(postulacionRepository.getEstadoBeca(idEstudiante)).thenReturn(sinBecas());
             
             when(cursoRepository.findAllById(idsCursos)).thenReturn(cursos);
             when(postulacionRepository.save(any(Postulacion.class))).thenAnswer(invocation -> invocation.getArgument(0));
@@ -122,8 +157,8 @@ class PostulacionServiceTest {
             // Assert
             assertThat(response).isNotNull();
             verify(postulacionRepository, times(1)).save(any(Postulacion.class));
-            // Verify validations were skipped
-            verify(matriculaRepository, times(0)).notaUltimaMatricula(any());
+            // Una sola consulta para todo el estado de becas
+            verify(postulacionRepository, times(1)).getEstadoBeca(idEstudiante);
         }
     }
 
@@ -149,15 +184,12 @@ class PostulacionServiceTest {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
 
             when(convocatoriaRepository.findById(idConvocatoria)).thenReturn(Optional.of(convocatoria));
-            when(estudianteRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(estudiante));
+            when(usuarioActualHelper.getEstudiante()).thenReturn(Optional.of(estudiante));
             when(postulacionRepository.existsByEstudianteIdAndConvocatoriaId(idEstudiante, idConvocatoria)).thenReturn(false);
             
-            // Tiene becas previas
-            when(postulacionRepository.cantidadBecasByYear(idEstudiante)).thenReturn(3);
-            
-            // Mock tieneBecaActiva -> false (para llegar a la validación de límite)
-            when(postulacionRepository.findLastPostulacion(idEstudiante)).thenReturn(Optional.of(lastPostulacion));
-            when(matriculaRepository.seMatriculo(lastPostulacion.getId())).thenReturn(true); // Ya se matriculó, no tiene beca vigente por tiempo
+            // Tiene becas previas y ya se matriculó en la última (no tiene beca vigente, llega a la validación de límite)
+            when(postulacionRepository.getEstadoBeca(idEstudiante))
+                    .thenReturn(estadoBeca(3, lastPostulacion.getId(), true, 1, 18.0));
 
             // Act & Assert
             assertThatThrownBy(() -> postulacionService.registerPostulacion(request))
@@ -188,18 +220,12 @@ class PostulacionServiceTest {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
 
             when(convocatoriaRepository.findById(idConvocatoria)).thenReturn(Optional.of(convocatoria));
-            when(estudianteRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(estudiante));
+            when(usuarioActualHelper.getEstudiante()).thenReturn(Optional.of(estudiante));
             when(postulacionRepository.existsByEstudianteIdAndConvocatoriaId(idEstudiante, idConvocatoria)).thenReturn(false);
             
-            // Tiene 1 beca previa
-            when(postulacionRepository.cantidadBecasByYear(idEstudiante)).thenReturn(1);
-            
-            // Mock tieneBecaActiva -> false
-            when(postulacionRepository.findLastPostulacion(idEstudiante)).thenReturn(Optional.of(lastPostulacion));
-            when(matriculaRepository.seMatriculo(lastPostulacion.getId())).thenReturn(true);
-
-            // Nota menor a 15
-            when(matriculaRepository.notaUltimaMatricula(idEstudiante)).thenReturn(14.0);
+            // Tiene 1 beca previa, ya se matriculó (tieneBecaActiva -> false) y su nota es menor a 15
+            when(postulacionRepository.getEstadoBeca(idEstudiante))
+                    .thenReturn(estadoBeca(1, lastPostulacion.getId(), true, 1, 14.0));
 
             // Act & Assert
             assertThatThrownBy(() -> postulacionService.registerPostulacion(request))
@@ -231,14 +257,11 @@ class PostulacionServiceTest {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
 
             when(convocatoriaRepository.findById(idConvocatoria)).thenReturn(Optional.of(convocatoria));
-            when(estudianteRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(estudiante));
+            when(usuarioActualHelper.getEstudiante()).thenReturn(Optional.of(estudiante));
             when(postulacionRepository.existsByEstudianteIdAndConvocatoriaId(idEstudiante, idConvocatoria)).thenReturn(false);
-            when(postulacionRepository.cantidadBecasByYear(idEstudiante)).thenReturn(1);
-
-            // Lógica tieneBecaActiva
-            when(postulacionRepository.findLastPostulacion(idEstudiante)).thenReturn(Optional.of(lastPostulacion));
-            when(matriculaRepository.seMatriculo(lastPostulacion.getId())).thenReturn(false); // No se matriculó
-            when(postulacionRepository.cantidadMesesBeca(idEstudiante)).thenReturn(2); // Menos de 3 meses
+            // Lógica tieneBecaActiva: no se matriculó y han pasado menos de 3 meses
+            when(postulacionRepository.getEstadoBeca(idEstudiante))
+                    .thenReturn(estadoBeca(1, lastPostulacion.getId(), false, 2, 0.0));
 
             // Act & Assert
             assertThatThrownBy(() -> postulacionService.registerPostulacion(request))
@@ -274,16 +297,11 @@ class PostulacionServiceTest {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
 
             when(convocatoriaRepository.findById(idConvocatoria)).thenReturn(Optional.of(convocatoria));
-            when(estudianteRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(estudiante));
+            when(usuarioActualHelper.getEstudiante()).thenReturn(Optional.of(estudiante));
             when(postulacionRepository.existsByEstudianteIdAndConvocatoriaId(idEstudiante, idConvocatoria)).thenReturn(false);
-            when(postulacionRepository.cantidadBecasByYear(idEstudiante)).thenReturn(1);
-
-            // Lógica tieneBecaActiva -> false porque ya se matriculó
-            when(postulacionRepository.findLastPostulacion(idEstudiante)).thenReturn(Optional.of(lastPostulacion));
-            when(matriculaRepository.seMatriculo(lastPostulacion.getId())).thenReturn(true); 
-            
-            // Nota aprobatoria
-            when(matriculaRepository.notaUltimaMatricula(idEstudiante)).thenReturn(16.0);
+            // Lógica tieneBecaActiva -> false porque ya se matriculó, con nota aprobatoria
+            when(postulacionRepository.getEstadoBeca(idEstudiante))
+                    .thenReturn(estadoBeca(1, lastPostulacion.getId(), true, 2, 16.0));
             
             when(cursoRepository.findAllById(idsCursos)).thenReturn(List.of(curso));
             when(postulacionRepository.save(any(Postulacion.class))).thenAnswer(i -> i.getArgument(0));
@@ -297,6 +315,20 @@ class PostulacionServiceTest {
         }
     }
 
+    @Test
+    void tieneBecaActiva_ShouldDependOnEnrollmentAndMonthsElapsed() {
+        assertThat(postulacionService.tieneBecaActiva(estadoBeca(1, 100, false, 3, 0.0))).isTrue();
+        assertThat(postulacionService.tieneBecaActiva(estadoBeca(1, 100, false, 4, 0.0))).isFalse();
+        assertThat(postulacionService.tieneBecaActiva(estadoBeca(1, 100, true, 0, 0.0))).isFalse();
+    }
+
+    @Test
+    void tieneBecaActiva_ShouldThrowNotFound_WhenNoScholarshipThisYear() {
+        assertThatThrownBy(() -> postulacionService.tieneBecaActiva(sinBecas()))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessage("No se encontró beca para el presente año");
+    }
+
     @Test
     void registerPostulacion_ShouldThrowNotFound_WhenConvocatoriaDoesNotExist() {
         // Arrange
@@ -324,7 +356,7 @@ class PostulacionServiceTest {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
             
             when(convocatoriaRepository.findById(1)).thenReturn(Optional.of(convocatoria));
-            when(estudianteRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.empty());
+            when(usuarioActualHelper.getEstudiante()).thenReturn(Optional.empty());
 
             // Act & Assert
             assertThatThrownBy(() -> postulacionService.registerPostulacion(request))
@@ -358,9 +390,9 @@ class PostulacionServiceTest {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
 
             when(convocatoriaRepository.findById(idConvocatoria)).thenReturn(Optional.of(convocatoria));
-            when(estudianteRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(estudiante));
+            when(usuarioActualHelper.getEstudiante()).thenReturn(Optional.of(estudiante));
             when(postulacionRepository.existsByEstudianteIdAndConvocatoriaId(idEstudiante, idConvocatoria)).thenReturn(false);
-            when(postulacionRepository.cantidadBecasByYear(idEstudiante)).thenReturn(0);
+            when(postulacionRepository.getEstadoBeca(idEstudiante)).thenReturn(sinBecas());
             
             when(cursoRepository.findAllById(idsCursos)).thenReturn(cursosEncontrados);
 
@@ -388,7 +420,7 @@ class PostulacionServiceTest {
         
         postulacion.setCursos(Set.of());
 
-        when(postulacionRepository.findById(idPostulacion)).thenReturn(Optional.of(postulacion));
+        when(postulacionRepository.findDetalleById(idPostulacion)).thenReturn(Optional.of(postulacion));
 
         // Act
         ConsultaPostulacionResponse response = postulacionService.getDetallePostulacion(idPostulacion);
@@ -402,7 +434,7 @@ class PostulacionServiceTest {
     void getDetallePostulacion_ShouldThrowNotFound_WhenPostulacionDoesNotExist() {
         // Arrange
         Integer idPostulacion = 1;
-        when(postulacionRepository.findById(idPostulacion)).thenReturn(Optional.empty());
+        when(postulacionRepository.findDetalleById(idPostulacion)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThatThrownBy(() -> postulacionService.getDetallePostulacion(idPostulacion))
@@ -420,18 +452,16 @@ class PostulacionServiceTest {
         Estudiante estudiante = new Estudiante();
         estudiante.setId(idEstudiante);
 
-        Postulacion postulacion = new Postulacion();
-        postulacion.setId(1);
-        Convocatoria convocatoria = new Convocatoria();
-        convocatoria.setMes(Mes.ENERO);
-        postulacion.setConvocatoria(convocatoria);
-        postulacion.setCursos(Set.of());
+        HistorialPostulacionProjection postulacion = mock(HistorialPostulacionProjection.class);
+        when(postulacion.getId()).thenReturn(1);
+        when(postulacion.getAceptado()).thenReturn(true);
+        when(postulacion.getMesConvocatoria()).thenReturn(Mes.ENERO);
 
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
 
-            when(estudianteRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(estudiante));
-            when(postulacionRepository.findByYear(idEstudiante, year)).thenReturn(List.of(postulacion));
+            when(usuarioActualHelper.getEstudiante()).thenReturn(Optional.of(estudiante));
+            when(postulacionRepository.findHistorialByYear(idEstudiante, year)).thenReturn(List.of(postulacion));
 
             // Act
             List<HistorialPostulacionResponse> response = postulacionService.getHistorialPostulacion(year);
@@ -439,6 +469,8 @@ class PostulacionServiceTest {
             // Assert
             assertThat(response).isNotEmpty();
             assertThat(response).hasSize(1);
+            assertThat(response.getFirst().getMesConvocatoria()).isEqualTo("ENERO");
+            assertThat(response.getFirst().getEstado()).isEqualTo("Aceptado");
         }
     }
 
@@ -455,8 +487,8 @@ class PostulacionServiceTest {
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
 
-            when(estudianteRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(estudiante));
-            when(postulacionRepository.findByYear(idEstudiante, year)).thenReturn(Collections.emptyList());
+            when(usuarioActualHelper.getEstudiante()).thenReturn(Optional.of(estudiante));
+            when(postulacionRepository.findHistorialByYear(idEstudiante, year)).thenReturn(Collections.emptyList());
 
             // Act
             List<HistorialPostulacionResponse> response = postulacionService.getHistorialPostulacion(year);
@@ -476,7 +508,7 @@ class PostulacionServiceTest {
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
 
-            when(estudianteRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.empty());
+            when(usuarioActualHelper.getEstudiante()).thenReturn(Optional.empty());
 
             // Act & Assert
             assertThatThrownBy(() -> postulacionService.getHistorialPostulacion(year))
@@ -541,6 +573,120 @@ class PostulacionServiceTest {
         verifyNoInteractions(postulacionRepository);
     }
 
+    private PostulanteConvocatoriaProjection postulante(Integer idPostulacion) {
+        // Solo la última fila de la página se usa para el cursor
+        PostulanteConvocatoriaProjection projection = mock(PostulanteConvocatoriaProjection.class,
+                withSettings().strictness(Strictness.LENIENT));
+        when(projection.getIdPostulacion()).thenReturn(idPostulacion);
+        when(projection.getFechaPostulacion()).thenReturn(LocalDate.of(2026, 3, idPostulacion));
+        return projection;
+    }
+
+    @Test
+    void obtenerPostulantesConvocatoriaPorCursor_ShouldReturnNextCursor_WhenMoreRowsExist() {
+        // Arrange
+        Integer idConvocatoria = 1;
+        Pageable pageable = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "fechaPostulacion"));
+        List<PostulanteConvocatoriaProjection> filas = List.of(postulante(3), postulante(2), postulante(1));
+
+        when(postulacionRepository.buscarPostulantesDesde(eq(idConvocatoria), any(Sort.class), eq(null), eq(3)))
+                .thenReturn(filas);
+
+        // Act
+        PaginaCursorResponse<PostulanteConvocatoriaResponse> result =
+                postulacionService.obtenerPostulantesConvocatoriaPorCursor(idConvocatoria, pageable, "", false);
+
+        // Assert
+        assertThat(result.getContent()).hasSize(2);
+        assertThat(result.getSize()).isEqualTo(2);
+        assertThat(result.getTotalElements()).isNull();
+        CursorPostulante siguiente = CursorPaginacion.decodificar(result.getSiguienteCursor(), pageable.getSort());
+        assertThat(siguiente.getIdPostulacion()).isEqualTo(2);
+        verify(postulacionRepository, never()).countByConvocatoriaId(any());
+    }
+
+    @Test
+    void obtenerPostulantesConvocatoriaPorCursor_ShouldReturnTotalWithoutCursor_WhenLastPage() {
+        // Arrange
+        Integer idConvocatoria = 1;
+        Pageable pageable = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "fechaPostulacion"));
+        PostulanteConvocatoriaProjection anterior = postulante(3);
+        String cursor = CursorPaginacion.codificar(pageable.getSort(), anterior);
+        PostulanteConvocatoriaProjection ultimo = postulante(2);
+
+        when(postulacionRepository.buscarPostulantesDesde(eq(idConvocatoria), any(Sort.class), any(CursorPostulante.class), eq(3)))
+                .thenReturn(List.of(ultimo));
+        when(postulacionRepository.countByConvocatoriaId(idConvocatoria)).thenReturn(3L);
+
+        // Act
+        PaginaCursorResponse<PostulanteConvocatoriaResponse> result =
+                postulacionService.obtenerPostulantesConvocatoriaPorCursor(idConvocatoria, pageable, cursor, true);
+
+        // Assert
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.getSiguienteCursor()).isNull();
+        assertThat(result.getTotalElements()).isEqualTo(3L);
+
+        ArgumentCaptor<CursorPostulante> cursorCaptor = ArgumentCaptor.forClass(CursorPostulante.class);
+        verify(postulacionRepository).buscarPostulantesDesde(eq(idConvocatoria), any(Sort.class), cursorCaptor.capture(), eq(3));
+        assertThat(cursorCaptor.getValue().getIdPostulacion()).isEqualTo(3);
+    }
+
+    @Test
+    void obtenerPostulantesConvocatoriaPorCursor_ShouldThrowBadRequest_WhenSortIsInvalid() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("contraseña"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> postulacionService.obtenerPostulantesConvocatoriaPorCursor(1, pageable, "", false))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("No se puede ordenar por el campo: contraseña");
+
+        verifyNoInteractions(postulacionRepository);
+    }
+
+    @Test
+    void exportarPostulantesConvocatoria_ShouldDelegateToHelper_WhenRequestIsValid() throws Exception {
+        // Arrange
+        Integer idConvocatoria = 1;
+        OutputStream salida = new ByteArrayOutputStream();
+        when(convocatoriaRepository.existsById(idConvocatoria)).thenReturn(true);
+
+        // Act
+        StreamingResponseBody cuerpo = postulacionService.exportarPostulantesConvocatoria(
+                idConvocatoria, Sort.by(Sort.Direction.DESC, "fechaPostulacion"), FormatoExportacion.NDJSON);
+        verifyNoInteractions(exportacionPostulantesHelper);
+        cuerpo.writeTo(salida);
+
+        // Assert
+        ArgumentCaptor<Sort> sortCaptor = ArgumentCaptor.forClass(Sort.class);
+        verify(exportacionPostulantesHelper).exportar(eq(idConvocatoria), sortCaptor.capture(), eq(FormatoExportacion.NDJSON), eq(salida));
+        assertThat(sortCaptor.getValue().getOrderFor("fechaPostulacion").getNullHandling()).isEqualTo(Sort.NullHandling.NULLS_LAST);
+    }
+
+    @Test
+    void exportarPostulantesConvocatoria_ShouldThrowBadRequest_WhenSortIsInvalid() {
+        // Act & Assert
+        assertThatThrownBy(() -> postulacionService.exportarPostulantesConvocatoria(1, Sort.by("contraseña"), FormatoExportacion.CSV))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("No se puede ordenar por el campo: contraseña");
+
+        verifyNoInteractions(convocatoriaRepository, exportacionPostulantesHelper);
+    }
+
+    @Test
+    void exportarPostulantesConvocatoria_ShouldThrowNotFound_WhenConvocatoriaDoesNotExist() {
+        // Arrange
+        when(convocatoriaRepository.existsById(99)).thenReturn(false);
+
+        // Act & Assert
+        assertThatThrownBy(() -> postulacionService.exportarPostulantesConvocatoria(99, Sort.unsorted(), FormatoExportacion.CSV))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessage("No se encontró la convocatoria");
+
+        verifyNoInteractions(exportacionPostulantesHelper);
+    }
+
     @Test
     void getPostulacionesEstudiante_ShouldReturnResponse_WhenStudentExistsAndHasPostulaciones() {
         // Arrange
@@ -553,31 +699,26 @@ class PostulacionServiceTest {
         when(projection.getCodigoEstudiante()).thenReturn(codigoEstudiante);
         when(projection.getNombreCompleto()).thenReturn(nombreCompleto);
 
-        Convocatoria convocatoria = new Convocatoria();
-        convocatoria.setMes(Mes.ENERO);
-
-        Curso curso = new Curso();
-        curso.setNombre("Java Basics");
-
-        Seccion seccion = new Seccion();
-        seccion.setCurso(curso);
-
-        Matricula matricula = new Matricula();
-        matricula.setFechaMatricula(java.time.Instant.now());
-        matricula.setSeccion(seccion);
-        matricula.setNota(18.0);
-
-        Postulacion postulacion = new Postulacion();
-        postulacion.setConvocatoria(convocatoria);
-        postulacion.setFechaPostulacion(java.time.LocalDate.now());
-        postulacion.setPromedioGeneral(15.0);
-        postulacion.setAceptado(true);
-        postulacion.setCursos(Set.of(curso));
-        postulacion.setMatriculas(List.of(matricula));
+        ResultadoPostulacionProjection postulacion = mock(ResultadoPostulacionProjection.class);
+        when(postulacion.getIdPostulacion()).thenReturn(7);
+        when(postulacion.getMesConvocatoria()).thenReturn(Mes.ENERO);
+        when(postulacion.getAceptado()).thenReturn(true);
+        when(postulacion.getIdMatricula()).thenReturn(3);
+        when(postulacion.getFechaMatricula()).thenReturn(java.time.Instant.now());
+        when(postulacion.getCursoMatriculado()).thenReturn("Java Basics");
+        when(postulacion.getNotaMatricula()).thenReturn(18.0);
+
+        CursoOpcionProjection java = mock(CursoOpcionProjection.class);
+        when(java.getIdPostulacion()).thenReturn(7);
+        when(java.getNombre()).thenReturn("Java Basics");
+        CursoOpcionProjection sql = mock(CursoOpcionProjection.class);
+        when(sql.getIdPostulacion()).thenReturn(7);
+        when(sql.getNombre()).thenReturn("SQL");
 
         when(estudianteRepository.findDatosEstudiante(idEstudiante)).thenReturn(Optional.of(projection));
-        when(postulacionRepository.findByYearWithMatricula(idEstudiante, year, EstadoMatricula.ACEPTADO))
+        when(postulacionRepository.findResultadosByYear(idEstudiante, year, EstadoMatricula.ACEPTADO))
                 .thenReturn(List.of(postulacion));
+        when(postulacionRepository.findCursosOpciones(List.of(7))).thenReturn(List.of(java, sql));
 
         // Act
         DetallePostulanteResponse response = postulacionService.getPostulacionesEstudiante(idEstudiante, year);
@@ -591,6 +732,7 @@ class PostulacionServiceTest {
 
         ResultadoPostulacionResponse resultado = response.getPostulaciones().get(0);
         assertThat(resultado.getPostulacion().getMesConvocatoria()).isEqualTo("ENERO");
+        assertThat(resultado.getPostulacion().getCursosOpciones()).containsExactly("Java Basics", "SQL");
         assertThat(resultado.getMatricula().getCursoMatriculado()).isEqualTo("Java Basics");
     }
 
@@ -607,7 +749,7 @@ class PostulacionServiceTest {
                 .isInstanceOf(NotFoundException.class)
                 .hasMessage("No existe estudiante con el ID ingresado");
 
-        verify(postulacionRepository, times(0)).findByYearWithMatricula(any(), any(), any());
+        verify(postulacionRepository, times(0)).findResultadosByYear(any(), any(), any());
     }
 
     @Test
@@ -623,7 +765,7 @@ class PostulacionServiceTest {
         when(projection.getNombreCompleto()).thenReturn(nombreCompleto);
 
         when(estudianteRepository.findDatosEstudiante(idEstudiante)).thenReturn(Optional.of(projection));
-        when(postulacionRepository.findByYearWithMatricula(idEstudiante, year, EstadoMatricula.ACEPTADO))
+        when(postulacionRepository.findResultadosByYear(idEstudiante, year, EstadoMatricula.ACEPTADO))
                 .thenReturn(Collections.emptyList());
 
         // Act
@@ -633,5 +775,6 @@ class PostulacionServiceTest {
         assertThat(response).isNotNull();
         assertThat(response.getIdEstudiante()).isEqualTo(idEstudiante);
         assertThat(response.getPostulaciones()).isNotNull().isEmpty();
+        verify(postulacionRepository, never()).findCursosOpciones(any());
     }
 }
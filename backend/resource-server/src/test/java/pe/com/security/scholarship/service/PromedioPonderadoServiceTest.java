@@ -1,6 +1,7 @@
 package pe.com.security.scholarship.service;
 
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -8,11 +9,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 import pe.com.security.scholarship.domain.entity.Empleado;
 import pe.com.security.scholarship.domain.entity.Estudiante;
 import pe.com.security.scholarship.domain.entity.PeriodoAcademico;
-import pe.com.security.scholarship.domain.entity.PromedioPonderado;
+import pe.com.security.scholarship.domain.enums.TipoCarga;
+import pe.com.security.scholarship.dto.ConteoUpsert;
 import pe.com.security.scholarship.dto.ProcesamientoResult;
 import pe.com.security.scholarship.dto.request.PromedioCsvRequest;
 import pe.com.security.scholarship.exception.BadRequestException;
@@ -22,19 +26,31 @@ import pe.com.security.scholarship.repository.EstudianteRepository;
 import pe.com.security.scholarship.repository.PeriodoAcademicoRepository;
 import pe.com.security.scholarship.repository.PromedioPonderadoRepository;
 import pe.com.security.scholarship.util.CargaMasivaHelper;
+import pe.com.security.scholarship.util.ProcesadorLote;
 import pe.com.security.scholarship.util.SecurityUtils;
+import pe.com.security.scholarship.util.UsuarioActualHelper;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,6 +59,8 @@ class PromedioPonderadoServiceTest {
     @Mock
     private CargaMasivaHelper cargaMasivaHelper;
     @Mock
+    private CargaProcesadaService cargaProcesadaService;
+    @Mock
     private EstudianteRepository estudianteRepository;
     @Mock
     private EmpleadoRepository empleadoRepository;
@@ -51,9 +69,19 @@ class PromedioPonderadoServiceTest {
     @Mock
     private PeriodoAcademicoRepository periodoAcademicoRepository;
 
+    @Mock
+    private UsuarioActualHelper usuarioActualHelper;
+
     @InjectMocks
     private PromedioPonderadoService promedioPonderadoService;
 
+    @BeforeEach
+    void setUp() {
+        // Archivo nunca procesado: el registro de cargas ejecuta la carga
+        lenient().when(cargaProcesadaService.procesarUnaVez(any(), any(), any(), anyBoolean(), any()))
+                .thenAnswer(inv -> inv.<Supplier<ProcesamientoResult>>getArgument(4).get());
+    }
+
     @AfterEach
     void tearDown() {
         // No static mocks to close here as we use try-with-resources
@@ -70,9 +98,11 @@ class PromedioPonderadoServiceTest {
         empleado.setId(UUID.randomUUID());
         
         PeriodoAcademico periodoAcademico = new PeriodoAcademico();
+        periodoAcademico.setId(3);
         periodoAcademico.setPeriodo(periodo);
         
         Estudiante estudiante = new Estudiante();
+        estudiante.setId(UUID.randomUUID());
         estudiante.setCodigoEstudiante("20201001");
 
         PromedioCsvRequest fila = new PromedioCsvRequest();
@@ -85,37 +115,172 @@ class PromedioPonderadoServiceTest {
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
             
-            when(empleadoRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(empleado));
+            when(usuarioActualHelper.getEmpleado()).thenReturn(Optional.of(empleado));
             when(periodoAcademicoRepository.findByPeriodo(periodo)).thenReturn(Optional.of(periodoAcademico));
             
-            // Simulamos que el helper ejecuta el consumer
-            when(cargaMasivaHelper.procesar(eq(file), eq(PromedioCsvRequest.class), any()))
+            // Simulamos que el helper prepara el lote y ejecuta la lógica de la fila
+            when(cargaMasivaHelper.procesarPorLotes(eq(file), eq(PromedioCsvRequest.class), any()))
                     .thenAnswer(invocation -> {
-                        Consumer<PromedioCsvRequest> consumer = invocation.getArgument(2);
-                        // Configuramos el mock del estudiante para cuando se ejecute el consumer
-                        when(estudianteRepository.findByCodigo("20201001")).thenReturn(Optional.of(estudiante));
-                        consumer.accept(fila);
+                        ProcesadorLote<PromedioCsvRequest> procesador = invocation.getArgument(2);
+                        // Configuramos el mock de los estudiantes del lote
+                        when(estudianteRepository.findByCodigoIn(Set.of("20201001"))).thenReturn(List.of(estudiante));
+                        when(promedioRepository.upsertPromedios(eq(3), eq(empleado.getId()), anyMap()))
+                                .thenReturn(new ConteoUpsert(1, 0, 0));
+                        enTransaccion(true, () -> procesador.preparar(List.of(fila)).accept(fila));
                         return expectedResult;
                     });
 
             // Act
-            ProcesamientoResult result = promedioPonderadoService.procesarCargaPromedios(file, periodo);
+            ProcesamientoResult result = promedioPonderadoService.procesarCargaPromedios(file, periodo, false);
 
             // Assert
             assertThat(result).isEqualTo(expectedResult);
+            verify(cargaProcesadaService).procesarUnaVez(eq(TipoCarga.PROMEDIOS), eq(periodo), eq(file), eq(false), any());
+            assertThat(result.getInsertados()).isEqualTo(1);
+            assertThat(result.getActualizados()).isZero();
+            assertThat(result.getSinCambios()).isZero();
             
-            ArgumentCaptor<PromedioPonderado> captor = ArgumentCaptor.forClass(PromedioPonderado.class);
-            verify(promedioRepository).save(captor.capture());
-            
-            PromedioPonderado saved = captor.getValue();
-            assertThat(saved.getEstudiante()).isEqualTo(estudiante);
-            assertThat(saved.getPeriodoAcademico()).isEqualTo(periodoAcademico);
-            assertThat(saved.getEmpleado()).isEqualTo(empleado);
-            assertThat(saved.getCicloRelativo()).isEqualTo(5);
-            assertThat(saved.getPromedioPonderado()).isEqualTo(15.5);
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<Map<UUID, PromedioCsvRequest>> captor = ArgumentCaptor.forClass(Map.class);
+            verify(promedioRepository).upsertPromedios(eq(3), eq(empleado.getId()), captor.capture());
+            assertThat(captor.getValue()).containsExactly(Map.entry(estudiante.getId(), fila));
         }
     }
 
+    @Test
+    void testProcesarCargaPromedios_UnaConsultaDeEstudiantesPorLote() {
+        // Arrange
+        UUID idUsuario = UUID.randomUUID();
+        String periodo = "2023-1";
+        MultipartFile file = mock(MultipartFile.class);
+        Empleado empleado = new Empleado();
+        PeriodoAcademico periodoAcademico = new PeriodoAcademico();
+
+        Estudiante estudiante1 = new Estudiante();
+        estudiante1.setId(UUID.randomUUID());
+        estudiante1.setCodigoEstudiante("20201001");
+        Estudiante estudiante2 = new Estudiante();
+        estudiante2.setId(UUID.randomUUID());
+        estudiante2.setCodigoEstudiante("20201002");
+
+        List<PromedioCsvRequest> lote = List.of(
+                crearFila("20201001", 3, 14.0),
+                crearFila("20201002", 5, 16.0),
+                crearFila("20201001", 4, 15.0),
+                crearFila("20209999", 2, 12.0));
+
+        try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
+            securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
+            when(usuarioActualHelper.getEmpleado()).thenReturn(Optional.of(empleado));
+            when(periodoAcademicoRepository.findByPeriodo(periodo)).thenReturn(Optional.of(periodoAcademico));
+            when(estudianteRepository.findByCodigoIn(Set.of("20201001", "20201002", "20209999")))
+                    .thenReturn(List.of(estudiante1, estudiante2));
+            when(promedioRepository.upsertPromedios(any(), any(), anyMap())).thenReturn(new ConteoUpsert(1, 1, 0));
+
+            when(cargaMasivaHelper.procesarPorLotes(eq(file), eq(PromedioCsvRequest.class), any()))
+                    .thenAnswer(invocation -> {
+                        ProcesadorLote<PromedioCsvRequest> procesador = invocation.getArgument(2);
+                        enTransaccion(true, () -> {
+                            Consumer<PromedioCsvRequest> logicaFila = procesador.preparar(lote);
+                            logicaFila.accept(lote.get(0));
+                            logicaFila.accept(lote.get(1));
+                            logicaFila.accept(lote.get(2));
+                            assertThatThrownBy(() -> logicaFila.accept(lote.get(3)))
+                                    .isInstanceOf(NotFoundException.class)
+                                    .hasMessage("Estudiante no encontrado");
+                        });
+                        return ProcesamientoResult.builder().total(4).exitos(3).fallidos(1).build();
+                    });
+
+            // Act
+            ProcesamientoResult result = promedioPonderadoService.procesarCargaPromedios(file, periodo, false);
+
+            // Assert: una sola consulta y un solo upsert para todo el lote, en lugar de uno por fila
+            verify(estudianteRepository, times(1)).findByCodigoIn(any());
+            verify(estudianteRepository, never()).findByCodigo(any());
+
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<Map<UUID, PromedioCsvRequest>> captor = ArgumentCaptor.forClass(Map.class);
+            verify(promedioRepository, times(1)).upsertPromedios(any(), any(), captor.capture());
+            // El estudiante repetido conserva su última fila y el inexistente queda fuera
+            assertThat(captor.getValue()).containsExactly(
+                    Map.entry(estudiante1.getId(), lote.get(2)),
+                    Map.entry(estudiante2.getId(), lote.get(1)));
+
+            // Conteos del upsert: la fila repetida del estudiante no cuenta como promedio sin cambios
+            assertThat(result.getInsertados()).isEqualTo(1);
+            assertThat(result.getActualizados()).isEqualTo(1);
+            assertThat(result.getSinCambios()).isZero();
+        }
+    }
+
+    @Test
+    void testProcesarCargaPromedios_NoCuentaLosLotesRevertidos() {
+        // Arrange
+        String periodo = "2023-1";
+        MultipartFile file = mock(MultipartFile.class);
+        Empleado empleado = new Empleado();
+        PeriodoAcademico periodoAcademico = new PeriodoAcademico();
+
+        Estudiante estudiante1 = new Estudiante();
+        estudiante1.setId(UUID.randomUUID());
+        estudiante1.setCodigoEstudiante("20201001");
+        Estudiante estudiante2 = new Estudiante();
+        estudiante2.setId(UUID.randomUUID());
+        estudiante2.setCodigoEstudiante("20201002");
+
+        List<PromedioCsvRequest> lote = List.of(crearFila("20201001", 3, 14.0), crearFila("20201002", 5, 16.0));
+
+        when(usuarioActualHelper.getEmpleado()).thenReturn(Optional.of(empleado));
+        when(periodoAcademicoRepository.findByPeriodo(periodo)).thenReturn(Optional.of(periodoAcademico));
+        when(estudianteRepository.findByCodigoIn(any())).thenReturn(List.of(estudiante1, estudiante2));
+        // El lote completo se revierte al confirmar y se reintenta por mitades
+        when(promedioRepository.upsertPromedios(any(), any(), anyMap()))
+                .thenReturn(new ConteoUpsert(1, 1, 0), new ConteoUpsert(1, 0, 0), new ConteoUpsert(0, 0, 1));
+
+        when(cargaMasivaHelper.procesarPorLotes(eq(file), eq(PromedioCsvRequest.class), any()))
+                .thenAnswer(invocation -> {
+                    ProcesadorLote<PromedioCsvRequest> procesador = invocation.getArgument(2);
+                    enTransaccion(false, () -> procesador.preparar(lote));
+                    enTransaccion(true, () -> procesador.preparar(lote.subList(0, 1)));
+                    enTransaccion(true, () -> procesador.preparar(lote.subList(1, 2)));
+                    return ProcesamientoResult.builder().total(2).exitos(2).fallidos(0).build();
+                });
+
+        // Act
+        ProcesamientoResult result = promedioPonderadoService.procesarCargaPromedios(file, periodo, false);
+
+        // Assert: solo cuentan las mitades confirmadas
+        verify(promedioRepository, times(3)).upsertPromedios(any(), any(), anyMap());
+        assertThat(result.getInsertados()).isEqualTo(1);
+        assertThat(result.getActualizados()).isZero();
+        assertThat(result.getSinCambios()).isEqualTo(1);
+    }
+
+    // Transacción de un lote en CargaMasivaHelper: al confirmarla se ejecuta lo registrado al preparar el lote
+    private void enTransaccion(boolean confirmar, Runnable lote) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            lote.run();
+            for (TransactionSynchronization sincronizacion : TransactionSynchronizationManager.getSynchronizations()) {
+                if (confirmar) sincronizacion.afterCommit();
+                sincronizacion.afterCompletion(confirmar
+                        ? TransactionSynchronization.STATUS_COMMITTED
+                        : TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private PromedioCsvRequest crearFila(String codigo, int ciclo, double promedio) {
+        PromedioCsvRequest fila = new PromedioCsvRequest();
+        fila.setCodigo(codigo);
+        fila.setCiclo(ciclo);
+        fila.setPromedio(promedio);
+        return fila;
+    }
+
     @Test
     void testProcesarCargaPromedios_PeriodoNoEncontrado() {
         // Arrange
@@ -127,11 +292,11 @@ class PromedioPonderadoServiceTest {
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
             
-            when(empleadoRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(empleado));
+            when(usuarioActualHelper.getEmpleado()).thenReturn(Optional.of(empleado));
             when(periodoAcademicoRepository.findByPeriodo(periodo)).thenReturn(Optional.empty());
 
             // Act & Assert
-            assertThatThrownBy(() -> promedioPonderadoService.procesarCargaPromedios(file, periodo))
+            assertThatThrownBy(() -> promedioPonderadoService.procesarCargaPromedios(file, periodo, false))
                     .isInstanceOf(NotFoundException.class)
                     .hasMessage("Periodo académico no registrado");
         }
@@ -146,6 +311,7 @@ class PromedioPonderadoServiceTest {
         Empleado empleado = new Empleado();
         PeriodoAcademico periodoAcademico = new PeriodoAcademico();
         Estudiante estudiante = new Estudiante();
+        estudiante.setCodigoEstudiante("20201001");
 
         PromedioCsvRequest fila = new PromedioCsvRequest();
         fila.setCodigo("20201001");
@@ -153,24 +319,27 @@ class PromedioPonderadoServiceTest {
 
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
-            when(empleadoRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(empleado));
+            when(usuarioActualHelper.getEmpleado()).thenReturn(Optional.of(empleado));
             when(periodoAcademicoRepository.findByPeriodo(periodo)).thenReturn(Optional.of(periodoAcademico));
 
-            when(cargaMasivaHelper.procesar(eq(file), eq(PromedioCsvRequest.class), any()))
+            when(cargaMasivaHelper.procesarPorLotes(eq(file), eq(PromedioCsvRequest.class), any()))
                     .thenAnswer(invocation -> {
-                        Consumer<PromedioCsvRequest> consumer = invocation.getArgument(2);
-                        when(estudianteRepository.findByCodigo("20201001")).thenReturn(Optional.of(estudiante));
+                        ProcesadorLote<PromedioCsvRequest> procesador = invocation.getArgument(2);
+                        when(estudianteRepository.findByCodigoIn(Set.of("20201001"))).thenReturn(List.of(estudiante));
                         
                         // Ejecutamos y verificamos la excepción
-                        assertThatThrownBy(() -> consumer.accept(fila))
+                        assertThatThrownBy(() -> procesador.preparar(List.of(fila)).accept(fila))
                                 .isInstanceOf(BadRequestException.class)
                                 .hasMessage("El promedio debe estar entre 0 y 20");
                         
-                        return null;
+                        return ProcesamientoResult.builder().total(1).fallidos(1).build();
                     });
 
             // Act
-            promedioPonderadoService.procesarCargaPromedios(file, periodo);
+            promedioPonderadoService.procesarCargaPromedios(file, periodo, false);
+
+            // Assert: un lote sin filas válidas no llega a la base de datos
+            verifyNoInteractions(promedioRepository);
         }
     }
 
@@ -183,6 +352,7 @@ class PromedioPonderadoServiceTest {
         Empleado empleado = new Empleado();
         PeriodoAcademico periodoAcademico = new PeriodoAcademico();
         Estudiante estudiante = new Estudiante();
+        estudiante.setCodigoEstudiante("20201001");
 
         PromedioCsvRequest fila = new PromedioCsvRequest();
         fila.setCodigo("20201001");
@@ -191,24 +361,27 @@ class PromedioPonderadoServiceTest {
 
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
-            when(empleadoRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(empleado));
+            when(usuarioActualHelper.getEmpleado()).thenReturn(Optional.of(empleado));
             when(periodoAcademicoRepository.findByPeriodo(periodo)).thenReturn(Optional.of(periodoAcademico));
 
-            when(cargaMasivaHelper.procesar(eq(file), eq(PromedioCsvRequest.class), any()))
+            when(cargaMasivaHelper.procesarPorLotes(eq(file), eq(PromedioCsvRequest.class), any()))
                     .thenAnswer(invocation -> {
-                        Consumer<PromedioCsvRequest> consumer = invocation.getArgument(2);
-                        when(estudianteRepository.findByCodigo("20201001")).thenReturn(Optional.of(estudiante));
+                        ProcesadorLote<PromedioCsvRequest> procesador = invocation.getArgument(2);
+                        when(estudianteRepository.findByCodigoIn(Set.of("20201001"))).thenReturn(List.of(estudiante));
                         
                         // Ejecutamos y verificamos la excepción
-                        assertThatThrownBy(() -> consumer.accept(fila))
+                        assertThatThrownBy(() -> procesador.preparar(List.of(fila)).accept(fila))
                                 .isInstanceOf(BadRequestException.class)
                                 .hasMessage("Ciclo académico inválido");
                         
-                        return null;
+                        return ProcesamientoResult.builder().total(1).fallidos(1).build();
                     });
 
             // Act
-            promedioPonderadoService.procesarCargaPromedios(file, periodo);
+            promedioPonderadoService.procesarCargaPromedios(file, periodo, false);
+
+            // Assert: un lote sin filas válidas no llega a la base de datos
+            verifyNoInteractions(promedioRepository);
         }
     }
 
@@ -226,25 +399,28 @@ class PromedioPonderadoServiceTest {
 
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
-            when(empleadoRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(empleado));
+            when(usuarioActualHelper.getEmpleado()).thenReturn(Optional.of(empleado));
             when(periodoAcademicoRepository.findByPeriodo(periodo)).thenReturn(Optional.of(periodoAcademico));
 
-            when(cargaMasivaHelper.procesar(eq(file), eq(PromedioCsvRequest.class), any()))
+            when(cargaMasivaHelper.procesarPorLotes(eq(file), eq(PromedioCsvRequest.class), any()))
                     .thenAnswer(invocation -> {
-                        Consumer<PromedioCsvRequest> consumer = invocation.getArgument(2);
+                        ProcesadorLote<PromedioCsvRequest> procesador = invocation.getArgument(2);
                         
-                        when(estudianteRepository.findByCodigo("NO_EXISTE")).thenReturn(Optional.empty());
+                        when(estudianteRepository.findByCodigoIn(Set.of("NO_EXISTE"))).thenReturn(List.of());
                         
                         // Ejecutamos y verificamos la excepción
-                        assertThatThrownBy(() -> consumer.accept(fila))
+                        assertThatThrownBy(() -> procesador.preparar(List.of(fila)).accept(fila))
                                 .isInstanceOf(NotFoundException.class)
                                 .hasMessage("Estudiante no encontrado");
                         
-                        return null;
+                        return ProcesamientoResult.builder().total(1).fallidos(1).build();
                     });
 
             // Act
-            promedioPonderadoService.procesarCargaPromedios(file, periodo);
+            promedioPonderadoService.procesarCargaPromedios(file, periodo, false);
+
+            // Assert: un lote sin filas válidas no llega a la base de datos
+            verifyNoInteractions(promedioRepository);
         }
     }
 }
@@ -17,12 +17,14 @@ import pe.com.security.scholarship.dto.request.UpdateVacantesSeccionRequest;
 import pe.com.security.scholarship.dto.response.RegisteredSeccionResponse;
 import pe.com.security.scholarship.dto.response.UpdatedVacantesSeccionResponse;
 import pe.com.security.scholarship.exception.BadRequestException;
+import pe.com.security.scholarship.exception.ConflictException;
 import pe.com.security.scholarship.exception.NotFoundException;
 import pe.com.security.scholarship.repository.CursoRepository;
 import pe.com.security.scholarship.repository.EmpleadoRepository;
 import pe.com.security.scholarship.repository.MatriculaRepository;
 import pe.com.security.scholarship.repository.SeccionRepository;
 import pe.com.security.scholarship.util.SecurityUtils;
+import pe.com.security.scholarship.util.UsuarioActualHelper;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -34,6 +36,7 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mockStatic;
@@ -57,6 +60,12 @@ class SeccionServiceTest {
     @Mock
     private EmpleadoRepository empleadoRepository;
 
+    @Mock
+    private EstadisticaConvocatoriaService estadisticaConvocatoriaService;
+
+    @Mock
+    private UsuarioActualHelper usuarioActualHelper;
+
     @InjectMocks
     private SeccionService seccionService;
 
@@ -357,13 +366,15 @@ class SeccionServiceTest {
         Seccion seccion = new Seccion();
         seccion.setId(idSeccion);
         seccion.setVacantesDisponibles(null); // Primer seteo
+        seccion.setCuposOcupados(0);
 
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
 
-            when(empleadoRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(empleado));
-            when(seccionRepository.findById(idSeccion)).thenReturn(Optional.of(seccion));
+            when(usuarioActualHelper.getEmpleado()).thenReturn(Optional.of(empleado));
+            when(seccionRepository.findByIdForUpdate(idSeccion)).thenReturn(Optional.of(seccion));
             when(matriculaRepository.matricularPostulantes(eq(idSeccion), eq(requestedVacancies), eq(idEmpleado))).thenReturn(5);
+            when(seccionRepository.ocuparCupos(idSeccion, 5)).thenReturn(1);
 
             // Act
             UpdatedVacantesSeccionResponse response = seccionService.updateVacantes(request);
@@ -373,9 +384,10 @@ class SeccionServiceTest {
             assertThat(response.getCantidadNuevosMatriculados()).isEqualTo(5);
             assertThat(response.getTotalMatriculados()).isEqualTo(requestedVacancies);
 
-            verify(empleadoRepository).findByIdUsuario(idUsuario);
-            verify(seccionRepository, times(1)).save(seccion);
+            verify(usuarioActualHelper).getEmpleado();
+            verify(seccionRepository, times(1)).saveAndFlush(seccion);
             verify(matriculaRepository, times(1)).matricularPostulantes(idSeccion, requestedVacancies, idEmpleado);
+            verify(seccionRepository).ocuparCupos(idSeccion, 5);
         }
     }
 
@@ -399,13 +411,15 @@ class SeccionServiceTest {
         Seccion seccion = new Seccion();
         seccion.setId(idSeccion);
         seccion.setVacantesDisponibles(currentVacancies);
+        seccion.setCuposOcupados(currentVacancies); // Sección llena
 
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
 
-            when(empleadoRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(empleado));
-            when(seccionRepository.findById(idSeccion)).thenReturn(Optional.of(seccion));
+            when(usuarioActualHelper.getEmpleado()).thenReturn(Optional.of(empleado));
+            when(seccionRepository.findByIdForUpdate(idSeccion)).thenReturn(Optional.of(seccion));
             when(matriculaRepository.matricularPostulantes(eq(idSeccion), eq(expectedIncrement), eq(idEmpleado))).thenReturn(3);
+            when(seccionRepository.ocuparCupos(idSeccion, 3)).thenReturn(1);
 
             // Act
             UpdatedVacantesSeccionResponse response = seccionService.updateVacantes(request);
@@ -415,9 +429,113 @@ class SeccionServiceTest {
             assertThat(response.getCantidadNuevosMatriculados()).isEqualTo(3);
             assertThat(response.getTotalMatriculados()).isEqualTo(requestedVacancies);
 
-            verify(empleadoRepository).findByIdUsuario(idUsuario);
-            verify(seccionRepository, times(1)).save(seccion);
+            verify(usuarioActualHelper).getEmpleado();
+            verify(seccionRepository, times(1)).saveAndFlush(seccion);
             verify(matriculaRepository, times(1)).matricularPostulantes(idSeccion, expectedIncrement, idEmpleado);
+            verify(seccionRepository).ocuparCupos(idSeccion, 3);
+        }
+    }
+
+    @Test
+    void updateVacantes_ShouldPromoteAllFreeSeats_WhenSectionWasNotFull() {
+        // Arrange
+        UUID idUsuario = UUID.randomUUID();
+        UUID idEmpleado = UUID.randomUUID();
+        Integer idSeccion = 1;
+
+        UpdateVacantesSeccionRequest request = new UpdateVacantesSeccionRequest();
+        request.setIdSeccion(idSeccion);
+        request.setCantidadVacantes(15);
+
+        Empleado empleado = new Empleado();
+        empleado.setId(idEmpleado);
+
+        Seccion seccion = new Seccion();
+        seccion.setId(idSeccion);
+        seccion.setVacantesDisponibles(10);
+        seccion.setCuposOcupados(6);
+
+        try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
+            securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
+
+            when(usuarioActualHelper.getEmpleado()).thenReturn(Optional.of(empleado));
+            when(seccionRepository.findByIdForUpdate(idSeccion)).thenReturn(Optional.of(seccion));
+            when(matriculaRepository.matricularPostulantes(idSeccion, 9, idEmpleado)).thenReturn(0);
+
+            // Act
+            UpdatedVacantesSeccionResponse response = seccionService.updateVacantes(request);
+
+            // Assert: 4 cupos que seguían libres + 5 nuevas vacantes
+            assertThat(response.getCantidadNuevosMatriculados()).isZero();
+            verify(seccionRepository, never()).ocuparCupos(any(), anyInt());
+            verify(estadisticaConvocatoriaService, never()).actualizarMatriculados(any());
+        }
+    }
+
+    @Test
+    void updateVacantes_ShouldThrowBadRequest_WhenVacanciesBelowEnrolled() {
+        // Arrange
+        UUID idUsuario = UUID.randomUUID();
+        Integer idSeccion = 1;
+
+        UpdateVacantesSeccionRequest request = new UpdateVacantesSeccionRequest();
+        request.setIdSeccion(idSeccion);
+        request.setCantidadVacantes(5);
+
+        Seccion seccion = new Seccion();
+        seccion.setId(idSeccion);
+        seccion.setVacantesDisponibles(null); // Se aprobó sin tope
+        seccion.setCuposOcupados(8);
+
+        try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
+            securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
+
+            when(usuarioActualHelper.getEmpleado()).thenReturn(Optional.of(new Empleado()));
+            when(seccionRepository.findByIdForUpdate(idSeccion)).thenReturn(Optional.of(seccion));
+
+            // Act & Assert
+            assertThatThrownBy(() -> seccionService.updateVacantes(request))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessage("La cantidad de vacantes no puede ser menor a los 8 matriculados");
+
+            verify(seccionRepository, never()).saveAndFlush(any());
+        }
+    }
+
+    @Test
+    void updateVacantes_ShouldThrowConflict_WhenSeatsCannotBeOccupied() {
+        // Arrange
+        UUID idUsuario = UUID.randomUUID();
+        UUID idEmpleado = UUID.randomUUID();
+        Integer idSeccion = 1;
+
+        UpdateVacantesSeccionRequest request = new UpdateVacantesSeccionRequest();
+        request.setIdSeccion(idSeccion);
+        request.setCantidadVacantes(15);
+
+        Empleado empleado = new Empleado();
+        empleado.setId(idEmpleado);
+
+        Seccion seccion = new Seccion();
+        seccion.setId(idSeccion);
+        seccion.setVacantesDisponibles(10);
+        seccion.setCuposOcupados(10);
+
+        try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
+            securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
+
+            when(usuarioActualHelper.getEmpleado()).thenReturn(Optional.of(empleado));
+            when(seccionRepository.findByIdForUpdate(idSeccion)).thenReturn(Optional.of(seccion));
+            when(matriculaRepository.matricularPostulantes(idSeccion, 5, idEmpleado)).thenReturn(5);
+            // El UPDATE condicionado no encontró la fila en el estado esperado
+            when(seccionRepository.ocuparCupos(idSeccion, 5)).thenReturn(0);
+
+            // Act & Assert
+            assertThatThrownBy(() -> seccionService.updateVacantes(request))
+                    .isInstanceOf(ConflictException.class)
+                    .hasMessage("Los cupos de la sección cambiaron durante la actualización, vuelva a intentarlo");
+
+            verify(estadisticaConvocatoriaService, never()).actualizarMatriculados(any());
         }
     }
 
@@ -429,14 +547,14 @@ class SeccionServiceTest {
 
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
-            when(empleadoRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.empty());
+            when(usuarioActualHelper.getEmpleado()).thenReturn(Optional.empty());
 
             // Act & Assert
             assertThatThrownBy(() -> seccionService.updateVacantes(request))
                     .isInstanceOf(NotFoundException.class)
                     .hasMessage("Empleado no encontrado");
 
-            verify(seccionRepository, never()).save(any());
+            verify(seccionRepository, never()).saveAndFlush(any());
             verify(matriculaRepository, never()).matricularPostulantes(any(), any(), any());
         }
     }
@@ -462,15 +580,15 @@ class SeccionServiceTest {
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
 
-            when(empleadoRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(empleado));
-            when(seccionRepository.findById(idSeccion)).thenReturn(Optional.of(seccion));
+            when(usuarioActualHelper.getEmpleado()).thenReturn(Optional.of(empleado));
+            when(seccionRepository.findByIdForUpdate(idSeccion)).thenReturn(Optional.of(seccion));
 
             // Act & Assert
             assertThatThrownBy(() -> seccionService.updateVacantes(request))
                     .isInstanceOf(BadRequestException.class)
                     .hasMessage("La nueva cantidad de vacantes debe superar a las disponibles actualmente");
 
-            verify(seccionRepository, never()).save(any());
+            verify(seccionRepository, never()).saveAndFlush(any());
             verify(matriculaRepository, never()).matricularPostulantes(any(), any(), any());
         }
     }
@@ -496,15 +614,15 @@ class SeccionServiceTest {
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
 
-            when(empleadoRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(empleado));
-            when(seccionRepository.findById(idSeccion)).thenReturn(Optional.of(seccion));
+            when(usuarioActualHelper.getEmpleado()).thenReturn(Optional.of(empleado));
+            when(seccionRepository.findByIdForUpdate(idSeccion)).thenReturn(Optional.of(seccion));
 
             // Act & Assert
             assertThatThrownBy(() -> seccionService.updateVacantes(request))
                     .isInstanceOf(BadRequestException.class)
                     .hasMessage("La nueva cantidad de vacantes debe superar a las disponibles actualmente");
 
-            verify(seccionRepository, never()).save(any());
+            verify(seccionRepository, never()).saveAndFlush(any());
             verify(matriculaRepository, never()).matricularPostulantes(any(), any(), any());
         }
     }
@@ -523,15 +641,15 @@ class SeccionServiceTest {
         try (MockedStatic<SecurityUtils> securityUtilsMock = mockStatic(SecurityUtils.class)) {
             securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
 
-            when(empleadoRepository.findByIdUsuario(idUsuario)).thenReturn(Optional.of(empleado));
-            when(seccionRepository.findById(idSeccion)).thenReturn(Optional.empty());
+            when(usuarioActualHelper.getEmpleado()).thenReturn(Optional.of(empleado));
+            when(seccionRepository.findByIdForUpdate(idSeccion)).thenReturn(Optional.empty());
 
             // Act & Assert
             assertThatThrownBy(() -> seccionService.updateVacantes(request))
                     .isInstanceOf(NotFoundException.class)
                     .hasMessage("No se encontró la sección con el ID ingresado");
 
-            verify(seccionRepository, never()).save(any());
+            verify(seccionRepository, never()).saveAndFlush(any());
             verify(matriculaRepository, never()).matricularPostulantes(any(), any(), any());
         }
     }
@@ -0,0 +1,200 @@
+package pe.com.security.scholarship.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import pe.com.security.scholarship.domain.enums.EstadoCarga;
+import pe.com.security.scholarship.dto.ProcesamientoResult;
+import pe.com.security.scholarship.dto.response.EstadoCargaResponse;
+import pe.com.security.scholarship.exception.BadRequestException;
+import pe.com.security.scholarship.exception.ConflictException;
+import pe.com.security.scholarship.exception.NotFoundException;
+import pe.com.security.scholarship.exception.ServiceUnavailableException;
+import pe.com.security.scholarship.exception.UnprocessableEntityException;
+import pe.com.security.scholarship.util.ProgresoCarga;
+import pe.com.security.scholarship.util.SecurityUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TrabajoCargaServiceTest {
+
+    @TempDir
+    Path directorio;
+
+    private TrabajoCargaService trabajoCargaService;
+
+    private final UUID idUsuario = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        trabajoCargaService = new TrabajoCargaService(1, 1, directorio.toString(), 24);
+        autenticar(idUsuario);
+    }
+
+    @AfterEach
+    void tearDown() {
+        trabajoCargaService.cerrar();
+        SecurityContextHolder.clearContext();
+    }
+
+    private void autenticar(UUID uid) {
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "none").claim("uid", uid.toString()).build();
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+    }
+
+    private MockMultipartFile archivo(String contenido) {
+        return new MockMultipartFile("file", "notas.csv", "text/csv", contenido.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private EstadoCargaResponse esperarFin(UUID idTrabajo) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            EstadoCargaResponse estado = trabajoCargaService.consultar(idTrabajo);
+            if (estado.getEstado() == EstadoCarga.COMPLETADO || estado.getEstado() == EstadoCarga.FALLIDO) {
+                return estado;
+            }
+            Thread.sleep(25);
+        }
+        throw new AssertionError("La carga no terminó a tiempo");
+    }
+
+    @Test
+    void enviar_DeberiaProcesarEnSegundoPlanConElUsuarioDelEnvio() throws Exception {
+        // Arrange
+        AtomicReference<UUID> usuarioEnCarga = new AtomicReference<>();
+        AtomicReference<String> contenidoLeido = new AtomicReference<>();
+        ProcesamientoResult resultado = ProcesamientoResult.builder().total(2).exitos(2).fallidos(0).build();
+
+        // Act
+        EstadoCargaResponse enviado = trabajoCargaService.enviar(archivo("codigo;nota\nA1;15\nA2;12"), file -> {
+            usuarioEnCarga.set(SecurityUtils.getCurrentUserId());
+            try {
+                contenidoLeido.set(new String(file.getBytes(), StandardCharsets.UTF_8));
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            return resultado;
+        });
+        EstadoCargaResponse terminado = esperarFin(enviado.getIdTrabajo());
+
+        // Assert
+        assertThat(enviado.getFilasEstimadas()).isEqualTo(2);
+        assertThat(terminado.getEstado()).isEqualTo(EstadoCarga.COMPLETADO);
+        assertThat(terminado.getFilasProcesadas()).isEqualTo(2);
+        assertThat(terminado.getSegundosRestantes()).isZero();
+        assertThat(trabajoCargaService.obtenerResultado(enviado.getIdTrabajo())).isSameAs(resultado);
+        assertThat(usuarioEnCarga.get()).isEqualTo(idUsuario);
+        assertThat(contenidoLeido.get()).isEqualTo("codigo;nota\nA1;15\nA2;12");
+        // El archivo en disco se elimina al terminar
+        try (var archivos = Files.list(directorio)) {
+            assertThat(archivos).isEmpty();
+        }
+    }
+
+    @Test
+    void consultar_DeberiaExponerAvanceYTiempoRestante_MientrasProcesa() throws Exception {
+        // Arrange
+        CountDownLatch avanceReportado = new CountDownLatch(1);
+        CountDownLatch continuar = new CountDownLatch(1);
+
+        EstadoCargaResponse enviado = trabajoCargaService.enviar(archivo("codigo;nota\n" + "A1;15\n".repeat(10)), file -> {
+            ProgresoCarga.reportar(5, 1);
+            avanceReportado.countDown();
+            try {
+                continuar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ProcesamientoResult.builder().total(10).exitos(9).fallidos(1).build();
+        });
+
+        // Act
+        assertThat(avanceReportado.await(5, TimeUnit.SECONDS)).isTrue();
+        EstadoCargaResponse enCurso = trabajoCargaService.consultar(enviado.getIdTrabajo());
+
+        // Assert
+        assertThat(enCurso.getEstado()).isEqualTo(EstadoCarga.PROCESANDO);
+        assertThat(enCurso.getFilasEstimadas()).isEqualTo(10);
+        assertThat(enCurso.getFilasProcesadas()).isEqualTo(5);
+        assertThat(enCurso.getFallidos()).isEqualTo(1);
+        assertThat(enCurso.getSegundosRestantes()).isNotNull();
+        assertThatThrownBy(() -> trabajoCargaService.obtenerResultado(enviado.getIdTrabajo()))
+                .isInstanceOf(ConflictException.class)
+                .hasMessage("La carga aún no ha finalizado");
+
+        continuar.countDown();
+        assertThat(esperarFin(enviado.getIdTrabajo()).getFallidos()).isEqualTo(1);
+    }
+
+    @Test
+    void obtenerResultado_DeberiaLanzarUnprocessable_CuandoLaCargaFalla() throws Exception {
+        // Act
+        EstadoCargaResponse enviado = trabajoCargaService.enviar(archivo("codigo;nota\nA1;15"), file -> {
+            throw new BadRequestException("Error de formato en la línea 2");
+        });
+        EstadoCargaResponse terminado = esperarFin(enviado.getIdTrabajo());
+
+        // Assert
+        assertThat(terminado.getEstado()).isEqualTo(EstadoCarga.FALLIDO);
+        assertThat(terminado.getMensaje()).isEqualTo("Error de formato en la línea 2");
+        assertThatThrownBy(() -> trabajoCargaService.obtenerResultado(enviado.getIdTrabajo()))
+                .isInstanceOf(UnprocessableEntityException.class)
+                .hasMessage("La carga no pudo procesarse: Error de formato en la línea 2");
+    }
+
+    @Test
+    void enviar_DeberiaRechazarCarga_CuandoLaColaEstaLlena() throws Exception {
+        // Arrange: un hilo ocupado y un trabajo en espera llenan el pool (1 hilo, cola de 1)
+        CountDownLatch continuar = new CountDownLatch(1);
+        CountDownLatch iniciado = new CountDownLatch(1);
+        trabajoCargaService.enviar(archivo("codigo;nota\nA1;15"), file -> {
+            iniciado.countDown();
+            try {
+                continuar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ProcesamientoResult.builder().build();
+        });
+        assertThat(iniciado.await(5, TimeUnit.SECONDS)).isTrue();
+        trabajoCargaService.enviar(archivo("codigo;nota\nA1;15"), file -> ProcesamientoResult.builder().build());
+
+        // Act & Assert
+        assertThatThrownBy(() -> trabajoCargaService.enviar(archivo("codigo;nota\nA1;15"),
+                file -> ProcesamientoResult.builder().build()))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .hasMessage("Hay demasiadas cargas en proceso, intente nuevamente en unos minutos");
+        // El archivo rechazado no queda en disco
+        try (var archivos = Files.list(directorio)) {
+            assertThat(archivos).hasSize(2);
+        }
+
+        continuar.countDown();
+    }
+
+    @Test
+    void consultar_DeberiaLanzarNotFound_CuandoLaCargaEsDeOtroUsuario() {
+        // Arrange
+        EstadoCargaResponse enviado = trabajoCargaService.enviar(archivo("codigo;nota\nA1;15"),
+                file -> ProcesamientoResult.builder().build());
+        autenticar(UUID.randomUUID());
+
+        // Act & Assert
+        assertThatThrownBy(() -> trabajoCargaService.consultar(enviado.getIdTrabajo()))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessage("No se encontró la carga especificada");
+    }
+}
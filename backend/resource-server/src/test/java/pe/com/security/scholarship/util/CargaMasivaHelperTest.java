@@ -1,27 +1,73 @@
 package pe.com.security.scholarship.util;
 
 import com.opencsv.bean.CsvBindByName;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.multipart.MultipartFile;
 import pe.com.security.scholarship.dto.CsvImportRequest;
 import pe.com.security.scholarship.dto.ProcesamientoResult;
+import pe.com.security.scholarship.dto.request.PromedioCsvRequest;
 import pe.com.security.scholarship.exception.BadRequestException;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class CargaMasivaHelperTest {
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private CargaMasivaHelper cargaMasivaHelper;
 
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cargaMasivaHelper, "tamanioLote", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cargaMasivaHelper.cerrar();
+    }
+
     // DTO interno para pruebas
     public static class TestCsvRequest implements CsvImportRequest {
         @CsvBindByName(required = true)
@@ -99,4 +145,351 @@ class CargaMasivaHelperTest {
         assertThat(result.getErrores().get(0).getIdentifier()).isEqualTo("A2");
         assertThat(result.getErrores().get(0).getMensaje()).isEqualTo("Error simulado");
     }
+
+    @Test
+    void testProcesarPorLotesRecorreTodasLasFilas() {
+        // Arrange: 5 filas con lotes de 2 => lotes de 2, 2 y 1
+        String csvContent = "id;valor\n" +
+                            "A1;10\n" +
+                            "A2;20\n" +
+                            "A3;30\n" +
+                            "A4;40\n" +
+                            "A5;50";
+        MockMultipartFile file = new MockMultipartFile(
+                "file", "test.csv", "text/csv", csvContent.getBytes(StandardCharsets.UTF_8));
+        List<String> procesados = new ArrayList<>();
+
+        // Act
+        ProcesamientoResult result = cargaMasivaHelper.procesar(file, TestCsvRequest.class, req -> procesados.add(req.getId()));
+
+        // Assert: cada lote se confirma en su propia transacción
+        assertThat(result.getTotal()).isEqualTo(5);
+        assertThat(result.getExitos()).isEqualTo(5);
+        assertThat(procesados).containsExactly("A1", "A2", "A3", "A4", "A5");
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(3)).commit(any());
+        verify(transactionManager, never()).rollback(any());
+    }
+
+    @Test
+    void testProcesarPorLotesPreparaCadaLoteUnaVez() {
+        // Arrange
+        String csvContent = "id;valor\n" +
+                            "A1;10\n" +
+                            "A2;20\n" +
+                            "A3;30";
+        MockMultipartFile file = new MockMultipartFile(
+                "file", "test.csv", "text/csv", csvContent.getBytes(StandardCharsets.UTF_8));
+        List<List<String>> lotes = new ArrayList<>();
+
+        // Act
+        ProcesamientoResult result = cargaMasivaHelper.procesarPorLotes(file, TestCsvRequest.class, lote -> {
+            lotes.add(lote.stream().map(TestCsvRequest::getId).toList());
+            return req -> {
+                if ("A3".equals(req.getId())) throw new RuntimeException("Error simulado");
+            };
+        });
+
+        // Assert
+        assertThat(lotes).containsExactly(List.of("A1", "A2"), List.of("A3"));
+        assertThat(result.getTotal()).isEqualTo(3);
+        assertThat(result.getExitos()).isEqualTo(2);
+        assertThat(result.getErrores()).extracting(ProcesamientoResult.ErrorDetalle::getIdentifier).containsExactly("A3");
+    }
+
+    @Test
+    void testLeerCsvFallaPorTipoDatoEnLotePosterior() {
+        // Arrange: el error está en la cuarta fila, después del primer lote
+        String csvContent = "id;valor\n" +
+                            "A1;10\n" +
+                            "A2;20\n" +
+                            "A3;30\n" +
+                            "A4;TextoInvalido";
+        MockMultipartFile file = new MockMultipartFile(
+                "file", "test.csv", "text/csv", csvContent.getBytes(StandardCharsets.UTF_8));
+
+        // Act & Assert: el archivo se rechaza antes de confirmar el primer lote
+        assertThatThrownBy(() -> cargaMasivaHelper.procesar(file, TestCsvRequest.class, req -> {}))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Error de tipo de dato en la línea 5");
+        verify(transactionManager, never()).getTransaction(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    void testProcesarEnParaleloFallaPorTipoDatoSinConfirmarLotes() {
+        // Arrange: 2 particiones y lotes de 3 filas; el error está en la fila 8
+        ReflectionTestUtils.setField(cargaMasivaHelper, "particiones", 2);
+        ReflectionTestUtils.setField(cargaMasivaHelper, "tamanioLote", 3);
+        MultipartFile file = new ArchivoGenerado(10, "id;valor", i -> i == 8 ? "A8;TextoInvalido" : "A" + i + ";" + i);
+
+        // Act & Assert
+        assertThatThrownBy(() -> cargaMasivaHelper.procesar(file, TestCsvRequest.class, req -> {}))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Error de tipo de dato en la línea 9");
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    void testProcesarEnStreaming_CadaLoteSeProcesaAntesDeLeerElResto() {
+        // Arrange: 50k filas generadas al vuelo en lotes de 500
+        int totalFilas = 50_000;
+        int tamanioLote = 500;
+        ReflectionTestUtils.setField(cargaMasivaHelper, "tamanioLote", tamanioLote);
+        ArchivoGenerado file = new ArchivoGenerado(totalFilas);
+        List<Integer> tamaniosLote = new ArrayList<>();
+        int[] preparadas = {0};
+        int[] maximoAdelantado = {0};
+
+        // Act: al preparar cada lote se mira cuántas filas se leyeron del archivo sin procesar todavía
+        ProcesamientoResult result = cargaMasivaHelper.procesarPorLotes(file, TestCsvRequest.class, lote -> {
+            tamaniosLote.add(lote.size());
+            preparadas[0] += lote.size();
+            maximoAdelantado[0] = Math.max(maximoAdelantado[0], file.getLineasGeneradas() - preparadas[0]);
+            return req -> {};
+        });
+
+        // Assert: ningún lote supera el tamaño configurado y la lectura solo se adelanta lo que cabe en el
+        // búfer del lector (8 KB, ~1 000 líneas cortas), nunca el archivo completo
+        assertThat(result.getExitos()).isEqualTo(totalFilas);
+        assertThat(tamaniosLote).hasSize(totalFilas / tamanioLote).allMatch(tamanio -> tamanio <= tamanioLote);
+        assertThat(maximoAdelantado[0]).isLessThan(tamanioLote + 2_000);
+    }
+
+    // Benchmark: mvn test -Dtest=CargaMasivaHelperTest#testProcesarArchivoGrandeSinCrecerElHeap -Dbenchmark=true
+    // System.gc() es solo una sugerencia a la JVM, por eso no corre en la suite por defecto
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void testProcesarArchivoGrandeSinCrecerElHeap() throws IOException {
+        // Arrange: 1M filas generadas al vuelo, sin tener el archivo en memoria
+        int totalFilas = 1_000_000;
+        ReflectionTestUtils.setField(cargaMasivaHelper, "tamanioLote", 500);
+        MultipartFile file = new ArchivoGenerado(totalFilas);
+        MemoryMXBean memoria = ManagementFactory.getMemoryMXBean();
+        long[] maximoRetenido = {0};
+
+        System.gc();
+        long base = memoria.getHeapMemoryUsage().getUsed();
+
+        // Act: cada 200k filas se mide el heap retenido tras una recolección
+        ProcesamientoResult result = cargaMasivaHelper.procesar(file, TestCsvRequest.class, req -> {
+            if (req.getValor() % 200_000 == 0) {
+                System.gc();
+                maximoRetenido[0] = Math.max(maximoRetenido[0], memoria.getHeapMemoryUsage().getUsed() - base);
+            }
+        });
+
+        // Assert: con parse() las 1M filas quedarían retenidas (>100 MB); en streaming el heap se mantiene plano
+        assertThat(result.getTotal()).isEqualTo(totalFilas);
+        assertThat(result.getExitos()).isEqualTo(totalFilas);
+        assertThat(maximoRetenido[0]).isLessThan(32L * 1024 * 1024);
+    }
+
+    @Test
+    void testProcesarEnParaleloMantieneElOrdenDeLosErrores() {
+        // Arrange: 4 particiones y lotes de 3 filas; fallan las filas con valor múltiplo de 3
+        ReflectionTestUtils.setField(cargaMasivaHelper, "particiones", 4);
+        ReflectionTestUtils.setField(cargaMasivaHelper, "tamanioLote", 3);
+        MultipartFile file = new ArchivoGenerado(20);
+
+        // Act
+        ProcesamientoResult result = cargaMasivaHelper.procesar(file, TestCsvRequest.class, req -> {
+            if (req.getValor() % 3 == 0) {
+                throw new RuntimeException("Error en " + req.getId());
+            }
+        });
+
+        // Assert: mismo orden que en el archivo, aunque los fragmentos terminen en cualquier orden
+        assertThat(result.getTotal()).isEqualTo(20);
+        assertThat(result.getExitos()).isEqualTo(14);
+        assertThat(result.getFallidos()).isEqualTo(6);
+        assertThat(result.getErrores()).extracting(ProcesamientoResult.ErrorDetalle::getIdentifier)
+                .containsExactly("A3", "A6", "A9", "A12", "A15", "A18");
+        // Una transacción por fragmento, fuera de la transacción del servicio
+        verify(transactionManager, atLeast(7)).getTransaction(any());
+    }
+
+    @Test
+    void testProcesarEnParaleloAplicaLasFilasDeUnEstudianteEnOrden() {
+        // Arrange: dos estudiantes intercalados a lo largo de varios lotes
+        ReflectionTestUtils.setField(cargaMasivaHelper, "particiones", 4);
+        ReflectionTestUtils.setField(cargaMasivaHelper, "tamanioLote", 3);
+        MultipartFile file = new ArchivoGenerado(30, "id;valor", i -> (i % 2 == 0 ? "PAR" : "IMPAR") + ";" + i);
+        Map<String, List<Integer>> aplicadas = new ConcurrentHashMap<>();
+
+        // Act
+        cargaMasivaHelper.procesar(file, TestCsvRequest.class, req ->
+                aplicadas.computeIfAbsent(req.getId(), id -> Collections.synchronizedList(new ArrayList<>())).add(req.getValor()));
+
+        // Assert
+        assertThat(aplicadas.get("PAR")).isSortedAccordingTo(Integer::compare).hasSize(15);
+        assertThat(aplicadas.get("IMPAR")).isSortedAccordingTo(Integer::compare).hasSize(15);
+    }
+
+    @Test
+    void testProcesarAislaLaFilaConErrorDeBaseDeDatos_SinPerderElRestoDelLote() {
+        // Arrange: lotes de 4; A3 viola una restricción de la BD
+        ReflectionTestUtils.setField(cargaMasivaHelper, "tamanioLote", 4);
+        MultipartFile file = new ArchivoGenerado(8);
+        List<List<String>> intentos = new ArrayList<>();
+
+        // Act
+        ProcesamientoResult result = cargaMasivaHelper.procesarPorLotes(file, TestCsvRequest.class, fragmento -> {
+            intentos.add(fragmento.stream().map(TestCsvRequest::getId).toList());
+            return req -> {
+                if ("A3".equals(req.getId())) throw new DataIntegrityViolationException("llave duplicada");
+                if ("A6".equals(req.getId())) throw new RuntimeException("Error simulado");
+            };
+        });
+
+        // Assert: el lote con A3 se revierte y se reintenta por mitades hasta aislarla
+        assertThat(intentos).containsExactly(
+                List.of("A1", "A2", "A3", "A4"),
+                List.of("A1", "A2"),
+                List.of("A3", "A4"),
+                List.of("A3"),
+                List.of("A4"),
+                List.of("A5", "A6", "A7", "A8"));
+        assertThat(result.getTotal()).isEqualTo(8);
+        assertThat(result.getExitos()).isEqualTo(6);
+        assertThat(result.getErrores())
+                .extracting(ProcesamientoResult.ErrorDetalle::getIdentifier, ProcesamientoResult.ErrorDetalle::getMensaje)
+                .containsExactly(
+                        tuple("A3", "No se pudo guardar la fila: llave duplicada"),
+                        tuple("A6", "Error simulado"));
+        // Se revierten [A1..A4], [A3, A4] y [A3]; se confirman [A1, A2], [A4] y [A5..A8]
+        verify(transactionManager, times(3)).rollback(any());
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void testProcesarEnParaleloAislaLaFila_CuandoElFragmentoNoSePuedeConfirmar() {
+        // Arrange
+        ReflectionTestUtils.setField(cargaMasivaHelper, "particiones", 2);
+        ReflectionTestUtils.setField(cargaMasivaHelper, "tamanioLote", 4);
+        MultipartFile file = new ArchivoGenerado(8);
+
+        // Act: el fragmento que contiene A5 falla al prepararse (p. ej. el upsert del lote viola una restricción)
+        ProcesamientoResult result = cargaMasivaHelper.procesarPorLotes(file, TestCsvRequest.class, fragmento -> {
+            if (fragmento.stream().anyMatch(req -> "A5".equals(req.getId()))) {
+                throw new DataIntegrityViolationException("llave duplicada");
+            }
+            return req -> {};
+        });
+
+        // Assert: las demás filas del fragmento se confirman al reintentarlo por mitades
+        assertThat(result.getTotal()).isEqualTo(8);
+        assertThat(result.getExitos()).isEqualTo(7);
+        assertThat(result.getErrores())
+                .extracting(ProcesamientoResult.ErrorDetalle::getIdentifier, ProcesamientoResult.ErrorDetalle::getMensaje)
+                .containsExactly(tuple("A5", "No se pudo guardar la fila: llave duplicada"));
+    }
+
+    @Test
+    void testProcesarAbortaLaCarga_CuandoNoSePuedeAbrirLaTransaccion() {
+        // Arrange: pool agotado; 1 000 filas en lotes de 500
+        ReflectionTestUtils.setField(cargaMasivaHelper, "tamanioLote", 500);
+        MultipartFile file = new ArchivoGenerado(1_000);
+        when(transactionManager.getTransaction(any()))
+                .thenThrow(new CannotCreateTransactionException("Connection is not available, request timed out"));
+
+        // Act & Assert: falla en el primer lote en vez de partirlo y reportar cada fila como error
+        assertThatThrownBy(() -> cargaMasivaHelper.procesar(file, TestCsvRequest.class, req -> {}))
+                .isInstanceOf(CannotCreateTransactionException.class);
+        verify(transactionManager, times(1)).getTransaction(any());
+    }
+
+    @Test
+    void testProcesarEnParaleloAbortaLaCarga_CuandoLaBaseNoResponde() {
+        // Arrange: 2 particiones, lotes de 4; más fragmentos que lugares en la cola de pendientes
+        ReflectionTestUtils.setField(cargaMasivaHelper, "particiones", 2);
+        ReflectionTestUtils.setField(cargaMasivaHelper, "tamanioLote", 4);
+        MultipartFile file = new ArchivoGenerado(100);
+        AtomicInteger intentos = new AtomicInteger();
+
+        // Act & Assert: el error se propaga sin bloquear la lectura y sin reintentar por mitades
+        assertThatThrownBy(() -> cargaMasivaHelper.procesarPorLotes(file, TestCsvRequest.class, fragmento -> {
+            intentos.incrementAndGet();
+            throw new DataAccessResourceFailureException("conexión perdida");
+        })).isInstanceOf(DataAccessResourceFailureException.class);
+        assertThat(intentos.get()).isLessThanOrEqualTo(4);
+        verify(transactionManager, never()).commit(any());
+    }
+
+    // Benchmark: mvn test -Dtest=CargaMasivaHelperTest#benchmarkParticionesPromedios -Dbenchmark=true
+    // Cada fragmento simula su costo en BD (consulta de estudiantes + inserts en batch) con una espera
+    // de 1 ms + 10 µs por fila; mide cuánto escala el reparto, no el rendimiento real de PostgreSQL
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkParticionesPromedios() {
+        int totalFilas = 200_000;
+        ReflectionTestUtils.setField(cargaMasivaHelper, "tamanioLote", 500);
+        MultipartFile file = new ArchivoGenerado(totalFilas, "codigo;ciclo;promedio",
+                i -> String.format("%09d;%d;%d.%d", i, i % 10 + 1, i % 20, i % 10));
+        ProcesadorLote<PromedioCsvRequest> procesador = fragmento -> {
+            LockSupport.parkNanos(1_000_000L + fragmento.size() * 10_000L);
+            return fila -> {
+                if (fila.getPromedio() < 0 || fila.getPromedio() > 20) {
+                    throw new RuntimeException("El promedio debe estar entre 0 y 20");
+                }
+            };
+        };
+
+        for (int particiones : new int[]{1, 2, 4, 8}) {
+            ReflectionTestUtils.setField(cargaMasivaHelper, "particiones", particiones);
+            long inicio = System.nanoTime();
+            ProcesamientoResult result = cargaMasivaHelper.procesarPorLotes(file, PromedioCsvRequest.class, procesador);
+            long ms = (System.nanoTime() - inicio) / 1_000_000;
+
+            System.out.println("Particiones: " + particiones + " -> " + ms + " ms (" + totalFilas * 1000L / Math.max(ms, 1) + " filas/s)");
+            assertThat(result.getExitos()).isEqualTo(totalFilas);
+        }
+    }
+
+    // Archivo CSV cuyo contenido se genera mientras se lee
+    private static class ArchivoGenerado extends MockMultipartFile {
+        private final int filas;
+        private final String cabecera;
+        private final IntFunction<String> linea;
+        private final AtomicInteger lineasGeneradas = new AtomicInteger();
+
+        ArchivoGenerado(int filas) {
+            this(filas, "id;valor", i -> "A" + i + ";" + i);
+        }
+
+        ArchivoGenerado(int filas, String cabecera, IntFunction<String> linea) {
+            super("file", "grande.csv", "text/csv", new byte[0]);
+            this.filas = filas;
+            this.cabecera = cabecera;
+            this.linea = linea;
+        }
+
+        int getLineasGeneradas() {
+            return lineasGeneradas.get();
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            lineasGeneradas.set(0); // Cada lectura del archivo cuenta desde el inicio
+            Iterator<String> lineas = Stream.concat(Stream.of(cabecera),
+                    IntStream.rangeClosed(1, filas).mapToObj(i -> {
+                        lineasGeneradas.incrementAndGet();
+                        return linea.apply(i);
+                    })).iterator();
+            return new InputStream() {
+                private byte[] actual = new byte[0];
+                private int posicion = 0;
+
+                @Override
+                public int read() {
+                    if (posicion == actual.length) {
+                        if (!lineas.hasNext()) return -1;
+                        actual = (lineas.next() + "\n").getBytes(StandardCharsets.UTF_8);
+                        posicion = 0;
+                    }
+                    return actual[posicion++];
+                }
+            };
+        }
+    }
 }
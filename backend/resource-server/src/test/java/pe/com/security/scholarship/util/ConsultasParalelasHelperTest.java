@@ -0,0 +1,145 @@
+package pe.com.security.scholarship.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ConsultasParalelasHelperTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ConsultasParalelasHelper consultasParalelasHelper;
+
+    @BeforeEach
+    void setUp() {
+        consultasParalelasHelper = new ConsultasParalelasHelper(transactionManager, 2, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        consultasParalelasHelper.cerrar();
+    }
+
+    @Test
+    void enviar_DeberiaEjecutarEnTransaccionPropiaDeSoloLectura() {
+        // Act
+        String resultado = ConsultasParalelasHelper.obtener(consultasParalelasHelper.enviar(() -> "ok"));
+
+        // Assert
+        assertThat(resultado).isEqualTo("ok");
+        ArgumentCaptor<TransactionDefinition> captor = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(captor.capture());
+        assertThat(captor.getValue().isReadOnly()).isTrue();
+        assertThat(captor.getValue().getPropagationBehavior())
+                .isEqualTo(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Test
+    void enviar_NoDeberiaSuperarElLimiteDeConsultasSimultaneas() {
+        // Arrange
+        AtomicInteger enCurso = new AtomicInteger();
+        AtomicInteger maximo = new AtomicInteger();
+
+        // Act
+        List<CompletableFuture<Integer>> futuros = IntStream.range(0, 10)
+                .mapToObj(i -> consultasParalelasHelper.enviar(() -> {
+                    maximo.accumulateAndGet(enCurso.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    enCurso.decrementAndGet();
+                    return i;
+                }))
+                .toList();
+
+        // Assert
+        assertThat(futuros).extracting(ConsultasParalelasHelper::obtener).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        assertThat(maximo.get()).isBetween(1, 2);
+        verify(transactionManager, atLeastOnce()).commit(any());
+    }
+
+    @Test
+    void ejecutarAparte_NoDeberiaUsarLosRecursosDelHiloLlamador() {
+        // Arrange: lo que open-in-view deja ligado al hilo de la petición
+        Object entityManagerFactory = new Object();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, "entityManagerDeLaPeticion");
+
+        // Act
+        boolean visible;
+        try {
+            visible = consultasParalelasHelper.ejecutarAparte(
+                    () -> TransactionSynchronizationManager.hasResource(entityManagerFactory));
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+        }
+
+        // Assert
+        assertThat(visible).isFalse();
+    }
+
+    @Test
+    void constructor_DeberiaDejarUnaConexionLibre_CuandoLasConsultasSuperanElPool() {
+        // Arrange
+        ConsultasParalelasHelper helper = new ConsultasParalelasHelper(transactionManager, 5, 3);
+        AtomicInteger enCurso = new AtomicInteger();
+        AtomicInteger maximo = new AtomicInteger();
+
+        // Act
+        try {
+            List<CompletableFuture<Integer>> futuros = IntStream.range(0, 6)
+                    .mapToObj(i -> helper.enviar(() -> {
+                        maximo.accumulateAndGet(enCurso.incrementAndGet(), Math::max);
+                        try {
+                            Thread.sleep(20);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        enCurso.decrementAndGet();
+                        return i;
+                    }))
+                    .toList();
+            futuros.forEach(ConsultasParalelasHelper::obtener);
+        } finally {
+            helper.cerrar();
+        }
+
+        // Assert
+        assertThat(maximo.get()).isBetween(1, 2);
+    }
+
+    @Test
+    void obtener_DeberiaRelanzarExcepcionOriginal_CuandoLaConsultaFalla() {
+        // Act
+        CompletableFuture<Object> futuro = consultasParalelasHelper.enviar(() -> {
+            throw new QueryTimeoutException("timeout");
+        });
+
+        // Assert
+        assertThatThrownBy(() -> ConsultasParalelasHelper.obtener(futuro))
+                .isInstanceOf(QueryTimeoutException.class)
+                .hasMessage("timeout");
+    }
+}
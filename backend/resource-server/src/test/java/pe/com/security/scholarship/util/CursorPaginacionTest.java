@@ -0,0 +1,83 @@
+package pe.com.security.scholarship.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import pe.com.security.scholarship.dto.CursorPostulante;
+import pe.com.security.scholarship.dto.projection.PostulanteConvocatoriaProjection;
+import pe.com.security.scholarship.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CursorPaginacionTest {
+
+    private final Sort sort = Sort.by(Sort.Order.desc("promedioGeneral"), Sort.Order.asc("fechaPostulacion"));
+
+    private PostulanteConvocatoriaProjection ultimo(Double promedio, Boolean becado) {
+        PostulanteConvocatoriaProjection ultimo = mock(PostulanteConvocatoriaProjection.class);
+        when(ultimo.getIdPostulacion()).thenReturn(42);
+        when(ultimo.getFechaPostulacion()).thenReturn(LocalDate.of(2026, 3, 15));
+        when(ultimo.getPromedioGeneral()).thenReturn(promedio);
+        when(ultimo.getBecado()).thenReturn(becado);
+        return ultimo;
+    }
+
+    @Test
+    void decodificar_DeberiaRecuperarLaPosicion_CuandoSeUsaElMismoOrden() {
+        // Act
+        CursorPostulante cursor = CursorPaginacion.decodificar(CursorPaginacion.codificar(sort, ultimo(15.125, true)), sort);
+
+        // Assert
+        assertThat(cursor.getIdPostulacion()).isEqualTo(42);
+        assertThat(cursor.getFechaPostulacion()).isEqualTo(LocalDate.of(2026, 3, 15));
+        assertThat(cursor.getPromedioGeneral()).isEqualTo(15.125);
+        assertThat(cursor.getBecado()).isTrue();
+    }
+
+    @Test
+    void decodificar_DeberiaConservarNulos() {
+        // Act
+        CursorPostulante cursor = CursorPaginacion.decodificar(CursorPaginacion.codificar(sort, ultimo(null, null)), sort);
+
+        // Assert
+        assertThat(cursor.getPromedioGeneral()).isNull();
+        assertThat(cursor.getBecado()).isNull();
+        assertThat(cursor.getIdPostulacion()).isEqualTo(42);
+    }
+
+    @Test
+    void decodificar_DeberiaRetornarNull_CuandoEsLaPrimeraPagina() {
+        assertThat(CursorPaginacion.decodificar("", sort)).isNull();
+        assertThat(CursorPaginacion.decodificar(null, sort)).isNull();
+    }
+
+    @Test
+    void decodificar_DeberiaLanzarBadRequest_CuandoCambiaElOrden() {
+        // Arrange
+        String cursor = CursorPaginacion.codificar(sort, ultimo(15.0, false));
+
+        // Act & Assert
+        assertThatThrownBy(() -> CursorPaginacion.decodificar(cursor, Sort.by(Sort.Direction.DESC, "fechaPostulacion")))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("El cursor no corresponde al ordenamiento solicitado");
+    }
+
+    @Test
+    void decodificar_DeberiaLanzarBadRequest_CuandoElCursorEsInvalido() {
+        String alterado = Base64.getUrlEncoder()
+                .encodeToString("v1|promedioGeneral:DESC,fechaPostulacion:ASC|hoy||true|42".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> CursorPaginacion.decodificar("%%no-base64%%", sort))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Cursor de paginación inválido");
+        assertThatThrownBy(() -> CursorPaginacion.decodificar(alterado, sort))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Cursor de paginación inválido");
+    }
+}
@@ -0,0 +1,135 @@
+package pe.com.security.scholarship.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import pe.com.security.scholarship.domain.enums.FormatoExportacion;
+import pe.com.security.scholarship.dto.projection.PostulanteConvocatoriaProjection;
+import pe.com.security.scholarship.repository.PostulacionRepository;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ExportacionPostulantesHelperTest {
+
+    private static final UUID ID_ESTUDIANTE = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    @Mock
+    private PostulacionRepository postulacionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ExportacionPostulantesHelper exportacionPostulantesHelper;
+    private final Sort sort = Sort.by(Sort.Direction.DESC, "fechaPostulacion");
+
+    @BeforeEach
+    void setUp() {
+        exportacionPostulantesHelper = new ExportacionPostulantesHelper(postulacionRepository, JsonMapper.builder().build(),
+                transactionManager, 2);
+    }
+
+    private PostulanteConvocatoriaProjection postulante(String codigo, String nombre, Double promedio, Boolean becado) {
+        Map<String, Object> fila = new HashMap<>();
+        fila.put("idEstudiante", ID_ESTUDIANTE);
+        fila.put("codigo", codigo);
+        fila.put("nombreCompleto", nombre);
+        fila.put("promedioGeneral", promedio);
+        fila.put("becado", becado);
+        fila.put("fechaPostulacion", LocalDate.of(2026, 3, 15));
+        return new SpelAwareProxyProjectionFactory().createProjection(PostulanteConvocatoriaProjection.class, fila);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void devolverFilas(List<PostulanteConvocatoriaProjection> filas) {
+        doAnswer(invocation -> {
+            Consumer<PostulanteConvocatoriaProjection> consumidor = invocation.getArgument(3);
+            filas.forEach(consumidor);
+            return null;
+        }).when(postulacionRepository).recorrerPostulantes(eq(1), eq(sort), eq(2), any(Consumer.class));
+    }
+
+    @Test
+    void exportar_DeberiaEscribirCsvConCabecera() throws IOException {
+        // Arrange
+        devolverFilas(List.of(
+                postulante("E001", "Ana Díaz", 17.5, true),
+                postulante("E002", "Luis; Pérez", null, null)));
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        // Act
+        long filas = exportacionPostulantesHelper.exportar(1, sort, FormatoExportacion.CSV, salida);
+
+        // Assert
+        assertThat(filas).isEqualTo(2);
+        assertThat(salida.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "idEstudiante;codigo;nombreCompleto;becado;promedioGeneral;fechaPostulacion\n"
+                        + ID_ESTUDIANTE + ";E001;Ana Díaz;true;17.5;2026-03-15\n"
+                        + ID_ESTUDIANTE + ";E002;\"Luis; Pérez\";;;2026-03-15\n");
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void exportar_DeberiaEscribirUnObjetoJsonPorLinea() throws IOException {
+        // Arrange
+        devolverFilas(List.of(
+                postulante("E001", "Ana Díaz", 17.5, true),
+                postulante("E002", "Luis Pérez", 12.0, false),
+                postulante("E003", "Eva Ruiz", 14.0, false)));
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        // Act
+        long filas = exportacionPostulantesHelper.exportar(1, sort, FormatoExportacion.NDJSON, salida);
+
+        // Assert
+        assertThat(filas).isEqualTo(3);
+        List<String> lineas = salida.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lineas).hasSize(3);
+        assertThat(lineas.getFirst())
+                .contains("\"codigo\":\"E001\"")
+                .contains("\"becado\":true")
+                .contains("\"fechaPostulacion\":\"2026-03-15\"");
+    }
+
+    @Test
+    void exportar_DeberiaLanzarIOException_CuandoElClienteSeDesconecta() {
+        // Arrange
+        devolverFilas(List.of(
+                postulante("E001", "Ana Díaz", 17.5, true),
+                postulante("E002", "Luis Pérez", 12.0, false)));
+        OutputStream cerrada = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        // Act & Assert
+        assertThatThrownBy(() -> exportacionPostulantesHelper.exportar(1, sort, FormatoExportacion.NDJSON, cerrada))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Broken pipe");
+        verify(transactionManager).rollback(any());
+    }
+}
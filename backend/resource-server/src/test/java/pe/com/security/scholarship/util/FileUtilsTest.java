@@ -4,6 +4,11 @@ import org.junit.jupiter.api.Test;
 import org.springframework.mock.web.MockMultipartFile;
 import pe.com.security.scholarship.exception.BadRequestException;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -58,4 +63,25 @@ class FileUtilsTest {
         assertThatCode(() -> FileUtils.validarCsv(file))
                 .doesNotThrowAnyException();
     }
+
+    @Test
+    void calcularSha256_DeberiaCoincidirConVectorConocido() {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "carga.csv", "text/csv", "abc".getBytes(StandardCharsets.UTF_8));
+
+        // Act & Assert
+        assertThat(FileUtils.calcularSha256(file))
+                .isEqualTo("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+    }
+
+    @Test
+    void calcularSha256_DeberiaLeerArchivosMayoresAlBuffer() throws Exception {
+        // Arrange: más de un bloque de lectura
+        byte[] contenido = "20201001;5;15.5\n".repeat(10_000).getBytes(StandardCharsets.UTF_8);
+        MockMultipartFile file = new MockMultipartFile("file", "carga.csv", "text/csv", contenido);
+        String esperado = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(contenido));
+
+        // Act & Assert
+        assertThat(FileUtils.calcularSha256(file)).isEqualTo(esperado);
+    }
 }
@@ -0,0 +1,188 @@
+package pe.com.security.scholarship.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+import pe.com.security.scholarship.domain.entity.Empleado;
+import pe.com.security.scholarship.domain.entity.Estudiante;
+import pe.com.security.scholarship.dto.UsuarioActual;
+import pe.com.security.scholarship.dto.projection.UsuarioActualProjection;
+import pe.com.security.scholarship.repository.EmpleadoRepository;
+import pe.com.security.scholarship.repository.EstudianteRepository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UsuarioActualHelperTest {
+
+    private static final String ENDPOINT = "/api/v1/matriculas/intencion";
+
+    @Mock
+    private EstudianteRepository estudianteRepository;
+
+    @Mock
+    private EmpleadoRepository empleadoRepository;
+
+    private UsuarioActualHelper usuarioActualHelper;
+    private MockedStatic<SecurityUtils> securityUtilsMock;
+    private final UUID idUsuario = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        usuarioActualHelper = new UsuarioActualHelper(estudianteRepository, empleadoRepository, 100);
+        securityUtilsMock = Mockito.mockStatic(SecurityUtils.class);
+        securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(idUsuario);
+    }
+
+    @AfterEach
+    void tearDown() {
+        securityUtilsMock.close();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private void iniciarPeticion() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, ENDPOINT);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private static UsuarioActualProjection usuario(UUID id) {
+        return new UsuarioActualProjection() {
+            public UUID getId() { return id; }
+            public String getCodigo() { return "C" + id.toString().substring(0, 8); }
+        };
+    }
+
+    @Test
+    void getEstudiante_DeberiaConsultarUnaSolaVez_CuandoSeRepiteEnLaMismaPeticion() {
+        // Arrange
+        UUID idEstudiante = UUID.randomUUID();
+        Estudiante estudiante = Estudiante.builder().id(idEstudiante).build();
+        when(estudianteRepository.findUsuarioActualByIdUsuario(idUsuario)).thenReturn(Optional.of(usuario(idEstudiante)));
+        when(estudianteRepository.getReferenceById(idEstudiante)).thenReturn(estudiante);
+        iniciarPeticion();
+
+        // Act
+        Optional<Estudiante> primero = usuarioActualHelper.getEstudiante();
+        Optional<Estudiante> segundo = usuarioActualHelper.getEstudiante();
+
+        // Assert
+        assertThat(primero).containsSame(estudiante);
+        assertThat(segundo).containsSame(estudiante);
+        verify(estudianteRepository, times(1)).findUsuarioActualByIdUsuario(idUsuario);
+        assertThat(usuarioActualHelper.getMetricas().get(ENDPOINT))
+                .isEqualTo(new UsuarioActualHelper.ResumenResoluciones(1, 0, 1));
+    }
+
+    @Test
+    void getEstudiante_DeberiaUsarCache_CuandoLlegaOtraPeticionDelMismoUsuario() {
+        // Arrange
+        UUID idEstudiante = UUID.randomUUID();
+        when(estudianteRepository.findUsuarioActualByIdUsuario(idUsuario)).thenReturn(Optional.of(usuario(idEstudiante)));
+        when(estudianteRepository.getReferenceById(idEstudiante))
+                .thenReturn(Estudiante.builder().id(idEstudiante).build());
+
+        // Act
+        iniciarPeticion();
+        usuarioActualHelper.getEstudiante();
+        iniciarPeticion();
+        Optional<Estudiante> resultado = usuarioActualHelper.getEstudiante();
+
+        // Assert
+        assertThat(resultado).map(Estudiante::getId).contains(idEstudiante);
+        verify(estudianteRepository, times(1)).findUsuarioActualByIdUsuario(idUsuario);
+        UsuarioActualHelper.ResumenResoluciones resumen = usuarioActualHelper.getMetricas().get(ENDPOINT);
+        assertThat(resumen.cache()).isEqualTo(1);
+        assertThat(resumen.consultasAhorradas()).isEqualTo(1);
+        assertThat(resumen.total()).isEqualTo(2);
+    }
+
+    @Test
+    void getEmpleado_DeberiaUsarCache_CuandoNoHayPeticion() {
+        // Arrange
+        UUID idEmpleado = UUID.randomUUID();
+        when(empleadoRepository.findUsuarioActualByIdUsuario(idUsuario)).thenReturn(Optional.of(usuario(idEmpleado)));
+        when(empleadoRepository.getReferenceById(idEmpleado)).thenReturn(Empleado.builder().id(idEmpleado).build());
+
+        // Act
+        usuarioActualHelper.getEmpleado();
+        Optional<Empleado> resultado = usuarioActualHelper.getEmpleado();
+
+        // Assert
+        assertThat(resultado).map(Empleado::getId).contains(idEmpleado);
+        verify(empleadoRepository, times(1)).findUsuarioActualByIdUsuario(idUsuario);
+        assertThat(usuarioActualHelper.getMetricas().get("(sin petición)"))
+                .isEqualTo(new UsuarioActualHelper.ResumenResoluciones(0, 1, 1));
+    }
+
+    @Test
+    void getEstudiante_NoDeberiaGuardarResultado_CuandoUsuarioNoEstaVinculado() {
+        // Arrange
+        when(estudianteRepository.findUsuarioActualByIdUsuario(idUsuario)).thenReturn(Optional.empty());
+        iniciarPeticion();
+
+        // Act
+        Optional<Estudiante> primero = usuarioActualHelper.getEstudiante();
+        Optional<Estudiante> segundo = usuarioActualHelper.getEstudiante();
+
+        // Assert
+        assertThat(primero).isEmpty();
+        assertThat(segundo).isEmpty();
+        verify(estudianteRepository, times(2)).findUsuarioActualByIdUsuario(idUsuario);
+        verify(estudianteRepository, never()).getReferenceById(Mockito.any());
+    }
+
+    @Test
+    void getEmpleado_NoDeberiaReutilizarIdDeEstudiante_CuandoSeResuelvenAmbos() {
+        // Arrange
+        UUID idEstudiante = UUID.randomUUID();
+        when(estudianteRepository.findUsuarioActualByIdUsuario(idUsuario)).thenReturn(Optional.of(usuario(idEstudiante)));
+        when(estudianteRepository.getReferenceById(idEstudiante))
+                .thenReturn(Estudiante.builder().id(idEstudiante).build());
+        when(empleadoRepository.findUsuarioActualByIdUsuario(idUsuario)).thenReturn(Optional.empty());
+        iniciarPeticion();
+
+        // Act
+        usuarioActualHelper.getEstudiante();
+        Optional<Empleado> empleado = usuarioActualHelper.getEmpleado();
+
+        // Assert
+        assertThat(empleado).isEmpty();
+        verify(empleadoRepository).findUsuarioActualByIdUsuario(idUsuario);
+    }
+
+    @Test
+    void getEmpleadoActual_DeberiaDevolverElCodigoSinCargarLaEntidad() {
+        // Arrange
+        UUID idEmpleado = UUID.randomUUID();
+        when(empleadoRepository.findUsuarioActualByIdUsuario(idUsuario)).thenReturn(Optional.of(usuario(idEmpleado)));
+        iniciarPeticion();
+
+        // Act
+        usuarioActualHelper.getEmpleadoActual();
+        Optional<UsuarioActual> resultado = usuarioActualHelper.getEmpleadoActual();
+
+        // Assert: el código viene de la caché, no de la entidad
+        assertThat(resultado).map(UsuarioActual::getCodigo).contains("C" + idEmpleado.toString().substring(0, 8));
+        verify(empleadoRepository, times(1)).findUsuarioActualByIdUsuario(idUsuario);
+        verify(empleadoRepository, never()).getReferenceById(Mockito.any());
+        assertThat(usuarioActualHelper.getMetricas().get(ENDPOINT))
+                .isEqualTo(new UsuarioActualHelper.ResumenResoluciones(1, 0, 1));
+    }
+}
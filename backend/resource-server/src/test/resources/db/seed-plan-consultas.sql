@@ -0,0 +1,73 @@
+-- Datos sintéticos para la regresión de planes de consulta (PlanConsultasRepositoryTest).
+-- Los ids se derivan de md5() para poder referenciarlos sin consultar la base.
+
+INSERT INTO usuarios (id, nombres, apellidos, correo, provider)
+SELECT CAST(md5('u' || g) AS uuid), 'Nombre', 'Apellido', 'u' || g || '@test.pe', 'LOCAL'
+FROM generate_series(1, 20001) g;
+
+INSERT INTO carreras (nombre, codigo_facultad)
+SELECT 'Carrera ' || g, 'FAC' || g
+FROM generate_series(1, 10) g;
+
+INSERT INTO empleados (id, id_usuario, codigo_empleado)
+VALUES (CAST(md5('emp') AS uuid), CAST(md5('u20001') AS uuid), 'EMP00001');
+
+INSERT INTO estudiantes (id, id_usuario, codigo_estudiante, id_carrera)
+SELECT CAST(md5('e' || g) AS uuid), CAST(md5('u' || g) AS uuid), 'E' || lpad(g::text, 8, '0'), 1 + g % 10
+FROM generate_series(1, 20000) g;
+
+INSERT INTO periodos_academicos (periodo, fecha_inicio, fecha_fin)
+SELECT lpad((y % 100)::text, 2, '0') || '0' || s,
+       make_date(y, CASE s WHEN 1 THEN 3 ELSE 8 END, 1),
+       make_date(y, CASE s WHEN 1 THEN 7 ELSE 12 END, 15)
+FROM generate_series(EXTRACT(year FROM CURRENT_DATE)::int - 3, EXTRACT(year FROM CURRENT_DATE)::int) y,
+     generate_series(1, 2) s;
+
+INSERT INTO convocatorias (mes, fecha_inicio, fecha_fin, estado, cantidad_vacantes, modo_evaluacion, created_by)
+SELECT 'ENERO', CURRENT_DATE - (g * 30), CURRENT_DATE - (g * 30) + 15,
+       CASE WHEN g = 0 THEN 'APERTURADO' ELSE 'CERRADO' END, 500, 'MIXTO', CAST(md5('emp') AS uuid)
+FROM generate_series(0, 23) g;
+
+INSERT INTO cursos (nombre, codigo, modalidad)
+SELECT 'Curso ' || g, 'C' || lpad(g::text, 4, '0'), 'ONLINE'
+FROM generate_series(1, 20) g;
+
+INSERT INTO secciones (fecha_inicio, id_curso, vacantes_disponibles)
+SELECT CURRENT_DATE + (g % 120) - 60, 1 + g % 20, 30
+FROM generate_series(1, 400) g;
+
+INSERT INTO horarios_seccion (id_seccion, dia_semana, hora_inicio, hora_fin)
+SELECT 1 + g % 400, 'LUNES', '08:00', '10:00'
+FROM generate_series(1, 800) g;
+
+INSERT INTO evaluaciones_socioeconomicas (id_estudiante, fecha_evaluacion, nivel_socioeconomico, fecha_expiracion, created_by)
+SELECT CAST(md5('e' || (1 + g % 20000)) AS uuid),
+       CURRENT_DATE - (g % 700),
+       (ARRAY['BUENO', 'REGULAR', 'DEFICIENTE'])[1 + g % 3],
+       CURRENT_DATE - (g % 700) + 365,
+       CAST(md5('emp') AS uuid)
+FROM generate_series(1, 40000) g;
+
+INSERT INTO promedios_ponderados (id_estudiante, ciclo_relativo, promedio_ponderado, id_periodo, id_empleado)
+SELECT CAST(md5('e' || e) AS uuid), 1 + e % 10, 10 + (e % 100) / 10.0, p.id, CAST(md5('emp') AS uuid)
+FROM generate_series(1, 20000) e
+CROSS JOIN periodos_academicos p;
+
+INSERT INTO postulaciones (id_estudiante, id_convocatoria, fecha_postulacion, promedio_general, aceptado)
+SELECT CAST(md5('e' || (1 + g % 20000)) AS uuid), 1 + g % 24, CURRENT_DATE - (g % 700),
+       10 + (g % 100) / 10.0, g % 3 = 0
+FROM generate_series(1, 60000) g;
+
+INSERT INTO cursos_postulacion (id_curso, id_postulacion)
+SELECT 1 + p.id % 20, p.id
+FROM postulaciones p;
+
+INSERT INTO matriculas (id_postulacion, id_seccion, fecha_solicitud, estado)
+SELECT p.id, 1 + p.id % 400, CURRENT_TIMESTAMP - make_interval(mins => p.id),
+       (ARRAY['PENDIENTE', 'ACEPTADO', 'RECHAZADO'])[1 + p.id % 3]
+FROM postulaciones p
+WHERE p.aceptado IS TRUE;
+
+ANALYZE usuarios, estudiantes, convocatorias, secciones, evaluaciones_socioeconomicas,
+        evaluaciones_socioeconomicas_vigentes, promedios_ponderados, promedios_ponderados_vigentes,
+        postulaciones, cursos_postulacion, matriculas;
@@ -0,0 +1,68 @@
+--------------------------------------------------------------------------------
+-- v001: ÍNDICES SECUNDARIOS PARA LAS CONSULTAS FRECUENTES
+-- Idempotente: puede ejecutarse sobre una base ya creada con script.sql
+--------------------------------------------------------------------------------
+
+-- POSTULACIONES
+
+-- Historial del estudiante ordenado por fecha (findLastPostulacion, findByYear, intención de matrícula)
+CREATE INDEX IF NOT EXISTS idx_postulaciones_estudiante_fecha
+    ON postulaciones (id_estudiante, fecha_postulacion DESC);
+
+-- Becas aceptadas del estudiante en el año en curso (cantidadBecasByYear, cantidadMesesBeca, notaUltimaMatricula)
+CREATE INDEX IF NOT EXISTS idx_postulaciones_estudiante_anio_aceptado
+    ON postulaciones (id_estudiante, (EXTRACT(year FROM fecha_postulacion)))
+    WHERE aceptado IS TRUE;
+
+-- Postulantes de una convocatoria; el id permite recorrer los lotes de evaluación por keyset
+CREATE INDEX IF NOT EXISTS idx_postulaciones_convocatoria_id
+    ON postulaciones (id_convocatoria, id);
+
+-- CURSOS DE LA POSTULACIÓN (la PK empieza por id_curso)
+CREATE INDEX IF NOT EXISTS idx_cursos_postulacion_postulacion
+    ON cursos_postulacion (id_postulacion);
+
+-- MATRÍCULAS
+
+-- Matrícula de una postulación por estado (seMatriculo, tasas de la convocatoria)
+CREATE INDEX IF NOT EXISTS idx_matriculas_postulacion_estado
+    ON matriculas (id_postulacion, estado);
+
+-- Becados de una sección por estado (findBecadosIntencionMatricula, actualizarNota, vacantes)
+CREATE INDEX IF NOT EXISTS idx_matriculas_seccion_estado
+    ON matriculas (id_seccion, estado);
+
+-- Cola de intenciones pendientes por sección en orden de llegada (matricularPostulantes, rechazarPostulantes)
+CREATE INDEX IF NOT EXISTS idx_matriculas_pendientes_seccion
+    ON matriculas (id_seccion, fecha_solicitud)
+    WHERE estado = 'PENDIENTE';
+
+-- SECCIONES Y HORARIOS
+CREATE INDEX IF NOT EXISTS idx_secciones_fecha_inicio
+    ON secciones (fecha_inicio);
+
+CREATE INDEX IF NOT EXISTS idx_secciones_curso
+    ON secciones (id_curso);
+
+CREATE INDEX IF NOT EXISTS idx_horarios_seccion_seccion
+    ON horarios_seccion (id_seccion);
+
+-- CONVOCATORIAS
+
+-- Última convocatoria cerrada del año (getUltimaConvocatoriaCerrada)
+CREATE INDEX IF NOT EXISTS idx_convocatorias_estado_fecha_fin
+    ON convocatorias (estado, fecha_fin DESC);
+
+-- Historial por año (findByYear)
+CREATE INDEX IF NOT EXISTS idx_convocatorias_anio_inicio
+    ON convocatorias ((EXTRACT(year FROM fecha_inicio)));
+
+-- EVALUACIONES Y PROMEDIOS (claves foráneas consultadas por estudiante)
+CREATE INDEX IF NOT EXISTS idx_evaluaciones_socio_estudiante
+    ON evaluaciones_socioeconomicas (id_estudiante);
+
+CREATE INDEX IF NOT EXISTS idx_promedios_estudiante_periodo
+    ON promedios_ponderados (id_estudiante, id_periodo);
+
+CREATE INDEX IF NOT EXISTS idx_estudiantes_carrera
+    ON estudiantes (id_carrera);
@@ -0,0 +1,26 @@
+--------------------------------------------------------------------------------
+-- v002: SNAPSHOT DE ESTADÍSTICAS POR CONVOCATORIA
+-- Conteos y rankings del detalle de convocatoria. Se actualiza de forma incremental
+-- al registrar postulaciones y matrículas, y se recalcula tras la evaluación
+--------------------------------------------------------------------------------
+
+CREATE TABLE IF NOT EXISTS estadisticas_convocatoria (
+	id_convocatoria INT primary key,
+	cantidad_postulantes INT not null DEFAULT 0,
+	cantidad_aceptados INT not null DEFAULT 0,
+	cantidad_matriculados INT not null DEFAULT 0,
+
+	-- Rankings como objeto {etiqueta: cantidad}
+	ranking_socioeconomico JSONB not null DEFAULT '{}',
+	ranking_ciclo JSONB not null DEFAULT '{}',
+	ranking_carrera JSONB not null DEFAULT '{}',
+
+	updated_at TIMESTAMPTZ,
+
+	constraint fk_estadistica_convocatoria foreign key (id_convocatoria) REFERENCES convocatorias(id)
+);
+
+DROP TRIGGER IF EXISTS trg_estadisticas_convocatoria_updated_at ON estadisticas_convocatoria;
+CREATE TRIGGER trg_estadisticas_convocatoria_updated_at
+BEFORE UPDATE ON estadisticas_convocatoria
+FOR EACH ROW EXECUTE FUNCTION fn_update_timestamp();
@@ -0,0 +1,21 @@
+--------------------------------------------------------------------------------
+-- v003: UN PROMEDIO POR ESTUDIANTE Y PERIODO
+-- La carga de promedios pasa a ser un upsert (INSERT ... ON CONFLICT): volver a subir
+-- el archivo de un periodo actualiza los registros en lugar de duplicarlos
+--------------------------------------------------------------------------------
+
+-- Se conserva el último promedio registrado de cada (estudiante, periodo) y se descartan las cargas repetidas
+DELETE FROM promedios_ponderados p
+USING promedios_ponderados o
+WHERE o.id_estudiante = p.id_estudiante
+  AND o.id_periodo = p.id_periodo
+  AND (o.created_at, o.id) > (p.created_at, p.id);
+
+ALTER TABLE promedios_ponderados
+    ADD CONSTRAINT uq_promedio_estudiante_periodo UNIQUE (id_estudiante, id_periodo);
+
+-- La restricción única ya indexa (id_estudiante, id_periodo)
+DROP INDEX IF EXISTS idx_promedios_estudiante_periodo;
+
+-- Los inserts ya no pasan por el pool de ids de Hibernate: cada fila toma su id de la secuencia
+ALTER SEQUENCE promedios_ponderados_id_seq INCREMENT BY 1;
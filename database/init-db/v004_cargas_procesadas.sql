@@ -0,0 +1,24 @@
+--------------------------------------------------------------------------------
+-- v004: REGISTRO DE ARCHIVOS PROCESADOS EN CARGAS MASIVAS
+-- Huella SHA-256 de cada archivo por tipo de carga y destino (periodo o sección).
+-- Si se vuelve a subir un archivo idéntico se devuelve el resultado guardado sin
+-- procesar de nuevo sus filas
+--------------------------------------------------------------------------------
+
+CREATE TABLE IF NOT EXISTS cargas_procesadas (
+	id SERIAL primary key,
+	tipo VARCHAR(15) not null,
+	-- Periodo (promedios), id de sección (notas) o 'GENERAL' (evaluaciones)
+	objetivo VARCHAR(30) not null,
+	hash_archivo VARCHAR(64) not null,
+	resultado JSONB not null,
+	created_at TIMESTAMPTZ not null DEFAULT CURRENT_TIMESTAMP,
+	updated_at TIMESTAMPTZ,
+
+	constraint uq_carga_procesada unique (tipo, objetivo, hash_archivo)
+);
+
+DROP TRIGGER IF EXISTS trg_cargas_procesadas_updated_at ON cargas_procesadas;
+CREATE TRIGGER trg_cargas_procesadas_updated_at
+BEFORE UPDATE ON cargas_procesadas
+FOR EACH ROW EXECUTE FUNCTION fn_update_timestamp();
@@ -0,0 +1,21 @@
+--------------------------------------------------------------------------------
+-- v005: UNA INTENCIÓN DE MATRÍCULA PENDIENTE POR POSTULACIÓN
+-- La verificación previa del servicio no basta cuando el mismo estudiante envía
+-- varias solicitudes a la vez: la base rechaza la segunda intención pendiente
+--------------------------------------------------------------------------------
+
+-- Se conserva la intención pendiente más antigua de cada postulación y se rechazan las repetidas
+UPDATE matriculas m
+SET estado = 'RECHAZADO'
+WHERE m.estado = 'PENDIENTE'
+  AND EXISTS (
+      SELECT 1
+      FROM matriculas o
+      WHERE o.id_postulacion = m.id_postulacion
+        AND o.estado = 'PENDIENTE'
+        AND (o.fecha_solicitud, o.id) < (m.fecha_solicitud, m.id)
+  );
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_matriculas_pendiente_postulacion
+    ON matriculas (id_postulacion)
+    WHERE estado = 'PENDIENTE';
@@ -0,0 +1,23 @@
+--------------------------------------------------------------------------------
+-- v006: CONTADOR DE CUPOS OCUPADOS POR SECCIÓN
+-- Matrículas aceptadas de cada sección, mantenido por UPDATE atómicos al aprobar
+-- o al matricular por ampliación de vacantes: las vacantes restantes se leen de
+-- la propia fila sin contar matrículas
+--------------------------------------------------------------------------------
+
+ALTER TABLE secciones ADD COLUMN IF NOT EXISTS cupos_ocupados INT NOT NULL DEFAULT 0;
+
+UPDATE secciones s
+SET cupos_ocupados = m.aceptados
+FROM (
+    SELECT id_seccion, COUNT(*) AS aceptados
+    FROM matriculas
+    WHERE estado = 'ACEPTADO'
+    GROUP BY id_seccion
+) m
+WHERE m.id_seccion = s.id;
+
+-- NOT VALID: no se revisan las secciones que ya estuvieran sobrepasadas, solo los cambios siguientes
+ALTER TABLE secciones DROP CONSTRAINT IF EXISTS ck_secciones_cupos_ocupados;
+ALTER TABLE secciones ADD CONSTRAINT ck_secciones_cupos_ocupados
+    CHECK (cupos_ocupados >= 0 AND (vacantes_disponibles IS NULL OR cupos_ocupados <= vacantes_disponibles)) NOT VALID;
@@ -0,0 +1,8 @@
+--------------------------------------------------------------------------------
+-- v007: PAGINACIÓN POR CURSOR DE LOS POSTULANTES DE UNA CONVOCATORIA
+-- El orden por defecto (fecha de postulación, id) se recorre como rango del índice
+-- desde la posición del cursor, sin OFFSET
+--------------------------------------------------------------------------------
+
+CREATE INDEX IF NOT EXISTS idx_postulaciones_convocatoria_fecha_id
+    ON postulaciones (id_convocatoria, fecha_postulacion, id);
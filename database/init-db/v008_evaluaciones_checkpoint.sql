@@ -0,0 +1,29 @@
+--------------------------------------------------------------------------------
+-- v008: CHECKPOINT DE LA EVALUACIÓN POR LOTES DE POSTULANTES
+-- Último id de postulación evaluado por convocatoria, confirmado junto con cada
+-- lote: si la evaluación falla se retoma desde ahí en el siguiente intento
+--------------------------------------------------------------------------------
+
+CREATE TABLE IF NOT EXISTS evaluaciones_checkpoint (
+	id_convocatoria int primary key,
+	ultimo_id_postulacion int not null DEFAULT 0,
+	filas_procesadas int not null DEFAULT 0,
+	calificados int not null DEFAULT 0,
+	completado boolean not null DEFAULT false,
+	updated_at TIMESTAMPTZ,
+
+	constraint fk_checkpoint_convocatoria foreign key (id_convocatoria) references convocatorias(id)
+);
+
+DROP TRIGGER IF EXISTS trg_evaluaciones_checkpoint_updated_at ON evaluaciones_checkpoint;
+CREATE TRIGGER trg_evaluaciones_checkpoint_updated_at
+BEFORE UPDATE ON evaluaciones_checkpoint
+FOR EACH ROW EXECUTE FUNCTION fn_update_timestamp();
+
+-- El cron evalúa la última convocatoria cerrada mientras su checkpoint no esté completo:
+-- las convocatorias ya cerradas se dan por evaluadas para no recalcular rankings publicados
+INSERT INTO evaluaciones_checkpoint (id_convocatoria, completado)
+SELECT c.id, true
+FROM convocatorias c
+WHERE c.estado = 'CERRADO'
+ON CONFLICT (id_convocatoria) DO NOTHING;
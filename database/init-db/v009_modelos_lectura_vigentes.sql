@@ -0,0 +1,95 @@
+--------------------------------------------------------------------------------
+-- v009: MODELOS DE LECTURA: EVALUACIÓN Y PROMEDIO VIGENTES POR ESTUDIANTE
+-- Se mantienen por trigger en cada carga masiva, evitando el DISTINCT ON sobre
+-- toda la tabla en la evaluación de postulantes y en los rankings
+--------------------------------------------------------------------------------
+
+-- Evaluación vigente: la de mayor fecha de expiración (y la más reciente ante empate)
+CREATE TABLE IF NOT EXISTS evaluaciones_socioeconomicas_vigentes (
+	id_estudiante UUID primary key,
+	id_evaluacion INT not null,
+	nivel_socioeconomico VARCHAR(10),
+	fecha_expiracion DATE,
+	created_at TIMESTAMPTZ not null,
+
+	constraint fk_eval_vigente_estudiante foreign key (id_estudiante) REFERENCES estudiantes(id),
+	constraint fk_eval_vigente_evaluacion foreign key (id_evaluacion) REFERENCES evaluaciones_socioeconomicas(id)
+);
+
+-- Promedio vigente: el último registrado por estudiante en cada periodo
+CREATE TABLE IF NOT EXISTS promedios_ponderados_vigentes (
+	id_estudiante UUID not null,
+	id_periodo INT not null,
+	id_promedio INT not null,
+	ciclo_relativo INT not null,
+	promedio_ponderado NUMERIC(5,3) not null,
+	created_at TIMESTAMPTZ not null,
+
+	primary key (id_estudiante, id_periodo),
+	constraint fk_prom_vigente_estudiante foreign key (id_estudiante) REFERENCES estudiantes(id),
+	constraint fk_prom_vigente_periodo foreign key (id_periodo) REFERENCES periodos_academicos(id),
+	constraint fk_prom_vigente_promedio foreign key (id_promedio) REFERENCES promedios_ponderados(id)
+);
+
+CREATE OR REPLACE FUNCTION fn_evaluacion_vigente()
+RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO evaluaciones_socioeconomicas_vigentes AS v
+        (id_estudiante, id_evaluacion, nivel_socioeconomico, fecha_expiracion, created_at)
+    VALUES (NEW.id_estudiante, NEW.id, NEW.nivel_socioeconomico, NEW.fecha_expiracion, NEW.created_at)
+    ON CONFLICT (id_estudiante) DO UPDATE
+    SET id_evaluacion = EXCLUDED.id_evaluacion,
+        nivel_socioeconomico = EXCLUDED.nivel_socioeconomico,
+        fecha_expiracion = EXCLUDED.fecha_expiracion,
+        created_at = EXCLUDED.created_at
+    -- Solo reemplaza si es la misma evaluación (actualización) o una más reciente
+    WHERE v.id_evaluacion = EXCLUDED.id_evaluacion
+       OR (COALESCE(EXCLUDED.fecha_expiracion, '-infinity'::date), EXCLUDED.created_at, EXCLUDED.id_evaluacion)
+        > (COALESCE(v.fecha_expiracion, '-infinity'::date), v.created_at, v.id_evaluacion);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION fn_promedio_vigente()
+RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO promedios_ponderados_vigentes AS v
+        (id_estudiante, id_periodo, id_promedio, ciclo_relativo, promedio_ponderado, created_at)
+    VALUES (NEW.id_estudiante, NEW.id_periodo, NEW.id, NEW.ciclo_relativo, NEW.promedio_ponderado, NEW.created_at)
+    ON CONFLICT (id_estudiante, id_periodo) DO UPDATE
+    SET id_promedio = EXCLUDED.id_promedio,
+        ciclo_relativo = EXCLUDED.ciclo_relativo,
+        promedio_ponderado = EXCLUDED.promedio_ponderado,
+        created_at = EXCLUDED.created_at
+    WHERE v.id_promedio = EXCLUDED.id_promedio
+       OR (EXCLUDED.created_at, EXCLUDED.id_promedio) > (v.created_at, v.id_promedio);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_evaluaciones_socio_vigente ON evaluaciones_socioeconomicas;
+CREATE TRIGGER trg_evaluaciones_socio_vigente
+AFTER INSERT OR UPDATE ON evaluaciones_socioeconomicas
+FOR EACH ROW EXECUTE FUNCTION fn_evaluacion_vigente();
+
+DROP TRIGGER IF EXISTS trg_promedios_vigente ON promedios_ponderados;
+CREATE TRIGGER trg_promedios_vigente
+AFTER INSERT OR UPDATE ON promedios_ponderados
+FOR EACH ROW EXECUTE FUNCTION fn_promedio_vigente();
+
+-- Carga inicial de los modelos de lectura con los datos existentes
+INSERT INTO evaluaciones_socioeconomicas_vigentes
+    (id_estudiante, id_evaluacion, nivel_socioeconomico, fecha_expiracion, created_at)
+SELECT DISTINCT ON (id_estudiante)
+    id_estudiante, id, nivel_socioeconomico, fecha_expiracion, created_at
+FROM evaluaciones_socioeconomicas
+ORDER BY id_estudiante, fecha_expiracion DESC NULLS LAST, created_at DESC, id DESC
+ON CONFLICT (id_estudiante) DO NOTHING;
+
+INSERT INTO promedios_ponderados_vigentes
+    (id_estudiante, id_periodo, id_promedio, ciclo_relativo, promedio_ponderado, created_at)
+SELECT DISTINCT ON (id_estudiante, id_periodo)
+    id_estudiante, id_periodo, id, ciclo_relativo, promedio_ponderado, created_at
+FROM promedios_ponderados
+ORDER BY id_estudiante, id_periodo, created_at DESC, id DESC
+ON CONFLICT (id_estudiante, id_periodo) DO NOTHING;
@@ -0,0 +1,9 @@
+--------------------------------------------------------------------------------
+-- v010: ESTADO DEL REGISTRO DE CARGAS PROCESADAS
+-- La subida reserva el archivo EN_PROCESO en una transacción corta y lo marca
+-- COMPLETADO al terminar; si la carga falla se elimina la reserva. Los registros
+-- previos corresponden a cargas ya terminadas
+--------------------------------------------------------------------------------
+
+ALTER TABLE cargas_procesadas
+	ADD COLUMN IF NOT EXISTS estado VARCHAR(15) not null DEFAULT 'COMPLETADO';